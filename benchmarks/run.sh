@@ -0,0 +1,13 @@
+#!/bin/bash
+# JMH性能测试, 结果以JSON格式写入benchmarks/target/jmh-result.json, 便于对比回归
+# 用法: ./benchmarks/run.sh [JMH参数], 例如 ./benchmarks/run.sh TransactionBenchmark -p coins=20
+# 依赖已在本地仓库时加 MVN_ARGS=-o 离线构建
+cd `dirname $0`/..
+mvn -B $MVN_ARGS -P benchmarks -pl benchmarks -am -DskipTests package || exit 1
+# 合约执行需要打包时生成的白名单类used_classes_base, 缺少时跳过示例合约的测试
+EXCLUDE=
+if ! jar tf benchmarks/target/benchmarks.jar | grep -qx used_classes_base; then
+    echo "used_classes_base is not in benchmarks.jar, skip ContractTokenBenchmark"
+    EXCLUDE="-e ContractTokenBenchmark"
+fi
+java -jar benchmarks/target/benchmarks.jar -rf json -rff benchmarks/target/jmh-result.json $EXCLUDE "$@"
@@ -0,0 +1,71 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2019 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.benchmark;
+
+import io.nuls.base.basic.AddressTool;
+import io.nuls.core.crypto.ECKey;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 地址的Base58编码与解码
+ * Base58 encoding and decoding of addresses
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AddressBenchmark {
+
+    private byte[] address;
+
+    private String addressString;
+
+    private byte[] pubKey;
+
+    @Setup
+    public void setUp() {
+        pubKey = new ECKey().getPubKey();
+        address = AddressTool.getAddress(pubKey, TransactionBenchmark.CHAIN_ID);
+        addressString = AddressTool.getStringAddressByBytes(address);
+    }
+
+    @Benchmark
+    public String encode() {
+        return AddressTool.getStringAddressByBytes(address);
+    }
+
+    @Benchmark
+    public byte[] decode() {
+        return AddressTool.getAddress(addressString);
+    }
+
+    @Benchmark
+    public byte[] fromPublicKey() {
+        return AddressTool.getAddress(pubKey, TransactionBenchmark.CHAIN_ID);
+    }
+}
@@ -0,0 +1,231 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2019 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.benchmark;
+
+import io.nuls.base.basic.AddressTool;
+import io.nuls.contract.model.bo.Chain;
+import io.nuls.contract.model.bo.ContractBalance;
+import io.nuls.contract.model.bo.config.ConfigBean;
+import io.nuls.contract.model.dto.BlockHeaderDto;
+import io.nuls.contract.util.VMContext;
+import io.nuls.contract.vm.code.ClassCodeLoader;
+import io.nuls.contract.vm.natives.io.nuls.contract.sdk.NativeAddress;
+import io.nuls.contract.vm.program.ProgramCall;
+import io.nuls.contract.vm.program.ProgramCreate;
+import io.nuls.contract.vm.program.ProgramExecutor;
+import io.nuls.contract.vm.program.ProgramResult;
+import io.nuls.contract.vm.program.impl.ProgramExecutorImpl;
+import io.nuls.core.rockdb.manager.RocksDBManager;
+import io.nuls.core.rockdb.service.RocksDBService;
+import org.ethereum.crypto.HashUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 通过ProgramExecutor调用示例合约: 在临时RocksDB上创建合约模块测试用的nrc20合约, 再以不提交的方式反复调用
+ * Sample contract calls through ProgramExecutor: the nrc20 contract of the contract module tests is created on a
+ * temporary RocksDB and then called repeatedly without committing
+ * <p>
+ * 合约执行依赖打包时生成的used_classes_base白名单类, 缺少时不创建合约, 各方法直接返回, run.sh会排除本类
+ * Contract execution needs the used_classes_base whitelist generated by the release packaging, without it no contract
+ * is created and every method returns at once, run.sh excludes this class
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContractTokenBenchmark {
+
+    private static final int CHAIN_ID = 2;
+
+    private static final String TOKEN = "tNULSeBaN7vAqBANTtVxsiFsam4NcRUbqrCpzK";
+
+    private static final String SENDER = "tNULSeBaMvEtDfvZuukDf2mVyfGo3DdiN8KLRG";
+
+    private static final String RECEIVER = "tNULSeBaMnrs6JKrCy6TQdzYJZkMZJDng7QAsD";
+
+    private File dataDir;
+
+    private ProgramExecutor programExecutor;
+
+    private byte[] stateRoot;
+
+    /**
+     * 白名单类是否可用
+     * Whether the whitelisted classes are available
+     */
+    private static boolean isWhitelistAvailable() {
+        return ClassCodeLoader.getFromResource("java/lang/String") != null;
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        if (!isWhitelistAvailable()) {
+            System.err.println("used_classes_base is not on the classpath, ContractTokenBenchmark is skipped");
+            return;
+        }
+        dataDir = Files.createTempDirectory("nuls-contract-benchmark").toFile();
+        RocksDBService.init(dataDir.getAbsolutePath());
+        Chain chain = new Chain();
+        ConfigBean configBean = new ConfigBean();
+        configBean.setChainId(CHAIN_ID);
+        configBean.setAssetId(1);
+        configBean.setMaxViewGas(100000000L);
+        chain.setConfig(configBean);
+        programExecutor = new ProgramExecutorImpl(new LocalVMContext(), chain);
+        chain.setProgramExecutor(programExecutor);
+
+        byte[] contractCode;
+        try (InputStream in = ContractTokenBenchmark.class.getResourceAsStream("/nrc20-locked-token.jar")) {
+            contractCode = in.readAllBytes();
+        }
+        ProgramCreate programCreate = new ProgramCreate();
+        programCreate.setContractAddress(NativeAddress.toBytes(TOKEN));
+        programCreate.setSender(NativeAddress.toBytes(SENDER));
+        programCreate.setPrice(1);
+        programCreate.setGasLimit(10000000);
+        programCreate.setNumber(1);
+        programCreate.setContractCode(contractCode);
+        programCreate.args("token", "TK", "100000000", "2");
+        ProgramExecutor track = programExecutor.begin(HashUtil.EMPTY_TRIE_HASH);
+        ProgramResult programResult = track.create(programCreate);
+        if (!programResult.isSuccess()) {
+            throw new IllegalStateException("create sample contract failed: " + programResult.getErrorMessage());
+        }
+        track.commit();
+        stateRoot = track.getRoot();
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (dataDir == null) {
+            return;
+        }
+        RocksDBManager.close();
+        delete(dataDir);
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+    private ProgramResult callToken(String methodName, boolean view, String... args) {
+        if (stateRoot == null) {
+            return null;
+        }
+        ProgramCall programCall = new ProgramCall();
+        programCall.setContractAddress(NativeAddress.toBytes(TOKEN));
+        programCall.setSender(NativeAddress.toBytes(SENDER));
+        programCall.setPrice(1);
+        programCall.setGasLimit(1000000);
+        programCall.setNumber(2);
+        programCall.setMethodName(methodName);
+        programCall.setViewMethod(view);
+        programCall.args(args);
+        //不提交, 每次调用都从同一个状态根开始
+        ProgramExecutor track = programExecutor.begin(stateRoot);
+        return track.call(programCall);
+    }
+
+    @Benchmark
+    public Object transfer() {
+        return callToken("transfer", false, RECEIVER, "100");
+    }
+
+    @Benchmark
+    public Object balanceOf() {
+        return callToken("balanceOf", true, SENDER);
+    }
+
+    /**
+     * 本地的区块与余额信息, 不依赖其他模块
+     * Local block and balance information, no other module is involved
+     */
+    static class LocalVMContext extends VMContext {
+
+        private BlockHeaderDto newDto(long height) {
+            BlockHeaderDto dto = new BlockHeaderDto();
+            dto.setHash("00204ed6f9ea133cf5e40edc6c9e9a6a69a4e5e0045bba008b6f157c4765f3b87ce4");
+            dto.setPreHash("002079d03c0ae201f3d56714f3df6d27e7015c143dfea019f02830d9e651c8de460e");
+            dto.setHeight(height);
+            dto.setTime(1552988615800L);
+            dto.setPackingAddress(AddressTool.getAddress(SENDER));
+            return dto;
+        }
+
+        @Override
+        public BlockHeaderDto getBlockHeader(int chainId, String hash) {
+            return newDto(1);
+        }
+
+        @Override
+        public BlockHeaderDto getBlockHeader(int chainId, long height) {
+            return newDto(height);
+        }
+
+        @Override
+        public BlockHeaderDto getNewestBlockHeader(int chainId) {
+            return newDto(1);
+        }
+
+        @Override
+        public BlockHeaderDto getCurrentBlockHeader(int chainId) {
+            return newDto(2);
+        }
+
+        @Override
+        public ContractBalance getBalance(int chainId, byte[] address) {
+            return ContractBalance.newInstance();
+        }
+
+        @Override
+        public BigInteger getTotalBalance(int chainId, byte[] address) {
+            return BigInteger.ZERO;
+        }
+
+        @Override
+        public long getBestHeight(int chainId) {
+            return 1;
+        }
+
+        @Override
+        public long getCustomMaxViewGasLimit(int chainId) {
+            return 100000000L;
+        }
+    }
+}
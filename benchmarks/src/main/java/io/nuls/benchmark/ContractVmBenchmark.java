@@ -0,0 +1,148 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2019 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.benchmark;
+
+import io.nuls.contract.vm.VM;
+import io.nuls.contract.vm.code.ClassCode;
+import io.nuls.contract.vm.code.ClassCodeLoader;
+import io.nuls.contract.vm.code.MethodCode;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 合约虚拟机解释执行: 在VM中运行只依赖基本类型的合约方法, 每次调用使用新的VM
+ * Contract VM interpretation: runs primitive-only contract methods in the VM, a fresh VM per call
+ * <p>
+ * 通过ProgramExecutor创建、调用示例合约见ContractTokenBenchmark
+ * Creating and calling a sample contract through ProgramExecutor is measured by ContractTokenBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContractVmBenchmark {
+
+    private static final String CLASS_NAME = "io/nuls/benchmark/ContractVmBenchmark$Contract";
+
+    private Map<String, ClassCode> classCodes;
+
+    private MethodCode sum;
+
+    private MethodCode fib;
+
+    private MethodCode sieve;
+
+    private MethodCode select;
+
+    @Setup
+    public void setUp() {
+        ClassCode classCode = ClassCodeLoader.load(CLASS_NAME.replace('/', '.'));
+        classCodes = Map.of(CLASS_NAME, classCode);
+        sum = classCode.getMethodCode("sum", "(I)I");
+        fib = classCode.getMethodCode("fib", "(I)I");
+        sieve = classCode.getMethodCode("sieve", "(I)I");
+        select = classCode.getMethodCode("select", "(I)J");
+    }
+
+    private Object run(MethodCode methodCode, int n) {
+        VM vm = new VM();
+        vm.methodArea.loadClassCodes(classCodes);
+        vm.run(methodCode, new Object[]{n}, true);
+        return vm.getResult().getValue();
+    }
+
+    @Benchmark
+    public Object sum() {
+        return run(sum, 10000);
+    }
+
+    @Benchmark
+    public Object fib() {
+        return run(fib, 15);
+    }
+
+    @Benchmark
+    public Object sieve() {
+        return run(sieve, 5000);
+    }
+
+    @Benchmark
+    public Object select() {
+        return run(select, 10000);
+    }
+
+    public static class Contract {
+
+        public static int sum(int n) {
+            int sum = 0;
+            for (int i = 0; i < n; i++) {
+                sum += i * i;
+            }
+            return sum;
+        }
+
+        public static int fib(int n) {
+            return n < 2 ? n : fib(n - 1) + fib(n - 2);
+        }
+
+        public static int sieve(int n) {
+            boolean[] composite = new boolean[n + 1];
+            int count = 0;
+            for (int i = 2; i <= n; i++) {
+                if (!composite[i]) {
+                    count++;
+                    for (int j = i * 2; j <= n; j += i) {
+                        composite[j] = true;
+                    }
+                }
+            }
+            return count;
+        }
+
+        public static long select(int n) {
+            long total = 0;
+            for (int i = 0; i < n; i++) {
+                switch (i & 3) {
+                    case 0:
+                        total += i;
+                        break;
+                    case 1:
+                        total -= 3;
+                        break;
+                    case 2:
+                        total ^= i;
+                        break;
+                    default:
+                        total <<= 1;
+                        break;
+                }
+            }
+            return total;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2019 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.rolling.RollingFileAppender;
+import io.nuls.core.log.logback.LogAppender;
+import io.nuls.core.log.logback.NulsLogger;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 打包循环中info日志的开销, 对比同步输出、队列满时等待的异步输出和队列满时丢弃的异步输出
+ * Cost of info logging in the packing loop, comparing synchronous output, asynchronous output blocking on a full queue
+ * and asynchronous output dropping on a full queue
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class LoggingBenchmark {
+
+    @Param({"sync", "asyncBlock", "asyncDrop"})
+    private String mode;
+
+    private Logger logger;
+
+    private NulsLogger nulsLogger;
+
+    private final AtomicLong counter = new AtomicLong();
+
+    @Setup
+    public void setUp() throws Exception {
+        LogAppender.PROJECT_PATH = Files.createTempDirectory("nuls-log-benchmark").toString();
+        RollingFileAppender fileAppender = LogAppender.getAppender("packing-" + mode, Level.INFO);
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        logger = context.getLogger("benchmark.packing." + mode);
+        logger.setAdditive(false);
+        logger.setLevel(Level.INFO);
+        if ("sync".equals(mode)) {
+            logger.addAppender(fileAppender);
+        } else {
+            Level blockLevel = "asyncBlock".equals(mode) ? Level.INFO : Level.WARN;
+            logger.addAppender(LogAppender.createAsyncAppender("packing-" + mode, Level.INFO, 8192, blockLevel, fileAppender));
+        }
+        nulsLogger = new NulsLogger(logger);
+    }
+
+    @TearDown
+    public void tearDown() {
+        logger.detachAndStopAllAppenders();
+    }
+
+    /**
+     * 没有日志的循环体, 作为对照
+     * Loop body without logging, as the reference
+     */
+    @Benchmark
+    public long packNoLog() {
+        return pack();
+    }
+
+    @Benchmark
+    public long packWithInfo() {
+        long size = pack();
+        nulsLogger.info("交易已达最大容量, 实际值: {}, totalSizeTemp:{}, 当前交易size：{} - 预定最大值maxTxDataSize:{}, txhash:{}",
+                String.valueOf(size), String.valueOf(size + 300), "300", "2097152", "0020b8a22e5d9e2b4b1ee2ba64afd45c3b7e0bd41c3adb5d3d1fb0e8f8ba1d46dd0e");
+        return size;
+    }
+
+    private long pack() {
+        long value = counter.incrementAndGet();
+        return value * 300 % 2097152;
+    }
+}
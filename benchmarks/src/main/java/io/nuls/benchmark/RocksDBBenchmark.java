@@ -0,0 +1,145 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2019 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.benchmark;
+
+import io.nuls.core.rockdb.manager.RocksDBManager;
+import io.nuls.core.rockdb.service.RocksDBService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RocksDB的单条写入、单条读取、批量读取与批量写入, 数据库建在临时目录中
+ * Single put/get, multiGet and batchPut of RocksDB, the database lives in a temporary directory
+ * <p>
+ * 读取前预先写入keyCount条记录, 键为32字节随机值(与交易hash相同), 值为valueSize字节
+ * keyCount records are written before reading, keys are random 32 bytes like tx hashes and values are valueSize bytes
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RocksDBBenchmark {
+
+    private static final String TABLE = "benchmark";
+
+    private static final int BATCH = 100;
+
+    @Param({"100000"})
+    private int keyCount;
+
+    @Param({"200"})
+    private int valueSize;
+
+    private File dataDir;
+
+    private byte[][] keys;
+
+    private byte[] value;
+
+    private Random random;
+
+    private List<byte[]> batchKeys;
+
+    @Setup
+    public void setUp() throws Exception {
+        dataDir = Files.createTempDirectory("nuls-rocksdb-benchmark").toFile();
+        RocksDBService.init(dataDir.getAbsolutePath());
+        RocksDBService.createTable(TABLE);
+        random = new Random(7);
+        value = new byte[valueSize];
+        random.nextBytes(value);
+        keys = new byte[keyCount][];
+        Map<byte[], byte[]> kvs = new HashMap<>();
+        for (int i = 0; i < keyCount; i++) {
+            keys[i] = randomKey();
+            kvs.put(keys[i], value);
+            if (kvs.size() == 1000) {
+                RocksDBService.batchPut(TABLE, kvs);
+                kvs.clear();
+            }
+        }
+        if (!kvs.isEmpty()) {
+            RocksDBService.batchPut(TABLE, kvs);
+        }
+        batchKeys = new ArrayList<>();
+        for (int i = 0; i < BATCH; i++) {
+            batchKeys.add(keys[random.nextInt(keyCount)]);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        RocksDBService.destroyTable(TABLE);
+        RocksDBManager.close();
+        delete(dataDir);
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+    private byte[] randomKey() {
+        byte[] key = new byte[32];
+        random.nextBytes(key);
+        return key;
+    }
+
+    @Benchmark
+    public boolean put() throws Exception {
+        return RocksDBService.put(TABLE, randomKey(), value);
+    }
+
+    @Benchmark
+    public byte[] get() {
+        return RocksDBService.get(TABLE, keys[random.nextInt(keyCount)]);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public Map<byte[], byte[]> multiGet() {
+        return RocksDBService.multiGet(TABLE, batchKeys);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public boolean batchPut() throws Exception {
+        Map<byte[], byte[]> kvs = new HashMap<>();
+        for (int i = 0; i < BATCH; i++) {
+            kvs.put(randomKey(), value);
+        }
+        return RocksDBService.batchPut(TABLE, kvs);
+    }
+}
@@ -0,0 +1,102 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2019 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.benchmark;
+
+import io.nuls.core.crypto.ECKey;
+import io.nuls.core.crypto.Sha256Hash;
+import org.bouncycastle.crypto.params.ECPublicKeyParameters;
+import org.bouncycastle.crypto.signers.ECDSASigner;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 交易签名与验签, 验签分别在单个热点公钥和多个公钥下测试,
+ * 并与不使用公钥缓存(每次解码公钥+通用ECDSASigner)的验签对比
+ * Transaction signing and signature verification, verified with one hot key and with many keys,
+ * against verification without the key cache (decode the key every time + generic ECDSASigner)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SignatureBenchmark {
+
+    /**
+     * 轮流验签的公钥数量
+     */
+    @Param({"1", "200"})
+    private int keyCount;
+
+    private ECKey ecKey;
+
+    private byte[] hash;
+
+    private byte[][] signatures;
+
+    private byte[][] pubKeys;
+
+    private int index;
+
+    @Setup
+    public void setUp() throws Exception {
+        hash = Sha256Hash.hashTwice(TransactionBenchmark.transferTx(1).serializeForHash());
+        signatures = new byte[keyCount][];
+        pubKeys = new byte[keyCount][];
+        for (int i = 0; i < keyCount; i++) {
+            ECKey key = new ECKey();
+            pubKeys[i] = key.getPubKey();
+            signatures[i] = key.sign(hash);
+        }
+        ecKey = new ECKey();
+    }
+
+    @Benchmark
+    public byte[] sign() {
+        return ecKey.sign(hash);
+    }
+
+    @Benchmark
+    public boolean verify() {
+        int k = next();
+        return ECKey.verify(hash, signatures[k], pubKeys[k]);
+    }
+
+    @Benchmark
+    public boolean verifyUncached() {
+        int k = next();
+        ECKey.ECDSASignature sig = ECKey.ECDSASignature.decodeFromDER(signatures[k]);
+        ECDSASigner signer = new ECDSASigner();
+        signer.init(false, new ECPublicKeyParameters(ECKey.CURVE.getCurve().decodePoint(pubKeys[k]), ECKey.CURVE));
+        return signer.verifySignature(hash, sig.r, sig.s);
+    }
+
+    private int next() {
+        int k = index;
+        index = (k + 1) % keyCount;
+        return k;
+    }
+}
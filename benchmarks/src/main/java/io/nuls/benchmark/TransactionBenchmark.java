@@ -0,0 +1,110 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2019 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.benchmark;
+
+import io.nuls.base.basic.AddressTool;
+import io.nuls.base.basic.NulsByteBuffer;
+import io.nuls.base.data.*;
+import io.nuls.core.constant.TxType;
+import io.nuls.core.crypto.ECKey;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 交易序列化、反序列化、哈希与CoinData解析
+ * Transaction serialize/parse, hashing and CoinData parsing
+ * <p>
+ * 交易为普通转账, froms/tos的数量由参数coins指定
+ * The transaction is a transfer with the number of froms/tos given by the coins parameter
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionBenchmark {
+
+    static final int CHAIN_ID = 2;
+
+    @Param({"1", "20"})
+    private int coins;
+
+    private Transaction tx;
+
+    private byte[] txBytes;
+
+    private byte[] hashBytes;
+
+    private byte[] coinDataBytes;
+
+    @Setup
+    public void setUp() throws Exception {
+        tx = transferTx(coins);
+        txBytes = tx.serialize();
+        hashBytes = tx.serializeForHash();
+        coinDataBytes = tx.getCoinData();
+    }
+
+    static Transaction transferTx(int coins) throws Exception {
+        CoinData coinData = new CoinData();
+        for (int i = 0; i < coins; i++) {
+            byte[] address = AddressTool.getAddress(new ECKey().getPubKey(), CHAIN_ID);
+            coinData.addFrom(new CoinFrom(address, CHAIN_ID, 1, BigInteger.valueOf(100000000L + i), new byte[8], (byte) 0));
+            coinData.addTo(new CoinTo(address, CHAIN_ID, 1, BigInteger.valueOf(99900000L + i)));
+        }
+        Transaction tx = new Transaction(TxType.TRANSFER);
+        tx.setTime(1563000000L);
+        tx.setRemark("benchmark".getBytes());
+        tx.setCoinData(coinData.serialize());
+        tx.setTransactionSignature(new byte[110 * coins]);
+        return tx;
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return tx.serialize();
+    }
+
+    @Benchmark
+    public Transaction parse() throws Exception {
+        Transaction parsed = new Transaction();
+        parsed.parse(new NulsByteBuffer(txBytes));
+        return parsed;
+    }
+
+    @Benchmark
+    public NulsHash calcHash() {
+        return NulsHash.calcHash(hashBytes);
+    }
+
+    @Benchmark
+    public CoinData parseCoinData() throws Exception {
+        CoinData coinData = new CoinData();
+        coinData.parse(new NulsByteBuffer(coinDataBytes));
+        return coinData;
+    }
+}
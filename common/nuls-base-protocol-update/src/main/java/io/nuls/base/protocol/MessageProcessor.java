@@ -1,5 +1,7 @@
 package io.nuls.base.protocol;
 
+import io.nuls.base.RPCUtil;
+
 public interface MessageProcessor {
 
     /**
@@ -17,4 +19,17 @@ public interface MessageProcessor {
      */
     void process(int chainId, String nodeId, String message);
 
+    /**
+     * 消息处理方法，消息体为原始字节（网络模块通过二进制帧转发时），默认转为hex交给字符串版本处理
+     * Message processing with the raw body bytes, used when the network module forwards over binary frames.
+     * Falls back to the hex string variant unless overridden
+     *
+     * @param chainId
+     * @param nodeId
+     * @param message
+     */
+    default void process(int chainId, String nodeId, byte[] message) {
+        process(chainId, nodeId, RPCUtil.encode(message));
+    }
+
 }
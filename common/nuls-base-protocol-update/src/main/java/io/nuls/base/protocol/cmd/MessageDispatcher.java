@@ -47,7 +47,7 @@ public final class MessageDispatcher extends BaseCmd {
     @Parameter(parameterName = "chainId", parameterType = "int")
     @Parameter(parameterName = "nodeId", parameterType = "String")
     @Parameter(parameterName = "cmd", parameterType = "String")
-    @Parameter(parameterName = "messageBody", parameterType = "String")
+    @Parameter(parameterName = "messageBody", parameterType = "String", parameterDes = "hex字符串，二进制帧连接时为byte[]")
     public Response msgProcess(Map params) {
         ObjectUtils.canNotEmpty(params.get(Constants.CHAIN_ID), CommonCodeConstanst.PARAMETER_ERROR.getMsg());
         ObjectUtils.canNotEmpty(params.get("nodeId"), CommonCodeConstanst.PARAMETER_ERROR.getMsg());
@@ -56,7 +56,17 @@ public final class MessageDispatcher extends BaseCmd {
         int chainId = Integer.parseInt(params.get(Constants.CHAIN_ID).toString());
         String nodeId = (String) params.get("nodeId");
         String cmd = (String) params.get("cmd");
-        String msgStr = (String) params.get("messageBody");
+        Object messageBody = params.get("messageBody");
+        if (messageBody instanceof byte[]) {
+            byte[] msgBytes = (byte[]) messageBody;
+            for (MessageProcessor processor : processors) {
+                if (cmd.equals(processor.getCmd())) {
+                    processor.process(chainId, nodeId, msgBytes);
+                }
+            }
+            return success();
+        }
+        String msgStr = (String) messageBody;
         for (MessageProcessor processor : processors) {
             if (cmd.equals(processor.getCmd())) {
                 processor.process(chainId, nodeId, msgStr);
@@ -40,6 +40,20 @@ public class RPCUtil {
         return (src == null) ? null : HexUtil.decode(src);
     }
 
+    /**
+     * 读取RPC参数中的二进制数据，二进制帧传输时为byte[]，JSON帧传输时为hex字符串
+     * Read binary data from an RPC parameter, it is a byte[] over binary frames and a hex string over JSON frames
+     *
+     * @param src 参数值 / parameter value
+     * @return byte[]
+     */
+    public static byte[] decodeParam(Object src) {
+        if (src instanceof byte[]) {
+            return (byte[]) src;
+        }
+        return decode((String) src);
+    }
+
     public static <T> T getInstance(byte[] bytes, Class<? extends BaseNulsData> clazz) {
         if (null == bytes || bytes.length == 0) {
             Log.error("error code-" + CommonCodeConstanst.DESERIALIZE_ERROR);
@@ -36,6 +36,7 @@ import io.nuls.core.parse.SerializeUtils;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 
 /**
  * @author Niels
@@ -48,6 +49,14 @@ public class NulsOutputStreamBuffer {
         this.out = out;
     }
 
+    /**
+     * 直接写入调用方提供的缓冲区, 从当前位置开始, 空间不足时抛出BufferOverflowException
+     * Write straight into the caller's buffer from its current position, throws BufferOverflowException when full
+     */
+    public NulsOutputStreamBuffer(ByteBuffer buffer) {
+        this.out = new ByteBufferOutputStream(buffer);
+    }
+
     /**
      * 0~255
      *
@@ -154,7 +163,26 @@ public class NulsOutputStreamBuffer {
         if (null == data) {
             write(ToolsConstant.PLACE_HOLDER);
         } else {
-            this.write(data.serialize());
+            data.serializeTo(this);
+        }
+    }
+
+    private static class ByteBufferOutputStream extends OutputStream {
+
+        private final ByteBuffer buffer;
+
+        private ByteBufferOutputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public void write(int b) {
+            buffer.put((byte) b);
+        }
+
+        @Override
+        public void write(byte[] bytes, int off, int len) {
+            buffer.put(bytes, off, len);
         }
     }
 }
@@ -25,13 +25,26 @@
 package io.nuls.base.basic;
 
 
+import io.nuls.base.RPCUtil;
 import io.nuls.base.data.Transaction;
+import io.nuls.core.constant.CommonCodeConstanst;
+import io.nuls.core.exception.NulsException;
+import io.nuls.core.log.Log;
+import io.nuls.core.model.StringUtils;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * 交易反序列化工具
+ * 整个区块的交易在固定大小的ForkJoin线程池中并行解码、反序列化并计算hash, 之后的merkle验证与保存直接使用已计算的hash
+ * <p>
+ * The transactions of a whole block are decoded, parsed and hashed in parallel on a fixed size ForkJoin pool, the
+ * merkle check and the saving afterwards use the computed hashes
  *
  * @author captain
  * @date 18-12-6 下午5:02
@@ -39,6 +52,35 @@ import java.util.List;
  */
 public class TransactionManager {
 
+    /**
+     * 交易解析线程数，通过-Dnuls.txParseThreads配置，默认为CPU核数
+     */
+    public static final String THREADS_KEY = "nuls.txParseThreads";
+
+    /**
+     * 交易数不超过该值时在调用线程直接处理, 每个子任务也至少处理这么多笔交易
+     */
+    private static final int SEQUENTIAL_THRESHOLD = 64;
+
+    private static final ForkJoinPool POOL;
+
+    static {
+        int threads = Runtime.getRuntime().availableProcessors();
+        String value = System.getProperty(THREADS_KEY);
+        if (StringUtils.isNotBlank(value)) {
+            try {
+                threads = Integer.parseInt(value.trim());
+            } catch (NumberFormatException e) {
+                Log.warn("invalid {}={}, use default {}", THREADS_KEY, value, threads);
+            }
+        }
+        POOL = new ForkJoinPool(Math.max(threads, 1), pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("tx-parse-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+
     public static Transaction getInstance(NulsByteBuffer byteBuffer) throws Exception {
         Transaction transaction = new Transaction();
         transaction.parse(byteBuffer);
@@ -52,4 +94,117 @@ public class TransactionManager {
         }
         return list;
     }
+
+    /**
+     * 并行解码、反序列化RPC传入的交易并计算hash, 结果与传入顺序一致
+     * Decode, parse and hash the transactions passed by RPC in parallel, in the order given
+     *
+     * @param txStrList RPC编码的交易
+     * @return 已计算hash的交易
+     * @throws NulsException 任意一笔交易解析失败
+     */
+    public static List<Transaction> getInstancesRpcStr(List<String> txStrList) throws NulsException {
+        Transaction[] txs = new Transaction[txStrList.size()];
+        if (txs.length <= SEQUENTIAL_THRESHOLD) {
+            for (int i = 0; i < txs.length; i++) {
+                txs[i] = parseAndHash(txStrList.get(i));
+            }
+        } else {
+            POOL.invoke(new ParseAction(txStrList, txs, 0, txs.length));
+        }
+        for (Transaction tx : txs) {
+            if (tx == null) {
+                throw new NulsException(CommonCodeConstanst.DESERIALIZE_ERROR);
+            }
+        }
+        return Arrays.asList(txs);
+    }
+
+    /**
+     * 并行计算交易hash, 已计算过的交易直接跳过
+     * Compute the transaction hashes in parallel, transactions already hashed are skipped
+     *
+     * @param txs 交易列表
+     */
+    public static void calcHashes(List<Transaction> txs) {
+        if (txs.size() <= SEQUENTIAL_THRESHOLD) {
+            for (Transaction tx : txs) {
+                if (tx != null) {
+                    tx.getHash();
+                }
+            }
+        } else {
+            POOL.invoke(new HashAction(txs, 0, txs.size()));
+        }
+    }
+
+    private static Transaction parseAndHash(String txStr) {
+        if (StringUtils.isBlank(txStr)) {
+            return null;
+        }
+        try {
+            byte[] bytes = RPCUtil.decode(txStr);
+            Transaction tx = getInstance(new NulsByteBuffer(bytes));
+            tx.getHash();
+            //解码得到的字节即为序列化结果, 之后保存、转发时不再重新序列化
+            tx.cacheParsedBytes(bytes);
+            return tx;
+        } catch (Exception e) {
+            Log.error("error code-" + CommonCodeConstanst.DESERIALIZE_ERROR.getCode(), e);
+            return null;
+        }
+    }
+
+    private static class ParseAction extends RecursiveAction {
+        private final List<String> txStrList;
+        private final Transaction[] txs;
+        private final int from;
+        private final int to;
+
+        private ParseAction(List<String> txStrList, Transaction[] txs, int from, int to) {
+            this.txStrList = txStrList;
+            this.txs = txs;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    txs[i] = parseAndHash(txStrList.get(i));
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ParseAction(txStrList, txs, from, middle), new ParseAction(txStrList, txs, middle, to));
+        }
+    }
+
+    private static class HashAction extends RecursiveAction {
+        private final List<Transaction> txs;
+        private final int from;
+        private final int to;
+
+        private HashAction(List<Transaction> txs, int from, int to) {
+            this.txs = txs;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    Transaction tx = txs.get(i);
+                    if (tx != null) {
+                        tx.getHash();
+                    }
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new HashAction(txs, from, middle), new HashAction(txs, middle, to));
+        }
+    }
 }
@@ -34,6 +34,7 @@ import io.nuls.core.exception.NulsException;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 /**
@@ -41,8 +42,17 @@ import java.util.Arrays;
  */
 public abstract class BaseNulsData implements NulsData, Serializable, Cloneable {
 
+    /**
+     * 每次返回新的数组, 调用方可以修改, 已缓存序列化结果时返回缓存的副本; 热点路径应使用serializeTo直接写入缓存
+     * Returns a new array on every call that the caller may modify, a copy of the cached bytes when present;
+     * hot paths should use serializeTo, which writes the cached bytes without copying
+     */
     @Override
     public final byte[] serialize() throws IOException {
+        byte[] cachedBytes = getCachedBytes();
+        if (cachedBytes != null) {
+            return Arrays.copyOf(cachedBytes, cachedBytes.length);
+        }
         int size = size();
         try (ByteArrayOutputStream bos = new UnsafeByteArrayOutputStream(size)){
             NulsOutputStreamBuffer buffer = new NulsOutputStreamBuffer(bos);
@@ -55,10 +65,52 @@ public abstract class BaseNulsData implements NulsData, Serializable, Cloneable
             if (bytes.length != size) {
                 throw new RuntimeException();
             }
+            setCachedBytes(bytes);
             return bytes;
         }
     }
 
+    /**
+     * 直接序列化到调用方提供的输出流, 不再创建中间字节数组, 已缓存序列化结果时直接写入缓存
+     * Serialize straight into the caller's stream without an intermediate byte array, the cached bytes are written
+     * as they are when present
+     */
+    public final void serializeTo(NulsOutputStreamBuffer stream) throws IOException {
+        byte[] cachedBytes = getCachedBytes();
+        if (cachedBytes != null) {
+            stream.write(cachedBytes);
+        } else if (size() == 0) {
+            stream.write(ToolsConstant.PLACE_HOLDER);
+        } else {
+            serializeToStream(stream);
+        }
+    }
+
+    /**
+     * 序列化到调用方提供的缓冲区(可以是池化的直接内存), 从缓冲区当前位置写入, 剩余空间需不小于size()
+     * Serialize into a caller-provided buffer (may be pooled and direct) from its current position,
+     * the remaining space must be at least size()
+     */
+    public final void serializeTo(ByteBuffer buffer) throws IOException {
+        serializeTo(new NulsOutputStreamBuffer(buffer));
+    }
+
+    /**
+     * 已缓存的序列化结果, 默认不缓存, 由不再修改的数据(计算过hash的交易、区块头)覆盖
+     * Cached serialized form, nothing is cached by default, overridden by data that no longer changes
+     * (transactions and block headers whose hash is computed)
+     */
+    protected byte[] getCachedBytes() {
+        return null;
+    }
+
+    /**
+     * 缓存刚序列化的结果, 该数组会返回给调用方, 缓存时需保存副本
+     * Cache the bytes just serialized, the array is handed to the caller, so an implementation keeps its own copy
+     */
+    protected void setCachedBytes(byte[] bytes) {
+    }
+
     protected abstract void serializeToStream(NulsOutputStreamBuffer stream) throws IOException;
 
 
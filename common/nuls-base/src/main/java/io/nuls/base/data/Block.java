@@ -67,9 +67,9 @@ public class Block extends BaseNulsData implements Cloneable {
 
     @Override
     protected void serializeToStream(NulsOutputStreamBuffer stream) throws IOException {
-        header.serializeToStream(stream);
+        header.serializeTo(stream);
         for (Transaction tx : txs) {
-            stream.write(tx.serialize());
+            tx.serializeTo(stream);
         }
     }
 
@@ -109,6 +109,8 @@ public class Block extends BaseNulsData implements Cloneable {
 //     */
     public List<NulsHash> getTxHashList() {
         if (txHashList == null) {
+            //大区块的交易hash并行计算
+            TransactionManager.calcHashes(txs);
             txHashList = new ArrayList<>();
             for (Transaction tx : txs) {
                 if (null == tx) {
@@ -64,6 +64,11 @@ public class BlockHeader extends BaseNulsData {
 
     private transient byte[] packingAddress;
 
+    /**
+     * 计算过hash后的序列化结果, 修改任何序列化字段时清除
+     */
+    private transient volatile byte[] serializedBytes;
+
     private synchronized void calcHash() {
         if (null != this.hash) {
             return;
@@ -99,6 +104,22 @@ public class BlockHeader extends BaseNulsData {
         stream.writeNulsData(blockSignature);
     }
 
+    @Override
+    protected byte[] getCachedBytes() {
+        return serializedBytes;
+    }
+
+    /**
+     * 只在hash已计算后缓存, 区块广播、存储时直接复用
+     * Only cached once the hash is computed, block broadcast and storage reuse the bytes
+     */
+    @Override
+    protected void setCachedBytes(byte[] bytes) {
+        if (hash != null) {
+            serializedBytes = Arrays.copyOf(bytes, bytes.length);
+        }
+    }
+
     @Override
     public void parse(NulsByteBuffer byteBuffer) throws NulsException {
         this.preHash = byteBuffer.readHash();
@@ -108,6 +129,7 @@ public class BlockHeader extends BaseNulsData {
         this.txCount = byteBuffer.readInt32();
         this.extend = byteBuffer.readByLengthByte();
         this.blockSignature = byteBuffer.readNulsData(new BlockSignature());
+        this.serializedBytes = null;
     }
 
     public byte[] serializeWithoutSign() {
@@ -146,6 +168,7 @@ public class BlockHeader extends BaseNulsData {
 
     public void setHash(NulsHash hash) {
         this.hash = hash;
+        this.serializedBytes = null;
     }
 
     public NulsHash getPreHash() {
@@ -154,6 +177,7 @@ public class BlockHeader extends BaseNulsData {
 
     public void setPreHash(NulsHash preHash) {
         this.preHash = preHash;
+        this.serializedBytes = null;
     }
 
     public NulsHash getMerkleHash() {
@@ -162,6 +186,7 @@ public class BlockHeader extends BaseNulsData {
 
     public void setMerkleHash(NulsHash merkleHash) {
         this.merkleHash = merkleHash;
+        this.serializedBytes = null;
     }
 
     public long getTime() {
@@ -170,6 +195,7 @@ public class BlockHeader extends BaseNulsData {
 
     public void setTime(long time) {
         this.time = time;
+        this.serializedBytes = null;
     }
 
     public long getHeight() {
@@ -178,6 +204,7 @@ public class BlockHeader extends BaseNulsData {
 
     public void setHeight(long height) {
         this.height = height;
+        this.serializedBytes = null;
     }
 
     public int getTxCount() {
@@ -186,6 +213,7 @@ public class BlockHeader extends BaseNulsData {
 
     public void setTxCount(int txCount) {
         this.txCount = txCount;
+        this.serializedBytes = null;
     }
 
     public BlockSignature getBlockSignature() {
@@ -194,6 +222,7 @@ public class BlockHeader extends BaseNulsData {
 
     public void setBlockSignature(BlockSignature scriptSign) {
         this.blockSignature = scriptSign;
+        this.serializedBytes = null;
     }
 
     public byte[] getPackingAddress(int chainId) {
@@ -210,6 +239,7 @@ public class BlockHeader extends BaseNulsData {
 
     public void setExtend(byte[] extend) {
         this.extend = extend;
+        this.serializedBytes = null;
     }
 
     public void setPackingAddress(byte[] packingAddress) {
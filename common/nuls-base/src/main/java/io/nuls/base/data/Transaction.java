@@ -66,6 +66,11 @@ public class Transaction extends BaseNulsData implements Cloneable {
 
     private transient CoinData coinDataInstance;
 
+    /**
+     * 计算过hash后的序列化结果, 修改任何序列化字段时清除
+     */
+    private transient volatile byte[] serializedBytes;
+
     /**
      * 在区块中的顺序，存储在rocksDB中是无序的，保存区块时赋值，取出后根据此值排序
      */
@@ -103,10 +108,43 @@ public class Transaction extends BaseNulsData implements Cloneable {
         stream.writeBytesWithLength(transactionSignature);
     }
 
+    @Override
+    protected byte[] getCachedBytes() {
+        return serializedBytes;
+    }
+
+    /**
+     * 只在hash已计算后缓存, 此时交易内容不再修改, 之后的广播、存储与RPC编码直接复用
+     * Only cached once the hash is computed, the transaction no longer changes then and broadcast, storage and RPC
+     * encoding reuse the bytes
+     */
+    @Override
+    protected void setCachedBytes(byte[] bytes) {
+        if (hash != null) {
+            serializedBytes = Arrays.copyOf(bytes, bytes.length);
+        }
+    }
+
+    /**
+     * 以解析时的完整原始字节作为序列化结果缓存, 未计算hash或长度与size()不一致时忽略, 传入的数组之后不能再修改
+     * Cache the complete bytes the transaction was parsed from as its serialized form, ignored before the hash is
+     * computed or when the length differs from size(), the array must not be modified afterwards
+     */
+    public void cacheParsedBytes(byte[] bytes) {
+        if (hash != null && bytes != null && bytes.length == size()) {
+            serializedBytes = bytes;
+        }
+    }
+
     public byte[] serializeForHash() throws IOException {
         ByteArrayOutputStream bos = null;
         try {
             int size = size() - SerializeUtils.sizeOfBytes(transactionSignature);
+            byte[] cachedBytes = serializedBytes;
+            if (cachedBytes != null && size > 0) {
+                //签名在最后, 其余部分即为hash的原文
+                return Arrays.copyOf(cachedBytes, size);
+            }
             bos = new UnsafeByteArrayOutputStream(size);
             NulsOutputStreamBuffer buffer = new NulsOutputStreamBuffer(bos);
             if (size == 0) {
@@ -134,6 +172,7 @@ public class Transaction extends BaseNulsData implements Cloneable {
         txData = byteBuffer.readByLengthByte();
         this.coinData = byteBuffer.readByLengthByte();
         transactionSignature = byteBuffer.readByLengthByte();
+        serializedBytes = null;
     }
 
     public byte[] getTxData() {
@@ -146,10 +185,12 @@ public class Transaction extends BaseNulsData implements Cloneable {
 
     public void setTime(long time) {
         this.time = time;
+        this.serializedBytes = null;
     }
 
     public void setType(int type) {
         this.type = type;
+        this.serializedBytes = null;
     }
 
     public int getType() {
@@ -162,6 +203,7 @@ public class Transaction extends BaseNulsData implements Cloneable {
 
     public void setRemark(byte[] remark) {
         this.remark = remark;
+        this.serializedBytes = null;
     }
 
     public NulsHash getHash() {
@@ -177,6 +219,7 @@ public class Transaction extends BaseNulsData implements Cloneable {
 
     public void setHash(NulsHash hash) {
         this.hash = hash;
+        this.serializedBytes = null;
     }
 
     public byte[] getTransactionSignature() {
@@ -185,10 +228,12 @@ public class Transaction extends BaseNulsData implements Cloneable {
 
     public void setTransactionSignature(byte[] transactionSignature) {
         this.transactionSignature = transactionSignature;
+        this.serializedBytes = null;
     }
 
     public void setTxData(byte[] txData) {
         this.txData = txData;
+        this.serializedBytes = null;
     }
 
     public long getBlockHeight() {
@@ -229,6 +274,7 @@ public class Transaction extends BaseNulsData implements Cloneable {
 
     public void setCoinData(byte[] coinData) {
         this.coinData = coinData;
+        this.serializedBytes = null;
     }
 
     public int getSize() {
@@ -71,16 +71,17 @@ public class SignatureUtil {
                     throw new NulsException(new Exception("Transaction unsigned ！"));
                 }
                 int signCount = tx.getCoinDataInstance().getFromAddressCount();
-                int passCount = 0;
+                byte[] digest = tx.getHash().getBytes();
+                List<SignatureVerifier.Item> items = new ArrayList<>();
                 for (P2PHKSignature signature : transactionSignature.getP2PHKSignatures()) {
-                    if (!ECKey.verify(tx.getHash().getBytes(), signature.getSignData().getSignBytes(), signature.getPublicKey())) {
-                        throw new NulsException(new Exception("Transaction signature error !"));
-                    }
-                    passCount++;
-                    if(passCount >= signCount){
+                    items.add(new SignatureVerifier.Item(digest, signature));
+                    if (items.size() >= signCount) {
                         break;
                     }
                 }
+                if (!SignatureVerifier.verifyAll(items)) {
+                    throw new NulsException(new Exception("Transaction signature error !"));
+                }
             } else {
                 MultiSignTxSignature transactionSignature = new MultiSignTxSignature();
                 transactionSignature.parse(tx.getTransactionSignature(), 0);
@@ -88,14 +89,16 @@ public class SignatureUtil {
                     throw new NulsException(new Exception("Transaction unsigned ！"));
                 }
                 List<P2PHKSignature> validSignatures = transactionSignature.getValidSignature();
-                int validCount = 0;
+                byte[] digest = tx.getHash().getBytes();
+                List<SignatureVerifier.Item> items = new ArrayList<>();
                 for (P2PHKSignature signature : validSignatures) {
-                    if (ECKey.verify(tx.getHash().getBytes(), signature.getSignData().getSignBytes(), signature.getPublicKey())) {
+                    items.add(new SignatureVerifier.Item(digest, signature));
+                }
+                int validCount = 0;
+                for (boolean result : SignatureVerifier.verify(items)) {
+                    if (result) {
                         validCount++;
                     }
-                    if (validCount >= transactionSignature.getM()) {
-                        break;
-                    }
                 }
                 if (validCount < transactionSignature.getM()) {
                     throw new NulsException(new Exception("Transaction signature error !"));
@@ -123,10 +126,13 @@ public class SignatureUtil {
         }
         TransactionSignature transactionSignature = new TransactionSignature();
         transactionSignature.parse(tx.getTransactionSignature(), 0);
+        byte[] digest = tx.getHash().getBytes();
+        List<SignatureVerifier.Item> items = new ArrayList<>();
         for (P2PHKSignature signature : transactionSignature.getP2PHKSignatures()) {
-            if (!ECKey.verify(tx.getHash().getBytes(), signature.getSignData().getSignBytes(), signature.getPublicKey())) {
-                throw new NulsException(new Exception("Transaction signature error !"));
-            }
+            items.add(new SignatureVerifier.Item(digest, signature));
+        }
+        if (!SignatureVerifier.verifyAll(items)) {
+            throw new NulsException(new Exception("Transaction signature error !"));
         }
         return true;
     }
@@ -143,10 +149,7 @@ public class SignatureUtil {
         if (null == p2PHKSignature) {
             throw new NulsException(new Exception("P2PHKSignature is null!"));
         }
-        if (ECKey.verify(digestBytes, p2PHKSignature.getSignData().getSignBytes(), p2PHKSignature.getPublicKey())) {
-            return true;
-        }
-        return false;
+        return SignatureVerifier.verify(digestBytes, p2PHKSignature.getSignData().getSignBytes(), p2PHKSignature.getPublicKey());
     }
 
     /**
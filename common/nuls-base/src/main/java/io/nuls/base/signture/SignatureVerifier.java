@@ -0,0 +1,264 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2019 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.base.signture;
+
+import io.nuls.core.crypto.ECKey;
+import io.nuls.core.log.Log;
+import io.nuls.core.model.ByteArrayWrapper;
+import io.nuls.core.model.CollectionUtils;
+import io.nuls.core.model.StringUtils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 进程内共享的签名验证服务
+ * Signature verification service shared by the whole process
+ * <p>
+ * 1.批量的(摘要, 签名, 公钥)在固定大小的ForkJoin线程池中并行验证, 空闲线程窃取其他线程的任务
+ * 2.验证通过的(摘要, 公钥, 签名)会被缓存, 同一笔交易在接收时验证过后, 打包或验证区块时不再重复验签.
+ * 缓存key包含签名本身, 避免同一交易换一个无效签名后命中缓存
+ * 3.提供验证次数、缓存命中次数、耗时等统计数据
+ * <p>
+ * 1.batches of (digest, signature, public key) are verified in parallel on a fixed size work-stealing ForkJoin pool
+ * 2.verified (digest, public key, signature) triples are cached, so a transaction verified when it is received
+ * is not verified again when it is packed or its block is verified. The signature is part of the key,
+ * so the same transaction carrying another, invalid signature never hits the cache
+ * 3.exposes verification, cache hit and time statistics
+ */
+public class SignatureVerifier {
+
+    /**
+     * 验签线程数，通过-Dnuls.signVerifyThreads配置，默认为CPU核数
+     */
+    public static final String THREADS_KEY = "nuls.signVerifyThreads";
+
+    /**
+     * 验签结果缓存条数，通过-Dnuls.signVerifyCacheSize配置，0表示不缓存
+     */
+    public static final String CACHE_SIZE_KEY = "nuls.signVerifyCacheSize";
+
+    private static final int DEFAULT_CACHE_SIZE = 100000;
+
+    /**
+     * 批量数量不超过该值时在调用线程直接验证, 并行拆分时不超过该值的任务不再拆分.
+     * 单次验签约100微秒, 远大于ForkJoin拆分的开销, 因此阈值比解析交易时小
+     * Batches up to this size are verified on the calling thread, and split tasks of this size are not split further.
+     * One verification takes about 100us, far more than a fork, so the cutoff is smaller than the one for parsing
+     */
+    private static final int SEQUENTIAL_THRESHOLD = 8;
+
+    private static final ForkJoinPool POOL;
+
+    private static final Map<ByteArrayWrapper, Boolean> VERIFIED_CACHE;
+
+    private static final int CACHE_SIZE;
+
+    private static final LongAdder VERIFY_COUNT = new LongAdder();
+    private static final LongAdder CACHE_HIT_COUNT = new LongAdder();
+    private static final LongAdder FAIL_COUNT = new LongAdder();
+    private static final LongAdder VERIFY_NANOS = new LongAdder();
+    private static final LongAdder BATCH_COUNT = new LongAdder();
+
+    static {
+        int threads = getIntProperty(THREADS_KEY, Runtime.getRuntime().availableProcessors());
+        POOL = new ForkJoinPool(Math.max(threads, 1), pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("sign-verify-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+        CACHE_SIZE = getIntProperty(CACHE_SIZE_KEY, DEFAULT_CACHE_SIZE);
+        VERIFIED_CACHE = CollectionUtils.getSynSizedMap(Math.max(CACHE_SIZE, 1));
+    }
+
+    private static int getIntProperty(String key, int defaultValue) {
+        String value = System.getProperty(key);
+        if (StringUtils.isBlank(value)) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            Log.warn("invalid {}={}, use default {}", key, value, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * 待验证的签名
+     * A signature to be verified
+     */
+    public static class Item {
+        private final byte[] digest;
+        private final byte[] signature;
+        private final byte[] publicKey;
+
+        public Item(byte[] digest, byte[] signature, byte[] publicKey) {
+            this.digest = digest;
+            this.signature = signature;
+            this.publicKey = publicKey;
+        }
+
+        public Item(byte[] digest, P2PHKSignature signature) {
+            this(digest, signature.getSignData().getSignBytes(), signature.getPublicKey());
+        }
+
+        public byte[] getDigest() {
+            return digest;
+        }
+
+        public byte[] getSignature() {
+            return signature;
+        }
+
+        public byte[] getPublicKey() {
+            return publicKey;
+        }
+    }
+
+    /**
+     * 验证单个签名
+     * Verify one signature
+     */
+    public static boolean verify(byte[] digest, byte[] signature, byte[] publicKey) {
+        return verify(new Item(digest, signature, publicKey));
+    }
+
+    /**
+     * 并行验证一批签名, 返回每个签名的验证结果
+     * Verify a batch of signatures in parallel, returns the result of each one
+     */
+    public static boolean[] verify(List<Item> items) {
+        boolean[] results = new boolean[items.size()];
+        BATCH_COUNT.increment();
+        if (items.size() <= SEQUENTIAL_THRESHOLD) {
+            for (int i = 0; i < items.size(); i++) {
+                results[i] = verify(items.get(i));
+            }
+        } else {
+            POOL.invoke(new VerifyAction(items, results, 0, items.size()));
+        }
+        return results;
+    }
+
+    /**
+     * 并行验证一批签名, 全部通过时返回true
+     * Verify a batch of signatures in parallel, true if all of them are valid
+     */
+    public static boolean verifyAll(List<Item> items) {
+        for (boolean result : verify(items)) {
+            if (!result) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 统计数据
+     * Throughput statistics
+     */
+    public static Map<String, Object> getMetrics() {
+        long count = VERIFY_COUNT.sum();
+        long nanos = VERIFY_NANOS.sum();
+        Map<String, Object> metrics = new HashMap<>(16);
+        metrics.put("threads", POOL.getParallelism());
+        metrics.put("batchCount", BATCH_COUNT.sum());
+        metrics.put("verifyCount", count);
+        metrics.put("failCount", FAIL_COUNT.sum());
+        metrics.put("cacheHitCount", CACHE_HIT_COUNT.sum());
+        metrics.put("cacheSize", VERIFIED_CACHE.size());
+        metrics.put("avgVerifyMicros", count == 0 ? 0 : nanos / count / 1000);
+        //单线程每秒可验证的签名数, 乘以线程数为理论吞吐
+        metrics.put("verifyPerSecondPerThread", nanos == 0 ? 0 : count * 1000000000L / nanos);
+        return metrics;
+    }
+
+    private static boolean verify(Item item) {
+        ByteArrayWrapper key = null;
+        if (CACHE_SIZE > 0) {
+            key = cacheKey(item);
+            if (VERIFIED_CACHE.containsKey(key)) {
+                CACHE_HIT_COUNT.increment();
+                return true;
+            }
+        }
+        long start = System.nanoTime();
+        boolean result;
+        try {
+            result = ECKey.verify(item.digest, item.signature, item.publicKey);
+        } catch (RuntimeException e) {
+            //签名或公钥格式错误
+            result = false;
+        }
+        VERIFY_NANOS.add(System.nanoTime() - start);
+        VERIFY_COUNT.increment();
+        if (!result) {
+            FAIL_COUNT.increment();
+        } else if (key != null) {
+            VERIFIED_CACHE.put(key, Boolean.TRUE);
+        }
+        return result;
+    }
+
+    private static ByteArrayWrapper cacheKey(Item item) {
+        byte[] key = new byte[item.digest.length + item.publicKey.length + item.signature.length];
+        System.arraycopy(item.digest, 0, key, 0, item.digest.length);
+        System.arraycopy(item.publicKey, 0, key, item.digest.length, item.publicKey.length);
+        System.arraycopy(item.signature, 0, key, item.digest.length + item.publicKey.length, item.signature.length);
+        return new ByteArrayWrapper(key);
+    }
+
+    private static class VerifyAction extends RecursiveAction {
+        private final List<Item> items;
+        private final boolean[] results;
+        private final int from;
+        private final int to;
+
+        private VerifyAction(List<Item> items, boolean[] results, int from, int to) {
+            this.items = items;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    results[i] = verify(items.get(i));
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new VerifyAction(items, results, from, middle), new VerifyAction(items, results, middle, to));
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package io.nuls.base.basic;
+
+import io.nuls.base.RPCUtil;
+import io.nuls.base.data.Block;
+import io.nuls.base.data.NulsHash;
+import io.nuls.base.data.Transaction;
+import io.nuls.core.exception.NulsException;
+import io.nuls.core.parse.I18nUtils;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TransactionManagerTest {
+
+    @BeforeClass
+    public static void beforeClass() {
+        I18nUtils.loadCommonLanguage("en");
+    }
+
+    private static List<Transaction> txs(int count) {
+        List<Transaction> list = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Transaction tx = new Transaction(2);
+            tx.setTime(1563000000L + i);
+            tx.setRemark(("tx" + i).getBytes());
+            tx.setTransactionSignature(new byte[]{(byte) i});
+            list.add(tx);
+        }
+        return list;
+    }
+
+    @Test
+    public void getInstancesRpcStr() throws Exception {
+        List<Transaction> txs = txs(500);
+        List<String> txStrList = new ArrayList<>();
+        for (Transaction tx : txs) {
+            txStrList.add(RPCUtil.encode(tx.serialize()));
+        }
+        List<Transaction> parsed = TransactionManager.getInstancesRpcStr(txStrList);
+        assertEquals(txs.size(), parsed.size());
+        //解码的字节直接作为序列化缓存
+        Field serializedBytes = Transaction.class.getDeclaredField("serializedBytes");
+        serializedBytes.setAccessible(true);
+        for (int i = 0; i < txs.size(); i++) {
+            assertEquals(NulsHash.calcHash(txs.get(i).serializeForHash()), parsed.get(i).getHash());
+            assertEquals(txs.get(i).getTime(), parsed.get(i).getTime());
+            assertArrayEquals(RPCUtil.decode(txStrList.get(i)), (byte[]) serializedBytes.get(parsed.get(i)));
+            assertArrayEquals(txs.get(i).serialize(), parsed.get(i).serialize());
+        }
+
+        //任意一笔解析失败则整体失败
+        txStrList.set(300, RPCUtil.encode(new byte[]{1, 2, 3}));
+        try {
+            TransactionManager.getInstancesRpcStr(txStrList);
+            fail();
+        } catch (NulsException e) {
+            //expected
+        }
+    }
+
+    @Test
+    public void blockTxHashList() throws Exception {
+        List<Transaction> txs = txs(500);
+        List<NulsHash> expected = new ArrayList<>();
+        for (Transaction tx : txs) {
+            expected.add(NulsHash.calcHash(tx.serializeForHash()));
+        }
+        Block block = new Block();
+        block.setTxs(txs);
+        assertEquals(expected, block.getTxHashList());
+        assertEquals(NulsHash.calcMerkleHash(expected), NulsHash.calcMerkleHash(block.getTxHashList()));
+    }
+}
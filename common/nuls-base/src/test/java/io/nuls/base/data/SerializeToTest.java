@@ -0,0 +1,119 @@
+package io.nuls.base.data;
+
+import io.nuls.base.basic.NulsByteBuffer;
+import io.nuls.base.signture.BlockSignature;
+import io.nuls.core.crypto.ECKey;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * 直接写入缓冲区的序列化结果与serialize()相同, 计算hash后缓存序列化结果, 修改后重新序列化
+ */
+public class SerializeToTest {
+
+    private static Transaction tx(int i) throws Exception {
+        CoinData coinData = new CoinData();
+        byte[] address = new byte[23];
+        address[0] = (byte) i;
+        coinData.addFrom(new CoinFrom(address, 2, 1, BigInteger.valueOf(1000 + i), new byte[8], (byte) 0));
+        coinData.addTo(new CoinTo(address, 2, 1, BigInteger.valueOf(900 + i)));
+        Transaction tx = new Transaction(2);
+        tx.setTime(1563000000L + i);
+        tx.setRemark(("tx" + i).getBytes());
+        tx.setCoinData(coinData.serialize());
+        tx.setTransactionSignature(new byte[]{1, 2, 3});
+        return tx;
+    }
+
+    private static byte[] serializeToBuffer(BaseNulsData data, boolean direct) throws Exception {
+        ByteBuffer buffer = direct ? ByteBuffer.allocateDirect(data.size() + 8) : ByteBuffer.allocate(data.size() + 8);
+        buffer.position(8);
+        data.serializeTo(buffer);
+        buffer.flip();
+        buffer.position(8);
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    @Test
+    public void transaction() throws Exception {
+        Transaction tx = tx(1);
+        byte[] bytes = tx.serialize();
+        assertArrayEquals(bytes, serializeToBuffer(tx, true));
+        assertArrayEquals(bytes, serializeToBuffer(tx, false));
+        //未计算hash时不缓存
+        assertNotSame(bytes, tx.serialize());
+
+        NulsHash hash = tx.getHash();
+        byte[] cached = tx.serialize();
+        assertArrayEquals(bytes, cached);
+        //返回的是缓存的副本, 调用方修改不影响缓存
+        assertNotSame(cached, tx.serialize());
+        cached[0] ^= 1;
+        assertArrayEquals(bytes, tx.serialize());
+        assertArrayEquals(bytes, serializeToBuffer(tx, false));
+        assertEquals(hash, NulsHash.calcHash(tx.serializeForHash()));
+
+        tx.setTransactionSignature(new byte[]{4, 5, 6, 7});
+        byte[] signed = tx.serialize();
+        assertNotSame(cached, signed);
+        Transaction parsed = new Transaction();
+        parsed.parse(new NulsByteBuffer(signed));
+        assertArrayEquals(new byte[]{4, 5, 6, 7}, parsed.getTransactionSignature());
+        assertArrayEquals(signed, serializeToBuffer(tx, true));
+    }
+
+    @Test
+    public void block() throws Exception {
+        List<Transaction> txs = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Transaction tx = tx(i);
+            if (i % 2 == 0) {
+                tx.getHash();
+            }
+            txs.add(tx);
+        }
+        BlockHeader header = new BlockHeader();
+        header.setPreHash(NulsHash.calcHash(new byte[]{1}));
+        header.setMerkleHash(NulsHash.calcHash(new byte[]{2}));
+        header.setTime(1563000000L);
+        header.setHeight(100);
+        header.setTxCount(txs.size());
+        header.setExtend(new byte[]{1, 2, 3, 4});
+        header.getHash();
+        NulsSignData signData = new NulsSignData();
+        BlockSignature signature = new BlockSignature();
+        signData.setSignBytes(new byte[]{9, 9, 9});
+        signature.setSignData(signData);
+        signature.setPublicKey(new ECKey().getPubKey());
+        header.setBlockSignature(signature);
+
+        Block block = new Block();
+        block.setHeader(header);
+        block.setTxs(txs);
+        byte[] bytes = block.serialize();
+        assertArrayEquals(bytes, serializeToBuffer(block, true));
+        Block parsed = new Block();
+        parsed.parse(new NulsByteBuffer(bytes));
+        assertEquals(header.getHash(), parsed.getHeader().getHash());
+        assertArrayEquals(signature.getPublicKey(), parsed.getHeader().getBlockSignature().getPublicKey());
+        assertEquals(txs.get(3).getHash(), parsed.getTxs().get(3).getHash());
+
+        byte[] headerBytes = header.serialize();
+        assertNotSame(headerBytes, header.serialize());
+        headerBytes[0] ^= 1;
+        assertArrayEquals(serializeToBuffer(header, true), header.serialize());
+        headerBytes[0] ^= 1;
+        assertArrayEquals(headerBytes, header.serialize());
+        header.setHeight(101);
+        assertFalse(Arrays.equals(headerBytes, header.serialize()));
+    }
+}
@@ -0,0 +1,38 @@
+package io.nuls.base.signture;
+
+import io.nuls.core.crypto.ECKey;
+import io.nuls.core.crypto.Sha256Hash;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class SignatureVerifierTest {
+
+    @Test
+    public void verifyBatch() {
+        List<SignatureVerifier.Item> items = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            ECKey key = new ECKey();
+            byte[] digest = Sha256Hash.hash(new byte[]{(byte) i});
+            items.add(new SignatureVerifier.Item(digest, key.sign(digest), key.getPubKey()));
+        }
+        assertTrue(SignatureVerifier.verifyAll(items));
+
+        //篡改一个签名的摘要
+        SignatureVerifier.Item valid = items.get(3);
+        items.set(3, new SignatureVerifier.Item(Sha256Hash.hash(new byte[]{99}), valid.getSignature(), valid.getPublicKey()));
+        boolean[] results = SignatureVerifier.verify(items);
+        assertFalse(results[3]);
+        assertTrue(results[2]);
+        assertFalse(SignatureVerifier.verifyAll(items));
+        assertFalse(SignatureVerifier.verify(valid.getDigest(), new byte[]{1, 2, 3}, valid.getPublicKey()));
+
+        Map<String, Object> metrics = SignatureVerifier.getMetrics();
+        assertTrue((long) metrics.get("cacheHitCount") >= 15);
+        assertTrue((long) metrics.get("failCount") >= 2);
+    }
+}
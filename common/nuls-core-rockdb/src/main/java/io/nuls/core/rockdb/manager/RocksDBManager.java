@@ -23,14 +23,20 @@ import io.nuls.core.log.Log;
 import io.nuls.core.model.StringUtils;
 import io.nuls.core.rockdb.constant.DBErrorCode;
 import io.nuls.core.rockdb.model.Entry;
+import io.nuls.core.rockdb.model.TableOptions;
 import io.nuls.core.rockdb.util.DBUtils;
 import org.rocksdb.*;
 import org.rocksdb.util.SizeUnit;
 
 import java.io.File;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 
 /**
@@ -47,6 +53,22 @@ public class RocksDBManager {
      */
     private static final ConcurrentHashMap<String, RocksDB> TABLES = new ConcurrentHashMap<>();
 
+    /**
+     * 数据表对应的列族，独立目录的表为其默认列族.
+     */
+    private static final ConcurrentHashMap<String, ColumnFamilyHandle> COLUMN_FAMILIES = new ConcurrentHashMap<>();
+
+    /**
+     * 是否启用列族模式，通过-Drocksdb.columnFamily=true配置.
+     * 启用后新建的表作为同一个库中的列族，可以跨表原子提交
+     */
+    public static final String COLUMN_FAMILY_MODE_KEY = "rocksdb.columnFamily";
+
+    /**
+     * 列族模式下共享库的文件夹名.
+     */
+    private static final String COLUMN_FAMILY_DB_NAME = "column_family";
+
     /**
      * 数据表基础文件夹名.
      */
@@ -62,6 +84,18 @@ public class RocksDBManager {
      */
     private static String dataPath;
 
+    /**
+     * 列族模式下的共享库.
+     */
+    private static RocksDB columnFamilyDB;
+
+    private static boolean columnFamilyMode;
+
+    /**
+     * 只查询是否存在时使用的空缓冲区，rocksdb只返回value长度.
+     */
+    private static final byte[] EMPTY_VALUE = new byte[0];
+
     /**
      * 根据传入的数据库路径将已存在的数据库连接打开，并缓存DB连接.
      * 如果有数据表连接被关闭需要重新打开连接也可以，执行初始化连接
@@ -73,42 +107,89 @@ public class RocksDBManager {
         synchronized (RocksDBManager.class) {
             File dir = DBUtils.loadDataPath(path);
             dataPath = dir.getPath();
-            Log.info("RocksDBManager dataPath is " + dataPath);
+            columnFamilyMode = Boolean.parseBoolean(System.getProperty(COLUMN_FAMILY_MODE_KEY));
+            Log.info("RocksDBManager dataPath is " + dataPath + ", columnFamilyMode is " + columnFamilyMode);
             File[] tableFiles = dir.listFiles();
             RocksDB db;
             String dbPath = null;
             for (File tableFile : tableFiles) {
                 //缓存中已存在的数据库连接不再重复打开
-                if (!tableFile.isDirectory() || TABLES.get(tableFile.getName()) != null) {
+                if (!tableFile.isDirectory() || COLUMN_FAMILY_DB_NAME.equals(tableFile.getName()) || TABLES.get(tableFile.getName()) != null) {
                     continue;
                 }
                 try {
                     dbPath = tableFile.getPath() + File.separator + BASE_DB_NAME;
-                    db = initOpenDB(dbPath);
+                    db = initOpenDB(dbPath, TableOptionsManager.loadTableOptions(tableFile));
                     if (db != null) {
                         TABLES.put(tableFile.getName(), db);
+                        COLUMN_FAMILIES.put(tableFile.getName(), db.getDefaultColumnFamily());
                     }
                 } catch (Exception e) {
                     Log.warn("load table failed, tableName: " + tableFile.getName() + ", dbPath: " + dbPath, e);
                     throw e;
                 }
             }
+            //已有列族库时总是打开，关闭列族模式后其中的表仍然可用
+            File columnFamilyDir = new File(dir, COLUMN_FAMILY_DB_NAME);
+            if (columnFamilyMode || columnFamilyDir.exists()) {
+                initColumnFamilyDB(columnFamilyDir);
+            }
         }
 
     }
 
+    /**
+     * 打开列族模式的共享库，每个列族对应一张表.
+     * Open the shared database of the column family mode, one column family per table
+     *
+     * @param columnFamilyDir 共享库目录
+     * @throws RocksDBException 数据库连接异常
+     */
+    private static void initColumnFamilyDB(final File columnFamilyDir) throws RocksDBException {
+        if (columnFamilyDB != null) {
+            return;
+        }
+        if (!columnFamilyDir.exists()) {
+            columnFamilyDir.mkdirs();
+        }
+        String dbPath = columnFamilyDir.getPath() + File.separator + BASE_DB_NAME;
+        List<ColumnFamilyDescriptor> descriptors = new ArrayList<>();
+        descriptors.add(new ColumnFamilyDescriptor(RocksDB.DEFAULT_COLUMN_FAMILY,
+                TableOptionsManager.getColumnFamilyOptions(TableOptions.defaultOptions())));
+        if (new File(dbPath + File.separator + "CURRENT").exists()) {
+            try (Options options = new Options()) {
+                for (byte[] name : RocksDB.listColumnFamilies(options, dbPath)) {
+                    if (Arrays.equals(name, RocksDB.DEFAULT_COLUMN_FAMILY)) {
+                        continue;
+                    }
+                    TableOptions tableOptions = TableOptionsManager.loadTableOptions(columnFamilyDir, new String(name, StandardCharsets.UTF_8));
+                    descriptors.add(new ColumnFamilyDescriptor(name, TableOptionsManager.getColumnFamilyOptions(tableOptions)));
+                }
+            }
+        }
+        List<ColumnFamilyHandle> handles = new ArrayList<>();
+        columnFamilyDB = RocksDB.open(getColumnFamilyDBOptions(), dbPath, descriptors, handles);
+        for (int i = 1; i < handles.size(); i++) {
+            String tableName = new String(descriptors.get(i).getName(), StandardCharsets.UTF_8);
+            TABLES.put(tableName, columnFamilyDB);
+            COLUMN_FAMILIES.put(tableName, handles.get(i));
+        }
+        //默认列族不作为表使用
+        handles.get(0).close();
+    }
+
     /**
      * @param dbPath 数据库地址
      * @return RocksDB 数据库连接对象
      * @throws RocksDBException 数据库连接异常
      */
-    private static RocksDB initOpenDB(final String dbPath) throws RocksDBException {
+    private static RocksDB initOpenDB(final String dbPath, final TableOptions tableOptions) throws RocksDBException {
         File checkFile = new File(dbPath + File.separator + "CURRENT");
         if (!checkFile.exists()) {
             return null;
         }
 
-        Options options = getCommonOptions(false);
+        Options options = getCommonOptions(false, tableOptions);
         return RocksDB.open(options, dbPath);
     }
 
@@ -118,11 +199,12 @@ public class RocksDBManager {
      *
      * @param dbPath          数据库地址
      * @param createIfMissing 数据库不存在时是否默认创建
+     * @param tableOptions    表配置
      * @return RocksDB
      * @throws RocksDBException 数据库连接异常
      */
-    private static RocksDB openDB(final String dbPath, final boolean createIfMissing) throws RocksDBException {
-        Options options = getCommonOptions(createIfMissing);
+    private static RocksDB openDB(final String dbPath, final boolean createIfMissing, final TableOptions tableOptions) throws RocksDBException {
+        Options options = getCommonOptions(createIfMissing, tableOptions);
         return RocksDB.open(options, dbPath);
     }
 
@@ -134,6 +216,18 @@ public class RocksDBManager {
      * @return Result 创建结果
      */
     public static boolean createTable(final String tableName) throws Exception {
+        return createTable(tableName, TableOptions.defaultOptions());
+    }
+
+    /**
+     * 根据名称和表配置创建对应的数据库.
+     * Create database based by name and table profile
+     *
+     * @param tableName    数据库表名称
+     * @param tableOptions 表配置
+     * @return Result 创建结果
+     */
+    public static boolean createTable(final String tableName, final TableOptions tableOptions) throws Exception {
         lock.lock();
         try {
             if (StringUtils.isBlank(tableName)) {
@@ -142,17 +236,22 @@ public class RocksDBManager {
             if (TABLES.containsKey(tableName)) {
                 throw new Exception(DBErrorCode.DB_TABLE_EXIST);
             }
-            if (StringUtils.isBlank(dataPath) || !DBUtils.checkPathLegal(tableName)) {
+            if (StringUtils.isBlank(dataPath) || !DBUtils.checkPathLegal(tableName) || COLUMN_FAMILY_DB_NAME.equals(tableName)) {
                 throw new Exception(DBErrorCode.DB_TABLE_CREATE_PATH_ERROR);
             }
+            if (columnFamilyMode) {
+                return createColumnFamily(tableName, tableOptions);
+            }
             try {
                 File dir = new File(dataPath + File.separator + tableName);
                 if (!dir.exists()) {
                     dir.mkdir();
                 }
+                TableOptionsManager.saveTableOptions(dir, tableOptions);
                 String filePath = dataPath + File.separator + tableName + File.separator + BASE_DB_NAME;
-                RocksDB db = openDB(filePath, true);
+                RocksDB db = openDB(filePath, true, tableOptions);
                 TABLES.put(tableName, db);
+                COLUMN_FAMILIES.put(tableName, db.getDefaultColumnFamily());
             } catch (Exception e) {
                 Log.error("error create table: " + tableName, e);
                 throw new Exception(DBErrorCode.DB_TABLE_CREATE_ERROR);
@@ -163,6 +262,29 @@ public class RocksDBManager {
         }
     }
 
+    /**
+     * 在列族模式的共享库中创建表.
+     * Create a table as a column family of the shared database
+     *
+     * @param tableName    数据库表名称
+     * @param tableOptions 表配置
+     * @return Result 创建结果
+     */
+    private static boolean createColumnFamily(final String tableName, final TableOptions tableOptions) throws Exception {
+        try {
+            File dir = new File(dataPath + File.separator + COLUMN_FAMILY_DB_NAME);
+            TableOptionsManager.saveTableOptions(dir, tableName, tableOptions);
+            ColumnFamilyHandle handle = columnFamilyDB.createColumnFamily(new ColumnFamilyDescriptor(
+                    tableName.getBytes(StandardCharsets.UTF_8), TableOptionsManager.getColumnFamilyOptions(tableOptions)));
+            TABLES.put(tableName, columnFamilyDB);
+            COLUMN_FAMILIES.put(tableName, handle);
+        } catch (Exception e) {
+            Log.error("error create table: " + tableName, e);
+            throw new Exception(DBErrorCode.DB_TABLE_CREATE_ERROR);
+        }
+        return true;
+    }
+
     /**
      * 根据名称获得对应的数据库对象.
      * Get database objects by name
@@ -174,6 +296,17 @@ public class RocksDBManager {
         return TABLES.get(tableName);
     }
 
+    /**
+     * 根据名称获得对应的列族，独立目录的表返回其默认列族.
+     * Get the column family of a table, the default one for tables in their own directory
+     *
+     * @param tableName 数据库表名称
+     * @return ColumnFamilyHandle
+     */
+    public static ColumnFamilyHandle getColumnFamily(final String tableName) {
+        return COLUMN_FAMILIES.get(tableName);
+    }
+
     /**
      * 根据名称删除对应的数据库.
      * Delete database by name
@@ -190,6 +323,13 @@ public class RocksDBManager {
         }
         try {
             RocksDB db = TABLES.remove(tableName);
+            ColumnFamilyHandle handle = COLUMN_FAMILIES.remove(tableName);
+            if (db == columnFamilyDB) {
+                db.dropColumnFamily(handle);
+                handle.close();
+                TableOptionsManager.removeTableOptions(new File(dataPath + File.separator + COLUMN_FAMILY_DB_NAME), tableName);
+                return true;
+            }
             db.close();
             File dir = new File(dataPath + File.separator + tableName);
             if (!dir.exists()) {
@@ -197,6 +337,7 @@ public class RocksDBManager {
             }
             String filePath = dataPath + File.separator + tableName + File.separator + BASE_DB_NAME;
             destroyDB(filePath);
+            TableOptionsManager.removeTableOptions(dir);
         } catch (Exception e) {
             Log.error("error destroy table: " + tableName, e);
             throw new Exception(DBErrorCode.DB_TABLE_DESTROY_ERROR);
@@ -223,12 +364,15 @@ public class RocksDBManager {
         Set<Map.Entry<String, RocksDB>> entries = TABLES.entrySet();
         for (Map.Entry<String, RocksDB> entry : entries) {
             try {
-                TABLES.remove(entry.getKey());
-                entry.getValue().close();
+                closeTable(entry.getKey());
             } catch (Exception e) {
                 Log.warn("close rocksdb error", e);
             }
         }
+        if (columnFamilyDB != null) {
+            columnFamilyDB.close();
+            columnFamilyDB = null;
+        }
     }
 
     /**
@@ -240,7 +384,13 @@ public class RocksDBManager {
     public static void closeTable(final String tableName) {
         try {
             RocksDB db = TABLES.remove(tableName);
-            db.close();
+            ColumnFamilyHandle handle = COLUMN_FAMILIES.remove(tableName);
+            //列族库中的表只释放列族，共享库在全部关闭时释放
+            if (db == columnFamilyDB) {
+                handle.close();
+            } else {
+                db.close();
+            }
         } catch (Exception e) {
             Log.warn("close rocksdb tableName error:" + tableName, e);
         }
@@ -299,7 +449,8 @@ public class RocksDBManager {
         }
         try {
             RocksDB db = TABLES.get(table);
-            db.put(key, value);
+            ColumnFamilyHandle handle = COLUMN_FAMILIES.get(table);
+            db.put(handle, key, value);
             return true;
         } catch (Exception e) {
             Log.error(e);
@@ -324,7 +475,8 @@ public class RocksDBManager {
         }
         try {
             RocksDB db = TABLES.get(table);
-            db.delete(key);
+            ColumnFamilyHandle handle = COLUMN_FAMILIES.get(table);
+            db.delete(handle, key);
             return true;
         } catch (Exception e) {
             Log.error(e);
@@ -349,8 +501,9 @@ public class RocksDBManager {
         }
         try (WriteBatch writeBatch = new WriteBatch()) {
             RocksDB db = TABLES.get(table);
+            ColumnFamilyHandle handle = COLUMN_FAMILIES.get(table);
             for (Map.Entry<byte[], byte[]> entry : kvs.entrySet()) {
-                writeBatch.put(entry.getKey(), entry.getValue());
+                writeBatch.put(handle, entry.getKey(), entry.getValue());
             }
             db.write(new WriteOptions(), writeBatch);
             return true;
@@ -377,8 +530,9 @@ public class RocksDBManager {
         }
         try (WriteBatch writeBatch = new WriteBatch()) {
             RocksDB db = TABLES.get(table);
+            ColumnFamilyHandle handle = COLUMN_FAMILIES.get(table);
             for (byte[] key : keys) {
-                writeBatch.delete(key);
+                writeBatch.delete(handle, key);
             }
             db.write(new WriteOptions(), writeBatch);
             return true;
@@ -406,7 +560,8 @@ public class RocksDBManager {
         }
         try {
             RocksDB db = TABLES.get(table);
-            return db.get(key);
+            ColumnFamilyHandle handle = COLUMN_FAMILIES.get(table);
+            return db.get(handle, key);
         } catch (Exception e) {
             Log.error("get table={}: error",table);
             Log.error(e);
@@ -431,8 +586,9 @@ public class RocksDBManager {
         }
         try {
             RocksDB db = TABLES.get(table);
-            boolean rs = db.keyMayExist(key, new StringBuilder());
-            return rs && (db.get(key) != null);
+            ColumnFamilyHandle handle = COLUMN_FAMILIES.get(table);
+            boolean rs = db.keyMayExist(handle, key, new StringBuilder());
+            return rs && (db.get(handle, key, EMPTY_VALUE) != RocksDB.NOT_FOUND);
         } catch (Exception e) {
             Log.error("keyMayExist table={}: error",table);
             Log.error(e);
@@ -440,6 +596,69 @@ public class RocksDBManager {
         }
     }
 
+    /**
+     * 查询key是否存在，不读取value.
+     * 表的布隆过滤器常驻内存，不存在的key通常不需要读取数据块；存在的key只返回长度，不复制value
+     * Check whether a key exists without reading the value.
+     * The bloom filters of the table stay in memory so a missing key usually reads no data block, an existing key only
+     * reports the value length, the value is not copied
+     *
+     * @param table 数据库表名称
+     * @param key   查询关键字
+     * @return 是否存在
+     */
+    public static boolean exists(final String table, final byte[] key) {
+        if (!baseCheckTable(table)) {
+            Log.error("exists table={}: error",table);
+            return false;
+        }
+        if (key == null) {
+            return false;
+        }
+        try {
+            RocksDB db = TABLES.get(table);
+            ColumnFamilyHandle handle = COLUMN_FAMILIES.get(table);
+            return db.get(handle, key, EMPTY_VALUE) != RocksDB.NOT_FOUND;
+        } catch (Exception e) {
+            Log.error("exists table={}: error",table);
+            Log.error(e);
+            return false;
+        }
+    }
+
+    /**
+     * 批量查询存在的key，不读取value，结果按传入顺序排列.
+     * batch query the existing keys without reading the values, in the order given
+     *
+     * @param table 数据库表名称
+     * @param keys  批量查询关键字
+     * @return 存在的key
+     */
+    public static List<byte[]> multiExists(final String table, final List<byte[]> keys) {
+        List<byte[]> list = new ArrayList<>();
+        if (!baseCheckTable(table)) {
+            Log.error("multiExists table={}: error",table);
+            return list;
+        }
+        if (keys == null || keys.size() == 0) {
+            return list;
+        }
+        try {
+            RocksDB db = TABLES.get(table);
+            ColumnFamilyHandle handle = COLUMN_FAMILIES.get(table);
+            for (byte[] key : keys) {
+                if (key != null && db.get(handle, key, EMPTY_VALUE) != RocksDB.NOT_FOUND) {
+                    list.add(key);
+                }
+            }
+            return list;
+        } catch (Exception ex) {
+            Log.error("multiExists table={}: error",table);
+            Log.error(ex);
+            return list;
+        }
+    }
+
     /**
      * 批量查询指定keys的Map集合.
      * batch query the Map set of the specified keys.
@@ -458,7 +677,8 @@ public class RocksDBManager {
         }
         try {
             RocksDB db = TABLES.get(table);
-            return db.multiGet(keys);
+            ColumnFamilyHandle handle = COLUMN_FAMILIES.get(table);
+            return db.multiGet(Collections.nCopies(keys.size(), handle), keys);
         } catch (Exception ex) {
             Log.error("multiGet table={}: error",table);
             Log.error(ex);
@@ -481,8 +701,9 @@ public class RocksDBManager {
         }
         try {
             RocksDB db = TABLES.get(table);
+            ColumnFamilyHandle handle = COLUMN_FAMILIES.get(table);
             //该方法获取的结果包含查不到的key, 将以null 值放入返回的list中,因此需要把空值去除.
-            List<byte[]> list = db.multiGetAsList(keys);
+            List<byte[]> list = db.multiGetAsList(Collections.nCopies(keys.size(), handle), keys);
             List<byte[]> rs = new ArrayList<>();
             for(byte[] tx : list){
                 if(null != tx){
@@ -514,7 +735,8 @@ public class RocksDBManager {
         }
         try {
             RocksDB db = TABLES.get(table);
-            Map<byte[], byte[]> map = db.multiGet(keys);
+            ColumnFamilyHandle handle = COLUMN_FAMILIES.get(table);
+            Map<byte[], byte[]> map = db.multiGet(Collections.nCopies(keys.size(), handle), keys);
             if (map != null && map.size() > 0) {
                 list.addAll(map.values());
             }
@@ -545,7 +767,8 @@ public class RocksDBManager {
         }
         try {
             RocksDB db = TABLES.get(table);
-            Map<byte[], byte[]> map = db.multiGet(keys);
+            ColumnFamilyHandle handle = COLUMN_FAMILIES.get(table);
+            Map<byte[], byte[]> map = db.multiGet(Collections.nCopies(keys.size(), handle), keys);
             if (map != null && map.size() > 0) {
                 list.addAll(map.keySet());
             }
@@ -572,7 +795,8 @@ public class RocksDBManager {
         List<byte[]> list = new ArrayList<>();
         try {
             RocksDB db = TABLES.get(table);
-            try (RocksIterator iterator = db.newIterator()) {
+            ColumnFamilyHandle handle = COLUMN_FAMILIES.get(table);
+            try (RocksIterator iterator = db.newIterator(handle)) {
                 for (iterator.seekToFirst(); iterator.isValid(); iterator.next()) {
                     list.add(iterator.key());
                 }
@@ -600,7 +824,8 @@ public class RocksDBManager {
         List<byte[]> list = new ArrayList<>();
         try {
             RocksDB db = TABLES.get(table);
-            try (RocksIterator iterator = db.newIterator()) {
+            ColumnFamilyHandle handle = COLUMN_FAMILIES.get(table);
+            try (RocksIterator iterator = db.newIterator(handle)) {
                 for (iterator.seekToFirst(); iterator.isValid(); iterator.next()) {
                     list.add(iterator.value());
                 }
@@ -628,7 +853,8 @@ public class RocksDBManager {
         List<Entry<byte[], byte[]>> entryList = new ArrayList<>();
         try {
             RocksDB db = TABLES.get(table);
-            try (RocksIterator iterator = db.newIterator()) {
+            ColumnFamilyHandle handle = COLUMN_FAMILIES.get(table);
+            try (RocksIterator iterator = db.newIterator(handle)) {
                 for (iterator.seekToFirst(); iterator.isValid(); iterator.next()) {
                     entryList.add(new Entry(iterator.key(), iterator.value()));
                 }
@@ -641,33 +867,183 @@ public class RocksDBManager {
         }
     }
 
+    /**
+     * 按key范围正序查询[fromKey, toKey)的键值对.
+     * query the entries in [fromKey, toKey) of the specified table in key order
+     *
+     * @param table   数据库表名称
+     * @param fromKey 起始key（包含），null表示从第一条开始
+     * @param toKey   结束key（不包含），null表示到最后一条
+     * @param limit   最多返回条数，小于等于0表示不限制
+     * @return 键值对集合
+     */
+    public static List<Entry<byte[], byte[]>> scan(final String table, final byte[] fromKey, final byte[] toKey, final int limit) {
+        return collect(openStream(table, fromKey, toKey, false, true), limit);
+    }
+
+    /**
+     * 按key范围倒序查询[fromKey, toKey)的键值对.
+     * query the entries in [fromKey, toKey) of the specified table in reverse key order
+     *
+     * @param table   数据库表名称
+     * @param fromKey 起始key（包含），null表示到第一条为止
+     * @param toKey   结束key（不包含），null表示从最后一条开始
+     * @param limit   最多返回条数，小于等于0表示不限制
+     * @return 键值对集合
+     */
+    public static List<Entry<byte[], byte[]>> reverseScan(final String table, final byte[] fromKey, final byte[] toKey, final int limit) {
+        return collect(openStream(table, fromKey, toKey, true, true), limit);
+    }
+
+    /**
+     * 查询key以指定前缀开头的键值对.
+     * query the entries whose key starts with the prefix
+     *
+     * @param table  数据库表名称
+     * @param prefix key前缀
+     * @return 键值对集合
+     */
+    public static List<Entry<byte[], byte[]>> prefixScan(final String table, final byte[] prefix) {
+        if (prefix == null) {
+            return new ArrayList<>();
+        }
+        return collect(openStream(table, prefix, prefixUpperBound(prefix), false, true), 0);
+    }
+
+    /**
+     * 以流的方式遍历[fromKey, toKey)的键值对，基于快照读取且不填充读缓存，适合大批量遍历.
+     * 使用完毕必须关闭流以释放迭代器和快照
+     * Stream the entries in [fromKey, toKey) from a snapshot without filling the block cache, for bulk scans.
+     * The stream must be closed to release the iterator and the snapshot
+     *
+     * @param table   数据库表名称
+     * @param fromKey 起始key（包含），null表示不限
+     * @param toKey   结束key（不包含），null表示不限
+     * @param reverse 是否倒序
+     * @return 键值对流
+     */
+    public static Stream<Entry<byte[], byte[]>> stream(final String table, final byte[] fromKey, final byte[] toKey, final boolean reverse) {
+        return openStream(table, fromKey, toKey, reverse, false);
+    }
+
+    private static List<Entry<byte[], byte[]>> collect(final Stream<Entry<byte[], byte[]>> stream, final int limit) {
+        try (Stream<Entry<byte[], byte[]>> entries = stream) {
+            return (limit > 0 ? entries.limit(limit) : entries).collect(Collectors.toList());
+        }
+    }
+
+    private static Stream<Entry<byte[], byte[]>> openStream(final String table, final byte[] fromKey, final byte[] toKey,
+                                                            final boolean reverse, final boolean fillCache) {
+        if (!baseCheckTable(table)) {
+            Log.error("scan table={}: error", table);
+            return Stream.empty();
+        }
+        RocksDB db = TABLES.get(table);
+        ColumnFamilyHandle handle = COLUMN_FAMILIES.get(table);
+        Snapshot snapshot = db.getSnapshot();
+        ReadOptions readOptions = new ReadOptions().setSnapshot(snapshot).setFillCache(fillCache);
+        Slice lowerBound = fromKey == null ? null : new Slice(fromKey);
+        Slice upperBound = toKey == null ? null : new Slice(toKey);
+        if (lowerBound != null) {
+            readOptions.setIterateLowerBound(lowerBound);
+        }
+        if (upperBound != null) {
+            readOptions.setIterateUpperBound(upperBound);
+        }
+        Runnable release = () -> {
+            db.releaseSnapshot(snapshot);
+            readOptions.close();
+            if (lowerBound != null) {
+                lowerBound.close();
+            }
+            if (upperBound != null) {
+                upperBound.close();
+            }
+        };
+        RocksIterator iterator = null;
+        try {
+            iterator = db.newIterator(handle, readOptions);
+            //定位时会遵守上下界
+            if (reverse) {
+                iterator.seekToLast();
+            } else {
+                iterator.seekToFirst();
+            }
+        } catch (RuntimeException e) {
+            //迭代器创建或定位失败时释放快照和读选项，避免泄漏
+            if (iterator != null) {
+                iterator.close();
+            }
+            release.run();
+            throw e;
+        }
+        final RocksIterator it = iterator;
+        Spliterator<Entry<byte[], byte[]>> spliterator = new Spliterators.AbstractSpliterator<Entry<byte[], byte[]>>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super Entry<byte[], byte[]>> action) {
+                if (!it.isValid()) {
+                    return false;
+                }
+                action.accept(new Entry<>(it.key(), it.value()));
+                if (reverse) {
+                    it.prev();
+                } else {
+                    it.next();
+                }
+                return true;
+            }
+        };
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+            it.close();
+            release.run();
+        });
+    }
+
+    /**
+     * 前缀的上界：最后一个不为0xFF的字节加1并截断，全部为0xFF时没有上界
+     */
+    private static byte[] prefixUpperBound(final byte[] prefix) {
+        for (int i = prefix.length - 1; i >= 0; i--) {
+            if (prefix[i] != (byte) 0xFF) {
+                byte[] upper = Arrays.copyOf(prefix, i + 1);
+                upper[i]++;
+                return upper;
+            }
+        }
+        return null;
+    }
+
     /**
      * 获得公共的数据库连接属性.
      *
      * @param createIfMissing 是否默认表
+     * @param tableOptions    表配置
      * @return 数据库连接属性
      */
-    private static synchronized Options getCommonOptions(final boolean createIfMissing) {
-        Options options = new Options();
-
-        options.setCreateIfMissing(createIfMissing);
-        /**
-         * 优化读取性能方案
-         */
-        options.setAllowMmapReads(true);
-        options.setCompressionType(CompressionType.NO_COMPRESSION);
-        options.setMaxOpenFiles(-1);
-        BlockBasedTableConfig tableOption = new BlockBasedTableConfig();
-        tableOption.setNoBlockCache(true);
-        tableOption.setBlockRestartInterval(4);
-        tableOption.setFilterPolicy(new BloomFilter(10, true));
-        options.setTableFormatConfig(tableOption);
+    private static synchronized Options getCommonOptions(final boolean createIfMissing, final TableOptions tableOptions) {
+        Options options = TableOptionsManager.getOptions(createIfMissing, tableOptions);
 
         options.setMaxBackgroundCompactions(16);
         options.setNewTableReaderForCompactionInputs(true);
         //为压缩的输入，打开RocksDB层的预读取
         options.setCompactionReadaheadSize(128 * SizeUnit.KB);
+
+        return options;
+    }
+
+    /**
+     * 获得列族模式共享库的连接属性.
+     *
+     * @return 数据库连接属性
+     */
+    private static synchronized DBOptions getColumnFamilyDBOptions() {
+        DBOptions options = TableOptionsManager.getDBOptions();
+
+        options.setMaxBackgroundCompactions(16);
         options.setNewTableReaderForCompactionInputs(true);
+        //为压缩的输入，打开RocksDB层的预读取
+        options.setCompactionReadaheadSize(128 * SizeUnit.KB);
 
         return options;
     }
@@ -0,0 +1,264 @@
+/**
+ * MIT License
+ * Copyright (c) 2017-2019 nuls.io
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.core.rockdb.manager;
+
+import io.nuls.core.log.Log;
+import io.nuls.core.model.StringUtils;
+import io.nuls.core.rockdb.model.TableOptions;
+import org.rocksdb.*;
+import org.rocksdb.util.SizeUnit;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Properties;
+
+/**
+ * 进程内所有数据表共享的读缓存、写缓冲，以及按表配置生成连接属性
+ * Block cache and write buffer shared by every table of the process, and connection options built from the table profile
+ */
+public class TableOptionsManager {
+
+    /**
+     * 共享读缓存大小（MB），通过-Drocksdb.blockCacheSize配置
+     */
+    public static final String BLOCK_CACHE_SIZE_KEY = "rocksdb.blockCacheSize";
+
+    /**
+     * 所有表memtable总内存上限（MB），通过-Drocksdb.writeBufferLimit配置，0表示不限制
+     */
+    public static final String WRITE_BUFFER_LIMIT_KEY = "rocksdb.writeBufferLimit";
+
+    private static final long DEFAULT_BLOCK_CACHE_SIZE = 128;
+
+    private static final long DEFAULT_WRITE_BUFFER_LIMIT = 0;
+
+    /**
+     * 表配置在表目录下保存的文件名
+     */
+    private static final String TABLE_OPTIONS_FILE = "table.properties";
+
+    /**
+     * 列族模式下表配置文件的后缀，文件名为表名+后缀
+     */
+    private static final String TABLE_OPTIONS_SUFFIX = ".properties";
+
+    private static Cache blockCache;
+
+    private static WriteBufferManager writeBufferManager;
+
+    private static synchronized Cache getBlockCache() {
+        if (blockCache == null) {
+            RocksDB.loadLibrary();
+            long cacheSize = getSizeProperty(BLOCK_CACHE_SIZE_KEY, DEFAULT_BLOCK_CACHE_SIZE);
+            blockCache = new LRUCache(cacheSize * SizeUnit.MB);
+            long writeBufferLimit = getSizeProperty(WRITE_BUFFER_LIMIT_KEY, DEFAULT_WRITE_BUFFER_LIMIT);
+            if (writeBufferLimit > 0) {
+                //memtable内存计入共享缓存
+                writeBufferManager = new WriteBufferManager(writeBufferLimit * SizeUnit.MB, blockCache);
+            }
+            Log.info("rocksdb shared block cache: {}MB, write buffer limit: {}MB", cacheSize, writeBufferLimit);
+        }
+        return blockCache;
+    }
+
+    private static long getSizeProperty(String key, long defaultValue) {
+        String value = System.getProperty(key);
+        if (StringUtils.isBlank(value)) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            Log.warn("invalid {}={}, use default {}", key, value, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * 根据表配置生成数据库连接属性，所有表共享同一个读缓存
+     * Build the connection options of a table, every table shares one block cache
+     *
+     * @param createIfMissing 是否默认表
+     * @param tableOptions    表配置
+     * @return 数据库连接属性
+     */
+    public static synchronized Options getOptions(final boolean createIfMissing, final TableOptions tableOptions) {
+        Options options = new Options();
+        options.setCreateIfMissing(createIfMissing);
+        //数据块由共享缓存管理，不再使用mmap读取，避免热点数据依赖缺页中断
+        options.setAllowMmapReads(false);
+        options.setMaxOpenFiles(-1);
+        options.setCompressionType(getCompressionType(tableOptions));
+        options.setTableFormatConfig(getTableConfig(tableOptions));
+        if (writeBufferManager != null) {
+            options.setWriteBufferManager(writeBufferManager);
+        }
+        return options;
+    }
+
+    /**
+     * 列族模式下整个库的连接属性
+     * Database wide options of the column family mode
+     *
+     * @return 数据库连接属性
+     */
+    public static synchronized DBOptions getDBOptions() {
+        DBOptions options = new DBOptions();
+        options.setCreateIfMissing(true);
+        options.setCreateMissingColumnFamilies(true);
+        options.setAllowMmapReads(false);
+        options.setMaxOpenFiles(-1);
+        getBlockCache();
+        if (writeBufferManager != null) {
+            options.setWriteBufferManager(writeBufferManager);
+        }
+        return options;
+    }
+
+    /**
+     * 列族模式下单个表（列族）的属性
+     * Options of one table (column family) in the column family mode
+     *
+     * @param tableOptions 表配置
+     * @return 列族属性
+     */
+    public static synchronized ColumnFamilyOptions getColumnFamilyOptions(final TableOptions tableOptions) {
+        ColumnFamilyOptions options = new ColumnFamilyOptions();
+        options.setCompressionType(getCompressionType(tableOptions));
+        options.setTableFormatConfig(getTableConfig(tableOptions));
+        return options;
+    }
+
+    private static CompressionType getCompressionType(final TableOptions tableOptions) {
+        return tableOptions.isCompression() ? CompressionType.LZ4_COMPRESSION : CompressionType.NO_COMPRESSION;
+    }
+
+    private static BlockBasedTableConfig getTableConfig(final TableOptions tableOptions) {
+        BlockBasedTableConfig tableOption = new BlockBasedTableConfig();
+        tableOption.setBlockCache(getBlockCache());
+        tableOption.setBlockSize(tableOptions.getBlockSize());
+        if (tableOptions.getBloomBits() > 0) {
+            tableOption.setFilterPolicy(new BloomFilter(tableOptions.getBloomBits(), true));
+        }
+        if (tableOptions.isPointLookup()) {
+            tableOption.setBlockRestartInterval(4);
+            tableOption.setDataBlockIndexType(DataBlockIndexType.kDataBlockBinaryAndHash);
+        } else if (!tableOptions.isCompression()) {
+            tableOption.setBlockRestartInterval(4);
+        }
+        return tableOption;
+    }
+
+    /**
+     * 读取表目录下保存的表配置，不存在时使用默认配置
+     * Load the profile saved in the table directory, or the default one
+     *
+     * @param tableDir 表目录
+     * @return 表配置
+     */
+    public static TableOptions loadTableOptions(final File tableDir) {
+        return readOptionsFile(new File(tableDir, TABLE_OPTIONS_FILE));
+    }
+
+    /**
+     * 读取列族模式下保存的表配置
+     * Load the profile of a column family table
+     *
+     * @param dir       列族库目录
+     * @param tableName 表名
+     * @return 表配置
+     */
+    public static TableOptions loadTableOptions(final File dir, final String tableName) {
+        return readOptionsFile(new File(dir, tableName + TABLE_OPTIONS_SUFFIX));
+    }
+
+    /**
+     * 保存表配置到表目录
+     * Save the profile in the table directory
+     *
+     * @param tableDir     表目录
+     * @param tableOptions 表配置
+     */
+    public static void saveTableOptions(final File tableDir, final TableOptions tableOptions) throws Exception {
+        writeOptionsFile(new File(tableDir, TABLE_OPTIONS_FILE), tableOptions);
+    }
+
+    /**
+     * 保存列族模式下的表配置
+     * Save the profile of a column family table
+     *
+     * @param dir          列族库目录
+     * @param tableName    表名
+     * @param tableOptions 表配置
+     */
+    public static void saveTableOptions(final File dir, final String tableName, final TableOptions tableOptions) throws Exception {
+        writeOptionsFile(new File(dir, tableName + TABLE_OPTIONS_SUFFIX), tableOptions);
+    }
+
+    /**
+     * 删除表目录下保存的表配置
+     * Remove the profile saved in the table directory
+     *
+     * @param tableDir 表目录
+     */
+    public static void removeTableOptions(final File tableDir) {
+        deleteOptionsFile(new File(tableDir, TABLE_OPTIONS_FILE));
+    }
+
+    /**
+     * 删除列族模式下的表配置
+     * Remove the profile of a column family table
+     *
+     * @param dir       列族库目录
+     * @param tableName 表名
+     */
+    public static void removeTableOptions(final File dir, final String tableName) {
+        deleteOptionsFile(new File(dir, tableName + TABLE_OPTIONS_SUFFIX));
+    }
+
+    private static TableOptions readOptionsFile(final File file) {
+        if (!file.exists()) {
+            return TableOptions.defaultOptions();
+        }
+        Properties properties = new Properties();
+        try (InputStream in = new FileInputStream(file)) {
+            properties.load(in);
+            return TableOptions.fromProperties(properties);
+        } catch (Exception e) {
+            Log.warn("load table options failed: " + file.getPath(), e);
+            return TableOptions.defaultOptions();
+        }
+    }
+
+    private static void writeOptionsFile(final File file, final TableOptions tableOptions) throws Exception {
+        try (OutputStream out = new FileOutputStream(file)) {
+            tableOptions.toProperties().store(out, null);
+        }
+    }
+
+    private static void deleteOptionsFile(final File file) {
+        if (file.exists() && !file.delete()) {
+            Log.warn("remove table options failed: " + file.getPath());
+        }
+    }
+}
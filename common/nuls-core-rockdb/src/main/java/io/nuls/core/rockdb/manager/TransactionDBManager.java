@@ -4,6 +4,7 @@ import io.nuls.core.log.Log;
 import io.nuls.core.model.StringUtils;
 import io.nuls.core.rockdb.constant.DBErrorCode;
 import io.nuls.core.rockdb.model.Entry;
+import io.nuls.core.rockdb.model.TableOptions;
 import io.nuls.core.rockdb.util.DBUtils;
 import org.rocksdb.*;
 
@@ -67,7 +68,7 @@ public class TransactionDBManager {
                 }
                 try {
                     dbPath = tableFile.getPath() + File.separator + BASE_DB_NAME;
-                    db = initOpenDB(dbPath);
+                    db = initOpenDB(dbPath, TableOptionsManager.loadTableOptions(tableFile));
                     if (db != null) {
                         TABLES.put(tableFile.getName(), db);
                     }
@@ -84,13 +85,13 @@ public class TransactionDBManager {
      * @return TransactionDB 数据库连接对象
      * @throws RocksDBException 数据库连接异常
      */
-    private static TransactionDB initOpenDB(final String dbPath) throws RocksDBException {
+    private static TransactionDB initOpenDB(final String dbPath, final TableOptions tableOptions) throws RocksDBException {
         File checkFile = new File(dbPath + File.separator + "CURRENT");
         if (!checkFile.exists()) {
             return null;
         }
 
-        Options options = getCommonOptions(false);
+        Options options = getCommonOptions(false, tableOptions);
         return TransactionDB.open(options, new TransactionDBOptions(), dbPath);
     }
 
@@ -102,6 +103,18 @@ public class TransactionDBManager {
      * @return Result 创建结果
      */
     public static boolean createTable(final String tableName) throws Exception {
+        return createTable(tableName, TableOptions.defaultOptions());
+    }
+
+    /**
+     * 根据名称和表配置创建对应的数据库.
+     * Create database based by name and table profile
+     *
+     * @param tableName    数据库表名称
+     * @param tableOptions 表配置
+     * @return Result 创建结果
+     */
+    public static boolean createTable(final String tableName, final TableOptions tableOptions) throws Exception {
         lock.lock();
         try {
             if (StringUtils.isBlank(tableName)) {
@@ -118,8 +131,9 @@ public class TransactionDBManager {
                 if (!dir.exists()) {
                     dir.mkdir();
                 }
+                TableOptionsManager.saveTableOptions(dir, tableOptions);
                 String filePath = dataPath + File.separator + tableName + File.separator + BASE_DB_NAME;
-                Options options = getCommonOptions(true);
+                Options options = getCommonOptions(true, tableOptions);
                 TransactionDB db = TransactionDB.open(options, new TransactionDBOptions(), filePath);
                 TABLES.put(tableName, db);
             } catch (Exception e) {
@@ -167,6 +181,7 @@ public class TransactionDBManager {
             }
             String filePath = dataPath + File.separator + tableName + File.separator + BASE_DB_NAME;
             destroyDB(filePath);
+            TableOptionsManager.removeTableOptions(dir);
         } catch (Exception e) {
             Log.error("error destroy table: " + tableName, e);
             throw new Exception(DBErrorCode.DB_TABLE_DESTROY_ERROR);
@@ -553,24 +568,10 @@ public class TransactionDBManager {
      * 获得公共的数据库连接属性.
      *
      * @param createIfMissing 是否默认表
+     * @param tableOptions    表配置
      * @return 数据库连接属性
      */
-    private static synchronized Options getCommonOptions(final boolean createIfMissing) {
-        Options options = new Options();
-        options.setCreateIfMissing(createIfMissing);
-        /**
-         * 优化读取性能方案
-         */
-        options.setAllowMmapReads(true);
-        options.setCompressionType(CompressionType.NO_COMPRESSION);
-        options.setMaxOpenFiles(-1);
-
-        BlockBasedTableConfig tableOption = new BlockBasedTableConfig();
-        tableOption.setNoBlockCache(true);
-        tableOption.setBlockRestartInterval(4);
-        tableOption.setFilterPolicy(new BloomFilter(10, true));
-        options.setTableFormatConfig(tableOption);
-
-        return options;
+    private static synchronized Options getCommonOptions(final boolean createIfMissing, final TableOptions tableOptions) {
+        return TableOptionsManager.getOptions(createIfMissing, tableOptions);
     }
 }
@@ -0,0 +1,154 @@
+/**
+ * MIT License
+ * Copyright (c) 2017-2019 nuls.io
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.core.rockdb.model;
+
+import java.util.Properties;
+
+/**
+ * 数据表参数配置，创建表时指定，并保存在表目录下，重新打开时沿用
+ * Per-table option profile, chosen when the table is created and saved in the table directory so reopening uses it again
+ */
+public class TableOptions {
+
+    private static final String KEY_PROFILE = "profile";
+    private static final String KEY_COMPRESSION = "compression";
+    private static final String KEY_BLOOM_BITS = "bloomBits";
+    private static final String KEY_BLOCK_SIZE = "blockSize";
+
+    /**
+     * 默认配置，与历史版本一致：不压缩，10位布隆过滤器
+     * Default profile, same as before: no compression, 10 bits bloom filter
+     */
+    public static final String PROFILE_DEFAULT = "default";
+    /**
+     * 按key随机读为主（区块头、账户等）
+     * Mostly random point lookups (block headers, accounts)
+     */
+    public static final String PROFILE_POINT_LOOKUP = "pointLookup";
+    /**
+     * 以顺序遍历为主（快照、索引等）
+     * Mostly sequential scans (snapshots, indexes)
+     */
+    public static final String PROFILE_SCAN = "scan";
+
+    private String profile;
+
+    /**
+     * 是否压缩（LZ4）
+     */
+    private boolean compression;
+
+    /**
+     * 布隆过滤器每个key的位数，0表示不使用
+     */
+    private int bloomBits;
+
+    /**
+     * 数据块大小（字节）
+     */
+    private long blockSize;
+
+    public TableOptions() {
+        this(PROFILE_DEFAULT, false, 10, 4 * 1024);
+    }
+
+    public TableOptions(String profile, boolean compression, int bloomBits, long blockSize) {
+        this.profile = profile;
+        this.compression = compression;
+        this.bloomBits = bloomBits;
+        this.blockSize = blockSize;
+    }
+
+    public static TableOptions defaultOptions() {
+        return new TableOptions();
+    }
+
+    public static TableOptions pointLookup() {
+        return new TableOptions(PROFILE_POINT_LOOKUP, false, 10, 4 * 1024);
+    }
+
+    public static TableOptions scan() {
+        return new TableOptions(PROFILE_SCAN, true, 0, 32 * 1024);
+    }
+
+    public boolean isPointLookup() {
+        return PROFILE_POINT_LOOKUP.equals(profile);
+    }
+
+    public Properties toProperties() {
+        Properties properties = new Properties();
+        properties.setProperty(KEY_PROFILE, profile);
+        properties.setProperty(KEY_COMPRESSION, String.valueOf(compression));
+        properties.setProperty(KEY_BLOOM_BITS, String.valueOf(bloomBits));
+        properties.setProperty(KEY_BLOCK_SIZE, String.valueOf(blockSize));
+        return properties;
+    }
+
+    public static TableOptions fromProperties(Properties properties) {
+        TableOptions options = new TableOptions();
+        options.setProfile(properties.getProperty(KEY_PROFILE, options.getProfile()));
+        options.setCompression(Boolean.parseBoolean(properties.getProperty(KEY_COMPRESSION, String.valueOf(options.isCompression()))));
+        options.setBloomBits(Integer.parseInt(properties.getProperty(KEY_BLOOM_BITS, String.valueOf(options.getBloomBits()))));
+        options.setBlockSize(Long.parseLong(properties.getProperty(KEY_BLOCK_SIZE, String.valueOf(options.getBlockSize()))));
+        return options;
+    }
+
+    public String getProfile() {
+        return profile;
+    }
+
+    public void setProfile(String profile) {
+        this.profile = profile;
+    }
+
+    public boolean isCompression() {
+        return compression;
+    }
+
+    public void setCompression(boolean compression) {
+        this.compression = compression;
+    }
+
+    public int getBloomBits() {
+        return bloomBits;
+    }
+
+    public void setBloomBits(int bloomBits) {
+        this.bloomBits = bloomBits;
+    }
+
+    public long getBlockSize() {
+        return blockSize;
+    }
+
+    public void setBlockSize(long blockSize) {
+        this.blockSize = blockSize;
+    }
+
+    @Override
+    public String toString() {
+        return "TableOptions{" +
+                "profile='" + profile + '\'' +
+                ", compression=" + compression +
+                ", bloomBits=" + bloomBits +
+                ", blockSize=" + blockSize +
+                '}';
+    }
+}
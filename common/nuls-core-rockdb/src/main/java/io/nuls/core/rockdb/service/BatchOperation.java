@@ -44,6 +44,27 @@ public interface BatchOperation {
      */
     boolean delete(byte[] key) throws Exception;
 
+    /**
+     * 对其他表的增加或者更新操作，列族模式下同库的表与本批次一起原子提交
+     * Add or update operations on another table, committed atomically with this batch when both tables are column families of the same database
+     *
+     * @param table
+     * @param key
+     * @param value
+     * @return
+     */
+    boolean put(String table, byte[] key, byte[] value) throws Exception;
+
+    /**
+     * 对其他表的删除操作
+     * Delete operation on another table
+     *
+     * @param table
+     * @param key
+     * @return
+     */
+    boolean delete(String table, byte[] key) throws Exception;
+
     /**
      * 执行批量操作
      * Perform batch operation
@@ -22,27 +22,37 @@ package io.nuls.core.rockdb.service;
 import io.nuls.core.rockdb.constant.DBErrorCode;
 import io.nuls.core.rockdb.manager.RocksDBManager;
 import io.nuls.core.log.Log;
+import org.rocksdb.ColumnFamilyHandle;
 import org.rocksdb.RocksDB;
 import org.rocksdb.WriteBatch;
 import org.rocksdb.WriteOptions;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 public class RocksDBBatchOperation implements BatchOperation {
 
     private String table;
     private RocksDB db;
+    private ColumnFamilyHandle handle;
     private WriteBatch batch;
+    /**
+     * 不在同一个库中的其他表的批量操作，执行时依次提交
+     */
+    private Map<RocksDB, WriteBatch> otherBatches = new LinkedHashMap<>();
     private volatile boolean isClose = false;
 
     RocksDBBatchOperation(String table) {
         this.table = table;
         db = RocksDBManager.getTable(table);
+        handle = RocksDBManager.getColumnFamily(table);
         if (db != null) {
             batch = new WriteBatch();
         }
     }
 
     public boolean checkBatch() throws Exception {
-        if (db == null) {
+        if (db == null || handle == null) {
             throw new Exception(DBErrorCode.DB_TABLE_NOT_EXIST);
         }
         if (batch == null) {
@@ -56,7 +66,7 @@ public class RocksDBBatchOperation implements BatchOperation {
         if (key == null || value == null) {
             throw new Exception(DBErrorCode.NULL_PARAMETER);
         }
-        batch.put(key, value);
+        batch.put(handle, key, value);
         return true;
     }
 
@@ -65,10 +75,42 @@ public class RocksDBBatchOperation implements BatchOperation {
         if (key == null) {
             throw new Exception(DBErrorCode.NULL_PARAMETER);
         }
-        batch.delete(key);
+        batch.delete(handle, key);
+        return true;
+    }
+
+    @Override
+    public boolean put(String table, byte[] key, byte[] value) throws Exception {
+        if (key == null || value == null) {
+            throw new Exception(DBErrorCode.NULL_PARAMETER);
+        }
+        getBatch(table).put(RocksDBManager.getColumnFamily(table), key, value);
+        return true;
+    }
+
+    @Override
+    public boolean delete(String table, byte[] key) throws Exception {
+        if (key == null) {
+            throw new Exception(DBErrorCode.NULL_PARAMETER);
+        }
+        getBatch(table).delete(RocksDBManager.getColumnFamily(table), key);
         return true;
     }
 
+    /**
+     * 与本批次同库的表共用一个WriteBatch，保证原子性
+     */
+    private WriteBatch getBatch(String table) throws Exception {
+        RocksDB tableDB = RocksDBManager.getTable(table);
+        if (tableDB == null || RocksDBManager.getColumnFamily(table) == null) {
+            throw new Exception(DBErrorCode.DB_TABLE_NOT_EXIST);
+        }
+        if (tableDB == db) {
+            return batch;
+        }
+        return otherBatches.computeIfAbsent(tableDB, k -> new WriteBatch());
+    }
+
     private void close() {
         this.isClose = true;
     }
@@ -83,8 +125,11 @@ public class RocksDBBatchOperation implements BatchOperation {
         if (checkClose()) {
             throw new Exception(DBErrorCode.DB_TABLE_FAILED_BATCH_CLOSE);
         }
-        try {
-            db.write(new WriteOptions(), batch);
+        try (WriteOptions writeOptions = new WriteOptions()) {
+            db.write(writeOptions, batch);
+            for (Map.Entry<RocksDB, WriteBatch> entry : otherBatches.entrySet()) {
+                entry.getKey().write(writeOptions, entry.getValue());
+            }
         } catch (Exception e) {
             Log.error(e);
             throw new Exception(DBErrorCode.DB_UNKOWN_EXCEPTION);
@@ -95,6 +140,9 @@ public class RocksDBBatchOperation implements BatchOperation {
                 this.close();
                 batch.close();
             }
+            for (WriteBatch otherBatch : otherBatches.values()) {
+                otherBatch.close();
+            }
         }
         return true;
     }
@@ -23,10 +23,12 @@ import io.nuls.core.log.Log;
 import io.nuls.core.model.StringUtils;
 import io.nuls.core.rockdb.manager.RocksDBManager;
 import io.nuls.core.rockdb.model.Entry;
+import io.nuls.core.rockdb.model.TableOptions;
 
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 public class RocksDBService {
 
@@ -45,6 +47,22 @@ public class RocksDBService {
         return false;
     }
 
+    /**
+     * 按指定配置创建表，如按key随机读的表使用{@link TableOptions#pointLookup()}
+     * create table with the given profile, e.g. {@link TableOptions#pointLookup()} for tables mostly read by key
+     *
+     * @param tableName
+     * @param tableOptions
+     * @return
+     * @throws Exception
+     */
+    public static boolean createTable(String tableName, TableOptions tableOptions) throws Exception {
+        if (!RocksDBService.existTable(tableName)) {
+            return RocksDBManager.createTable(tableName, tableOptions);
+        }
+        return false;
+    }
+
     public static boolean destroyTable(String table) throws Exception {
         return RocksDBManager.destroyTable(table);
     }
@@ -104,6 +122,30 @@ public class RocksDBService {
         return RocksDBManager.keyMayExist(table, key);
     }
 
+    /**
+     * 查询key是否存在，不读取value
+     * check whether the key exists without reading the value
+     *
+     * @param table
+     * @param key
+     * @return
+     */
+    public static boolean exists(String table, byte[] key) {
+        return RocksDBManager.exists(table, key);
+    }
+
+    /**
+     * 批量查询存在的key，不读取value
+     * batch query the existing keys without reading the values
+     *
+     * @param table
+     * @param keys
+     * @return 存在的key，按传入顺序排列
+     */
+    public static List<byte[]> multiExists(String table, List<byte[]> keys) {
+        return RocksDBManager.multiExists(table, keys);
+    }
+
     public static Map<byte[], byte[]> multiGet(String table, List<byte[]> keys) {
         return RocksDBManager.multiGet(table, keys);
     }
@@ -131,6 +173,30 @@ public class RocksDBService {
         return RocksDBManager.entryList(table);
     }
 
+    public static List<Entry<byte[], byte[]>> scan(String table, byte[] fromKey, byte[] toKey, int limit) {
+        return RocksDBManager.scan(table, fromKey, toKey, limit);
+    }
+
+    public static List<Entry<byte[], byte[]>> reverseScan(String table, byte[] fromKey, byte[] toKey, int limit) {
+        return RocksDBManager.reverseScan(table, fromKey, toKey, limit);
+    }
+
+    public static List<Entry<byte[], byte[]>> prefixScan(String table, byte[] prefix) {
+        return RocksDBManager.prefixScan(table, prefix);
+    }
+
+    /**
+     * 使用完毕必须关闭返回的流
+     * The returned stream must be closed after use
+     */
+    public static Stream<Entry<byte[], byte[]>> stream(String table) {
+        return RocksDBManager.stream(table, null, null, false);
+    }
+
+    public static Stream<Entry<byte[], byte[]>> stream(String table, byte[] fromKey, byte[] toKey, boolean reverse) {
+        return RocksDBManager.stream(table, fromKey, toKey, reverse);
+    }
+
     public static BatchOperation createWriteBatch(String table) {
         if (StringUtils.isBlank(table)) {
             return null;
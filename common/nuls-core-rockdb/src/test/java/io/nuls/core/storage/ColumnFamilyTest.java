@@ -0,0 +1,76 @@
+package io.nuls.core.storage;
+
+import io.nuls.core.rockdb.manager.RocksDBManager;
+import io.nuls.core.rockdb.model.TableOptions;
+import io.nuls.core.rockdb.service.BatchOperation;
+import io.nuls.core.rockdb.service.RocksDBService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class ColumnFamilyTest {
+
+    private File dataDir;
+
+    @Before
+    public void before() throws Exception {
+        System.setProperty(RocksDBManager.COLUMN_FAMILY_MODE_KEY, "true");
+        dataDir = Files.createTempDirectory("rocksdb-cf-test").toFile();
+        RocksDBManager.init(dataDir.getPath());
+    }
+
+    @After
+    public void after() {
+        RocksDBManager.close();
+        System.clearProperty(RocksDBManager.COLUMN_FAMILY_MODE_KEY);
+        deleteDir(dataDir);
+    }
+
+    @Test
+    public void crossTableBatch() throws Exception {
+        RocksDBService.createTable("header", TableOptions.pointLookup());
+        RocksDBService.createTable("index");
+        assertSame(RocksDBManager.getTable("header"), RocksDBManager.getTable("index"));
+        assertFalse(new File(dataDir, "header").exists());
+
+        byte[] key = new byte[]{1};
+        BatchOperation batch = RocksDBService.createWriteBatch("index");
+        batch.put(key, new byte[]{2});
+        batch.put("header", new byte[]{2}, new byte[]{3});
+        assertTrue(batch.executeBatch());
+        //同一个key在不同列族中互不影响
+        RocksDBService.put("header", key, new byte[]{9});
+        assertArrayEquals(new byte[]{2}, RocksDBService.get("index", key));
+        assertEquals(2, RocksDBService.keyList("header").size());
+        assertEquals(1, RocksDBService.multiGetValueList("index", Arrays.asList(key, new byte[]{5})).size());
+
+        RocksDBManager.close();
+        RocksDBManager.init(dataDir.getPath());
+        assertTrue(RocksDBService.existTable("header"));
+        assertArrayEquals(new byte[]{3}, RocksDBService.get("header", new byte[]{2}));
+        assertTrue(RocksDBService.keyMayExist("index", key));
+
+        RocksDBService.destroyTable("index");
+        assertFalse(RocksDBService.existTable("index"));
+        RocksDBManager.close();
+        RocksDBManager.init(dataDir.getPath());
+        assertFalse(RocksDBService.existTable("index"));
+        assertTrue(RocksDBService.existTable("header"));
+    }
+
+    private static void deleteDir(File file) {
+        File[] files = file.listFiles();
+        if (files != null) {
+            for (File f : files) {
+                deleteDir(f);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,72 @@
+package io.nuls.core.storage;
+
+import io.nuls.core.rockdb.manager.RocksDBManager;
+import io.nuls.core.rockdb.service.RocksDBService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ExistsTest {
+
+    private static final String TABLE = "exists";
+
+    private File dataDir;
+
+    @Before
+    public void before() throws Exception {
+        dataDir = Files.createTempDirectory("rocksdb-exists-test").toFile();
+        RocksDBManager.init(dataDir.getPath());
+        RocksDBService.createTable(TABLE);
+        RocksDBService.put(TABLE, new byte[]{1}, new byte[1024]);
+        RocksDBService.put(TABLE, new byte[]{2}, new byte[0]);
+        RocksDBService.put(TABLE, new byte[]{3}, new byte[]{3});
+    }
+
+    @After
+    public void after() {
+        RocksDBManager.close();
+        deleteDir(dataDir);
+    }
+
+    @Test
+    public void exists() throws Exception {
+        assertTrue(RocksDBService.exists(TABLE, new byte[]{1}));
+        //空value也算存在
+        assertTrue(RocksDBService.exists(TABLE, new byte[]{2}));
+        assertFalse(RocksDBService.exists(TABLE, new byte[]{4}));
+        assertFalse(RocksDBService.exists(TABLE, null));
+        assertFalse(RocksDBService.exists("notExist", new byte[]{1}));
+
+        RocksDBService.delete(TABLE, new byte[]{1});
+        assertFalse(RocksDBService.exists(TABLE, new byte[]{1}));
+        assertFalse(RocksDBService.keyMayExist(TABLE, new byte[]{1}));
+        assertTrue(RocksDBService.keyMayExist(TABLE, new byte[]{3}));
+    }
+
+    @Test
+    public void multiExists() {
+        List<byte[]> list = RocksDBService.multiExists(TABLE, Arrays.asList(new byte[]{5}, new byte[]{3}, new byte[]{1}, new byte[]{4}));
+        assertEquals(2, list.size());
+        assertArrayEquals(new byte[]{3}, list.get(0));
+        assertArrayEquals(new byte[]{1}, list.get(1));
+        assertTrue(RocksDBService.multiExists(TABLE, null).isEmpty());
+        assertTrue(RocksDBService.multiExists("notExist", Arrays.asList(new byte[]{1})).isEmpty());
+    }
+
+    private static void deleteDir(File file) {
+        File[] files = file.listFiles();
+        if (files != null) {
+            for (File f : files) {
+                deleteDir(f);
+            }
+        }
+        file.delete();
+    }
+}
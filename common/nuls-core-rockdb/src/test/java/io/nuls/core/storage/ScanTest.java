@@ -0,0 +1,94 @@
+package io.nuls.core.storage;
+
+import io.nuls.core.rockdb.manager.RocksDBManager;
+import io.nuls.core.rockdb.model.Entry;
+import io.nuls.core.rockdb.service.RocksDBService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class ScanTest {
+
+    private static final String TABLE = "scan";
+
+    private File dataDir;
+
+    @Before
+    public void before() throws Exception {
+        dataDir = Files.createTempDirectory("rocksdb-scan-test").toFile();
+        RocksDBManager.init(dataDir.getPath());
+        RocksDBService.createTable(TABLE);
+        for (int i = 0; i < 4; i++) {
+            for (int j = 0; j < 3; j++) {
+                RocksDBService.put(TABLE, new byte[]{(byte) i, (byte) j}, new byte[]{(byte) (i * 10 + j)});
+            }
+        }
+        RocksDBService.put(TABLE, new byte[]{(byte) 0xFF, (byte) 0xFF}, new byte[]{99});
+    }
+
+    @After
+    public void after() {
+        RocksDBManager.close();
+        deleteDir(dataDir);
+    }
+
+    @Test
+    public void scan() {
+        List<Entry<byte[], byte[]>> list = RocksDBService.scan(TABLE, new byte[]{1}, new byte[]{2, 1}, 0);
+        assertEquals(4, list.size());
+        assertArrayEquals(new byte[]{1, 0}, list.get(0).getKey());
+        assertArrayEquals(new byte[]{20}, list.get(3).getValue());
+
+        assertEquals(2, RocksDBService.scan(TABLE, null, null, 2).size());
+        assertEquals(13, RocksDBService.scan(TABLE, null, null, 0).size());
+
+        list = RocksDBService.reverseScan(TABLE, new byte[]{1}, new byte[]{3}, 2);
+        assertEquals(2, list.size());
+        assertArrayEquals(new byte[]{2, 2}, list.get(0).getKey());
+        assertArrayEquals(new byte[]{2, 1}, list.get(1).getKey());
+    }
+
+    @Test
+    public void prefixScan() {
+        List<Entry<byte[], byte[]>> list = RocksDBService.prefixScan(TABLE, new byte[]{3});
+        assertEquals(3, list.size());
+        assertArrayEquals(new byte[]{3, 2}, list.get(2).getKey());
+        assertEquals(1, RocksDBService.prefixScan(TABLE, new byte[]{(byte) 0xFF}).size());
+        assertTrue(RocksDBService.prefixScan(TABLE, new byte[]{5}).isEmpty());
+        assertTrue(RocksDBService.prefixScan("notExist", new byte[]{1}).isEmpty());
+    }
+
+    @Test
+    public void stream() throws Exception {
+        try (Stream<Entry<byte[], byte[]>> stream = RocksDBService.stream(TABLE)) {
+            //快照之后的写入不影响已打开的流
+            RocksDBService.put(TABLE, new byte[]{0, 5}, new byte[]{5});
+            assertEquals(13, stream.count());
+        }
+        try (Stream<Entry<byte[], byte[]>> stream = RocksDBService.stream(TABLE)) {
+            List<Entry<byte[], byte[]>> list = stream.filter(e -> e.getKey()[1] == 5).collect(Collectors.toList());
+            assertEquals(1, list.size());
+        }
+        try (Stream<Entry<byte[], byte[]>> stream = RocksDBService.stream(TABLE, new byte[]{2}, null, true)) {
+            assertArrayEquals(new byte[]{(byte) 0xFF, (byte) 0xFF}, stream.findFirst().get().getKey());
+        }
+    }
+
+    private static void deleteDir(File file) {
+        File[] files = file.listFiles();
+        if (files != null) {
+            for (File f : files) {
+                deleteDir(f);
+            }
+        }
+        file.delete();
+    }
+}
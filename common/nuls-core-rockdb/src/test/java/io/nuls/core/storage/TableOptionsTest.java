@@ -0,0 +1,68 @@
+package io.nuls.core.storage;
+
+import io.nuls.core.rockdb.manager.RocksDBManager;
+import io.nuls.core.rockdb.manager.TableOptionsManager;
+import io.nuls.core.rockdb.model.TableOptions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
+
+public class TableOptionsTest {
+
+    private File dataDir;
+
+    @Before
+    public void before() throws Exception {
+        dataDir = Files.createTempDirectory("rocksdb-test").toFile();
+        RocksDBManager.init(dataDir.getPath());
+    }
+
+    @After
+    public void after() {
+        RocksDBManager.close();
+        deleteDir(dataDir);
+    }
+
+    @Test
+    public void tableOptionsKeptAfterReopen() throws Exception {
+        RocksDBManager.createTable("point", TableOptions.pointLookup());
+        RocksDBManager.createTable("scan", TableOptions.scan());
+        RocksDBManager.createTable("plain");
+        byte[] key = new byte[]{1, 2, 3};
+        byte[] value = new byte[]{4, 5, 6};
+        for (String table : RocksDBManager.listTable()) {
+            RocksDBManager.put(table, key, value);
+        }
+        RocksDBManager.close();
+
+        assertEquals(TableOptions.PROFILE_POINT_LOOKUP, TableOptionsManager.loadTableOptions(new File(dataDir, "point")).getProfile());
+        TableOptions scan = TableOptionsManager.loadTableOptions(new File(dataDir, "scan"));
+        assertEquals(TableOptions.PROFILE_SCAN, scan.getProfile());
+        assertTrue(scan.isCompression());
+        assertEquals(0, scan.getBloomBits());
+        assertEquals(TableOptions.PROFILE_DEFAULT, TableOptionsManager.loadTableOptions(new File(dataDir, "plain")).getProfile());
+
+        RocksDBManager.init(dataDir.getPath());
+        assertEquals(3, RocksDBManager.listTable().length);
+        for (String table : RocksDBManager.listTable()) {
+            assertArrayEquals(value, RocksDBManager.get(table, key));
+        }
+        RocksDBManager.destroyTable("scan");
+        assertFalse(new File(new File(dataDir, "scan"), "table.properties").exists());
+    }
+
+    private static void deleteDir(File file) {
+        File[] files = file.listFiles();
+        if (files != null) {
+            for (File f : files) {
+                deleteDir(f);
+            }
+        }
+        file.delete();
+    }
+}
@@ -187,6 +187,18 @@ public class Constants {
 
     public static final String ZERO = "0";
 
+    /**
+     * 当前RPC协议版本，握手时发送
+     * Current RPC protocol version, sent during handshake
+     */
+    public static final String PROTOCOL_VERSION = "0.2";
+
+    /**
+     * 支持二进制帧传输的最低协议版本，低于该版本的模块只使用JSON文本帧
+     * Minimum protocol version supporting binary frames, older modules only use JSON text frames
+     */
+    public static final double BINARY_PROTOCOL_VERSION = 0.2;
+
     /**
      * 处理待处理消息的线程池
      * Thread pool for processing messages to be processed
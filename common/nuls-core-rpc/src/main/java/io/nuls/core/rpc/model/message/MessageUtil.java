@@ -29,6 +29,7 @@ import io.nuls.core.rpc.info.Constants;
 import io.nuls.core.rpc.util.NulsDateUtils;
 import io.nuls.core.constant.ErrorCode;
 import io.nuls.core.model.DateUtils;
+import io.nuls.core.parse.JSONUtils;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -69,12 +70,47 @@ public class MessageUtil {
     public static NegotiateConnection defaultNegotiateConnection() {
         NegotiateConnection negotiateConnection = new NegotiateConnection();
         negotiateConnection.setAbbreviation(ConnectManager.LOCAL.getAbbreviation());
-        negotiateConnection.setProtocolVersion("0.1");
+        negotiateConnection.setProtocolVersion(Constants.PROTOCOL_VERSION);
         negotiateConnection.setCompressionAlgorithm("zlib");
         negotiateConnection.setCompressionRate("0");
         return negotiateConnection;
     }
 
+    /**
+     * 对方协议版本是否支持二进制帧
+     * Whether the peer protocol version supports binary frames
+     *
+     * @param protocolVersion 握手时对方的协议版本 / Peer protocol version from handshake
+     * @return boolean
+     */
+    public static boolean supportBinary(String protocolVersion) {
+        if (protocolVersion == null || protocolVersion.isEmpty()) {
+            return false;
+        }
+        try {
+            return Double.parseDouble(protocolVersion) >= Constants.BINARY_PROTOCOL_VERSION;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 获取消息体对象，JSON帧中消息体为Map，二进制帧中已是目标对象
+     * Get the message body object, it is a Map for JSON frames and already the target object for binary frames
+     *
+     * @param message Message
+     * @param clazz   消息体类型 / Message body type
+     * @return T
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T getMessageData(Message message, Class<T> clazz) {
+        Object data = message.getMessageData();
+        if (clazz.isInstance(data)) {
+            return (T) data;
+        }
+        return JSONUtils.map2pojo((Map) data, clazz);
+    }
+
     /**
      * 构造默认Request对象
      * Constructing a default Request object
@@ -1,11 +1,15 @@
 package io.nuls.core.rpc.netty.channel.manager;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.socket.SocketChannel;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
 import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
+import io.netty.util.AttributeKey;
 import io.nuls.core.core.ioc.ScanUtil;
 import io.nuls.core.core.ioc.SpringLiteContext;
 import io.nuls.core.log.Log;
@@ -15,10 +19,12 @@ import io.nuls.core.rpc.info.Constants;
 import io.nuls.core.rpc.invoke.BaseInvoke;
 import io.nuls.core.rpc.model.*;
 import io.nuls.core.rpc.model.message.Message;
+import io.nuls.core.rpc.model.message.MessageUtil;
 import io.nuls.core.rpc.model.message.Request;
 import io.nuls.core.rpc.model.message.Response;
 import io.nuls.core.rpc.netty.bootstrap.NettyClient;
 import io.nuls.core.rpc.netty.channel.ConnectData;
+import io.nuls.core.rpc.netty.codec.BinaryMessageCodec;
 import io.nuls.core.rpc.netty.processor.RequestMessageProcessor;
 import io.nuls.core.rpc.netty.thread.RequestByCountProcessor;
 import io.nuls.core.rpc.netty.thread.RequestByPeriodProcessor;
@@ -46,6 +52,12 @@ import java.util.stream.Collectors;
  */
 public class ConnectManager {
     private static Lock SUB_LOCK = new ReentrantLock();
+
+    /**
+     * 握手确认对方支持二进制帧后在链接上设置该属性
+     * Set on the channel once the handshake confirms the peer supports binary frames
+     */
+    private static final AttributeKey<Boolean> BINARY_SUPPORT = AttributeKey.valueOf("nulsRpcBinarySupport");
     /**
      * 本模块是否可以启动服务（所依赖模块是否可以连接）
      * Can this module start the service? (Can the dependent modules be connected?)
@@ -426,7 +438,7 @@ public class ConnectManager {
      * @param message
      */
     public static void subscribeCountMinus(Message message) {
-        Request request = JSONUtils.map2pojo((Map) message.getMessageData(), Request.class);
+        Request request = MessageUtil.getMessageData(message, Request.class);
         for (Object method : request.getRequestMethods().keySet()) {
             String cmd = (String) method;
             subscribeCountMinus(cmd);
@@ -455,7 +467,7 @@ public class ConnectManager {
      * @param message
      */
     public static void subscribeCountAdd(Message message) {
-        Request request = JSONUtils.map2pojo((Map) message.getMessageData(), Request.class);
+        Request request = MessageUtil.getMessageData(message, Request.class);
         for (Object method : request.getRequestMethods().keySet()) {
             String cmd = (String) method;
             subscribeCountAdd(cmd);
@@ -491,7 +503,7 @@ public class ConnectManager {
      */
     public static void unsubscribeByEvent(Message message) {
         MESSAGE_TO_CHANNEL_MAP.remove(message);
-        Request request = JSONUtils.map2pojo((Map) message.getMessageData(), Request.class);
+        Request request = MessageUtil.getMessageData(message, Request.class);
         for (String method : request.getRequestMethods().keySet()) {
             if (CMD_SUBSCRIBE_MESSAGE_MAP.containsKey(method)) {
                 CMD_SUBSCRIBE_MESSAGE_MAP.get(method).remove(message);
@@ -521,7 +533,7 @@ public class ConnectManager {
                 String key = getSubscribeKey(message.getMessageID(), cmd);
                 if (connectData.getSubscribeInitCount().containsKey(key)) {
                     int initCount = connectData.getSubscribeInitCount().get(key);
-                    Request request = JSONUtils.map2pojo((Map) message.getMessageData(), Request.class);
+                    Request request = MessageUtil.getMessageData(message, Request.class);
                     long eventCount = Long.parseLong(request.getSubscriptionEventCounter());
                     if ((changeCount - initCount) % eventCount == 0) {
                         try {
@@ -733,10 +745,14 @@ public class ConnectManager {
     }
 
     public static void sendMessage(Channel channel, ByteBuf message) {
+        sendFrame(channel, new TextWebSocketFrame(message));
+    }
+
+    private static void sendFrame(Channel channel, WebSocketFrame frame) {
 //        Log.debug("发送消息:{}",message);
         try {
             channel.eventLoop().execute(() -> {
-                ChannelFuture cf = channel.writeAndFlush(new TextWebSocketFrame(message));
+                ChannelFuture cf = channel.writeAndFlush(frame);
                 cf.addListener((ChannelFutureListener) future -> {
                     if (!future.isSuccess()) {
                         Log.error(future.cause());
@@ -767,8 +783,84 @@ public class ConnectManager {
 //        }
 //    }
 
+    /**
+     * 发送消息，对方支持时Request/Response使用二进制帧，否则使用JSON文本帧
+     * Send message, Request/Response go as binary frames when the peer supports them, otherwise as JSON text frames
+     *
+     * @param channel 链接通道 / Channel
+     * @param message 消息 / Message
+     * @throws JsonProcessingException JSON格式转换错误 / JSON format conversion error
+     */
+    public static void sendMessage(Channel channel, Message message) throws JsonProcessingException {
+        if (isBinarySupported(channel) && BinaryMessageCodec.isBinaryType(message)) {
+            sendFrame(channel, new BinaryWebSocketFrame(BinaryMessageCodec.encode(message)));
+            return;
+        }
+        sendMessage(channel, SerializeUtil.getBuffer(JSONUtils.obj2ByteArray(toJsonCompatible(message))));
+    }
+
     public static void sendMessage(String moduleAbbr, Message message) throws Exception {
-        sendMessage(getConnectByRole(moduleAbbr), SerializeUtil.getBuffer(JSONUtils.obj2ByteArray(message)));
+        sendMessage(getConnectByRole(moduleAbbr), message);
+    }
+
+    /**
+     * 标记对方支持二进制帧
+     * Mark the peer as supporting binary frames
+     */
+    public static void enableBinary(Channel channel) {
+        channel.attr(BINARY_SUPPORT).set(Boolean.TRUE);
+    }
+
+    /**
+     * 对方是否支持二进制帧
+     * Whether the peer supports binary frames
+     */
+    public static boolean isBinarySupported(Channel channel) {
+        return Boolean.TRUE.equals(channel.attr(BINARY_SUPPORT).get());
+    }
+
+    /**
+     * 参数或返回值中带有byte[]时，为JSON帧生成一份hex编码的消息体副本
+     * Build a hex encoded copy of the message body for JSON frames when params or response data contain byte[]
+     */
+    @SuppressWarnings("unchecked")
+    private static Message toJsonCompatible(Message message) {
+        Object data = message.getMessageData();
+        Object converted = data;
+        if (data instanceof Request) {
+            Request request = (Request) data;
+            Object methods = BinaryMessageCodec.toJsonCompatible(request.getRequestMethods());
+            if (methods != request.getRequestMethods()) {
+                Request copy = new Request();
+                copy.setRequestAck(request.getRequestAck());
+                copy.setSubscriptionEventCounter(request.getSubscriptionEventCounter());
+                copy.setSubscriptionPeriod(request.getSubscriptionPeriod());
+                copy.setSubscriptionRange(request.getSubscriptionRange());
+                copy.setResponseMaxSize(request.getResponseMaxSize());
+                copy.setTimeOut(request.getTimeOut());
+                copy.setRequestMethods((Map<String, Object>) methods);
+                converted = copy;
+            }
+        } else if (data instanceof Response) {
+            Response response = (Response) data;
+            Object responseData = BinaryMessageCodec.toJsonCompatible(response.getResponseData());
+            if (responseData != response.getResponseData()) {
+                Response copy = getRealResponse(null, response.getRequestID(), response);
+                copy.setResponseProcessingTime(response.getResponseProcessingTime());
+                copy.setResponseData(responseData);
+                converted = copy;
+            }
+        }
+        if (converted == data) {
+            return message;
+        }
+        Message copy = new Message();
+        copy.setMessageID(message.getMessageID());
+        copy.setMessageType(message.getMessageType());
+        copy.setTimestamp(message.getTimestamp());
+        copy.setTimeZone(message.getTimeZone());
+        copy.setMessageData(converted);
+        return copy;
     }
 
     public static String getRoleByChannel(Channel channel){
@@ -0,0 +1,455 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2019 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.core.rpc.netty.codec;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.nuls.core.crypto.HexUtil;
+import io.nuls.core.parse.JSONUtils;
+import io.nuls.core.rpc.model.message.Message;
+import io.nuls.core.rpc.model.message.MessageType;
+import io.nuls.core.rpc.model.message.Request;
+import io.nuls.core.rpc.model.message.Response;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * 模块间RPC二进制帧编解码器
+ * Binary frame codec for inter-module RPC
+ * <p>
+ * 帧格式 / Frame layout:
+ * <pre>
+ * magic(1) | version(1) | messageType(1) | MessageID | Timestamp | TimeZone | body
+ * </pre>
+ * 字符串为 varint(长度+1) + UTF-8 字节，0 表示 null。
+ * body 对 Request/RequestOnly 为请求头字段 + RequestMethods，对 Response 为应答头字段 + ResponseData。
+ * 参数值按类型标记编码，byte[]/ByteBuffer 直接以原始字节传输，不再做hex编码，接收方得到 byte[]。
+ * <p>
+ * Strings are written as varint(length + 1) followed by UTF-8 bytes, 0 means null.
+ * Parameter values are type-tagged; byte[]/ByteBuffer values travel as raw bytes instead of hex strings
+ * and arrive as byte[].
+ * Decoded values follow the same shapes Jackson produces for the JSON frames (Integer/Long/BigInteger,
+ * Double, LinkedHashMap, ArrayList), so command handlers see no difference apart from byte[].
+ * BigDecimal keeps its exact value (unscaled value + scale) and arrives as BigDecimal.
+ */
+public class BinaryMessageCodec {
+
+    private static final byte MAGIC = 0x4E;
+
+    private static final byte VERSION = 1;
+
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_STRING = 1;
+    private static final byte TAG_TRUE = 2;
+    private static final byte TAG_FALSE = 3;
+    private static final byte TAG_LONG = 4;
+    private static final byte TAG_BIG_INTEGER = 5;
+    private static final byte TAG_DOUBLE = 6;
+    private static final byte TAG_BYTES = 7;
+    private static final byte TAG_LIST = 8;
+    private static final byte TAG_MAP = 9;
+    /**
+     * 无法直接编码的对象（如DTO），以JSON字节携带，解码结果与JSON帧一致
+     * Objects without a native tag (e.g. DTOs) are carried as JSON bytes and decode exactly as JSON frames would
+     */
+    private static final byte TAG_JSON = 10;
+    /**
+     * BigDecimal以unscaled值和scale传输，不损失精度
+     * BigDecimal travels as unscaled value plus scale, without losing precision
+     */
+    private static final byte TAG_BIG_DECIMAL = 11;
+
+    private static final MessageType[] MESSAGE_TYPES = MessageType.values();
+
+    /**
+     * 该类型的消息是否使用二进制帧发送，握手、确认等控制消息仍走JSON
+     * Whether the message type is sent as a binary frame; control messages such as handshake and ack stay JSON
+     */
+    public static boolean isBinaryType(Message message) {
+        Object data = message.getMessageData();
+        return data instanceof Request || data instanceof Response;
+    }
+
+    /**
+     * 判断帧内容是否为二进制消息
+     * Check whether the frame content is a binary message
+     */
+    public static boolean isBinaryFrame(ByteBuf content) {
+        return content.readableBytes() > 2
+                && content.getByte(content.readerIndex()) == MAGIC
+                && content.getByte(content.readerIndex() + 1) == VERSION;
+    }
+
+    /**
+     * 编码消息
+     * Encode message
+     *
+     * @param message Request/RequestOnly/Response message
+     * @return 由调用者负责释放 / released by the caller (or by netty after write)
+     */
+    public static ByteBuf encode(Message message) throws JsonProcessingException {
+        ByteBuf out = ByteBufAllocator.DEFAULT.buffer();
+        try {
+            out.writeByte(MAGIC);
+            out.writeByte(VERSION);
+            out.writeByte(MessageType.valueOf(message.getMessageType()).ordinal());
+            writeString(out, message.getMessageID());
+            writeString(out, message.getTimestamp());
+            writeString(out, message.getTimeZone());
+            Object data = message.getMessageData();
+            if (data instanceof Request) {
+                writeRequest(out, (Request) data);
+            } else if (data instanceof Response) {
+                writeResponse(out, (Response) data);
+            } else {
+                throw new IllegalArgumentException("Unsupported binary message data:" + message.getMessageType());
+            }
+            return out;
+        } catch (JsonProcessingException | RuntimeException e) {
+            out.release();
+            throw e;
+        }
+    }
+
+    /**
+     * 解码消息，MessageData直接为Request/Response对象
+     * Decode message, MessageData is a Request/Response object directly
+     */
+    public static Message decode(ByteBuf in) throws IOException {
+        if (in.readByte() != MAGIC || in.readByte() != VERSION) {
+            throw new IOException("Invalid binary message header");
+        }
+        int typeIndex = in.readUnsignedByte();
+        if (typeIndex >= MESSAGE_TYPES.length) {
+            throw new IOException("Unknown message type:" + typeIndex);
+        }
+        MessageType messageType = MESSAGE_TYPES[typeIndex];
+        Message message = new Message();
+        message.setMessageType(messageType.name());
+        message.setMessageID(readString(in));
+        message.setTimestamp(readString(in));
+        message.setTimeZone(readString(in));
+        switch (messageType) {
+            case Request:
+            case RequestOnly:
+                message.setMessageData(readRequest(in));
+                break;
+            case Response:
+                message.setMessageData(readResponse(in));
+                break;
+            default:
+                throw new IOException("Unsupported binary message type:" + messageType);
+        }
+        return message;
+    }
+
+    /**
+     * JSON帧不支持原始字节，发送给旧版本模块前将参数中的byte[]/ByteBuffer转为hex字符串（与RPCUtil.encode一致）
+     * JSON frames cannot carry raw bytes, so byte[]/ByteBuffer values are converted to hex strings (same as RPCUtil.encode)
+     * before sending to peers without binary support. Only maps and lists are walked, the input is never modified.
+     *
+     * @return 未包含byte[]时返回原对象 / the original object when no byte[] is present
+     */
+    @SuppressWarnings("unchecked")
+    public static Object toJsonCompatible(Object value) {
+        if (value instanceof byte[]) {
+            return HexUtil.encode((byte[]) value);
+        }
+        if (value instanceof ByteBuffer) {
+            ByteBuffer buffer = ((ByteBuffer) value).duplicate();
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            return HexUtil.encode(bytes);
+        }
+        if (value instanceof Map) {
+            Map<Object, Object> map = (Map<Object, Object>) value;
+            Map<Object, Object> copy = null;
+            for (Map.Entry<Object, Object> entry : map.entrySet()) {
+                Object converted = toJsonCompatible(entry.getValue());
+                if (converted != entry.getValue() && copy == null) {
+                    copy = new LinkedHashMap<>(map);
+                }
+                if (copy != null) {
+                    copy.put(entry.getKey(), converted);
+                }
+            }
+            return copy == null ? value : copy;
+        }
+        if (value instanceof List) {
+            List<Object> list = (List<Object>) value;
+            List<Object> copy = null;
+            for (int i = 0; i < list.size(); i++) {
+                Object item = list.get(i);
+                Object converted = toJsonCompatible(item);
+                if (converted != item && copy == null) {
+                    copy = new ArrayList<>(list);
+                }
+                if (copy != null) {
+                    copy.set(i, converted);
+                }
+            }
+            return copy == null ? value : copy;
+        }
+        return value;
+    }
+
+    private static void writeRequest(ByteBuf out, Request request) throws JsonProcessingException {
+        writeString(out, request.getRequestAck());
+        writeString(out, request.getSubscriptionEventCounter());
+        writeString(out, request.getSubscriptionPeriod());
+        writeString(out, request.getSubscriptionRange());
+        writeString(out, request.getResponseMaxSize());
+        writeString(out, request.getTimeOut());
+        writeValue(out, request.getRequestMethods());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Request readRequest(ByteBuf in) throws IOException {
+        Request request = new Request();
+        request.setRequestAck(readString(in));
+        request.setSubscriptionEventCounter(readString(in));
+        request.setSubscriptionPeriod(readString(in));
+        request.setSubscriptionRange(readString(in));
+        request.setResponseMaxSize(readString(in));
+        request.setTimeOut(readString(in));
+        request.setRequestMethods((Map<String, Object>) readValue(in));
+        return request;
+    }
+
+    private static void writeResponse(ByteBuf out, Response response) throws JsonProcessingException {
+        writeString(out, response.getRequestID());
+        writeString(out, response.getResponseProcessingTime());
+        out.writeInt(response.getResponseStatus());
+        writeString(out, response.getResponseComment());
+        writeString(out, response.getResponseMaxSize());
+        writeString(out, response.getResponseErrorCode());
+        writeValue(out, response.getResponseData());
+    }
+
+    private static Response readResponse(ByteBuf in) throws IOException {
+        Response response = new Response();
+        response.setRequestID(readString(in));
+        response.setResponseProcessingTime(readString(in));
+        response.setResponseStatus(in.readInt());
+        response.setResponseComment(readString(in));
+        response.setResponseMaxSize(readString(in));
+        response.setResponseErrorCode(readString(in));
+        response.setResponseData(readValue(in));
+        return response;
+    }
+
+    private static void writeValue(ByteBuf out, Object value) throws JsonProcessingException {
+        if (value == null) {
+            out.writeByte(TAG_NULL);
+        } else if (value instanceof String) {
+            out.writeByte(TAG_STRING);
+            writeString(out, (String) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte((Boolean) value ? TAG_TRUE : TAG_FALSE);
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            out.writeByte(TAG_LONG);
+            out.writeLong(((Number) value).longValue());
+        } else if (value instanceof BigInteger) {
+            out.writeByte(TAG_BIG_INTEGER);
+            writeBytes(out, ((BigInteger) value).toByteArray());
+        } else if (value instanceof BigDecimal) {
+            BigDecimal decimal = (BigDecimal) value;
+            out.writeByte(TAG_BIG_DECIMAL);
+            out.writeInt(decimal.scale());
+            writeBytes(out, decimal.unscaledValue().toByteArray());
+        } else if (value instanceof Float) {
+            //与JSON一致，按float的十进制表示转为double，避免0.1f变为0.10000000149011612
+            out.writeByte(TAG_DOUBLE);
+            out.writeDouble(Double.parseDouble(value.toString()));
+        } else if (value instanceof Double) {
+            out.writeByte(TAG_DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (value instanceof char[]) {
+            out.writeByte(TAG_STRING);
+            writeString(out, new String((char[]) value));
+        } else if (value instanceof byte[]) {
+            out.writeByte(TAG_BYTES);
+            writeBytes(out, (byte[]) value);
+        } else if (value instanceof ByteBuffer) {
+            ByteBuffer buffer = ((ByteBuffer) value).duplicate();
+            out.writeByte(TAG_BYTES);
+            writeVarInt(out, buffer.remaining());
+            out.writeBytes(buffer);
+        } else if (value instanceof Character || value instanceof Enum) {
+            out.writeByte(TAG_STRING);
+            writeString(out, value instanceof Enum ? ((Enum) value).name() : value.toString());
+        } else if (value instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            out.writeByte(TAG_MAP);
+            writeVarInt(out, map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                writeString(out, String.valueOf(entry.getKey()));
+                writeValue(out, entry.getValue());
+            }
+        } else if (value instanceof Collection) {
+            Collection<?> collection = (Collection<?>) value;
+            out.writeByte(TAG_LIST);
+            writeVarInt(out, collection.size());
+            for (Object item : collection) {
+                writeValue(out, item);
+            }
+        } else if (value.getClass().isArray()) {
+            int length = Array.getLength(value);
+            out.writeByte(TAG_LIST);
+            writeVarInt(out, length);
+            for (int i = 0; i < length; i++) {
+                writeValue(out, Array.get(value, i));
+            }
+        } else {
+            out.writeByte(TAG_JSON);
+            writeBytes(out, JSONUtils.obj2ByteArray(value));
+        }
+    }
+
+    private static Object readValue(ByteBuf in) throws IOException {
+        byte tag = in.readByte();
+        switch (tag) {
+            case TAG_NULL:
+                return null;
+            case TAG_STRING:
+                return readString(in);
+            case TAG_TRUE:
+                return Boolean.TRUE;
+            case TAG_FALSE:
+                return Boolean.FALSE;
+            case TAG_LONG:
+                long longValue = in.readLong();
+                if (longValue >= Integer.MIN_VALUE && longValue <= Integer.MAX_VALUE) {
+                    return (int) longValue;
+                }
+                return longValue;
+            case TAG_BIG_INTEGER:
+                BigInteger bigInteger = new BigInteger(readBytes(in));
+                if (bigInteger.bitLength() < Integer.SIZE) {
+                    return bigInteger.intValue();
+                }
+                if (bigInteger.bitLength() < Long.SIZE) {
+                    return bigInteger.longValue();
+                }
+                return bigInteger;
+            case TAG_DOUBLE:
+                return in.readDouble();
+            case TAG_BIG_DECIMAL:
+                int scale = in.readInt();
+                return new BigDecimal(new BigInteger(readBytes(in)), scale);
+            case TAG_BYTES:
+                return readBytes(in);
+            case TAG_LIST:
+                int listSize = readVarInt(in);
+                List<Object> list = new ArrayList<>(listSize);
+                for (int i = 0; i < listSize; i++) {
+                    list.add(readValue(in));
+                }
+                return list;
+            case TAG_MAP:
+                int mapSize = readVarInt(in);
+                Map<String, Object> map = new LinkedHashMap<>(Math.max(16, mapSize * 4 / 3 + 1));
+                for (int i = 0; i < mapSize; i++) {
+                    String key = readString(in);
+                    map.put(key, readValue(in));
+                }
+                return map;
+            case TAG_JSON:
+                return JSONUtils.getInstance().readValue(readBytes(in), Object.class);
+            default:
+                throw new IOException("Unknown value tag:" + tag);
+        }
+    }
+
+    private static void writeString(ByteBuf out, String value) {
+        if (value == null) {
+            writeVarInt(out, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length + 1);
+        out.writeBytes(bytes);
+    }
+
+    private static String readString(ByteBuf in) throws IOException {
+        int length = readVarInt(in) - 1;
+        if (length < 0) {
+            return null;
+        }
+        checkReadable(in, length);
+        String value = in.toString(in.readerIndex(), length, StandardCharsets.UTF_8);
+        in.skipBytes(length);
+        return value;
+    }
+
+    private static void writeBytes(ByteBuf out, byte[] bytes) {
+        writeVarInt(out, bytes.length);
+        out.writeBytes(bytes);
+    }
+
+    private static byte[] readBytes(ByteBuf in) throws IOException {
+        int length = readVarInt(in);
+        checkReadable(in, length);
+        byte[] bytes = new byte[length];
+        in.readBytes(bytes);
+        return bytes;
+    }
+
+    private static void writeVarInt(ByteBuf out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(ByteBuf in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = in.readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                if (value < 0) {
+                    throw new IOException("Negative length");
+                }
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    private static void checkReadable(ByteBuf in, int length) throws IOException {
+        if (length > in.readableBytes()) {
+            throw new IOException("Length out of range:" + length);
+        }
+    }
+}
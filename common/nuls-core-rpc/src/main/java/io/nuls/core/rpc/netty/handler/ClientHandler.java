@@ -13,13 +13,14 @@ import io.nuls.core.rpc.model.CmdPriority;
 import io.nuls.core.rpc.model.RequestOnly;
 import io.nuls.core.rpc.model.message.Message;
 import io.nuls.core.rpc.model.message.MessageType;
+import io.nuls.core.rpc.model.message.MessageUtil;
 import io.nuls.core.rpc.model.message.Request;
 import io.nuls.core.rpc.netty.channel.ConnectData;
 import io.nuls.core.rpc.netty.channel.manager.ConnectManager;
+import io.nuls.core.rpc.netty.codec.BinaryMessageCodec;
 import io.nuls.core.rpc.netty.handler.message.TextMessageHandler;
 import io.nuls.core.thread.commom.NulsThreadFactory;
 
-import java.util.Map;
 import java.util.concurrent.PriorityBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -106,41 +107,53 @@ public class ClientHandler extends SimpleChannelInboundHandler<Object> {
                 byte[] bytes = new byte[content.readableBytes()];
                 content.readBytes(bytes);
                 Message message = JSONUtils.byteArray2pojo(bytes, Message.class);
-                MessageType messageType = MessageType.valueOf(message.getMessageType());
-                int priority = CmdPriority.DEFAULT.getPriority();
-                TextMessageHandler messageHandler = new TextMessageHandler((SocketChannel) ctx.channel(), message, priority);
-                if(messageType.equals(MessageType.Response)
-                        || messageType.equals(MessageType.NegotiateConnectionResponse)
-                        || messageType.equals(MessageType.Ack) ){
-                    responseExecutorService.execute(messageHandler);
-                }else{
-                    if(messageType.equals(MessageType.Request)){
-                        Request request = JSONUtils.map2pojo((Map) message.getMessageData(), Request.class);
-                        if(request.getRequestMethods().size() == 1){
-                            for (String cmd:request.getRequestMethods().keySet()) {
-                                if(ConnectManager.CMD_PRIORITY_MAP.containsKey(cmd)){
-                                    messageHandler.setPriority(ConnectManager.CMD_PRIORITY_MAP.get(cmd));
-                                }
-                            }
-                        }
-                        messageHandler.setRequest(request);
-                        requestExecutorService.execute(messageHandler);
-                    }else if(messageType.equals(MessageType.RequestOnly)){
-                        Request request = JSONUtils.map2pojo((Map) message.getMessageData(), Request.class);
-                        ConnectData connectData = ConnectManager.CHANNEL_DATA_MAP.get(ctx.channel());
-                        int messageSize = bytes.length;
-                        if(!connectData.requestOnlyQueueReachLimit()){
-                            connectData.getRequestOnlyQueue().offer(new RequestOnly(request, messageSize));
-                            connectData.addRequestOnlyQueueMemSize(messageSize);
-                        }else{
-                            Log.debug("RequestOnly队列缓存已满，丢弃新接收到的消息，messageId:{},队列所占内存：{}", message.getMessageID(),connectData.getRequestOnlyQueueMemSize());
+                dispatch(ctx, message, bytes.length);
+            } else if (msg instanceof BinaryWebSocketFrame) {
+                ByteBuf content = ((BinaryWebSocketFrame) msg).content();
+                int messageSize = content.readableBytes();
+                Message message = BinaryMessageCodec.decode(content);
+                dispatch(ctx, message, messageSize);
+            } else {
+                Log.warn("Unsupported message format");
+            }
+        }
+    }
+
+    /**
+     * 根据消息类型放入对应线程池或队列，文本帧与二进制帧共用
+     * Dispatch the message to the executor or queue of its type, shared by text and binary frames
+     */
+    private void dispatch(ChannelHandlerContext ctx, Message message, int messageSize) {
+        MessageType messageType = MessageType.valueOf(message.getMessageType());
+        int priority = CmdPriority.DEFAULT.getPriority();
+        TextMessageHandler messageHandler = new TextMessageHandler((SocketChannel) ctx.channel(), message, priority);
+        if(messageType.equals(MessageType.Response)
+                || messageType.equals(MessageType.NegotiateConnectionResponse)
+                || messageType.equals(MessageType.Ack) ){
+            responseExecutorService.execute(messageHandler);
+        }else{
+            if(messageType.equals(MessageType.Request)){
+                Request request = MessageUtil.getMessageData(message, Request.class);
+                if(request.getRequestMethods().size() == 1){
+                    for (String cmd:request.getRequestMethods().keySet()) {
+                        if(ConnectManager.CMD_PRIORITY_MAP.containsKey(cmd)){
+                            messageHandler.setPriority(ConnectManager.CMD_PRIORITY_MAP.get(cmd));
                         }
-                    }else{
-                        requestExecutorService.execute(messageHandler);
                     }
                 }
-            } else {
-                Log.warn("Unsupported message format");
+                messageHandler.setRequest(request);
+                requestExecutorService.execute(messageHandler);
+            }else if(messageType.equals(MessageType.RequestOnly)){
+                Request request = MessageUtil.getMessageData(message, Request.class);
+                ConnectData connectData = ConnectManager.CHANNEL_DATA_MAP.get(ctx.channel());
+                if(!connectData.requestOnlyQueueReachLimit()){
+                    connectData.getRequestOnlyQueue().offer(new RequestOnly(request, messageSize));
+                    connectData.addRequestOnlyQueueMemSize(messageSize);
+                }else{
+                    Log.debug("RequestOnly队列缓存已满，丢弃新接收到的消息，messageId:{},队列所占内存：{}", message.getMessageID(),connectData.getRequestOnlyQueueMemSize());
+                }
+            }else{
+                requestExecutorService.execute(messageHandler);
             }
         }
     }
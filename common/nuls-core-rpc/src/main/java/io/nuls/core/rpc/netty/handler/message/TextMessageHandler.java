@@ -31,6 +31,7 @@ import io.nuls.core.rpc.netty.processor.RequestMessageProcessor;
 import io.nuls.core.rpc.info.Constants;
 import io.nuls.core.rpc.model.message.Message;
 import io.nuls.core.rpc.model.message.MessageType;
+import io.nuls.core.rpc.model.message.MessageUtil;
 import io.nuls.core.rpc.model.message.Request;
 import io.nuls.core.rpc.model.message.Response;
 import io.nuls.core.rpc.netty.channel.ConnectData;
@@ -38,7 +39,6 @@ import io.nuls.core.rpc.netty.channel.manager.ConnectManager;
 import io.nuls.core.rpc.netty.processor.container.RequestContainer;
 import io.nuls.core.rpc.netty.processor.container.ResponseContainer;
 import io.nuls.core.log.Log;
-import io.nuls.core.parse.JSONUtils;
 import io.nuls.core.rpc.util.NulsDateUtils;
 
 import java.util.Comparator;
@@ -46,8 +46,8 @@ import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 /**
- * 文本类型的消息处理器
- * Text type message handler
+ * 消息处理器，处理文本帧与二进制帧解析出的消息
+ * Message handler for messages parsed from text and binary frames
  *
  * @author ln
  * 2019/2/27
@@ -150,13 +150,22 @@ public class TextMessageHandler implements Runnable, Comparable<TextMessageHandl
                     break;
                 case NegotiateConnectionResponse:
                 case Ack:
-                    ResponseContainer resContainer = RequestContainer.getResponseContainer(((Map<String, String>) message.getMessageData()).get("RequestID"));
+                    Map<String, String> ackData = (Map<String, String>) message.getMessageData();
+                    /*
+                    握手应答中带有支持二进制帧的协议版本，则之后的请求改用二进制帧
+                    If the handshake response carries a protocol version supporting binary frames, use binary frames for later requests
+                     */
+                    if (MessageType.NegotiateConnectionResponse.name().equals(message.getMessageType())
+                            && MessageUtil.supportBinary(ackData.get("ProtocolVersion"))) {
+                        ConnectManager.enableBinary(channel);
+                    }
+                    ResponseContainer resContainer = RequestContainer.getResponseContainer(ackData.get("RequestID"));
                     if (resContainer != null && resContainer.getFuture() != null) {
                         resContainer.getFuture().complete(new Response());
                     }
                     break;
                 case Response:
-                    Response response = JSONUtils.map2pojo((Map) message.getMessageData(), Response.class);
+                    Response response = MessageUtil.getMessageData(message, Response.class);
                     /*
                     Response：还要判断是否需要自动处理
                     Response: Determines whether automatic processing is required
@@ -14,7 +14,6 @@ import io.nuls.core.rpc.model.message.*;
 import io.nuls.core.rpc.netty.channel.ConnectData;
 import io.nuls.core.rpc.netty.channel.manager.ConnectManager;
 import io.nuls.core.rpc.util.NulsDateUtils;
-import io.nuls.core.rpc.util.SerializeUtil;
 
 import java.lang.reflect.Method;
 import java.math.BigDecimal;
@@ -48,13 +47,21 @@ public class RequestMessageProcessor {
         negotiateConnectionResponse.setRequestID(message.getMessageID());
         negotiateConnectionResponse.setNegotiationStatus("1");
         negotiateConnectionResponse.setNegotiationComment("Connection true!");
+        negotiateConnectionResponse.setProtocolVersion(Constants.PROTOCOL_VERSION);
 
         Message rspMsg = MessageUtil.basicMessage(MessageType.NegotiateConnectionResponse);
         rspMsg.setMessageData(negotiateConnectionResponse);
-        ConnectManager.sendMessage(channel, SerializeUtil.getBuffer(JSONUtils.obj2ByteArray(rspMsg)));
+        ConnectManager.sendMessage(channel, rspMsg);
 
         //握手成功之后保存channel与角色的对应信息
         NegotiateConnection negotiateConnection = JSONUtils.map2pojo((Map) message.getMessageData(), NegotiateConnection.class);
+        /*
+        对方支持二进制帧时，之后的Request/Response改用二进制帧发送（握手应答本身仍为JSON）
+        If the peer supports binary frames, subsequent Request/Response are sent as binary frames (the handshake response itself stays JSON)
+         */
+        if (MessageUtil.supportBinary(negotiateConnection.getProtocolVersion())) {
+            ConnectManager.enableBinary(channel);
+        }
         ConnectManager.cacheConnect(negotiateConnection.getAbbreviation(), channel, false);
     }
 
@@ -72,7 +79,7 @@ public class RequestMessageProcessor {
         ack.setRequestId(messageId);
         Message rspMsg = MessageUtil.basicMessage(MessageType.Ack);
         rspMsg.setMessageData(ack);
-        ConnectManager.sendMessage(channel, SerializeUtil.getBuffer(JSONUtils.obj2ByteArray(rspMsg)));
+        ConnectManager.sendMessage(channel, rspMsg);
     }
 
     /**
@@ -86,7 +93,7 @@ public class RequestMessageProcessor {
         Response response = MessageUtil.newFailResponse(messageId, "Service not started!");
         Message rspMsg = MessageUtil.basicMessage(MessageType.Response);
         rspMsg.setMessageData(response);
-        ConnectManager.sendMessage(channel, SerializeUtil.getBuffer(JSONUtils.obj2ByteArray(rspMsg)));
+        ConnectManager.sendMessage(channel, rspMsg);
     }
 
     /**
@@ -187,7 +194,7 @@ public class RequestMessageProcessor {
                     response.setResponseErrorCode(CommonCodeConstanst.CMD_NOTFOUND.getCode());
                     Message rspMessage = MessageUtil.basicMessage(MessageType.Response);
                     rspMessage.setMessageData(response);
-                    ConnectManager.sendMessage(channel, SerializeUtil.getBuffer(JSONUtils.obj2ByteArray(rspMessage)));
+                    ConnectManager.sendMessage(channel, rspMessage);
                     return;
                 }
 
@@ -201,12 +208,12 @@ public class RequestMessageProcessor {
                     response.setResponseErrorCode(CommonCodeConstanst.PARAMETER_ERROR.getCode());
                     Message rspMessage = MessageUtil.basicMessage(MessageType.Response);
                     rspMessage.setMessageData(response);
-                    ConnectManager.sendMessage(channel, SerializeUtil.getBuffer(JSONUtils.obj2ByteArray(rspMessage)));
+                    ConnectManager.sendMessage(channel, rspMessage);
                     return;
                 }
 
                 Message rspMessage = execute(cmdDetail, params, messageId);
-                ConnectManager.sendMessage(channel, SerializeUtil.getBuffer(JSONUtils.obj2ByteArray(rspMessage)));
+                ConnectManager.sendMessage(channel, rspMessage);
 
                 /*
                 执行成功之后判断该接口是否被订阅过，如果被订阅则改变该接口触发次数
@@ -221,7 +228,7 @@ public class RequestMessageProcessor {
                 response.setResponseErrorCode(CommonCodeConstanst.SYS_UNKOWN_EXCEPTION.getCode());
                 Message rspMessage = MessageUtil.basicMessage(MessageType.Response);
                 rspMessage.setMessageData(response);
-                ConnectManager.sendMessage(channel, SerializeUtil.getBuffer(JSONUtils.obj2ByteArray(rspMessage)));
+                ConnectManager.sendMessage(channel, rspMessage);
             }
         }
     }
@@ -309,7 +316,7 @@ public class RequestMessageProcessor {
         rspMessage.setMessageData(realResponse);
         try {
             Log.debug("responseWithEventCount: " + JSONUtils.obj2json(rspMessage));
-            ConnectManager.sendMessage(channel, SerializeUtil.getBuffer(JSONUtils.obj2ByteArray(rspMessage)));
+            ConnectManager.sendMessage(channel, rspMessage);
         } catch (JsonProcessingException e) {
             Log.error(e);
         }
@@ -12,9 +12,9 @@ import io.nuls.core.rpc.model.message.*;
 import io.nuls.core.rpc.netty.channel.manager.ConnectManager;
 import io.nuls.core.rpc.netty.processor.container.RequestContainer;
 import io.nuls.core.rpc.netty.processor.container.ResponseContainer;
-import io.nuls.core.rpc.util.SerializeUtil;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 
@@ -51,7 +51,7 @@ public class ResponseMessageProcessor {
 
         ResponseContainer responseContainer = RequestContainer.putRequest(message.getMessageID());
 
-        ConnectManager.sendMessage(channel, SerializeUtil.getBuffer(JSONUtils.obj2ByteArray(message)));
+        ConnectManager.sendMessage(channel, message);
 
         try {
             return responseContainer.getFuture().get(Constants.TIMEOUT_TIMEMILLIS, TimeUnit.MILLISECONDS) != null;
@@ -81,7 +81,7 @@ public class ResponseMessageProcessor {
 
         ResponseContainer responseContainer = RequestContainer.putRequest(message.getMessageID());
 
-        ConnectManager.sendMessage(channel, SerializeUtil.getBuffer(JSONUtils.obj2ByteArray(message)));
+        ConnectManager.sendMessage(channel, message);
 
         try {
             return responseContainer.getFuture().get(Constants.TIMEOUT_TIMEMILLIS, TimeUnit.MILLISECONDS) != null;
@@ -134,7 +134,7 @@ public class ResponseMessageProcessor {
         发送请求
         Send request
         */
-        ConnectManager.sendMessage(channel, SerializeUtil.getBuffer(JSONUtils.obj2ByteArray(message)));
+        ConnectManager.sendMessage(channel, message);
 
         /*
         获取返回的数据，放入本地变量
@@ -148,7 +148,7 @@ public class ResponseMessageProcessor {
         while (!response.isSuccess() && tryCount < Constants.TRY_COUNT) {
             Log.info("向核心注册消息发送失败第{}次",tryCount + 1);
             responseContainer = RequestContainer.putRequest(message.getMessageID());
-            ConnectManager.sendMessage(channel, SerializeUtil.getBuffer(JSONUtils.obj2ByteArray(message)));
+            ConnectManager.sendMessage(channel, message);
             response = receiveResponse(responseContainer, REGISTER_API_TIME_OUT);
             tryCount++;
         }
@@ -196,6 +196,31 @@ public class ResponseMessageProcessor {
         return receiveResponse(responseContainer, timeOut);
     }
 
+    /**
+     * 发送Request，不等待Response，Response到达或超时后完成返回的Future
+     * Send Request without waiting, the returned future completes when the Response arrives or the request times out
+     *
+     * @param role    远程方法所属的角色，The role of remote method
+     * @param cmd     远程方法的命令，Command of the remote method
+     * @param params  远程方法所需的参数，Parameters of the remote method
+     * @param timeOut 超时时间, timeout millis
+     * @return 远程方法的返回结果，超时返回失败的Response / Response of the remote method, a failed Response on timeout
+     */
+    public static CompletableFuture<Response> requestAndResponseAsync(String role, String cmd, Map params, long timeOut) {
+        Request request = MessageUtil.newRequest(cmd, params, Constants.BOOLEAN_FALSE, Constants.ZERO, Constants.ZERO);
+        request.setTimeOut(String.valueOf(timeOut));
+        ResponseContainer responseContainer;
+        try {
+            responseContainer = sendRequest(role, request);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        String messageId = responseContainer.getMessageId();
+        return responseContainer.getFuture()
+                .completeOnTimeout(MessageUtil.newFailResponse(messageId, CommonCodeConstanst.REQUEST_TIME_OUT), timeOut, TimeUnit.MILLISECONDS)
+                .whenComplete((response, e) -> RequestContainer.removeResponseContainer(messageId));
+    }
+
     /**
      * 发送Request，并根据返回结果自动调用本地方法
      * Send the Request and automatically call the local method based on the return result
@@ -280,7 +305,7 @@ public class ResponseMessageProcessor {
             Log.info("当前请求堆积过多,等待请求处理");
             return "0";
         }
-        ConnectManager.sendMessage(channel, SerializeUtil.getBuffer(JSONUtils.obj2ByteArray(message)));
+        ConnectManager.sendMessage(channel, message);
         return message.getMessageID();
     }
 
@@ -302,7 +327,7 @@ public class ResponseMessageProcessor {
 
         ResponseContainer responseContainer = RequestContainer.putRequest(message.getMessageID());
 
-        ConnectManager.sendMessage(channel, SerializeUtil.getBuffer(JSONUtils.obj2ByteArray(message)));
+        ConnectManager.sendMessage(channel, message);
         if (ConnectManager.isPureDigital(request.getSubscriptionPeriod())
                 || ConnectManager.isPureDigital(request.getSubscriptionEventCounter())) {
             /*
@@ -338,7 +363,7 @@ public class ResponseMessageProcessor {
          */
         Channel channel = ConnectManager.MSG_ID_KEY_CHANNEL_MAP.get(messageId);
         if (channel != null) {
-            ConnectManager.sendMessage(channel, SerializeUtil.getBuffer(JSONUtils.obj2ByteArray(message)));
+            ConnectManager.sendMessage(channel, message);
             Log.debug("取消订阅：" + JSONUtils.obj2json(message));
             ConnectManager.INVOKE_MAP.remove(messageId);
         }
@@ -0,0 +1,135 @@
+package io.nuls.core.rpc;
+
+import io.netty.buffer.ByteBuf;
+import io.nuls.core.crypto.HexUtil;
+import io.nuls.core.parse.JSONUtils;
+import io.nuls.core.rpc.model.message.*;
+import io.nuls.core.rpc.netty.codec.BinaryMessageCodec;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class BinaryMessageCodecTest {
+
+    @Test
+    public void requestRoundTrip() throws Exception {
+        byte[] tx = new byte[]{1, 2, 3, (byte) 0xff};
+        Map<String, Object> params = new HashMap<>();
+        params.put("chainId", 2);
+        params.put("height", 5000000000L);
+        params.put("amount", new BigInteger("123456789012345678901234567890"));
+        params.put("tx", tx);
+        params.put("txList", Arrays.asList("aa", "bb"));
+        params.put("flag", true);
+        params.put("nothing", null);
+        Request request = MessageUtil.newRequest("tx_save", params, "0", "0", "0");
+        request.setTimeOut("60000");
+        Message message = MessageUtil.basicMessage(MessageType.Request);
+        message.setMessageData(request);
+
+        ByteBuf buf = BinaryMessageCodec.encode(message);
+        Message decoded;
+        try {
+            assertTrue(BinaryMessageCodec.isBinaryFrame(buf));
+            decoded = BinaryMessageCodec.decode(buf);
+        } finally {
+            buf.release();
+        }
+        assertEquals(message.getMessageID(), decoded.getMessageID());
+        assertEquals(MessageType.Request.name(), decoded.getMessageType());
+        Request decodedRequest = MessageUtil.getMessageData(decoded, Request.class);
+        assertEquals("60000", decodedRequest.getTimeOut());
+        Map decodedParams = (Map) decodedRequest.getRequestMethods().get("tx_save");
+        assertEquals(2, decodedParams.get("chainId"));
+        assertEquals(5000000000L, decodedParams.get("height"));
+        assertEquals(new BigInteger("123456789012345678901234567890"), decodedParams.get("amount"));
+        assertArrayEquals(tx, (byte[]) decodedParams.get("tx"));
+        assertEquals(Arrays.asList("aa", "bb"), decodedParams.get("txList"));
+        assertEquals(Boolean.TRUE, decodedParams.get("flag"));
+        assertTrue(decodedParams.containsKey("nothing"));
+        assertNull(decodedParams.get("nothing"));
+    }
+
+    @Test
+    public void decimalAndCharsKeepValue() throws Exception {
+        Map<String, Object> params = new HashMap<>();
+        params.put("price", new BigDecimal("12345678901234567890.123456789012345678"));
+        params.put("big", new BigDecimal("1E+30"));
+        params.put("rate", 0.1f);
+        params.put("name", "nuls".toCharArray());
+        Request request = MessageUtil.newRequest("getPrice", params, "0", "0", "0");
+        Message message = MessageUtil.basicMessage(MessageType.Request);
+        message.setMessageData(request);
+
+        ByteBuf buf = BinaryMessageCodec.encode(message);
+        Map decodedParams;
+        try {
+            Request decoded = MessageUtil.getMessageData(BinaryMessageCodec.decode(buf), Request.class);
+            decodedParams = (Map) decoded.getRequestMethods().get("getPrice");
+        } finally {
+            buf.release();
+        }
+        assertEquals(new BigDecimal("12345678901234567890.123456789012345678"), decodedParams.get("price"));
+        assertEquals(new BigDecimal("1E+30"), decodedParams.get("big"));
+        assertEquals(0.1d, decodedParams.get("rate"));
+        assertEquals("nuls", decodedParams.get("name"));
+    }
+
+    @Test
+    public void responseMatchesJsonShape() throws Exception {
+        Map<String, Object> value = new HashMap<>();
+        value.put("value", 1L);
+        Ack ack = new Ack();
+        ack.setRequestId("1");
+        value.put("ack", ack);
+        Map<String, Object> data = new HashMap<>();
+        data.put("getBalance", value);
+        Response response = MessageUtil.newSuccessResponse("99");
+        response.setResponseData(data);
+        Message message = MessageUtil.basicMessage(MessageType.Response);
+        message.setMessageData(response);
+
+        ByteBuf buf = BinaryMessageCodec.encode(message);
+        Response decoded;
+        try {
+            decoded = MessageUtil.getMessageData(BinaryMessageCodec.decode(buf), Response.class);
+        } finally {
+            buf.release();
+        }
+        Message jsonMessage = JSONUtils.byteArray2pojo(JSONUtils.obj2ByteArray(message), Message.class);
+        Response jsonResponse = MessageUtil.getMessageData(jsonMessage, Response.class);
+        assertEquals(jsonResponse.getRequestID(), decoded.getRequestID());
+        assertEquals(jsonResponse.getResponseStatus(), decoded.getResponseStatus());
+        assertEquals(jsonResponse.getResponseData(), decoded.getResponseData());
+    }
+
+    @Test
+    public void jsonCompatibleConvertsBytesToHex() {
+        byte[] bytes = new byte[]{10, 11};
+        Map<String, Object> params = new HashMap<>();
+        params.put("tx", bytes);
+        params.put("txList", Collections.singletonList(bytes));
+        params.put("chainId", 1);
+        Map converted = (Map) BinaryMessageCodec.toJsonCompatible(params);
+        assertNotSame(params, converted);
+        assertSame(bytes, params.get("tx"));
+        assertEquals(HexUtil.encode(bytes), converted.get("tx"));
+        assertEquals(Collections.singletonList(HexUtil.encode(bytes)), converted.get("txList"));
+
+        Map<String, Object> plain = new HashMap<>();
+        plain.put("chainId", 1);
+        assertSame(plain, BinaryMessageCodec.toJsonCompatible(plain));
+    }
+
+    @Test
+    public void supportBinaryByProtocolVersion() {
+        assertFalse(MessageUtil.supportBinary(null));
+        assertFalse(MessageUtil.supportBinary("0.1"));
+        assertTrue(MessageUtil.supportBinary("0.2"));
+        assertTrue(MessageUtil.supportBinary("1.0"));
+    }
+}
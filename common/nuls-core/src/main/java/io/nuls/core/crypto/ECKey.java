@@ -661,8 +661,13 @@ public class ECKey {
      * @param pub       The public key bytes to use.
      */
     public static boolean verify(byte[] data, ECDSASignature signature, byte[] pub) {
+        //公钥解码结果缓存, 热点公钥使用预计算的定点表
+        ECPointCache.Entry entry = ECPointCache.get(CURVE.getCurve(), pub);
+        if (entry.isPrecomputed()) {
+            return verifyPrecomputed(data, signature.r, signature.s, entry.getPoint());
+        }
         ECDSASigner signer = new ECDSASigner();
-        ECPublicKeyParameters params = new ECPublicKeyParameters(CURVE.getCurve().decodePoint(pub), CURVE);
+        ECPublicKeyParameters params = new ECPublicKeyParameters(entry.getPoint(), CURVE);
         signer.init(false, params);
         try {
             return signer.verifySignature(data, signature.r, signature.s);
@@ -672,6 +677,32 @@ public class ECKey {
         }
     }
 
+    /**
+     * 与ECDSASigner.verifySignature相同的验证过程, 但u1*G和u2*Q都使用定点梳状乘法(G和Q均已预计算)
+     * Same steps as ECDSASigner.verifySignature, but both u1*G and u2*Q use the fixed point comb multiplier
+     * (G and Q are both precomputed)
+     */
+    private static boolean verifyPrecomputed(byte[] data, BigInteger r, BigInteger s, ECPoint q) {
+        BigInteger n = CURVE.getN();
+        if (r.signum() <= 0 || r.compareTo(n) >= 0 || s.signum() <= 0 || s.compareTo(n) >= 0) {
+            return false;
+        }
+        BigInteger e = new BigInteger(1, data);
+        int messageBitLength = data.length * 8;
+        if (n.bitLength() < messageBitLength) {
+            e = e.shiftRight(messageBitLength - n.bitLength());
+        }
+        BigInteger c = s.modInverse(n);
+        BigInteger u1 = e.multiply(c).mod(n);
+        BigInteger u2 = r.multiply(c).mod(n);
+        FixedPointCombMultiplier multiplier = new FixedPointCombMultiplier();
+        ECPoint point = multiplier.multiply(CURVE.getG(), u1).add(multiplier.multiply(q, u2)).normalize();
+        if (point.isInfinity()) {
+            return false;
+        }
+        return point.getAffineXCoord().toBigInteger().mod(n).equals(r);
+    }
+
     /**
      * Verifies the given ASN.1 encoded ECDSA signature against a hash using the public key.
      *
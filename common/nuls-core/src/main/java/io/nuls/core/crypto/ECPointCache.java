@@ -0,0 +1,161 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2019 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.core.crypto;
+
+import io.nuls.core.model.ByteArrayWrapper;
+import io.nuls.core.model.StringUtils;
+import org.bouncycastle.math.ec.ECCurve;
+import org.bouncycastle.math.ec.ECPoint;
+import org.bouncycastle.math.ec.FixedPointUtil;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 已解码公钥的LRU缓存
+ * LRU cache of decoded public keys
+ * <p>
+ * 验签时每次都要对压缩公钥做点解压(一次模平方根运算), 出块节点和频繁交易的账户会反复使用同一个公钥.
+ * 缓存解码后的点, 并对使用次数达到阈值的热点公钥预计算定点梳状表, 之后用定点乘法代替通用标量乘法.
+ * <p>
+ * Every verification decompresses the public key (a modular square root), while packers and busy accounts
+ * keep using the same keys. Decoded points are cached, and keys used often enough get a fixed point comb
+ * table so their scalar multiplication can use the fixed point multiplier.
+ */
+public class ECPointCache {
+
+    /**
+     * 缓存的公钥个数，通过-Dnuls.ecPointCacheSize配置，0表示不缓存
+     */
+    public static final String CACHE_SIZE_KEY = "nuls.ecPointCacheSize";
+
+    /**
+     * 公钥使用多少次后预计算定点表，通过-Dnuls.ecPointPrecomputeHits配置，0表示不预计算(默认).
+     * secp256k1的双标量乘法已使用GLV自同态, 单核测试中定点梳状乘法并不更快, 因此默认关闭
+     */
+    public static final String PRECOMPUTE_HITS_KEY = "nuls.ecPointPrecomputeHits";
+
+    private static final int DEFAULT_CACHE_SIZE = 4096;
+
+    private static final int DEFAULT_PRECOMPUTE_HITS = 0;
+
+    private static final int CACHE_SIZE = getIntProperty(CACHE_SIZE_KEY, DEFAULT_CACHE_SIZE);
+
+    private static final int PRECOMPUTE_HITS = getIntProperty(PRECOMPUTE_HITS_KEY, DEFAULT_PRECOMPUTE_HITS);
+
+    private static final Map<ByteArrayWrapper, Entry> CACHE = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ByteArrayWrapper, Entry> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    /**
+     * 缓存中的公钥
+     * A cached public key
+     */
+    public static class Entry {
+        private final ECPoint point;
+        private int hits;
+        private volatile boolean precomputed;
+
+        private Entry(ECPoint point) {
+            this.point = point;
+        }
+
+        public ECPoint getPoint() {
+            return point;
+        }
+
+        /**
+         * 是否已预计算定点表
+         */
+        public boolean isPrecomputed() {
+            return precomputed;
+        }
+    }
+
+    private static int getIntProperty(String key, int defaultValue) {
+        String value = System.getProperty(key);
+        if (StringUtils.isBlank(value)) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * 获取解码后的公钥, 不在缓存中时解码并加入缓存
+     * Get the decoded public key, decode and cache it on a miss
+     *
+     * @param curve 曲线
+     * @param pub   公钥
+     * @return 缓存项
+     */
+    public static Entry get(ECCurve curve, byte[] pub) {
+        if (CACHE_SIZE <= 0) {
+            return new Entry(curve.decodePoint(pub));
+        }
+        ByteArrayWrapper key = new ByteArrayWrapper(pub);
+        Entry entry;
+        boolean precompute = false;
+        synchronized (CACHE) {
+            entry = CACHE.get(key);
+            if (entry != null) {
+                entry.hits++;
+                precompute = PRECOMPUTE_HITS > 0 && entry.hits == PRECOMPUTE_HITS;
+            }
+        }
+        if (entry == null) {
+            //解码放在锁外, 并发时可能重复解码, 结果相同
+            entry = new Entry(curve.decodePoint(pub));
+            synchronized (CACHE) {
+                Entry exist = CACHE.putIfAbsent(key, entry);
+                if (exist != null) {
+                    entry = exist;
+                }
+            }
+        } else if (precompute) {
+            FixedPointUtil.precompute(entry.point);
+            entry.precomputed = true;
+        }
+        return entry;
+    }
+
+    public static int size() {
+        synchronized (CACHE) {
+            return CACHE.size();
+        }
+    }
+
+    public static void clear() {
+        synchronized (CACHE) {
+            CACHE.clear();
+        }
+    }
+}
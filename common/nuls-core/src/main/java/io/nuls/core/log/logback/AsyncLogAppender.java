@@ -0,0 +1,159 @@
+package io.nuls.core.log.logback;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 异步日志输出，打印日志的线程只把日志放入有界队列，由后台线程批量写入文件并在每批结束后刷盘
+ * 队列已满时，级别不低于blockLevel的日志等待队列空出位置，其余日志直接丢弃并计数，丢弃的数量在下一批日志中输出
+ * <p>
+ * Asynchronous log output, the logging thread only puts the event into a bounded queue, a background thread writes the
+ * events in batches and flushes once per batch.
+ * When the queue is full, events at or above blockLevel wait for space, the others are dropped and counted, the count is
+ * reported with the next batch
+ */
+public class AsyncLogAppender extends UnsynchronizedAppenderBase<ILoggingEvent> {
+
+    /**
+     * 每批最多写入的日志条数
+     * Maximum number of events written per batch
+     */
+    private static final int MAX_BATCH = 256;
+
+    private final List<Appender<ILoggingEvent>> appenderList = new ArrayList<>();
+
+    private final BlockingQueue<ILoggingEvent> queue;
+
+    private final Level blockLevel;
+
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    private Thread worker;
+
+    public AsyncLogAppender(int queueSize, Level blockLevel) {
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.blockLevel = blockLevel;
+    }
+
+    /**
+     * 只能在start之前添加
+     * Must be called before start
+     */
+    public void addAppender(Appender<ILoggingEvent> appender) {
+        appenderList.add(appender);
+    }
+
+    @Override
+    public void start() {
+        if (isStarted()) {
+            return;
+        }
+        super.start();
+        worker = new Thread(this::work, "async-log-" + getName());
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        worker.interrupt();
+        try {
+            worker.join(1000L);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<ILoggingEvent> batch = new ArrayList<>(queue.size());
+        queue.drainTo(batch);
+        write(batch);
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        //在打印日志的线程中格式化消息，后台线程不再访问参数对象
+        event.prepareForDeferredProcessing();
+        if (event.getLevel().isGreaterOrEqual(blockLevel)) {
+            try {
+                queue.put(event);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        } else if (!queue.offer(event)) {
+            droppedCount.incrementAndGet();
+        }
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    private void work() {
+        List<ILoggingEvent> batch = new ArrayList<>(MAX_BATCH);
+        while (isStarted()) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+            queue.drainTo(batch, MAX_BATCH - 1);
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void write(List<ILoggingEvent> batch) {
+        for (ILoggingEvent event : batch) {
+            appendLoop(event);
+        }
+        long dropped = droppedCount.getAndSet(0L);
+        if (dropped > 0) {
+            appendLoop(droppedEvent(dropped));
+        }
+        for (Appender<ILoggingEvent> appender : appenderList) {
+            if (appender instanceof OutputStreamAppender) {
+                OutputStream stream = ((OutputStreamAppender) appender).getOutputStream();
+                if (stream == null) {
+                    continue;
+                }
+                try {
+                    stream.flush();
+                } catch (IOException e) {
+                    addError("flush log failed", e);
+                }
+            }
+        }
+    }
+
+    private void appendLoop(ILoggingEvent event) {
+        for (Appender<ILoggingEvent> appender : appenderList) {
+            appender.doAppend(event);
+        }
+    }
+
+    private ILoggingEvent droppedEvent(long dropped) {
+        LoggingEvent event = new LoggingEvent();
+        event.setLevel(Level.WARN);
+        event.setLoggerName(getName());
+        event.setThreadName(Thread.currentThread().getName());
+        event.setTimeStamp(System.currentTimeMillis());
+        event.setMessage("log queue full, " + dropped + " events below " + blockLevel + " dropped");
+        event.setLoggerContextRemoteView(((LoggerContext) getContext()).getLoggerContextRemoteView());
+        return event;
+    }
+}
@@ -7,6 +7,7 @@ import ch.qos.logback.classic.filter.ThresholdFilter;
 import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.core.Appender;
 import ch.qos.logback.core.ConsoleAppender;
+import ch.qos.logback.core.OutputStreamAppender;
 import ch.qos.logback.core.rolling.RollingFileAppender;
 import ch.qos.logback.core.rolling.SizeAndTimeBasedRollingPolicy;
 import ch.qos.logback.core.util.FileSize;
@@ -114,4 +115,38 @@ public class LogAppender {
         appender.start();
         return appender;
     }
+
+    /**
+     * 创建异步输出的appender，被包装的appender由后台线程写入，文件appender改为按批刷盘
+     * Creates the asynchronous appender, the wrapped appenders are written by a background thread and the file appender
+     * flushes once per batch instead of after every event
+     *
+     * @param name       appender名称 / appender name
+     * @param level      最低输出级别 / lowest level written
+     * @param queueSize  队列长度 / queue size
+     * @param blockLevel 队列已满时等待的最低级别, 更低级别的日志被丢弃 / lowest level waiting on a full queue, lower
+     *                   levels are dropped
+     * @param appenders  被包装的appender / wrapped appenders
+     * @return
+     */
+    @SafeVarargs
+    public static AsyncLogAppender createAsyncAppender(String name, Level level, int queueSize, Level blockLevel, Appender<ILoggingEvent>... appenders){
+        AsyncLogAppender appender = new AsyncLogAppender(queueSize, blockLevel);
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        appender.setContext(context);
+        appender.setName(name);
+        //这里设置级别过滤器
+        LogFilter levelController = new LogFilter();
+        ThresholdFilter levelFilter = levelController.getThresholdFilter(level);
+        levelFilter.start();
+        appender.addFilter(levelFilter);
+        for (Appender<ILoggingEvent> wrapped : appenders) {
+            if (wrapped instanceof OutputStreamAppender) {
+                ((OutputStreamAppender) wrapped).setImmediateFlush(false);
+            }
+            appender.addAppender(wrapped);
+        }
+        appender.start();
+        return appender;
+    }
 }
@@ -23,6 +23,14 @@ public class LoggerBuilder {
     private static final Map<String, NulsLogger> CONTAINER = new HashMap<>();
     private static final Level DEFAULT_LEVEL = Level.ALL;
 
+    /**
+     * 异步输出配置，由启动脚本从ncf配置传入，模块的JAVA_OPTS可以覆盖
+     * Asynchronous output settings, passed from the ncf config by the start script, a module's JAVA_OPTS may override them
+     */
+    private static final boolean ASYNC = Boolean.parseBoolean(System.getProperty("log.async"));
+    private static final int ASYNC_QUEUE_SIZE = StringUtils.isNotBlank(System.getProperty("log.queueSize")) ? Integer.parseInt(System.getProperty("log.queueSize")) : 8192;
+    private static final Level ASYNC_BLOCK_LEVEL = Level.toLevel(System.getProperty("log.blockLevel"), Level.WARN);
+
     static {
         LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
         Logger logger = context.getLogger("io.netty");
@@ -67,10 +75,19 @@ public class LoggerBuilder {
         Logger logger = context.getLogger(fileAppender.getEncoder().toString());
         //设置不向上级打印信息
         logger.setAdditive(false);
-        logger.addAppender(fileAppender);
         //输出到控制台
         Appender consoleAppender = LogAppender.createConsoleAppender(consoleLevel);
-        logger.addAppender(consoleAppender);
+        if (ASYNC) {
+            //低于两个appender级别的日志在NulsLogger中直接跳过，不再生成调用位置和消息内容
+            Level level = fileLevel.isGreaterOrEqual(consoleLevel) ? consoleLevel : fileLevel;
+            if (level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+                logger.setLevel(level);
+            }
+            logger.addAppender(LogAppender.createAsyncAppender(fileName, level, ASYNC_QUEUE_SIZE, ASYNC_BLOCK_LEVEL, fileAppender, consoleAppender));
+        } else {
+            logger.addAppender(fileAppender);
+            logger.addAppender(consoleAppender);
+        }
         return new NulsLogger(logger);
     }
 
@@ -0,0 +1,78 @@
+package io.nuls.core.crypto;
+
+import org.bouncycastle.crypto.params.ECPublicKeyParameters;
+import org.bouncycastle.crypto.signers.ECDSASigner;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * 公钥点缓存达到预计算阈值前后, ECKey.verify的结果都与不经过缓存的验证一致
+ * ECKey.verify agrees with uncached verification both before and after a cached key reaches the precompute threshold
+ */
+public class ECPointCacheTest {
+
+    private static final int PRECOMPUTE_HITS = 10;
+
+    static {
+        //阈值在ECPointCache类加载时读取, 需在首次验签前设置
+        System.setProperty(ECPointCache.PRECOMPUTE_HITS_KEY, String.valueOf(PRECOMPUTE_HITS));
+    }
+
+    /**
+     * 不经过缓存的原始验证实现
+     */
+    private static boolean verifyPlain(byte[] digest, ECKey.ECDSASignature signature, byte[] pub) {
+        ECDSASigner signer = new ECDSASigner();
+        signer.init(false, new ECPublicKeyParameters(ECKey.CURVE.getCurve().decodePoint(pub), ECKey.CURVE));
+        return signer.verifySignature(digest, signature.r, signature.s);
+    }
+
+    private static void assertSameAsPlain(byte[] digest, ECKey.ECDSASignature signature, byte[] pub) {
+        assertEquals(verifyPlain(digest, signature, pub), ECKey.verify(digest, signature, pub));
+    }
+
+    @Test
+    public void verifyWithCachedKeys() {
+        Random random = new Random(1);
+        ECKey key = new ECKey();
+        byte[] pub = key.getPubKey();
+        byte[] otherPub = new ECKey().getPubKey();
+        //超过预计算阈值前后, 验证结果都应与原始实现一致
+        boolean verifiedPrecomputed = false;
+        for (int i = 0; i < 100; i++) {
+            byte[] digest = new byte[32];
+            random.nextBytes(digest);
+            ECKey.ECDSASignature signature = ECKey.ECDSASignature.decodeFromDER(key.sign(digest));
+            verifiedPrecomputed |= ECPointCache.get(ECKey.CURVE.getCurve(), pub).isPrecomputed();
+            assertTrue(ECKey.verify(digest, signature, pub));
+            assertSameAsPlain(digest, signature, pub);
+            //错误的签名: r、s被修改或超出范围
+            ECKey.ECDSASignature[] badSignatures = {
+                    new ECKey.ECDSASignature(signature.r.add(BigInteger.ONE), signature.s),
+                    new ECKey.ECDSASignature(signature.r, signature.s.add(BigInteger.ONE)),
+                    new ECKey.ECDSASignature(signature.r, ECKey.CURVE.getN()),
+                    new ECKey.ECDSASignature(BigInteger.ZERO, signature.s)
+            };
+            for (ECKey.ECDSASignature bad : badSignatures) {
+                assertFalse(ECKey.verify(digest, bad, pub));
+                assertSameAsPlain(digest, bad, pub);
+            }
+            //其他公钥或被修改的摘要
+            assertFalse(ECKey.verify(digest, signature, otherPub));
+            assertSameAsPlain(digest, signature, otherPub);
+            digest[0]++;
+            assertFalse(ECKey.verify(digest, signature, pub));
+            assertSameAsPlain(digest, signature, pub);
+        }
+        ECPointCache.Entry entry = ECPointCache.get(ECKey.CURVE.getCurve(), pub);
+        assertTrue(entry.isPrecomputed());
+        assertTrue(ECPointCache.get(ECKey.CURVE.getCurve(), otherPub).isPrecomputed());
+        assertTrue(verifiedPrecomputed);
+        assertSame(entry, ECPointCache.get(ECKey.CURVE.getCurve(), pub));
+        assertEquals(key.getPubKeyPoint(), entry.getPoint());
+    }
+}
@@ -0,0 +1,133 @@
+package io.nuls.core.log.logback;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * 后台线程被阻塞在下游appender时队列写满: 低于blockLevel的日志丢弃并计数, 不低于blockLevel的日志等待, stop时写出剩余日志
+ * The queue fills up while the background thread is held in the downstream appender: events below blockLevel are
+ * dropped and counted, events at or above it wait, stop writes the remaining events
+ */
+public class AsyncLogAppenderTest {
+
+    private LoggerContext context;
+
+    private AsyncLogAppender appender;
+
+    private Recorder recorder;
+
+    @Before
+    public void before() {
+        context = new LoggerContext();
+        recorder = new Recorder();
+        recorder.setContext(context);
+        recorder.start();
+        appender = new AsyncLogAppender(2, Level.WARN);
+        appender.setContext(context);
+        appender.setName("async-test");
+        appender.addAppender(recorder);
+        appender.start();
+    }
+
+    @After
+    public void after() {
+        recorder.gate.countDown();
+        appender.stop();
+    }
+
+    private ILoggingEvent event(Level level, String message) {
+        return new LoggingEvent(AsyncLogAppenderTest.class.getName(), context.getLogger("test"), level, message, null, null);
+    }
+
+    /**
+     * 让后台线程停在第一条日志上, 之后放入的日志只能进入队列
+     */
+    private void holdWorker() throws InterruptedException {
+        appender.doAppend(event(Level.INFO, "first"));
+        assertTrue(recorder.entered.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void dropBelowBlockLevelAndWaitAtOrAbove() throws Exception {
+        holdWorker();
+        appender.doAppend(event(Level.INFO, "queued-1"));
+        appender.doAppend(event(Level.DEBUG, "queued-2"));
+        appender.doAppend(event(Level.INFO, "dropped-1"));
+        appender.doAppend(event(Level.DEBUG, "dropped-2"));
+        assertEquals(2, appender.getDroppedCount());
+
+        Thread warnThread = new Thread(() -> appender.doAppend(event(Level.WARN, "blocked")));
+        warnThread.start();
+        long deadline = System.currentTimeMillis() + 5000L;
+        while (warnThread.getState() != Thread.State.WAITING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10L);
+        }
+        assertEquals(Thread.State.WAITING, warnThread.getState());
+
+        recorder.gate.countDown();
+        warnThread.join(5000L);
+        assertFalse(warnThread.isAlive());
+        appender.stop();
+
+        List<String> messages = recorder.messages();
+        assertEquals(List.of("INFO first", "WARN log queue full, 2 events below WARN dropped", "INFO queued-1",
+                "DEBUG queued-2", "WARN blocked"), messages);
+        assertEquals(0, appender.getDroppedCount());
+    }
+
+    @Test
+    public void stopDrainsQueue() throws Exception {
+        holdWorker();
+        appender.doAppend(event(Level.INFO, "queued-1"));
+        appender.doAppend(event(Level.ERROR, "queued-2"));
+        //stop中断被阻塞的后台线程, 再由stop写出队列中剩余的日志
+        appender.stop();
+        assertFalse(appender.isStarted());
+        assertEquals(List.of("INFO first", "INFO queued-1", "ERROR queued-2"), recorder.messages());
+    }
+
+    private static class Recorder extends AppenderBase<ILoggingEvent> {
+
+        private final CountDownLatch entered = new CountDownLatch(1);
+
+        private final CountDownLatch gate = new CountDownLatch(1);
+
+        private final List<String> messages = new ArrayList<>();
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            synchronized (messages) {
+                messages.add(event.getLevel() + " " + event.getFormattedMessage());
+            }
+            //只阻塞第一条日志
+            if (entered.getCount() == 0) {
+                return;
+            }
+            entered.countDown();
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private List<String> messages() {
+            synchronized (messages) {
+                return new ArrayList<>(messages);
+            }
+        }
+    }
+}
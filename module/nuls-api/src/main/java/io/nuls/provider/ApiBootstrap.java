@@ -3,6 +3,8 @@ package io.nuls.provider;
 import io.nuls.core.exception.NulsException;
 import io.nuls.core.parse.I18nUtils;
 import io.nuls.provider.api.RpcServerManager;
+import io.nuls.provider.api.jsonrpc.JsonRpcContext;
+import io.nuls.provider.api.jsonrpc.RpcResultCache;
 import io.nuls.base.api.provider.Provider;
 import io.nuls.base.api.provider.ServiceManager;
 import io.nuls.core.core.annotation.Autowired;
@@ -78,6 +80,13 @@ public class ApiBootstrap extends RpcModule {
     private static void initRpcServer(Map<String, ConfigurationLoader.ConfigItem> configItemMap) {
         String server_ip = "0.0.0.0";
         int server_port = 18004;
+        int server_threads = 4;
+        int server_queue_size = 1000;
+        int rpc_threads = 16;
+        int rpc_queue_size = 1000;
+        int batch_parallelism = 16;
+        boolean cache_enabled = true;
+        int cache_size = 64;
         if (configItemMap != null) {
             ConfigurationLoader.ConfigItem serverIp = configItemMap.get("serverIp");
             if (serverIp != null) {
@@ -87,8 +96,28 @@ public class ApiBootstrap extends RpcModule {
             if (serverPort != null) {
                 server_port = Integer.parseInt(serverPort.getValue());
             }
+            server_threads = getIntValue(configItemMap, "serverThreads", server_threads);
+            server_queue_size = getIntValue(configItemMap, "serverQueueSize", server_queue_size);
+            rpc_threads = getIntValue(configItemMap, "rpcThreads", rpc_threads);
+            rpc_queue_size = getIntValue(configItemMap, "rpcQueueSize", rpc_queue_size);
+            batch_parallelism = getIntValue(configItemMap, "batchParallelism", batch_parallelism);
+            ConfigurationLoader.ConfigItem cacheEnabled = configItemMap.get("rpcCacheEnabled");
+            if (cacheEnabled != null) {
+                cache_enabled = Boolean.parseBoolean(cacheEnabled.getValue());
+            }
+            cache_size = getIntValue(configItemMap, "rpcCacheSize", cache_size);
+        }
+        JsonRpcContext.init(rpc_threads, rpc_queue_size, batch_parallelism);
+        RpcResultCache.getInstance().init(cache_enabled, cache_size * 1024L * 1024L);
+        RpcServerManager.getInstance().startServer(server_ip, server_port, server_threads, server_queue_size);
+    }
+
+    private static int getIntValue(Map<String, ConfigurationLoader.ConfigItem> configItemMap, String key, int defaultValue) {
+        ConfigurationLoader.ConfigItem item = configItemMap.get(key);
+        if (item == null) {
+            return defaultValue;
         }
-        RpcServerManager.getInstance().startServer(server_ip, server_port);
+        return Integer.parseInt(item.getValue());
     }
 
 
@@ -3,7 +3,11 @@ package io.nuls.provider;
 import io.nuls.core.core.annotation.Autowired;
 import io.nuls.core.core.annotation.Component;
 import io.nuls.core.rpc.modulebootstrap.RpcModuleState;
+import io.nuls.provider.api.config.Context;
+import io.nuls.provider.rpctools.BlockTools;
 import io.nuls.provider.rpctools.TransactionTools;
+import io.nuls.provider.rpctools.callback.NewBlockHeightInvoke;
+import io.nuls.provider.utils.Log;
 
 /**
  * @Author: zhoulijun
@@ -16,6 +20,9 @@ public class MyModule {
     @Autowired
     TransactionTools transactionTools;
 
+    @Autowired
+    BlockTools blockTools;
+
     /**
      * 启动模块
      * 模块启动后，当申明的依赖模块都已经准备就绪将调用此函数
@@ -25,6 +32,10 @@ public class MyModule {
     public RpcModuleState startModule(String moduleName){
         //注册交易
         //transactionTools.registerTx(moduleName,200);
+        //订阅失败时按高度失效的方法不缓存
+        if (!blockTools.subscribeLatestHeight(Context.getChainId(), new NewBlockHeightInvoke())) {
+            Log.warn("subscribe latest height failed, results cached until the next height are disabled");
+        }
         return RpcModuleState.Running;
     }
 
@@ -60,21 +60,30 @@ public class RpcServerManager {
     }
 
     public void startServer(String ip, int port) {
+        startServer(ip, port, 4, 1000);
+    }
+
+    /**
+     * @param workerThreads HTTP工作线程数, JSON-RPC方法在独立的线程池中执行 / HTTP worker threads, JSON-RPC methods run on their own pool
+     * @param queueSize     HTTP工作线程的等待队列长度 / queue length of the HTTP workers
+     */
+    public void startServer(String ip, int port, int workerThreads, int queueSize) {
         URI serverURI = UriBuilder.fromUri("http://" + ip).port(port).build();
         // Create test web application context.
         WebappContext webappContext = new WebappContext("NULS-V2-SDK-PROVIDER-SERVER", "/");
 
-        ServletRegistration servletRegistration = webappContext.addServlet("jersey-servlet", ServletContainer.class);
+        ServletRegistration.Dynamic servletRegistration = webappContext.addServlet("jersey-servlet", ServletContainer.class);
         servletRegistration.setInitParameter("javax.ws.rs.Application", "io.nuls.provider.api.config.NulsResourceConfig");
         servletRegistration.addMapping("/*");
+        servletRegistration.setAsyncSupported(true);
 
         httpServer = new HttpServer();
         NetworkListener listener = new NetworkListener("grizzly2", ip, port);
         TCPNIOTransport transport = listener.getTransport();
         ThreadPoolConfig workerPool = ThreadPoolConfig.defaultConfig()
-                .setCorePoolSize(4)
-                .setMaxPoolSize(4)
-                .setQueueLimit(1000)
+                .setCorePoolSize(workerThreads)
+                .setMaxPoolSize(workerThreads)
+                .setQueueLimit(queueSize)
                 .setThreadFactory((new ThreadFactoryBuilder()).setNameFormat("grizzly-http-server-%d").build());
         transport.configureBlocking(false);
         transport.setSelectorRunnersCount(2);
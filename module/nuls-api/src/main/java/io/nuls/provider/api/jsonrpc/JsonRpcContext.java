@@ -20,8 +20,12 @@
 
 package io.nuls.provider.api.jsonrpc;
 
+import io.nuls.core.thread.ThreadUtils;
+import io.nuls.core.thread.commom.NulsThreadFactory;
+
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 
 /**
  * @author Niels
@@ -29,4 +33,36 @@ import java.util.Map;
 public class JsonRpcContext {
 
     public static final Map<String, RpcMethodInvoker> RPC_METHOD_INVOKER_MAP = new HashMap<>();
+
+    /**
+     * 执行同步方法及写回响应的线程池, 异步方法等待模块返回时不占用线程
+     * Pool running the synchronous methods and writing the responses back, asynchronous methods hold no thread while
+     * waiting for the module
+     */
+    private static ExecutorService executor;
+
+    /**
+     * 一个批量请求中同时执行的方法数
+     * Number of entries of one batch request executed at the same time
+     */
+    private static int batchParallelism = 16;
+
+    public static synchronized void init(int threadCount, int queueSize, int parallelism) {
+        if (executor != null) {
+            executor.shutdown();
+        }
+        executor = ThreadUtils.createThreadPool(threadCount, queueSize, new NulsThreadFactory("json-rpc"));
+        batchParallelism = parallelism;
+    }
+
+    public static synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            executor = ThreadUtils.createThreadPool(16, 1000, new NulsThreadFactory("json-rpc"));
+        }
+        return executor;
+    }
+
+    public static int getBatchParallelism() {
+        return batchParallelism;
+    }
 }
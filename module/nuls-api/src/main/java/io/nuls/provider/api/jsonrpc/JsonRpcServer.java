@@ -29,13 +29,20 @@ import io.nuls.provider.model.jsonrpc.RpcResult;
 import io.nuls.provider.model.jsonrpc.RpcResultError;
 import io.nuls.provider.utils.Log;
 
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.MediaType;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @author: PierreLuo
@@ -47,46 +54,111 @@ public class JsonRpcServer {
 
     @POST
     @Produces(MediaType.APPLICATION_JSON)
-    public Object dispatcher(Object form) {
+    public void dispatcher(Object form, @HeaderParam("Cache-Control") String cacheControl, @Suspended AsyncResponse asyncResponse) {
+        //Cache-Control: no-cache 跳过结果缓存 / skips the result cache
+        boolean bypass = cacheControl != null && cacheControl.contains("no-cache");
+        CompletableFuture<Object> future;
+        try {
+            future = dispatcher(form, bypass);
+        } catch (Exception e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        future.whenComplete((result, e) -> resume(asyncResponse, e == null ? result : e));
+    }
+
+    /**
+     * 在线程池中写回响应, 不占用模块连接的线程做序列化; 线程池已满时直接写回
+     * Writes the response back on the pool so the thread of the module connection does not serialize it, writes it
+     * inline when the pool is full
+     */
+    private void resume(AsyncResponse asyncResponse, Object response) {
+        try {
+            JsonRpcContext.getExecutor().execute(() -> asyncResponse.resume(response));
+        } catch (RejectedExecutionException e) {
+            asyncResponse.resume(response);
+        }
+    }
+
+    private CompletableFuture<Object> dispatcher(Object form, boolean bypass) {
         if(form == null) {
-            return responseError("-32700", "", "0");
+            return CompletableFuture.completedFuture(responseError("-32700", "", "0"));
         }
         if(form instanceof List) {
-            return dispatcherList((List<Map<String, Object>>) form);
+            return dispatcherList((List<Map<String, Object>>) form, bypass);
         } else if(form instanceof Map) {
-            return dispatcher((Map<String, Object>) form);
+            return dispatcher((Map<String, Object>) form, bypass).thenApply(result -> result);
         } else {
-            return responseError("-32700", "the request is not a json-rpc 2.0 request", "0");
+            return CompletableFuture.completedFuture(responseError("-32700", "the request is not a json-rpc 2.0 request", "0"));
         }
     }
 
-    private Object dispatcherList(List<Map<String, Object>> forms) {
-        List<RpcResult> list = new ArrayList<>();
-        for(Map<String, Object> form : forms) {
-            list.add(dispatcher(form));
+    /**
+     * 批量请求中的方法并发执行, 同时执行的数量不超过batchParallelism, 结果按请求的顺序返回
+     * The entries of a batch run concurrently, at most batchParallelism at a time, the results keep the request order
+     */
+    private CompletableFuture<Object> dispatcherList(List<Map<String, Object>> forms, boolean bypass) {
+        if (forms.isEmpty()) {
+            return CompletableFuture.completedFuture(new ArrayList<>());
+        }
+        BatchContext batch = new BatchContext(forms, bypass);
+        int parallelism = Math.min(JsonRpcContext.getBatchParallelism(), forms.size());
+        for (int i = 0; i < parallelism; i++) {
+            dispatchNext(batch);
         }
-        if(list.size() == 1) {
-            return list.get(0);
+        return batch.done.thenApply(list -> {
+            if(list.size() == 1) {
+                return list.get(0);
+            }
+            return list;
+        });
+    }
+
+    private void dispatchNext(BatchContext batch) {
+        while (true) {
+            int index = batch.next.getAndIncrement();
+            if (index >= batch.forms.size()) {
+                return;
+            }
+            CompletableFuture<RpcResult> future;
+            try {
+                future = dispatcher(batch.forms.get(index), batch.bypass).exceptionally(e -> {
+                    Log.error(e);
+                    return responseError("-32603", "system error", "0");
+                });
+            } catch (Exception e) {
+                Log.error(e);
+                future = CompletableFuture.completedFuture(responseError("-32603", "system error", "0"));
+            }
+            //已完成的直接取下一个, 避免同步完成时递归调用
+            if (future.isDone()) {
+                batch.finish(index, future.join());
+                continue;
+            }
+            future.thenAccept(result -> {
+                batch.finish(index, result);
+                dispatchNext(batch);
+            });
+            return;
         }
-        return list;
     }
 
-    private RpcResult dispatcher(Map<String, Object> form) {
+    private CompletableFuture<RpcResult> dispatcher(Map<String, Object> form, boolean bypass) {
         String method = (String) form.get("method");
         String id = form.get("id") + "";
         String jsonrpc = (String) form.get("jsonrpc");
         if (!"2.0".equals(jsonrpc)) {
             Log.warn("the request is not a json-rpc 2.0 request!");
-            return responseError("-32600", "the request is not a json-rpc 2.0 request", id);
+            return CompletableFuture.completedFuture(responseError("-32600", "the request is not a json-rpc 2.0 request", id));
         }
         RpcMethodInvoker invoker = JsonRpcContext.RPC_METHOD_INVOKER_MAP.get(method);
         if (null == invoker) {
             Log.warn("Can't find the method:{}", method);
-            return responseError("-32601", "Can't find the method", id);
+            return CompletableFuture.completedFuture(responseError("-32601", "Can't find the method", id));
         }
-        RpcResult result = invoker.invoke((List<Object>) form.get("params"));
-        result.setId(id);
-        return result;
+        return invoker.invokeAsync((List<Object>) form.get("params"), JsonRpcContext.getExecutor(), bypass).thenApply(result -> {
+            result.setId(id);
+            return result;
+        });
     }
 
     private RpcResult responseError(String code, String message, String id) {
@@ -99,6 +171,29 @@ public class JsonRpcServer {
         return result;
     }
 
+    private static class BatchContext {
+        private final List<Map<String, Object>> forms;
+        private final boolean bypass;
+        private final RpcResult[] results;
+        private final AtomicInteger next = new AtomicInteger();
+        private final AtomicInteger remaining;
+        private final CompletableFuture<List<RpcResult>> done = new CompletableFuture<>();
+
+        BatchContext(List<Map<String, Object>> forms, boolean bypass) {
+            this.forms = forms;
+            this.bypass = bypass;
+            this.results = new RpcResult[forms.size()];
+            this.remaining = new AtomicInteger(forms.size());
+        }
+
+        void finish(int index, RpcResult result) {
+            results[index] = result;
+            if (remaining.decrementAndGet() == 0) {
+                done.complete(Arrays.asList(results));
+            }
+        }
+    }
+
     private static class JsonRpcForm {
         private List<RpcForm> forms;
 
@@ -20,13 +20,19 @@
 
 package io.nuls.provider.api.jsonrpc;
 
+import io.nuls.core.core.annotation.RpcMethod;
 import io.nuls.core.exception.NulsException;
 import io.nuls.core.log.Log;
 import io.nuls.provider.model.jsonrpc.RpcResult;
 import io.nuls.provider.model.jsonrpc.RpcResultError;
 
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * @author Niels
@@ -37,39 +43,109 @@ public class RpcMethodInvoker {
 
     private Method method;
 
+    private boolean async;
+
+    private String name;
+
+    private RpcCache cache;
+
     public RpcMethodInvoker(Object bean, Method method) {
         this.bean = bean;
         this.method = method;
+        this.async = CompletableFuture.class.isAssignableFrom(method.getReturnType());
+        RpcMethod rpcMethod = method.getAnnotation(RpcMethod.class);
+        this.name = rpcMethod != null ? rpcMethod.value() : method.getName();
+        this.cache = method.getAnnotation(RpcCache.class);
     }
 
     public RpcResult invoke(List<Object> jsonParams) {
-        RpcResult result = null;
+        return invokeAsync(jsonParams, Runnable::run).join();
+    }
+
+    /**
+     * 带有RpcCache注解的方法先查缓存, bypass为true时直接调用并且不写入缓存
+     * Methods annotated with RpcCache are looked up in the cache first, with bypass the method is called and the result
+     * is not cached
+     */
+    public CompletableFuture<RpcResult> invokeAsync(List<Object> jsonParams, Executor executor, boolean bypass) {
+        RpcResultCache resultCache = RpcResultCache.getInstance();
+        if (cache == null || bypass || !resultCache.isEnabled()) {
+            return invokeAsync(jsonParams, executor);
+        }
+        RpcResult cached = resultCache.get(name, jsonParams);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        long height = resultCache.getHeight();
+        return invokeAsync(jsonParams, executor).thenApply(result -> {
+            resultCache.put(name, cache, jsonParams, height, result);
+            return result;
+        });
+    }
+
+    /**
+     * 返回CompletableFuture的方法直接调用, 由模块返回结果时完成; 其它方法在executor中执行
+     * Methods returning a CompletableFuture are called directly and complete when the module answers, the other methods
+     * run on the executor
+     */
+    public CompletableFuture<RpcResult> invokeAsync(List<Object> jsonParams, Executor executor) {
+        if (!async) {
+            try {
+                return CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return (RpcResult) method.invoke(bean, jsonParams);
+                    } catch (Exception e) {
+                        return errorResult(e);
+                    }
+                }, executor);
+            } catch (RejectedExecutionException e) {
+                return CompletableFuture.completedFuture(busyResult());
+            }
+        }
         try {
-            result = (RpcResult) method.invoke(bean, jsonParams);
+            return ((CompletableFuture<RpcResult>) method.invoke(bean, jsonParams)).exceptionally(this::errorResult);
         } catch (Exception e) {
+            return CompletableFuture.completedFuture(errorResult(e));
+        }
+    }
 
-            Log.error("\n" + method.toString());
-            if (e.getCause() instanceof JsonRpcException) {
-                JsonRpcException jsonRpcException = (JsonRpcException) e.getCause();
-                result = new RpcResult();
-                result.setError(jsonRpcException.getError());
-
-            } else if (e.getCause() instanceof NulsException) {
-                NulsException nulsException = (NulsException) e.getCause();
-                result = new RpcResult();
-
-                result.setError(new RpcResultError(nulsException.getErrorCode()));
-            } else {
-                Log.error(e);
-                result = new RpcResult();
-                RpcResultError error = new RpcResultError();
-                error.setMessage("system error");
-                error.setCode("-32603");
-                error.setData(e.getMessage());
-                result.setError(error);
-            }
+    private RpcResult errorResult(Throwable e) {
+        RpcResult result;
+        //同步方法的异常由反射包装, 异步方法的异常由CompletableFuture包装
+        Throwable cause = e;
+        if ((e instanceof InvocationTargetException || e instanceof CompletionException) && e.getCause() != null) {
+            cause = e.getCause();
+        }
+        Log.error("\n" + method.toString());
+        if (cause instanceof JsonRpcException) {
+            JsonRpcException jsonRpcException = (JsonRpcException) cause;
+            result = new RpcResult();
+            result.setError(jsonRpcException.getError());
+
+        } else if (cause instanceof NulsException) {
+            NulsException nulsException = (NulsException) cause;
+            result = new RpcResult();
+
+            result.setError(new RpcResultError(nulsException.getErrorCode()));
+        } else {
+            Log.error(e);
+            result = new RpcResult();
+            RpcResultError error = new RpcResultError();
+            error.setMessage("system error");
+            error.setCode("-32603");
+            error.setData(e.getMessage());
+            result.setError(error);
         }
         return result;
     }
 
+    private RpcResult busyResult() {
+        RpcResult result = new RpcResult();
+        RpcResultError error = new RpcResultError();
+        error.setMessage("server busy");
+        error.setCode("-32603");
+        result.setError(error);
+        return result;
+    }
+
 }
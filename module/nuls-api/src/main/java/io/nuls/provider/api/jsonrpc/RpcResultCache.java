@@ -0,0 +1,235 @@
+/*
+ * MIT License
+ * Copyright (c) 2017-2019 nuls.io
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.nuls.provider.api.jsonrpc;
+
+import io.nuls.core.parse.JSONUtils;
+import io.nuls.provider.model.jsonrpc.RpcResult;
+import io.nuls.provider.utils.Log;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * JSON-RPC结果缓存, 按(方法, 参数)缓存, 超过内存预算时淘汰最久未使用的结果
+ * 按高度失效的结果只在收到最新高度通知后才缓存, 避免没有通知时返回过期数据
+ * <p>
+ * JSON-RPC result cache keyed by (method, params), the least recently used results are evicted beyond the memory budget.
+ * Results bound to the height are only cached after a latest height notification arrived, so a missing subscription
+ * never serves stale data
+ */
+public class RpcResultCache {
+
+    private static final RpcResultCache INSTANCE = new RpcResultCache();
+
+    /**
+     * 每条缓存的固定开销估算(字节)
+     * Estimated fixed overhead of one entry in bytes
+     */
+    private static final int ENTRY_OVERHEAD = 128;
+
+    private volatile boolean enabled = true;
+
+    private long maxBytes = 64L * 1024 * 1024;
+
+    private long usedBytes;
+
+    /**
+     * 最新高度, 未收到通知时为-1
+     * Latest height, -1 until the first notification
+     */
+    private volatile long height = -1L;
+
+    private final LinkedHashMap<String, Entry> entryMap = new LinkedHashMap<>(256, 0.75f, true);
+
+    private final Map<String, Statistics> statisticsMap = new ConcurrentHashMap<>();
+
+    private RpcResultCache() {
+    }
+
+    public static RpcResultCache getInstance() {
+        return INSTANCE;
+    }
+
+    public void init(boolean enabled, long maxBytes) {
+        this.enabled = enabled;
+        synchronized (this) {
+            this.maxBytes = maxBytes;
+            evict();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getHeight() {
+        return height;
+    }
+
+    /**
+     * 取缓存的结果, 返回的是副本, 调用者可以设置id
+     * Returns a copy of the cached result so the caller may set the id
+     */
+    public RpcResult get(String method, List<Object> params) {
+        String key = key(method, params);
+        Statistics statistics = statisticsMap.computeIfAbsent(method, k -> new Statistics());
+        if (key == null) {
+            statistics.misses.increment();
+            return null;
+        }
+        Entry entry;
+        synchronized (this) {
+            entry = entryMap.get(key);
+            if (entry != null && !entry.isValid(height, System.currentTimeMillis())) {
+                remove(key);
+                entry = null;
+            }
+        }
+        if (entry == null) {
+            statistics.misses.increment();
+            return null;
+        }
+        statistics.hits.increment();
+        return copy(entry.result);
+    }
+
+    /**
+     * @param requestHeight 请求开始时的高度, 期间高度变化的结果不缓存 / height when the request started, the result is
+     *                      not cached if the height changed meanwhile
+     */
+    public void put(String method, RpcCache cache, List<Object> params, long requestHeight, RpcResult result) {
+        if (result == null || result.getError() != null) {
+            return;
+        }
+        if (cache.untilNextHeight() && (requestHeight < 0 || requestHeight != height) && cache.ttl() <= 0) {
+            return;
+        }
+        String key = key(method, params);
+        if (key == null) {
+            return;
+        }
+        int size;
+        try {
+            size = ENTRY_OVERHEAD + 2 * (key.length() + JSONUtils.obj2json(result.getResult()).length());
+        } catch (Exception e) {
+            return;
+        }
+        Entry entry = new Entry();
+        entry.result = copy(result);
+        entry.size = size;
+        entry.height = cache.untilNextHeight() ? requestHeight : -1L;
+        entry.expireTime = cache.ttl() > 0 ? System.currentTimeMillis() + cache.ttl() : Long.MAX_VALUE;
+        synchronized (this) {
+            if (size > maxBytes || (cache.untilNextHeight() && requestHeight != height)) {
+                return;
+            }
+            remove(key);
+            entryMap.put(key, entry);
+            usedBytes += size;
+            evict();
+        }
+    }
+
+    /**
+     * 区块保存或回滚后调用, 清除按高度失效的结果
+     * Called after a block is saved or rolled back, drops the results bound to the height
+     */
+    public void onNewHeight(long newHeight) {
+        synchronized (this) {
+            height = newHeight;
+            Iterator<Map.Entry<String, Entry>> it = entryMap.entrySet().iterator();
+            while (it.hasNext()) {
+                Entry entry = it.next().getValue();
+                if (entry.height >= 0) {
+                    usedBytes -= entry.size;
+                    it.remove();
+                }
+            }
+        }
+        Log.debug("rpc cache height:{}, size:{}, statistics:{}", newHeight, usedBytes, getStatistics());
+    }
+
+    /**
+     * 各方法的命中与未命中次数
+     * Hit and miss counts per method
+     */
+    public Map<String, Map<String, Long>> getStatistics() {
+        Map<String, Map<String, Long>> map = new TreeMap<>();
+        for (Map.Entry<String, Statistics> entry : statisticsMap.entrySet()) {
+            Map<String, Long> counts = new LinkedHashMap<>(4);
+            counts.put("hits", entry.getValue().hits.sum());
+            counts.put("misses", entry.getValue().misses.sum());
+            map.put(entry.getKey(), counts);
+        }
+        return map;
+    }
+
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    private void remove(String key) {
+        Entry old = entryMap.remove(key);
+        if (old != null) {
+            usedBytes -= old.size;
+        }
+    }
+
+    private void evict() {
+        Iterator<Entry> it = entryMap.values().iterator();
+        while (usedBytes > maxBytes && it.hasNext()) {
+            usedBytes -= it.next().size;
+            it.remove();
+        }
+    }
+
+    private static String key(String method, List<Object> params) {
+        try {
+            return method + ":" + JSONUtils.obj2json(params);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static RpcResult copy(RpcResult result) {
+        RpcResult copy = new RpcResult();
+        copy.setJsonrpc(result.getJsonrpc());
+        copy.setResult(result.getResult());
+        return copy;
+    }
+
+    private static class Entry {
+        private RpcResult result;
+        private int size;
+        private long height;
+        private long expireTime;
+
+        private boolean isValid(long currentHeight, long now) {
+            return now < expireTime && (height < 0 || height == currentHeight);
+        }
+    }
+
+    private static class Statistics {
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+    }
+}
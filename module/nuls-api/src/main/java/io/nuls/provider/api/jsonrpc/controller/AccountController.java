@@ -60,6 +60,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * @author Niels
@@ -379,43 +380,44 @@ public class AccountController {
             @Parameter(parameterName = "address", requestType = @TypeDescriptor(value = String.class), parameterDes = "账户地址")
     })
     @ResponseData(name = "返回值", responseType = @TypeDescriptor(value = AccountBalance.class))
-    public RpcResult getAccountBalance(List<Object> params) {
+    public CompletableFuture<RpcResult> getAccountBalance(List<Object> params) {
         VerifyUtils.verifyParams(params, 4);
         int chainId, assetChainId, assetId;
         String address;
         try {
             chainId = (int) params.get(0);
         } catch (Exception e) {
-            return RpcResult.paramError("[chainId] is inValid");
+            return CompletableFuture.completedFuture(RpcResult.paramError("[chainId] is inValid"));
         }
         try {
             assetChainId = (int) params.get(1);
         } catch (Exception e) {
-            return RpcResult.paramError("[assetChainId] is inValid");
+            return CompletableFuture.completedFuture(RpcResult.paramError("[assetChainId] is inValid"));
         }
         try {
             assetId = (int) params.get(2);
         } catch (Exception e) {
-            return RpcResult.paramError("[assetId] is inValid");
+            return CompletableFuture.completedFuture(RpcResult.paramError("[assetId] is inValid"));
         }
         try {
             address = (String) params.get(3);
         } catch (Exception e) {
-            return RpcResult.paramError("[address] is inValid");
+            return CompletableFuture.completedFuture(RpcResult.paramError("[address] is inValid"));
         }
         if (!AddressTool.validAddress(chainId, address)) {
-            return RpcResult.paramError("[address] is inValid");
+            return CompletableFuture.completedFuture(RpcResult.paramError("[address] is inValid"));
         }
 
         if (!Context.isChainExist(chainId)) {
-            return RpcResult.dataNotFound();
+            return CompletableFuture.completedFuture(RpcResult.dataNotFound());
         }
-        RpcResult rpcResult = new RpcResult();
-        Result<AccountBalance> balanceResult = legderTools.getBalanceAndNonce(chainId, assetChainId, assetId, address);
-        if (balanceResult.isFailed()) {
-            return rpcResult.setError(new RpcResultError(balanceResult.getStatus(), balanceResult.getMessage(), null));
-        }
-        return rpcResult.setResult(balanceResult.getData());
+        return legderTools.getBalanceAndNonceAsync(chainId, assetChainId, assetId, address).thenApply(balanceResult -> {
+            RpcResult rpcResult = new RpcResult();
+            if (balanceResult.isFailed()) {
+                return rpcResult.setError(new RpcResultError(balanceResult.getStatus(), balanceResult.getMessage(), null));
+            }
+            return rpcResult.setResult(balanceResult.getData());
+        });
     }
 
     @RpcMethod("setAlias")
@@ -36,6 +36,7 @@ import io.nuls.core.rpc.model.*;
 import io.nuls.provider.api.config.Config;
 import io.nuls.provider.api.config.Context;
 import io.nuls.provider.api.manager.BeanCopierManager;
+import io.nuls.provider.api.jsonrpc.RpcCache;
 import io.nuls.provider.model.dto.block.BlockDto;
 import io.nuls.provider.model.dto.block.BlockHeaderDto;
 import io.nuls.provider.model.jsonrpc.RpcResult;
@@ -65,6 +66,7 @@ public class BlockController {
     BlockTools blockTools;
 
     @RpcMethod("info")
+    @RpcCache(ttl = 60000L, untilNextHeight = false)
     @ApiOperation(description = "获取本链相关信息,其中共识资产为本链创建共识节点交易和创建委托共识交易时，需要用到的资产", order = 001)
     @ResponseData(name = "返回值", description = "返回本链信息", responseType = @TypeDescriptor(value = Map.class, mapKeys = {
             @Key(name = "chainId", description = "本链的ID"),
@@ -86,6 +88,7 @@ public class BlockController {
     }
 
     @RpcMethod("getHeaderByHeight")
+    @RpcCache
     @ApiOperation(description = "根据区块高度查询区块头", order = 201)
     @Parameters({
             @Parameter(parameterName = "chainId", requestType = @TypeDescriptor(value = int.class), parameterDes = "链ID"),
@@ -126,6 +129,7 @@ public class BlockController {
     }
 
     @RpcMethod("getHeaderByHash")
+    @RpcCache
     @ApiOperation(description = "根据区块hash查询区块头", order = 202)
     @Parameters({
             @Parameter(parameterName = "chainId", requestType = @TypeDescriptor(value = int.class), parameterDes = "链ID"),
@@ -166,6 +170,7 @@ public class BlockController {
 
 
     @RpcMethod("getBestBlockHeader")
+    @RpcCache
     @ApiOperation(description = "查询最新区块头信息", order = 203)
     @Parameters({
             @Parameter(parameterName = "chainId", requestType = @TypeDescriptor(value = int.class), parameterDes = "链ID")
@@ -196,6 +201,7 @@ public class BlockController {
 
 
     @RpcMethod("getBestBlock")
+    @RpcCache
     @ApiOperation(description = "查询最新区块", order = 204, detailDesc = "包含区块打包的所有交易信息，此接口返回数据量较多，谨慎调用")
     @Parameters({
             @Parameter(parameterName = "chainId", requestType = @TypeDescriptor(value = int.class), parameterDes = "链ID")
@@ -229,6 +235,7 @@ public class BlockController {
 
 
     @RpcMethod("getBlockByHeight")
+    @RpcCache
     @ApiOperation(description = "根据区块高度查询区块", order = 205, detailDesc = "包含区块打包的所有交易信息，此接口返回数据量较多，谨慎调用")
     @Parameters({
             @Parameter(parameterName = "chainId", requestType = @TypeDescriptor(value = int.class), parameterDes = "链ID"),
@@ -270,6 +277,7 @@ public class BlockController {
     }
 
     @RpcMethod("getBlockByHash")
+    @RpcCache
     @ApiOperation(description = "根据区块hash查询区块", order = 206, detailDesc = "包含区块打包的所有交易信息，此接口返回数据量较多，谨慎调用")
     @Parameters({
             @Parameter(parameterName = "chainId", requestType = @TypeDescriptor(value = int.class), parameterDes = "链ID"),
@@ -311,6 +319,7 @@ public class BlockController {
     }
 
     @RpcMethod("getBlockSerializationByHeight")
+    @RpcCache
     @ApiOperation(description = "根据区块高度查询区块序列化字符串", order = 207, detailDesc = "包含区块打包的所有交易信息，此接口返回数据量较多，谨慎调用")
     @Parameters({
             @Parameter(parameterName = "chainId", requestType = @TypeDescriptor(value = int.class), parameterDes = "链ID"),
@@ -342,6 +351,7 @@ public class BlockController {
     }
 
     @RpcMethod("getBlockSerializationByHash")
+    @RpcCache
     @ApiOperation(description = "根据区块hash查询区块序列化字符串", order = 208, detailDesc = "包含区块打包的所有交易信息，此接口返回数据量较多，谨慎调用")
     @Parameters({
             @Parameter(parameterName = "chainId", requestType = @TypeDescriptor(value = int.class), parameterDes = "链ID"),
@@ -373,6 +383,7 @@ public class BlockController {
     }
 
     @RpcMethod("getLatestHeight")
+    @RpcCache
     @ApiOperation(description = "获取最新主链高度", order = 209)
     @Parameters({
             @Parameter(parameterName = "chainId", requestType = @TypeDescriptor(value = int.class), parameterDes = "链ID")
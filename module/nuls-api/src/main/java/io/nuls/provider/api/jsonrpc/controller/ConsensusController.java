@@ -23,6 +23,7 @@ package io.nuls.provider.api.jsonrpc.controller;
 import io.nuls.base.api.provider.consensus.facade.*;
 import io.nuls.provider.api.config.Context;
 import io.nuls.provider.api.manager.BeanCopierManager;
+import io.nuls.provider.api.jsonrpc.RpcCache;
 import io.nuls.base.api.provider.Result;
 import io.nuls.base.api.provider.ServiceManager;
 import io.nuls.base.api.provider.consensus.ConsensusProvider;
@@ -279,6 +280,7 @@ public class ConsensusController {
     }
 
     @RpcMethod("getDepositList")
+    @RpcCache
     @ApiOperation(description = "查询节点的委托共识列表", order = 505)
     @Parameters({
             @Parameter(parameterName = "chainId", requestType = @TypeDescriptor(value = int.class), parameterDes = "链ID"),
@@ -23,9 +23,6 @@
  */
 package io.nuls.provider.api.jsonrpc.controller;
 
-import io.nuls.base.api.provider.block.BlockService;
-import io.nuls.base.api.provider.block.facade.BlockHeaderData;
-import io.nuls.base.api.provider.block.facade.GetBlockHeaderByHeightReq;
 import io.nuls.provider.api.config.Context;
 import io.nuls.base.RPCUtil;
 import io.nuls.base.api.provider.Result;
@@ -47,6 +44,7 @@ import io.nuls.core.rpc.model.*;
 import io.nuls.provider.model.dto.TransactionDto;
 import io.nuls.provider.model.jsonrpc.RpcErrorCode;
 import io.nuls.provider.model.jsonrpc.RpcResult;
+import io.nuls.provider.rpctools.BlockTools;
 import io.nuls.provider.rpctools.ContractTools;
 import io.nuls.provider.rpctools.TransactionTools;
 import io.nuls.provider.utils.Log;
@@ -68,6 +66,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import static io.nuls.core.constant.TxType.*;
 import static io.nuls.provider.utils.Utils.extractTxTypeFromTx;
@@ -84,11 +83,11 @@ public class TransactionController {
     private TransactionTools transactionTools;
     @Autowired
     private ContractTools contractTools;
+    @Autowired
+    private BlockTools blockTools;
 
     TransferService transferService = ServiceManager.get(TransferService.class);
 
-    BlockService blockService = ServiceManager.get(BlockService.class);
-
     @RpcMethod("getTx")
     @ApiOperation(description = "根据hash获取交易", order = 301)
     @Parameters({
@@ -96,39 +95,38 @@ public class TransactionController {
             @Parameter(parameterName = "hash", parameterDes = "交易hash")
     })
     @ResponseData(name = "返回值", responseType = @TypeDescriptor(value = TransactionDto.class))
-    public RpcResult getTx(List<Object> params) {
+    public CompletableFuture<RpcResult> getTx(List<Object> params) {
         VerifyUtils.verifyParams(params, 2);
         int chainId;
         String txHash;
         try {
             chainId = (int) params.get(0);
         } catch (Exception e) {
-            return RpcResult.paramError("[chainId] is inValid");
+            return CompletableFuture.completedFuture(RpcResult.paramError("[chainId] is inValid"));
         }
         try {
             txHash = (String) params.get(1);
         } catch (Exception e) {
-            return RpcResult.paramError("[txHash] is inValid");
+            return CompletableFuture.completedFuture(RpcResult.paramError("[txHash] is inValid"));
         }
         if (!Context.isChainExist(chainId)) {
-            return RpcResult.dataNotFound();
+            return CompletableFuture.completedFuture(RpcResult.dataNotFound());
         }
         if (StringUtils.isBlank(txHash) || !ValidateUtil.validHash(txHash)) {
-            return RpcResult.paramError("[txHash] is inValid");
+            return CompletableFuture.completedFuture(RpcResult.paramError("[txHash] is inValid"));
         }
-        Result<TransactionDto> result = transactionTools.getTx(chainId, txHash);
-        if (result.isSuccess()) {
+        return transactionTools.getTxAsync(chainId, txHash).thenCompose(result -> {
+            if (result.isFailed() || result.getData().getBlockHeight() < 0) {
+                return CompletableFuture.completedFuture(ResultUtil.getJsonRpcResult(result));
+            }
             TransactionDto txDto = result.getData();
-            if (txDto.getBlockHeight() >= 0) {
-                GetBlockHeaderByHeightReq req = new GetBlockHeaderByHeightReq(txDto.getBlockHeight());
-                req.setChainId(chainId);
-                Result<BlockHeaderData> blockResult = blockService.getBlockHeaderByHeight(req);
-                if (blockResult.isSuccess()) {
-                    txDto.setBlockHash(blockResult.getData().getHash());
+            return blockTools.getBlockHashByHeightAsync(chainId, txDto.getBlockHeight()).thenApply(blockResult -> {
+                if (blockResult.isSuccess() && blockResult.getData() != null) {
+                    txDto.setBlockHash(blockResult.getData());
                 }
-            }
-        }
-        return ResultUtil.getJsonRpcResult(result);
+                return ResultUtil.getJsonRpcResult(result);
+            });
+        });
     }
 
     @RpcMethod("validateTx")
@@ -3,6 +3,7 @@ package io.nuls.provider.rpctools;
 import io.nuls.base.api.provider.Result;
 import io.nuls.base.basic.NulsByteBuffer;
 import io.nuls.base.data.Block;
+import io.nuls.base.data.BlockHeader;
 import io.nuls.base.data.Transaction;
 import io.nuls.core.constant.TxStatusEnum;
 import io.nuls.core.core.annotation.Component;
@@ -10,13 +11,16 @@ import io.nuls.core.crypto.HexUtil;
 import io.nuls.core.exception.NulsException;
 import io.nuls.core.exception.NulsRuntimeException;
 import io.nuls.core.rpc.info.Constants;
+import io.nuls.core.rpc.invoke.BaseInvoke;
 import io.nuls.core.rpc.model.ModuleE;
+import io.nuls.core.rpc.netty.processor.ResponseMessageProcessor;
 import io.nuls.core.rpc.util.RpcCall;
 import io.nuls.provider.api.constant.CommandConstant;
 import io.nuls.provider.utils.Log;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 
 /**
@@ -127,6 +131,33 @@ public class BlockTools implements CallRpc {
         }
     }
 
+    /**
+     * 异步获取指定高度的区块hash, 区块不存在时结果为null
+     * Get the hash of the block at the given height asynchronously, the result is null if the block does not exist
+     *
+     * @param chainId
+     * @param height
+     * @return
+     */
+    public CompletableFuture<Result<String>> getBlockHashByHeightAsync(int chainId, long height) {
+        Map<String, Object> param = new HashMap<>(2);
+        param.put("chainId", chainId);
+        param.put("height", height);
+        return callRpcAsync(ModuleE.BL.name, "getBlockHeaderByHeight", param, (Function<Map, Result<String>>) res -> {
+            if (res == null || res.get("value") == null) {
+                return new Result<>();
+            }
+            BlockHeader header = new BlockHeader();
+            try {
+                header.parse(new NulsByteBuffer(HexUtil.decode((String) res.get("value"))));
+            } catch (NulsException e) {
+                Log.error(e);
+                return new Result<>();
+            }
+            return new Result<>(header.getHash().toHex());
+        }).exceptionally(CallRpc::failResult);
+    }
+
     public Result<Map> getInfo(int chainId) {
         Map<String, Object> params = new HashMap<>();
         params.put(Constants.CHAIN_ID, chainId);
@@ -202,4 +233,24 @@ public class BlockTools implements CallRpc {
             return Result.fail(e.getCode(), e.getMessage());
         }
     }
+
+    /**
+     * 订阅最新高度, 区块保存或回滚后回调
+     * Subscribes to the latest height, called back after a block is saved or rolled back
+     *
+     * @param chainId
+     * @param invoke
+     * @return 订阅是否成功 / whether the subscription succeeded
+     */
+    public boolean subscribeLatestHeight(int chainId, BaseInvoke invoke) {
+        Map<String, Object> params = new HashMap<>(2);
+        params.put(Constants.VERSION_KEY_STR, "1.0");
+        params.put(Constants.CHAIN_ID, chainId);
+        try {
+            return ResponseMessageProcessor.requestAndInvoke(ModuleE.BL.abbr, "latestHeight", params, "0", "1", invoke) != null;
+        } catch (Exception e) {
+            Log.error("subscribe latest height failed", e);
+            return false;
+        }
+    }
 }
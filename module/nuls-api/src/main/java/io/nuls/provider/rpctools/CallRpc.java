@@ -1,15 +1,19 @@
 package io.nuls.provider.rpctools;
 
+import io.nuls.base.api.provider.Result;
 import io.nuls.core.constant.CommonCodeConstanst;
 import io.nuls.core.constant.ErrorCode;
 import io.nuls.core.exception.NulsRuntimeException;
 import io.nuls.core.log.Log;
 import io.nuls.core.model.StringUtils;
+import io.nuls.core.rpc.info.Constants;
 import io.nuls.core.rpc.model.message.Response;
 import io.nuls.core.rpc.netty.processor.ResponseMessageProcessor;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.function.Function;
 
 /**
@@ -29,6 +33,42 @@ public interface CallRpc {
             Log.warn("Calling remote interface failed. module:{} - interface:{} - message:{}", module, method, e.getMessage());
             throw new NulsRuntimeException(CommonCodeConstanst.FAILED, e.getMessage());
         }
+        return handleResponse(module, method, cmdResp, callback);
+    }
+
+    /**
+     * 异步调用, 不占用调用线程等待结果, 失败时Future以NulsRuntimeException结束
+     * Asynchronous call, the caller's thread is not parked waiting for the result; on failure the future completes
+     * exceptionally with a NulsRuntimeException
+     */
+    default <T, R> CompletableFuture<R> callRpcAsync(String module, String method, Map<String, Object> params, Function<T, R> callback) {
+        Log.debug("call {} rpc async, method : {},param : {}", module, method, params);
+        return ResponseMessageProcessor.requestAndResponseAsync(module, method, params, Constants.TIMEOUT_TIMEMILLIS)
+                .handle((cmdResp, e) -> {
+                    if (e != null) {
+                        Log.warn("Calling remote interface failed. module:{} - interface:{} - message:{}", module, method, e.getMessage());
+                        throw new NulsRuntimeException(CommonCodeConstanst.FAILED, e.getMessage());
+                    }
+                    Log.debug("result : {}", cmdResp);
+                    return handleResponse(module, method, cmdResp, callback);
+                });
+    }
+
+    /**
+     * 把异步调用的异常转换成失败的Result, 与同步方法捕获NulsRuntimeException的处理一致
+     * Turns the exception of an asynchronous call into a failed Result, the same way the synchronous methods handle
+     * NulsRuntimeException
+     */
+    static <T> Result<T> failResult(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        if (cause instanceof NulsRuntimeException) {
+            NulsRuntimeException ex = (NulsRuntimeException) cause;
+            return Result.fail(ex.getCode(), ex.getMessage());
+        }
+        return Result.fail(CommonCodeConstanst.FAILED.getCode(), cause.getMessage());
+    }
+
+    private <T, R> R handleResponse(String module, String method, Response cmdResp, Function<T, R> callback) {
         if (!cmdResp.isSuccess()) {
             String comment = cmdResp.getResponseComment();
             if(StringUtils.isBlank(comment)) {
@@ -10,7 +10,7 @@ import io.nuls.provider.rpctools.vo.AccountBalance;
 import java.math.BigInteger;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * @Author: zhoulijun
@@ -25,31 +25,46 @@ public class LegderTools implements CallRpc {
      * Get the available balance and nonce
      */
     public Result<AccountBalance> getBalanceAndNonce(int chainId, int assetChainId, int assetId, String address) {
+        try {
+            return callRpc(ModuleE.LG.abbr, "getBalanceNonce", balanceParams(chainId, assetChainId, assetId, address), this::toAccountBalance);
+        } catch (NulsRuntimeException e) {
+            return Result.fail(e.getCode(), e.getMessage());
+        }
+    }
+
+    /**
+     * 异步获取可用余额和nonce
+     * Get the available balance and nonce asynchronously
+     */
+    public CompletableFuture<Result<AccountBalance>> getBalanceAndNonceAsync(int chainId, int assetChainId, int assetId, String address) {
+        return callRpcAsync(ModuleE.LG.abbr, "getBalanceNonce", balanceParams(chainId, assetChainId, assetId, address), this::toAccountBalance)
+                .exceptionally(CallRpc::failResult);
+    }
+
+    private Map<String, Object> balanceParams(int chainId, int assetChainId, int assetId, String address) {
         Map<String, Object> params = new HashMap(4);
         params.put(Constants.CHAIN_ID, chainId);
         params.put("assetChainId", assetChainId);
         params.put("address", address);
         params.put("assetId", assetId);
-        try {
-            return callRpc(ModuleE.LG.abbr, "getBalanceNonce", params, (Function<Map<String, Object>, Result<AccountBalance>>) map -> {
-                if (map == null) {
-                    return null;
-                }
-                AccountBalance balanceInfo = new AccountBalance();
-                balanceInfo.setBalance(map.get("available").toString());
-                balanceInfo.setTimeLock(map.get("timeHeightLocked").toString());
-                balanceInfo.setConsensusLock(map.get("permanentLocked").toString());
-                balanceInfo.setFreeze(map.get("freeze").toString());
-                balanceInfo.setNonce((String) map.get("nonce"));
-                balanceInfo.setTotalBalance(new BigInteger(balanceInfo.getBalance())
-                                .add(new BigInteger(balanceInfo.getConsensusLock()))
-                                .add(new BigInteger(balanceInfo.getTimeLock())).toString());
-                balanceInfo.setNonceType((Integer) map.get("nonceType"));
-                return new Result<>(balanceInfo);
-            });
-        } catch (NulsRuntimeException e) {
-            return Result.fail(e.getCode(), e.getMessage());
+        return params;
+    }
+
+    private Result<AccountBalance> toAccountBalance(Map<String, Object> map) {
+        if (map == null) {
+            return null;
         }
+        AccountBalance balanceInfo = new AccountBalance();
+        balanceInfo.setBalance(map.get("available").toString());
+        balanceInfo.setTimeLock(map.get("timeHeightLocked").toString());
+        balanceInfo.setConsensusLock(map.get("permanentLocked").toString());
+        balanceInfo.setFreeze(map.get("freeze").toString());
+        balanceInfo.setNonce((String) map.get("nonce"));
+        balanceInfo.setTotalBalance(new BigInteger(balanceInfo.getBalance())
+                        .add(new BigInteger(balanceInfo.getConsensusLock()))
+                        .add(new BigInteger(balanceInfo.getTimeLock())).toString());
+        balanceInfo.setNonceType((Integer) map.get("nonceType"));
+        return new Result<>(balanceInfo);
     }
 
 
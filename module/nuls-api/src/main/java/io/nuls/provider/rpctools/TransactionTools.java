@@ -16,6 +16,7 @@ import io.nuls.provider.rpctools.vo.TxRegisterDetail;
 import io.nuls.provider.utils.ResultUtil;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 
 /**
@@ -86,30 +87,45 @@ public class TransactionTools implements CallRpc {
     }
 
     public Result<TransactionDto> getTx(int chainId, String txHash) {
+        try {
+            return callRpc(ModuleE.TX.abbr, "tx_getTxClient", txParams(chainId, txHash), this::toTransactionDto);
+        } catch (NulsRuntimeException e) {
+            return Result.fail(e.getCode(), e.getMessage());
+        }
+    }
+
+    /**
+     * 异步获取交易
+     * Get the transaction asynchronously
+     */
+    public CompletableFuture<Result<TransactionDto>> getTxAsync(int chainId, String txHash) {
+        return callRpcAsync(ModuleE.TX.abbr, "tx_getTxClient", txParams(chainId, txHash), this::toTransactionDto)
+                .exceptionally(CallRpc::failResult);
+    }
+
+    private Map<String, Object> txParams(int chainId, String txHash) {
         Map<String, Object> params = new HashMap(4);
         params.put(Constants.CHAIN_ID, chainId);
         params.put("txHash", txHash);
+        return params;
+    }
+
+    private Result<TransactionDto> toTransactionDto(Map<String, Object> res) {
+        if (res == null || res.get("tx") == null) {
+            return Result.fail(CommonCodeConstanst.DATA_NOT_FOUND.getCode(), CommonCodeConstanst.DATA_NOT_FOUND.getMsg());
+        }
+        String txStr = (String) res.get("tx");
+        Long height = Long.parseLong(res.get("height").toString());
+        Integer status = (Integer) res.get("status");
+        Transaction tx = new Transaction();
         try {
-            return callRpc(ModuleE.TX.abbr, "tx_getTxClient", params, (Function<Map<String, Object>, Result<TransactionDto>>) res -> {
-                if (res == null || res.get("tx") == null) {
-                    return Result.fail(CommonCodeConstanst.DATA_NOT_FOUND.getCode(), CommonCodeConstanst.DATA_NOT_FOUND.getMsg());
-                }
-                String txStr = (String) res.get("tx");
-                Long height = Long.parseLong(res.get("height").toString());
-                Integer status = (Integer) res.get("status");
-                Transaction tx = new Transaction();
-                try {
-                    tx.parse(new NulsByteBuffer(HexUtil.decode(txStr)));
-                    TransactionDto txDto = new TransactionDto(tx);
-                    txDto.setBlockHeight(height);
-                    txDto.setStatus(status);
-                    return new Result(txDto);
-                } catch (NulsException e) {
-                    return ResultUtil.getNulsExceptionResult(e);
-                }
-            });
-        } catch (NulsRuntimeException e) {
-            return Result.fail(e.getCode(), e.getMessage());
+            tx.parse(new NulsByteBuffer(HexUtil.decode(txStr)));
+            TransactionDto txDto = new TransactionDto(tx);
+            txDto.setBlockHeight(height);
+            txDto.setStatus(status);
+            return new Result(txDto);
+        } catch (NulsException e) {
+            return ResultUtil.getNulsExceptionResult(e);
         }
     }
 
@@ -0,0 +1,26 @@
+package io.nuls.provider.rpctools.callback;
+
+import io.nuls.core.rpc.invoke.BaseInvoke;
+import io.nuls.core.rpc.model.message.Response;
+import io.nuls.provider.api.jsonrpc.RpcResultCache;
+import io.nuls.provider.utils.Log;
+
+import java.util.Map;
+
+/**
+ * 接收最新区块高度, 使按高度缓存的JSON-RPC结果失效
+ * Receives the latest block height and invalidates the JSON-RPC results cached until the next height
+ */
+public class NewBlockHeightInvoke extends BaseInvoke {
+
+    @Override
+    public void callBack(Response response) {
+        try {
+            Map data = (Map) ((Map) response.getResponseData()).get("latestHeight");
+            long height = Long.parseLong(data.get("value").toString());
+            RpcResultCache.getInstance().onNewHeight(height);
+        } catch (Exception e) {
+            Log.error("latest height callback failed", e);
+        }
+    }
+}
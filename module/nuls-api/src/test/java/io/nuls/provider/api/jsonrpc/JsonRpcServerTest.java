@@ -0,0 +1,114 @@
+package io.nuls.provider.api.jsonrpc;
+
+import io.nuls.provider.model.jsonrpc.RpcResult;
+import io.nuls.provider.model.jsonrpc.RpcResultError;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import javax.ws.rs.container.AsyncResponse;
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * 批量请求并发执行, 同时执行的数量受限, 结果保持请求顺序
+ * Batch entries run concurrently with bounded parallelism and the results keep the request order
+ */
+public class JsonRpcServerTest {
+
+    private static final int PARALLELISM = 4;
+
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor();
+
+    private static final AtomicInteger RUNNING = new AtomicInteger();
+
+    private static final AtomicInteger MAX_RUNNING = new AtomicInteger();
+
+    public static class Methods {
+
+        public CompletableFuture<RpcResult> echoAsync(List<Object> params) {
+            int value = (int) params.get(0);
+            MAX_RUNNING.accumulateAndGet(RUNNING.incrementAndGet(), Math::max);
+            CompletableFuture<RpcResult> future = new CompletableFuture<>();
+            //后发的请求先完成
+            SCHEDULER.schedule(() -> {
+                RUNNING.decrementAndGet();
+                future.complete(RpcResult.success(value));
+            }, 20 - value % 10, TimeUnit.MILLISECONDS);
+            return future;
+        }
+
+        public RpcResult echo(List<Object> params) {
+            return RpcResult.success(params.get(0));
+        }
+
+        public CompletableFuture<RpcResult> fail(List<Object> params) {
+            return CompletableFuture.failedFuture(new JsonRpcException(new RpcResultError("-32602", "invalid params", null)));
+        }
+    }
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        JsonRpcContext.init(4, 1000, PARALLELISM);
+        Methods methods = new Methods();
+        for (String name : List.of("echoAsync", "echo", "fail")) {
+            JsonRpcContext.RPC_METHOD_INVOKER_MAP.put(name, new RpcMethodInvoker(methods, Methods.class.getMethod(name, List.class)));
+        }
+    }
+
+    private static Map<String, Object> form(String method, int id, Object... params) {
+        Map<String, Object> form = new HashMap<>();
+        form.put("jsonrpc", "2.0");
+        form.put("method", method);
+        form.put("id", id);
+        form.put("params", new ArrayList<>(Arrays.asList(params)));
+        return form;
+    }
+
+    private static Object call(Object form) throws Exception {
+        CompletableFuture<Object> response = new CompletableFuture<>();
+        AsyncResponse asyncResponse = (AsyncResponse) Proxy.newProxyInstance(AsyncResponse.class.getClassLoader(),
+                new Class[]{AsyncResponse.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("resume")) {
+                        response.complete(args[0]);
+                        return true;
+                    }
+                    return null;
+                });
+        new JsonRpcServer().dispatcher(form, null, asyncResponse);
+        return response.get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void batch() throws Exception {
+        List<Map<String, Object>> forms = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            forms.add(i % 5 == 0 ? form("echo", i, i) : form("echoAsync", i, i));
+        }
+        forms.add(form("unknown", 50));
+        List<RpcResult> list = (List<RpcResult>) call(forms);
+        assertEquals(51, list.size());
+        for (int i = 0; i < 50; i++) {
+            assertEquals(String.valueOf(i), list.get(i).getId());
+            assertEquals(i, list.get(i).getResult());
+        }
+        assertEquals("-32601", list.get(50).getError().getCode());
+        assertTrue(MAX_RUNNING.get() > 1);
+        assertTrue(MAX_RUNNING.get() <= PARALLELISM);
+    }
+
+    @Test
+    public void single() throws Exception {
+        RpcResult result = (RpcResult) call(form("echoAsync", 7, 7));
+        assertEquals("7", result.getId());
+        assertEquals(7, result.getResult());
+        result = (RpcResult) call(List.of(form("echo", 8, 8)));
+        assertEquals(8, result.getResult());
+        result = (RpcResult) call(form("fail", 9));
+        assertEquals("9", result.getId());
+        assertEquals("-32602", result.getError().getCode());
+    }
+}
@@ -0,0 +1,129 @@
+package io.nuls.provider.api.jsonrpc;
+
+import io.nuls.provider.model.jsonrpc.RpcResult;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * 结果缓存的命中, 按高度失效, 按时间过期, 内存预算与跳过缓存
+ * Hits, height invalidation, ttl expiry, memory budget and bypass of the result cache
+ */
+public class RpcResultCacheTest {
+
+    private static final Executor DIRECT = Runnable::run;
+
+    private final RpcResultCache cache = RpcResultCache.getInstance();
+
+    private static final AtomicInteger CALLS = new AtomicInteger();
+
+    public static class Methods {
+
+        @RpcCache
+        public RpcResult height(List<Object> params) {
+            return RpcResult.success("h" + CALLS.incrementAndGet());
+        }
+
+        @RpcCache(ttl = 50L, untilNextHeight = false)
+        public RpcResult ttl(List<Object> params) {
+            return RpcResult.success("t" + CALLS.incrementAndGet());
+        }
+
+        @RpcCache
+        public RpcResult error(List<Object> params) {
+            CALLS.incrementAndGet();
+            return RpcResult.dataNotFound();
+        }
+    }
+
+    private static RpcMethodInvoker invoker(String name) throws Exception {
+        return new RpcMethodInvoker(new Methods(), Methods.class.getMethod(name, List.class));
+    }
+
+    private static Object call(RpcMethodInvoker invoker, boolean bypass, Object... params) {
+        RpcResult result = invoker.invokeAsync(List.of(params), DIRECT, bypass).join();
+        //调用者设置的id不能影响缓存的结果
+        result.setId("x");
+        return result.getResult() != null ? result.getResult() : result.getError().getCode();
+    }
+
+    @Before
+    public void before() {
+        cache.init(true, 64L * 1024 * 1024);
+        cache.onNewHeight(100L);
+    }
+
+    @Test
+    public void height() throws Exception {
+        RpcMethodInvoker invoker = invoker("height");
+        long hits = count("hits");
+        long misses = count("misses");
+        Object first = call(invoker, false, "h1");
+        assertEquals(first, call(invoker, false, "h1"));
+        assertNotEquals(first, call(invoker, false, "h2"));
+        assertNotEquals(first, call(invoker, true, "h1"));
+        assertEquals(first, call(invoker, false, "h1"));
+
+        cache.onNewHeight(101L);
+        Object second = call(invoker, false, "h1");
+        assertNotEquals(first, second);
+        assertEquals(second, call(invoker, false, "h1"));
+
+        assertEquals(hits + 3, count("hits"));
+        assertEquals(misses + 3, count("misses"));
+    }
+
+    private long count(String name) {
+        Map<String, Long> counts = cache.getStatistics().get("height");
+        return counts == null ? 0L : counts.get(name);
+    }
+
+    @Test
+    public void heightChangedDuringRequest() throws Exception {
+        RpcCache rpcCache = Methods.class.getMethod("height", List.class).getAnnotation(RpcCache.class);
+        long requestHeight = cache.getHeight();
+        cache.onNewHeight(requestHeight + 1);
+        cache.put("race", rpcCache, List.of(1), requestHeight, RpcResult.success("old"));
+        assertNull(cache.get("race", List.of(1)));
+    }
+
+    @Test
+    public void ttl() throws Exception {
+        RpcMethodInvoker invoker = invoker("ttl");
+        Object first = call(invoker, false, 1);
+        cache.onNewHeight(101L);
+        assertEquals(first, call(invoker, false, 1));
+        Thread.sleep(80L);
+        assertNotEquals(first, call(invoker, false, 1));
+    }
+
+    @Test
+    public void errorNotCached() throws Exception {
+        RpcMethodInvoker invoker = invoker("error");
+        int calls = CALLS.get();
+        call(invoker, false, 1);
+        call(invoker, false, 1);
+        assertEquals(calls + 2, CALLS.get());
+    }
+
+    @Test
+    public void budget() throws Exception {
+        RpcMethodInvoker invoker = invoker("height");
+        cache.init(true, 2000L);
+        for (int i = 0; i < 100; i++) {
+            call(invoker, false, "budget" + i);
+            assertTrue(cache.getUsedBytes() <= 2000L);
+        }
+        Object latest = call(invoker, false, "budget99");
+        assertEquals(latest, call(invoker, false, "budget99"));
+        int calls = CALLS.get();
+        call(invoker, false, "budget0");
+        assertEquals(calls + 1, CALLS.get());
+    }
+}
@@ -50,18 +50,23 @@ public class BlockHandler implements MessageProcessor {
 
     @Override
     public void process(int chainId, String nodeId, String msgStr) {
+        process(chainId, nodeId, RPCUtil.decode(msgStr));
+    }
+
+    @Override
+    public void process(int chainId, String nodeId, byte[] msgBytes) {
         ChainContext context = ContextManager.getContext(chainId);
         NulsLogger logger = context.getLogger();
-        BlockMessage message = RPCUtil.getInstanceRpcStr(msgStr, BlockMessage.class);
+        BlockMessage message = RPCUtil.getInstance(msgBytes, BlockMessage.class);
         if (message == null) {
             return;
         }
         Block block = message.getBlock();
         //接收到的区块用于区块同步
         if (message.isSyn()) {
-            long height = block.getHeader().getHeight();
-            if (height > context.getLatestHeight() && context.getBlockMap().put(height, block) == null) {
-                context.getCachedBlockSize().addAndGet(block.size());
+            //交给同步流水线并行验证, 验证通过后由BlockConsumer按高度保存
+            if (block != null && block.getHeader().getHeight() > context.getLatestHeight()) {
+                context.getSynPipeline().offer(block);
             }
         } else {
             if (block != null) {
@@ -49,7 +49,12 @@ public class CompleteHandler implements MessageProcessor {
 
     @Override
     public void process(int chainId, String nodeId, String msgStr) {
-        CompleteMessage message = RPCUtil.getInstanceRpcStr(msgStr, CompleteMessage.class);
+        process(chainId, nodeId, RPCUtil.decode(msgStr));
+    }
+
+    @Override
+    public void process(int chainId, String nodeId, byte[] msgBytes) {
+        CompleteMessage message = RPCUtil.getInstance(msgBytes, CompleteMessage.class);
         if (message == null) {
             return;
         }
@@ -59,5 +64,6 @@ public class CompleteHandler implements MessageProcessor {
         Node node = context.getDownloaderParams().getNodeMap().get(nodeId);
         node.adjustCredit(message.isSuccess());
         node.setNodeEnum(NodeEnum.IDLE);
+        context.getSynPipeline().nodeIdle();
     }
 }
@@ -26,6 +26,7 @@ import io.nuls.base.data.Block;
 import io.nuls.base.data.NulsHash;
 import io.nuls.block.constant.StatusEnum;
 import io.nuls.block.manager.BlockChainManager;
+import io.nuls.block.thread.BlockSynPipeline;
 import io.nuls.block.thread.monitor.TxGroupRequestor;
 import io.nuls.block.utils.LoggerUtil;
 import io.nuls.block.utils.SingleBlockCacher;
@@ -34,7 +35,6 @@ import io.nuls.core.log.logback.NulsLogger;
 import io.nuls.core.model.CollectionUtils;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.StampedLock;
 
@@ -112,20 +112,15 @@ public class ChainContext {
      */
     private Map<NulsHash, Long> cachedHashHeightMap;
 
-    /**
-     * 已缓存的区块字节数
-     */
-    private AtomicInteger cachedBlockSize;
-
     /**
      * 一次区块下载过程中用到的参数
      */
     private BlockDownloaderParams downloaderParams;
 
     /**
-     * 同步区块缓存
+     * 区块同步流水线, 缓存已下载并验证的区块
      */
-    private Map<Long, Block> blockMap = new ConcurrentHashMap<>(100);
+    private BlockSynPipeline synPipeline;
 
     /**
      * 孤儿区块关联的节点,维护孤儿区块时优先从这些节点下载
@@ -140,12 +135,12 @@ public class ChainContext {
         this.orphanBlockRelatedNodes = orphanBlockRelatedNodes;
     }
 
-    public Map<Long, Block> getBlockMap() {
-        return blockMap;
+    public BlockSynPipeline getSynPipeline() {
+        return synPipeline;
     }
 
-    public void setBlockMap(Map<Long, Block> blockMap) {
-        this.blockMap = blockMap;
+    public void setSynPipeline(BlockSynPipeline synPipeline) {
+        this.synPipeline = synPipeline;
     }
 
     public BlockDownloaderParams getDownloaderParams() {
@@ -156,14 +151,6 @@ public class ChainContext {
         this.downloaderParams = downloaderParams;
     }
 
-    public AtomicInteger getCachedBlockSize() {
-        return cachedBlockSize;
-    }
-
-    public void setCachedBlockSize(AtomicInteger cachedBlockSize) {
-        this.cachedBlockSize = cachedBlockSize;
-    }
-
     public Map<NulsHash, Long> getCachedHashHeightMap() {
         return cachedHashHeightMap;
     }
@@ -280,7 +267,7 @@ public class ChainContext {
 
     public void init() {
         LoggerUtil.init(chainId);
-        cachedBlockSize = new AtomicInteger(0);
+        synPipeline = new BlockSynPipeline(chainId);
         this.setStatus(StatusEnum.INITIALIZING);
         cachedHashHeightMap = CollectionUtils.getSynSizedMap(parameters.getSmallBlockCache());
         orphanBlockRelatedNodes = CollectionUtils.getSynSizedMap(parameters.getHeightRange());
@@ -25,10 +25,12 @@ import io.nuls.base.data.BlockHeader;
 import io.nuls.base.data.NulsHash;
 import io.nuls.base.data.po.BlockHeaderPo;
 import io.nuls.block.storage.BlockStorageService;
+import io.nuls.block.utils.BlockUtil;
 import io.nuls.core.core.annotation.Component;
 import io.nuls.core.exception.NulsException;
 import io.nuls.core.model.ByteUtils;
 import io.nuls.core.parse.SerializeUtils;
+import io.nuls.core.rockdb.service.BatchOperation;
 import io.nuls.core.rockdb.service.RocksDBService;
 
 import java.util.ArrayList;
@@ -54,9 +56,14 @@ public class BlockStorageServiceImpl implements BlockStorageService {
         byte[] height = SerializeUtils.uint64ToByteArray(blockHeader.getHeight());
         try {
             byte[] hash = blockHeader.getHash().getBytes();
-            boolean b1 = RocksDBService.put(BLOCK_HEADER_INDEX + chainId, height, hash);
-            boolean b2 = RocksDBService.put(BLOCK_HEADER + chainId, hash, blockHeader.serialize());
-            return b1 && b2;
+            //索引与区块头一起提交，列族模式下为原子写入
+            BatchOperation batch = RocksDBService.createWriteBatch(BLOCK_HEADER_INDEX + chainId);
+            if (batch == null) {
+                return false;
+            }
+            batch.put(height, hash);
+            batch.put(BLOCK_HEADER + chainId, hash, blockHeader.serialize());
+            return batch.executeBatch();
         } catch (Exception e) {
             COMMON_LOG.error("", e);
             return false;
@@ -106,20 +113,25 @@ public class BlockStorageServiceImpl implements BlockStorageService {
         for (long i = startHeight; i <= endHeight; i++) {
             keys.add(SerializeUtils.uint64ToByteArray(i));
         }
-        List<byte[]> valueList = RocksDBService.multiGetValueList(BLOCK_HEADER + chainId, keys);
+        //高度key为小端序，无法按范围遍历，先通过高度索引批量取得hash，再批量读取区块头
+        List<byte[]> hashList = RocksDBService.multiGetValueList(BLOCK_HEADER_INDEX + chainId, keys);
+        if (hashList == null || hashList.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<byte[]> valueList = RocksDBService.multiGetValueList(BLOCK_HEADER + chainId, hashList);
         if (valueList == null) {
             return Collections.emptyList();
         }
         List<BlockHeader> blockHeaders = new ArrayList<>();
         for (byte[] bytes : valueList) {
-            BlockHeader header = new BlockHeader();
+            BlockHeaderPo po = new BlockHeaderPo();
             try {
-                header.parse(new NulsByteBuffer(bytes));
+                po.parse(new NulsByteBuffer(bytes));
+                blockHeaders.add(BlockUtil.fromBlockHeaderPo(po));
             } catch (NulsException e) {
                 COMMON_LOG.error("ChainStorageServiceImpl-batch-query-fail", e);
                 return Collections.emptyList();
             }
-            blockHeaders.add(header);
         }
         blockHeaders.sort(BLOCK_HEADER_COMPARATOR);
         return blockHeaders;
@@ -128,10 +140,15 @@ public class BlockStorageServiceImpl implements BlockStorageService {
     @Override
     public boolean remove(int chainId, long height) {
         try {
-            byte[] hash = RocksDBService.get(BLOCK_HEADER_INDEX + chainId, SerializeUtils.uint64ToByteArray(height));
-            boolean b1 = RocksDBService.delete(BLOCK_HEADER_INDEX + chainId, SerializeUtils.uint64ToByteArray(height));
-            boolean b2 = RocksDBService.delete(BLOCK_HEADER + chainId, hash);
-            return b1 && b2;
+            byte[] key = SerializeUtils.uint64ToByteArray(height);
+            byte[] hash = RocksDBService.get(BLOCK_HEADER_INDEX + chainId, key);
+            BatchOperation batch = RocksDBService.createWriteBatch(BLOCK_HEADER_INDEX + chainId);
+            if (batch == null) {
+                return false;
+            }
+            batch.delete(key);
+            batch.delete(BLOCK_HEADER + chainId, hash);
+            return batch.executeBatch();
         } catch (Exception e) {
             COMMON_LOG.error("", e);
             return false;
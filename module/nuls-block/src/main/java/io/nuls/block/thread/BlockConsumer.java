@@ -34,8 +34,8 @@ import io.nuls.core.exception.NulsException;
 import io.nuls.core.log.logback.NulsLogger;
 
 import java.util.List;
-import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 消费共享队列中的区块
@@ -64,10 +64,11 @@ public class BlockConsumer implements Callable<Boolean> {
         Block block;
         logger.info("BlockConsumer start work");
         try {
-            Map<Long, Block> blockMap = context.getBlockMap();
+            BlockSynPipeline pipeline = context.getSynPipeline();
             long begin = System.nanoTime();
             while (startHeight <= netLatestHeight && context.isNeedSyn()) {
-                block = blockMap.remove(startHeight);
+                //等待已验证的区块, 不再轮询
+                block = pipeline.take(startHeight, 1000, TimeUnit.MILLISECONDS);
                 if (block != null) {
                     begin = System.nanoTime();
                     boolean saveBlock = blockService.saveBlock(chainId, block, true);
@@ -76,13 +77,12 @@ public class BlockConsumer implements Callable<Boolean> {
                         context.setNeedSyn(false);
                         return false;
                     }
+                    pipeline.committed(block.size(), System.nanoTime() - begin);
                     startHeight++;
-                    context.getCachedBlockSize().addAndGet(-block.size());
                     continue;
                 }
-                Thread.sleep(10);
                 long end = System.nanoTime();
-                //超过10秒没有高度更新
+                //超过5秒没有高度更新
                 if ((end - begin) / 1000000 > 5000) {
                     updateNodeStatus(context);
                     retryDownload(startHeight, context);
@@ -126,11 +126,10 @@ public class BlockConsumer implements Callable<Boolean> {
             }
             context.getLogger().info("retryDownload, get block from " + node.getId() + " begin, height-" + height);
             Block block = BlockUtil.downloadBlockByHeight(chainId, node.getId(), height);
-            if (block != null) {
+            if (block != null && context.getSynPipeline().verify(block)) {
                 context.getLogger().info("retryDownload, get block from " + node.getId() + " success, height-" + height);
                 download = true;
-                context.getBlockMap().put(height, block);
-                context.getCachedBlockSize().addAndGet(block.size());
+                context.getSynPipeline().putVerified(block);
                 break;
             } else {
                 node.adjustCredit(false);
@@ -36,7 +36,7 @@ import io.nuls.core.log.logback.NulsLogger;
 
 import java.util.List;
 import java.util.concurrent.Callable;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.TimeUnit;
 
 import static io.nuls.block.constant.CommandConstant.GET_BLOCKS_BY_HEIGHT_MESSAGE;
 
@@ -71,15 +71,16 @@ public class BlockDownloader implements Callable<Boolean> {
             ChainParameters chainParameters = context.getParameters();
             long cachedBlockSizeLimit = chainParameters.getCachedBlockSizeLimit();
             int downloadNumber = chainParameters.getDownloadNumber();
-            AtomicInteger cachedBlockSize = context.getCachedBlockSize();
+            BlockSynPipeline pipeline = context.getSynPipeline();
             long limit = context.getParameters().getCachedBlockSizeLimit() * 80 / 100;
             while (startHeight <= netLatestHeight && context.isNeedSyn()) {
-                int cachedSize = cachedBlockSize.get();
+                long cachedSize = pipeline.getCachedBytes();
                 while (cachedSize > cachedBlockSizeLimit) {
-                    logger.info("BlockDownloader wait! cached block:" + context.getBlockMap().size() + ", total block size:" + cachedSize);
+                    logger.info("BlockDownloader wait! cached block:" + pipeline.size() + ", total block size:" + cachedSize);
                     nodes.forEach(e -> e.setCredit(20));
-                    Thread.sleep(3000L);
-                    cachedSize = cachedBlockSize.get();
+                    //等待BlockConsumer保存区块释放空间, 空间释放后立即唤醒
+                    pipeline.awaitSpace(cachedBlockSizeLimit, 3000L, TimeUnit.MILLISECONDS);
+                    cachedSize = pipeline.getCachedBytes();
                     if (!context.isNeedSyn()) {
                         return false;
                     }
@@ -90,7 +91,8 @@ public class BlockDownloader implements Callable<Boolean> {
                 }
                 Node node = getNode(nodes);
                 if (node == null) {
-                    Thread.sleep(100L);
+                    //等待节点完成下载
+                    pipeline.awaitDownloadable(100L, TimeUnit.MILLISECONDS);
                     continue;
                 }
                 int credit = node.getCredit();
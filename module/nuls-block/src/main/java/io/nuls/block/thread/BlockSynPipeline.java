@@ -0,0 +1,431 @@
+/*
+ * MIT License
+ * Copyright (c) 2017-2019 nuls.io
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.nuls.block.thread;
+
+import io.nuls.base.data.Block;
+import io.nuls.base.data.BlockHeader;
+import io.nuls.base.data.NulsHash;
+import io.nuls.base.signture.BlockSignature;
+import io.nuls.base.signture.SignatureVerifier;
+import io.nuls.block.manager.ContextManager;
+import io.nuls.block.utils.BlockUtil;
+import io.nuls.core.model.StringUtils;
+import io.nuls.core.thread.ThreadUtils;
+import io.nuls.core.thread.commom.NulsThreadFactory;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 区块同步流水线
+ * Block synchronization pipeline
+ * <p>
+ * 1.下载: BlockDownloader按高度区间向节点请求区块, 缓存字节数超过阈值时等待空间释放
+ * 2.无状态验证: 收到的区块提交到共享的验证线程池, 并行完成基础验证、交易hash与merkle根计算、区块签名验证,
+ * 可以同时验证保存高度之后的很多个区块
+ * 3.有状态保存: BlockConsumer按高度顺序取出已验证的区块保存, 没有区块时等待而不是轮询
+ * <p>
+ * 1.download: BlockDownloader requests height ranges from nodes and waits for space once the cached bytes
+ * reach the limit
+ * 2.stateless checks: received blocks go to a shared verifier pool that runs the basic checks, the tx hashes and
+ * merkle root and the block signature in parallel, many blocks ahead of the saved height
+ * 3.stateful commit: BlockConsumer takes verified blocks in height order and saves them, waiting instead of polling
+ *
+ * @version 1.0
+ */
+public class BlockSynPipeline {
+
+    /**
+     * 验证线程数, 通过-Dnuls.blockSynVerifyThreads配置, 默认为CPU核数
+     */
+    public static final String VERIFY_THREADS_KEY = "nuls.blockSynVerifyThreads";
+
+    private static final int VERIFY_QUEUE_SIZE = 1024;
+
+    /**
+     * 所有链共享的验证线程池, 队列满时由接收消息的线程自己验证, 形成反压
+     */
+    private static final ThreadPoolExecutor VERIFY_POOL;
+
+    static {
+        VERIFY_POOL = ThreadUtils.createThreadPool(getIntProperty(VERIFY_THREADS_KEY, Runtime.getRuntime().availableProcessors()), VERIFY_QUEUE_SIZE, new NulsThreadFactory("block-syn-verifier"));
+        VERIFY_POOL.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    private final int chainId;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * 有新的已验证区块
+     */
+    private final Condition arrived = lock.newCondition();
+
+    /**
+     * 缓存空间释放或者有节点空闲, 唤醒下载线程
+     */
+    private final Condition downloadable = lock.newCondition();
+
+    /**
+     * 已验证待保存的区块
+     */
+    private final Map<Long, Entry> blocks = new HashMap<>(256);
+
+    /**
+     * 正在验证的高度
+     */
+    private final Set<Long> verifying = new HashSet<>();
+
+    /**
+     * 已验证区块的字节数
+     */
+    private long cachedBytes;
+
+    /**
+     * 正在验证区块的字节数
+     */
+    private long verifyingBytes;
+
+    /**
+     * 每次清空后加一, 清空前提交的验证任务结果直接丢弃
+     */
+    private int generation;
+
+    private volatile long startNanos = System.nanoTime();
+    private final LongAdder verifyCount = new LongAdder();
+    private final LongAdder verifyFailCount = new LongAdder();
+    private final LongAdder verifyNanos = new LongAdder();
+    private final LongAdder bufferNanos = new LongAdder();
+    private final LongAdder starvedNanos = new LongAdder();
+    private final LongAdder commitCount = new LongAdder();
+    private final LongAdder commitBytes = new LongAdder();
+    private final LongAdder commitNanos = new LongAdder();
+
+    private static class Entry {
+        private final Block block;
+        private final int size;
+        private final long readyNanos;
+
+        private Entry(Block block, int size) {
+            this.block = block;
+            this.size = size;
+            this.readyNanos = System.nanoTime();
+        }
+    }
+
+    public BlockSynPipeline(int chainId) {
+        this.chainId = chainId;
+    }
+
+    private static int getIntProperty(String key, int defaultValue) {
+        String value = System.getProperty(key);
+        if (StringUtils.isBlank(value)) {
+            return defaultValue;
+        }
+        try {
+            int i = Integer.parseInt(value.trim());
+            return i > 0 ? i : defaultValue;
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * 收到同步区块, 异步验证后放入缓存, 同一高度已缓存或正在验证时忽略
+     * Accept a downloaded block, it is cached after the asynchronous verification. Ignored if the height is already
+     * cached or being verified
+     *
+     * @param block 区块
+     * @return 是否接受
+     */
+    public boolean offer(Block block) {
+        long height = block.getHeader().getHeight();
+        int size = block.size();
+        int gen;
+        lock.lock();
+        try {
+            if (blocks.containsKey(height) || !verifying.add(height)) {
+                return false;
+            }
+            verifyingBytes += size;
+            gen = generation;
+        } finally {
+            lock.unlock();
+        }
+        VERIFY_POOL.execute(() -> {
+            boolean valid = false;
+            try {
+                valid = verify(block);
+            } finally {
+                lock.lock();
+                try {
+                    verifying.remove(height);
+                    verifyingBytes -= size;
+                    if (valid && gen == generation) {
+                        add(height, block, size);
+                    } else {
+                        downloadable.signalAll();
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+        });
+        return true;
+    }
+
+    /**
+     * 放入调用方已验证过的区块, 用于单个区块重新下载
+     * Put a block already verified by the caller, used by the single block retry
+     */
+    public void putVerified(Block block) {
+        lock.lock();
+        try {
+            add(block.getHeader().getHeight(), block, block.size());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void add(long height, Block block, int size) {
+        if (blocks.containsKey(height)) {
+            return;
+        }
+        blocks.put(height, new Entry(block, size));
+        cachedBytes += size;
+        arrived.signalAll();
+    }
+
+    /**
+     * 无状态验证: 区块头与大小、交易hash与merkle根、区块签名
+     * Stateless verification: header and size, tx hashes and merkle root, block signature
+     *
+     * @param block 区块
+     * @return 是否通过
+     */
+    public boolean verify(Block block) {
+        long begin = System.nanoTime();
+        boolean valid = false;
+        try {
+            if (!BlockUtil.basicVerify(chainId, block)) {
+                return false;
+            }
+            BlockHeader header = block.getHeader();
+            //计算交易hash, 后续保存区块时直接使用
+            if (!header.getMerkleHash().equals(NulsHash.calcMerkleHash(block.getTxHashList()))) {
+                ContextManager.getContext(chainId).getLogger().warn("block syn verify fail, merkle hash error! height-" + header.getHeight() + ", hash-" + header.getHash());
+                return false;
+            }
+            BlockSignature signature = header.getBlockSignature();
+            if (signature == null || !SignatureVerifier.verify(header.getHash().getBytes(), signature.getSignData().getSignBytes(), signature.getPublicKey())) {
+                ContextManager.getContext(chainId).getLogger().warn("block syn verify fail, signature error! height-" + header.getHeight() + ", hash-" + header.getHash());
+                return false;
+            }
+            valid = true;
+            return true;
+        } catch (Exception e) {
+            ContextManager.getContext(chainId).getLogger().error("block syn verify error", e);
+            return false;
+        } finally {
+            verifyNanos.add(System.nanoTime() - begin);
+            verifyCount.increment();
+            if (!valid) {
+                verifyFailCount.increment();
+            }
+        }
+    }
+
+    /**
+     * 按高度取出已验证的区块, 不存在时最多等待timeout
+     * Take the verified block at the height, waiting at most timeout for it
+     *
+     * @return 区块, 超时返回null
+     */
+    public Block take(long height, long timeout, TimeUnit unit) throws InterruptedException {
+        long begin = System.nanoTime();
+        long nanos = unit.toNanos(timeout);
+        lock.lock();
+        try {
+            Entry entry;
+            while ((entry = blocks.remove(height)) == null) {
+                if (nanos <= 0) {
+                    starvedNanos.add(System.nanoTime() - begin);
+                    return null;
+                }
+                nanos = arrived.awaitNanos(nanos);
+            }
+            cachedBytes -= entry.size;
+            downloadable.signalAll();
+            long now = System.nanoTime();
+            starvedNanos.add(now - begin);
+            bufferNanos.add(now - entry.readyNanos);
+            return entry.block;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 等待缓存的字节数(含正在验证的)降到limit以下
+     * Wait until the cached bytes, including the blocks being verified, drop to the limit
+     *
+     * @return 是否有空间
+     */
+    public boolean awaitSpace(long limit, long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lock();
+        try {
+            while (cachedBytes + verifyingBytes > limit) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = downloadable.awaitNanos(nanos);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 等待缓存空间释放或者有节点空闲
+     * Wait until some space is freed or a node becomes idle
+     */
+    public void awaitDownloadable(long timeout, TimeUnit unit) throws InterruptedException {
+        lock.lock();
+        try {
+            downloadable.await(timeout, unit);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 节点完成一批下载, 唤醒下载线程
+     * A node finished its batch, wake up the downloader
+     */
+    public void nodeIdle() {
+        lock.lock();
+        try {
+            downloadable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 记录一个区块的保存耗时
+     * Record the commit time of a block
+     */
+    public void committed(int size, long nanos) {
+        commitCount.increment();
+        commitBytes.add(size);
+        commitNanos.add(nanos);
+    }
+
+    /**
+     * 已缓存的区块字节数(含正在验证的)
+     */
+    public long getCachedBytes() {
+        lock.lock();
+        try {
+            return cachedBytes + verifyingBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return blocks.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 清空缓存, 正在验证的区块完成后也会被丢弃
+     * Clear the cache, blocks still being verified are dropped when they finish
+     */
+    public void clear() {
+        lock.lock();
+        try {
+            blocks.clear();
+            cachedBytes = 0;
+            generation++;
+            downloadable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 开始一次同步时重置统计数据
+     * Reset the statistics when a synchronization starts
+     */
+    public void resetStatistics() {
+        startNanos = System.nanoTime();
+        verifyCount.reset();
+        verifyFailCount.reset();
+        verifyNanos.reset();
+        bufferNanos.reset();
+        starvedNanos.reset();
+        commitCount.reset();
+        commitBytes.reset();
+        commitNanos.reset();
+    }
+
+    /**
+     * 本次同步的吞吐量与各阶段平均耗时
+     * Throughput and average stage latency of the current synchronization
+     */
+    public Map<String, Object> getStatistics() {
+        double seconds = Math.max(System.nanoTime() - startNanos, 1) / 1e9;
+        long verified = verifyCount.sum();
+        long committed = commitCount.sum();
+        Map<String, Object> statistics = new LinkedHashMap<>(16);
+        statistics.put("blocks", committed);
+        statistics.put("bytes", commitBytes.sum());
+        statistics.put("blocksPerSecond", String.format("%.2f", committed / seconds));
+        statistics.put("bytesPerSecond", String.format("%.0f", commitBytes.sum() / seconds));
+        statistics.put("verified", verified);
+        statistics.put("verifyFailed", verifyFailCount.sum());
+        statistics.put("avgVerifyMs", String.format("%.3f", average(verifyNanos.sum(), verified)));
+        statistics.put("avgBufferMs", String.format("%.3f", average(bufferNanos.sum(), committed)));
+        statistics.put("avgCommitMs", String.format("%.3f", average(commitNanos.sum(), committed)));
+        statistics.put("consumerStarvedMs", starvedNanos.sum() / 1000000);
+        return statistics;
+    }
+
+    private static double average(long nanos, long count) {
+        return count == 0 ? 0 : nanos / 1e6 / count;
+    }
+
+}
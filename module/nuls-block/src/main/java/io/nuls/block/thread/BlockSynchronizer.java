@@ -260,6 +260,7 @@ public class BlockSynchronizer implements Runnable {
         long startHeight = downloaderParams.getLocalLatestHeight() + 1;
         long total = netLatestHeight - startHeight + 1;
         long start = System.currentTimeMillis();
+        context.getSynPipeline().resetStatistics();
         //5.开启区块下载器BlockDownloader
         BlockDownloader downloader = new BlockDownloader(chainId);
         Future<Boolean> downloadFutrue = ThreadUtils.asynExecuteCallable(downloader);
@@ -270,6 +271,8 @@ public class BlockSynchronizer implements Runnable {
         Boolean storageResult = consumerFuture.get();
         boolean success = downResult != null && downResult && storageResult != null && storageResult;
         long end = System.currentTimeMillis();
+        //同步吞吐量与各阶段平均耗时
+        logger.info("Block syn statistics:" + context.getSynPipeline().getStatistics());
         if (success) {
             logger.info("Block syn complete, total download:" + total + ", total time:" + (end - start) + ", average time:" + (end - start) / total);
             if (checkIsNewest(context)) {
@@ -288,8 +291,7 @@ public class BlockSynchronizer implements Runnable {
             logger.error("Block syn fail, downResult:" + downResult + ", storageResult:" + storageResult);
         }
         context.setNeedSyn(true);
-        context.getBlockMap().clear();
-        context.getCachedBlockSize().set(0);
+        context.getSynPipeline().clear();
         context.setDownloaderParams(null);
         return false;
     }
@@ -0,0 +1,294 @@
+/*
+ * MIT License
+ * Copyright (c) 2017-2019 nuls.io
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.nuls.block.thread;
+
+import io.nuls.base.data.Block;
+import io.nuls.base.data.BlockHeader;
+import io.nuls.base.data.NulsHash;
+import io.nuls.base.data.Transaction;
+import io.nuls.base.signture.BlockSignature;
+import io.nuls.base.signture.SignatureUtil;
+import io.nuls.block.manager.ContextManager;
+import io.nuls.block.model.ChainContext;
+import io.nuls.block.model.ChainParameters;
+import io.nuls.core.crypto.ECKey;
+import io.nuls.core.log.logback.LoggerBuilder;
+import io.nuls.core.rpc.model.ModuleE;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class BlockSynPipelineTest {
+
+    private static final int CHAIN_ID = 2;
+
+    /**
+     * 只注册验证需要的链参数与日志, 不启动完整的链上下文(缓存、请求线程等依赖其他模块)
+     */
+    @BeforeClass
+    @SuppressWarnings("unchecked")
+    public static void beforeClass() throws Exception {
+        if (ContextManager.getContext(CHAIN_ID) != null) {
+            return;
+        }
+        ChainParameters parameters = new ChainParameters();
+        parameters.setChainId(CHAIN_ID);
+        parameters.setBlockMaxSize(5242880);
+        parameters.setExtendMaxSize(1024);
+        ChainContext context = new ChainContext();
+        context.setChainId(CHAIN_ID);
+        context.setParameters(parameters);
+        context.setLogger(LoggerBuilder.getLogger(ModuleE.Constant.BLOCK, CHAIN_ID));
+        Field field = ContextManager.class.getDeclaredField("contextMap");
+        field.setAccessible(true);
+        ((Map<Integer, ChainContext>) field.get(null)).put(CHAIN_ID, context);
+    }
+
+    /**
+     * 连续的已签名区块, 高度从1开始
+     */
+    private static List<Block> chain(int count) throws Exception {
+        ECKey key = new ECKey();
+        List<Block> list = new ArrayList<>();
+        NulsHash preHash = new NulsHash(new byte[NulsHash.HASH_LENGTH]);
+        for (int height = 1; height <= count; height++) {
+            List<Transaction> txs = new ArrayList<>();
+            List<NulsHash> txHashList = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                Transaction tx = new Transaction(2);
+                tx.setTime(1563000000L + height);
+                tx.setRemark(("block" + height + "tx" + i).getBytes());
+                txs.add(tx);
+                txHashList.add(tx.getHash());
+            }
+            BlockHeader header = new BlockHeader();
+            header.setHeight(height);
+            header.setTime(1563000000L + height);
+            header.setPreHash(preHash);
+            header.setTxCount(txs.size());
+            header.setMerkleHash(NulsHash.calcMerkleHash(txHashList));
+            BlockSignature signature = new BlockSignature();
+            signature.setSignData(SignatureUtil.signDigest(header.getHash().getBytes(), key));
+            signature.setPublicKey(key.getPubKey());
+            header.setBlockSignature(signature);
+            Block block = new Block();
+            block.setHeader(header);
+            block.setTxs(txs);
+            list.add(block);
+            preHash = header.getHash();
+        }
+        return list;
+    }
+
+    private static Block block(long height, int size) {
+        Block block = new Block() {
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+        BlockHeader header = new BlockHeader();
+        header.setHeight(height);
+        block.setHeader(header);
+        return block;
+    }
+
+    /**
+     * 乱序到达的区块按高度顺序取出, 没有区块时等待而不是立即返回
+     */
+    @Test
+    public void takeInOrder() throws Exception {
+        BlockSynPipeline pipeline = new BlockSynPipeline(2);
+        List<Long> taken = new ArrayList<>();
+        Thread consumer = new Thread(() -> {
+            try {
+                for (long height = 1; height <= 5; height++) {
+                    Block block = pipeline.take(height, 5, TimeUnit.SECONDS);
+                    taken.add(block == null ? -1 : block.getHeader().getHeight());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        consumer.start();
+        for (long height : new long[]{3, 5, 1, 4, 2}) {
+            Thread.sleep(20);
+            pipeline.putVerified(block(height, 100));
+        }
+        consumer.join(10000);
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), taken);
+        assertEquals(0, pipeline.getCachedBytes());
+        assertNull(pipeline.take(6, 10, TimeUnit.MILLISECONDS));
+        Map<String, Object> statistics = pipeline.getStatistics();
+        assertTrue(statistics.containsKey("blocksPerSecond"));
+        assertTrue(statistics.containsKey("avgCommitMs"));
+    }
+
+    /**
+     * 缓存满时下载线程等待, 保存区块释放空间后立即唤醒
+     */
+    @Test
+    public void awaitSpace() throws Exception {
+        BlockSynPipeline pipeline = new BlockSynPipeline(2);
+        pipeline.putVerified(block(1, 600));
+        pipeline.putVerified(block(2, 600));
+        assertEquals(1200, pipeline.getCachedBytes());
+        assertFalse(pipeline.awaitSpace(1000, 50, TimeUnit.MILLISECONDS));
+        new Thread(() -> {
+            try {
+                Thread.sleep(100);
+                pipeline.take(1, 1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }).start();
+        long begin = System.currentTimeMillis();
+        assertTrue(pipeline.awaitSpace(1000, 5, TimeUnit.SECONDS));
+        assertTrue(System.currentTimeMillis() - begin < 3000);
+        pipeline.clear();
+        assertEquals(0, pipeline.size());
+        assertEquals(0, pipeline.getCachedBytes());
+    }
+
+    /**
+     * 经过真实的并行验证后按高度顺序取出, 签名或merkle根错误的区块被丢弃
+     */
+    @Test
+    public void offerDropsInvalidBlocks() throws Exception {
+        BlockSynPipeline pipeline = new BlockSynPipeline(CHAIN_ID);
+        List<Block> blocks = chain(7);
+        //篡改区块3的签名
+        blocks.get(2).getHeader().getBlockSignature().setPublicKey(new ECKey().getPubKey());
+        //替换区块5的一笔交易, merkle根对不上
+        blocks.get(4).getTxs().set(0, blocks.get(5).getTxs().get(0));
+        List<Block> shuffled = new ArrayList<>(blocks);
+        Collections.shuffle(shuffled);
+        for (Block block : shuffled) {
+            assertTrue(pipeline.offer(block));
+        }
+        for (int height = 1; height < 8; height++) {
+            Block block = pipeline.take(height, height == 3 || height == 5 ? 500 : 10000, TimeUnit.MILLISECONDS);
+            if (height == 3 || height == 5) {
+                assertNull(block);
+            } else {
+                assertSame(blocks.get(height - 1), block);
+            }
+        }
+        assertEquals(0, pipeline.getCachedBytes());
+        Map<String, Object> statistics = pipeline.getStatistics();
+        assertEquals(7L, statistics.get("verified"));
+        assertEquals(2L, statistics.get("verifyFailed"));
+    }
+
+    /**
+     * 高度大的区块先验证完成时, 仍然按高度顺序交给保存线程; 同一高度重复提交时忽略
+     */
+    @Test
+    public void outOfOrderVerifyHandsOffInOrder() throws Exception {
+        List<Long> verified = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch higher = new CountDownLatch(4);
+        BlockSynPipeline pipeline = new BlockSynPipeline(CHAIN_ID) {
+            @Override
+            public boolean verify(Block block) {
+                long height = block.getHeader().getHeight();
+                //区块1等其余区块都验证完成后才结束
+                if (height == 1) {
+                    try {
+                        higher.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                verified.add(height);
+                higher.countDown();
+                return true;
+            }
+        };
+        List<Long> taken = new ArrayList<>();
+        Thread consumer = new Thread(() -> {
+            try {
+                for (long height = 1; height <= 5; height++) {
+                    Block block = pipeline.take(height, 5, TimeUnit.SECONDS);
+                    taken.add(block == null ? -1 : block.getHeader().getHeight());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        consumer.start();
+        for (long height = 5; height >= 1; height--) {
+            assertTrue(pipeline.offer(block(height, 100)));
+        }
+        consumer.join(10000);
+        assertEquals(5, verified.size());
+        assertEquals(Long.valueOf(1), verified.get(4));
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), taken);
+        assertEquals(0, pipeline.getCachedBytes());
+
+        pipeline.putVerified(block(6, 100));
+        assertFalse(pipeline.offer(block(6, 100)));
+    }
+
+    /**
+     * 清空前提交的验证任务完成后结果被丢弃, 之后同一高度可以重新提交
+     */
+    @Test
+    public void staleGenerationDiscarded() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        BlockSynPipeline pipeline = new BlockSynPipeline(CHAIN_ID) {
+            @Override
+            public boolean verify(Block block) {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return true;
+            }
+        };
+        assertTrue(pipeline.offer(block(1, 100)));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        //正在验证的高度不会重复提交
+        assertFalse(pipeline.offer(block(1, 100)));
+        assertEquals(100, pipeline.getCachedBytes());
+        pipeline.clear();
+        release.countDown();
+
+        assertTrue(pipeline.awaitSpace(0, 5, TimeUnit.SECONDS));
+        assertNull(pipeline.take(1, 200, TimeUnit.MILLISECONDS));
+        assertEquals(0, pipeline.size());
+
+        Block block = block(1, 100);
+        assertTrue(pipeline.offer(block));
+        assertSame(block, pipeline.take(1, 5, TimeUnit.SECONDS));
+    }
+}
@@ -113,6 +113,12 @@ public class Chain {
 
     private final Lock roundLock = new ReentrantLock();
 
+    /**
+     * 委托、黄牌、出块数索引
+     * Deposit, yellow punish and produced block indexes
+     */
+    private final ConsensusIndex consensusIndex = new ConsensusIndex();
+
     private NulsLogger logger;
 
     /**
@@ -228,20 +234,7 @@ public class Chain {
      * @return List<Deposit>
      */
     private List<Deposit> getDepositListByAgentId(NulsHash agentHash, long startBlockHeight) {
-        List<Deposit> resultList = new ArrayList<>();
-        for (int i = depositList.size() - 1; i >= 0; i--) {
-            Deposit deposit = depositList.get(i);
-            if (deposit.getDelHeight() != -1L && deposit.getDelHeight() <= startBlockHeight) {
-                continue;
-            }
-            if (deposit.getBlockHeight() > startBlockHeight || deposit.getBlockHeight() < 0L) {
-                continue;
-            }
-            if (deposit.getAgentHash().equals(agentHash)) {
-                resultList.add(deposit);
-            }
-        }
-        return resultList;
+        return consensusIndex.getDepositList(agentHash, startBlockHeight);
     }
 
 
@@ -283,6 +276,7 @@ public class Chain {
 
     public void setDepositList(List<Deposit> depositList) {
         this.depositList = depositList;
+        consensusIndex.resetDeposits(depositList);
     }
 
     public List<PunishLogPo> getYellowPunishList() {
@@ -291,6 +285,7 @@ public class Chain {
 
     public void setYellowPunishList(List<PunishLogPo> yellowPunishList) {
         this.yellowPunishList = yellowPunishList;
+        consensusIndex.resetYellowPunishes(yellowPunishList);
     }
 
     public List<PunishLogPo> getRedPunishList() {
@@ -339,6 +334,27 @@ public class Chain {
 
     public void setBlockHeaderList(List<BlockHeader> blockHeaderList) {
         this.blockHeaderList = blockHeaderList;
+        consensusIndex.resetBlockHeaders(config.getChainId(), blockHeaderList);
+    }
+
+    /**
+     * 在末尾追加最新的区块头, 同时加入索引
+     * Append the newest block header and add it to the index
+     */
+    public void addBlockHeader(BlockHeader blockHeader) {
+        blockHeaderList.add(blockHeader);
+        consensusIndex.addBlockHeader(config.getChainId(), blockHeader);
+    }
+
+    /**
+     * 在头部插入更早的区块头, 同时加入索引
+     * Prepend older block headers and add them to the index
+     */
+    public void addFirstBlockHeaders(List<BlockHeader> blockHeaders) {
+        blockHeaderList.addAll(0, blockHeaders);
+        for (BlockHeader blockHeader : blockHeaders) {
+            consensusIndex.addBlockHeader(config.getChainId(), blockHeader);
+        }
     }
 
     public ScheduledThreadPoolExecutor getScheduledThreadPoolExecutor() {
@@ -353,6 +369,10 @@ public class Chain {
         return roundLock;
     }
 
+    public ConsensusIndex getConsensusIndex() {
+        return consensusIndex;
+    }
+
     public boolean isPacker() {
         return packer;
     }
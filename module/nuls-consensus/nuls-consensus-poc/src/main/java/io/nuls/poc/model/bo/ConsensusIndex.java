@@ -0,0 +1,246 @@
+/*
+ * *
+ *  * MIT License
+ *  *
+ *  * Copyright (c) 2017-2019 nuls.io
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+package io.nuls.poc.model.bo;
+
+import io.nuls.base.data.BlockHeader;
+import io.nuls.base.data.NulsHash;
+import io.nuls.core.model.ByteArrayWrapper;
+import io.nuls.poc.model.bo.tx.txdata.Deposit;
+import io.nuls.poc.model.po.PunishLogPo;
+
+import java.util.*;
+
+/**
+ * 共识缓存数据索引
+ * Indexes over the cached consensus entity
+ * <p>
+ * 与Chain中的委托列表、黄牌列表、区块头列表同步增量维护, 轮次计算时不再为每个节点遍历整个列表:
+ * 1.按节点hash分组的委托, 组内顺序与委托列表一致, 委托的生效/退出高度仍在查询时过滤
+ * 2.按地址、轮次统计的黄牌数
+ * 3.按打包地址、轮次统计的出块数
+ * <p>
+ * Maintained together with the deposit, yellow punish and block header lists of the chain, so round
+ * calculation no longer walks whole lists for every agent:
+ * 1.deposits grouped by agent hash in the order of the deposit list, the effective/delete heights are still
+ * filtered at query time
+ * 2.yellow punish counts by address and round
+ * 3.produced block counts by packing address and round
+ */
+public class ConsensusIndex {
+
+    /**
+     * 节点hash -> 该节点的委托
+     */
+    private final Map<NulsHash, List<Deposit>> depositMap = new HashMap<>();
+
+    /**
+     * 地址 -> 轮次 -> 黄牌数
+     */
+    private final RoundCounter yellowPunishCounter = new RoundCounter();
+
+    /**
+     * 打包地址 -> 轮次 -> 出块数
+     */
+    private final RoundCounter blockCounter = new RoundCounter();
+
+    /**
+     * 加入索引时的打包地址与轮次, 区块头的扩展数据可能在加入后被修改, 移除时以此为准
+     */
+    private final Map<BlockHeader, HeaderKey> headerKeys = new IdentityHashMap<>();
+
+    public synchronized void resetDeposits(List<Deposit> depositList) {
+        depositMap.clear();
+        if (depositList != null) {
+            for (Deposit deposit : depositList) {
+                addDeposit(deposit);
+            }
+        }
+    }
+
+    public synchronized void addDeposit(Deposit deposit) {
+        depositMap.computeIfAbsent(deposit.getAgentHash(), k -> new ArrayList<>()).add(deposit);
+    }
+
+    /**
+     * 替换同一交易hash的委托, 保持原有位置
+     * Replace the deposit with the same tx hash in place
+     */
+    public synchronized void updateDeposit(Deposit deposit) {
+        List<Deposit> list = depositMap.get(deposit.getAgentHash());
+        if (list == null) {
+            return;
+        }
+        for (int i = 0; i < list.size(); i++) {
+            if (deposit.getTxHash().equals(list.get(i).getTxHash())) {
+                list.set(i, deposit);
+                return;
+            }
+        }
+    }
+
+    public synchronized void removeDeposit(Deposit deposit) {
+        List<Deposit> list = depositMap.get(deposit.getAgentHash());
+        if (list == null) {
+            return;
+        }
+        list.removeIf(d -> d.getTxHash().equals(deposit.getTxHash()));
+        if (list.isEmpty()) {
+            depositMap.remove(deposit.getAgentHash());
+        }
+    }
+
+    /**
+     * 获取指定高度时节点有效的委托, 顺序与倒序遍历委托列表的结果相同
+     * Deposits of the agent effective at the height, in the same order as walking the deposit list backwards
+     *
+     * @param agentHash 节点hash/agent hash
+     * @param height    高度/height
+     */
+    public synchronized List<Deposit> getDepositList(NulsHash agentHash, long height) {
+        List<Deposit> list = depositMap.get(agentHash);
+        if (list == null) {
+            return new ArrayList<>();
+        }
+        List<Deposit> resultList = new ArrayList<>();
+        for (int i = list.size() - 1; i >= 0; i--) {
+            Deposit deposit = list.get(i);
+            if (deposit.getDelHeight() != -1L && deposit.getDelHeight() <= height) {
+                continue;
+            }
+            if (deposit.getBlockHeight() > height || deposit.getBlockHeight() < 0L) {
+                continue;
+            }
+            resultList.add(deposit);
+        }
+        return resultList;
+    }
+
+    public synchronized void resetYellowPunishes(List<PunishLogPo> punishList) {
+        yellowPunishCounter.clear();
+        if (punishList != null) {
+            for (PunishLogPo po : punishList) {
+                addYellowPunish(po);
+            }
+        }
+    }
+
+    public synchronized void addYellowPunish(PunishLogPo po) {
+        yellowPunishCounter.add(new ByteArrayWrapper(po.getAddress()), po.getRoundIndex(), 1);
+    }
+
+    public synchronized void removeYellowPunish(PunishLogPo po) {
+        yellowPunishCounter.add(new ByteArrayWrapper(po.getAddress()), po.getRoundIndex(), -1);
+    }
+
+    /**
+     * 地址在[roundStart, roundEnd]轮次内的黄牌数
+     * Yellow punish count of the address in rounds [roundStart, roundEnd]
+     */
+    public synchronized long getYellowPunishCount(byte[] address, long roundStart, long roundEnd) {
+        return yellowPunishCounter.count(new ByteArrayWrapper(address), roundStart, roundEnd);
+    }
+
+    public synchronized void resetBlockHeaders(int chainId, List<BlockHeader> headerList) {
+        blockCounter.clear();
+        headerKeys.clear();
+        if (headerList != null) {
+            for (BlockHeader header : headerList) {
+                addBlockHeader(chainId, header);
+            }
+        }
+    }
+
+    public synchronized void addBlockHeader(int chainId, BlockHeader header) {
+        byte[] packingAddress = header.getPackingAddress(chainId);
+        if (packingAddress == null || headerKeys.containsKey(header)) {
+            return;
+        }
+        HeaderKey key = new HeaderKey(new ByteArrayWrapper(packingAddress), header.getExtendsData().getRoundIndex());
+        headerKeys.put(header, key);
+        blockCounter.add(key.address, key.roundIndex, 1);
+    }
+
+    public synchronized void removeBlockHeader(BlockHeader header) {
+        HeaderKey key = headerKeys.remove(header);
+        if (key != null) {
+            blockCounter.add(key.address, key.roundIndex, -1);
+        }
+    }
+
+    /**
+     * 打包地址在[roundStart, roundEnd]轮次内的出块数
+     * Produced block count of the packing address in rounds [roundStart, roundEnd]
+     */
+    public synchronized long getBlockCount(byte[] packingAddress, long roundStart, long roundEnd) {
+        return blockCounter.count(new ByteArrayWrapper(packingAddress), roundStart, roundEnd);
+    }
+
+    private static class HeaderKey {
+        private final ByteArrayWrapper address;
+        private final long roundIndex;
+
+        private HeaderKey(ByteArrayWrapper address, long roundIndex) {
+            this.address = address;
+            this.roundIndex = roundIndex;
+        }
+    }
+
+    /**
+     * 按地址、轮次计数
+     */
+    private static class RoundCounter {
+        private final Map<ByteArrayWrapper, TreeMap<Long, Integer>> counts = new HashMap<>();
+
+        private void add(ByteArrayWrapper address, long roundIndex, int delta) {
+            TreeMap<Long, Integer> rounds = counts.computeIfAbsent(address, k -> new TreeMap<>());
+            int count = rounds.getOrDefault(roundIndex, 0) + delta;
+            if (count > 0) {
+                rounds.put(roundIndex, count);
+            } else {
+                rounds.remove(roundIndex);
+                if (rounds.isEmpty()) {
+                    counts.remove(address);
+                }
+            }
+        }
+
+        private long count(ByteArrayWrapper address, long roundStart, long roundEnd) {
+            TreeMap<Long, Integer> rounds = counts.get(address);
+            if (rounds == null || roundStart > roundEnd) {
+                return 0;
+            }
+            long count = 0;
+            for (int value : rounds.subMap(roundStart, true, roundEnd, true).values()) {
+                count += value;
+            }
+            return count;
+        }
+
+        private void clear() {
+            counts.clear();
+        }
+    }
+}
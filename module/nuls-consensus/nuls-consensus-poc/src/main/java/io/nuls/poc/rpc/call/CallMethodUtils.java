@@ -559,7 +559,7 @@ public class CallMethodUtils {
             blockHeaders.add(blockHeader);
         }
         blockHeaders.sort(new BlockHeaderComparator());
-        chain.getBlockHeaderList().addAll(0, blockHeaders);
+        chain.addFirstBlockHeaders(blockHeaders);
         Log.debug("---------------------------回滚区块轮次变化从新加载区块成功！");
     }
 
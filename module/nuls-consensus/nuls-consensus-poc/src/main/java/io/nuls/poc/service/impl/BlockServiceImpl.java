@@ -121,8 +121,7 @@ public class BlockServiceImpl implements BlockService {
                 blockHeader.parse(RPCUtil.decode(header),0);
                 blockHeaderList.add(blockHeader);
             }
-            List<BlockHeader> localBlockHeaders = chain.getBlockHeaderList();
-            localBlockHeaders.addAll(0, blockHeaderList);
+            chain.addFirstBlockHeaders(blockHeaderList);
             Map<String, Object> validResult = new HashMap<>(2);
             validResult.put("value", true);
             return Result.getSuccess(ConsensusErrorCode.SUCCESS).setData(validResult);
@@ -48,9 +48,11 @@ public class BlockManager {
             if (receiveRoundIndex > newestExtendsData.getRoundIndex() && (receiveRoundIndex - ConsensusConstant.INIT_BLOCK_HEADER_COUNT > lastRoundIndex)) {
                 Iterator<BlockHeader> iterator = chain.getBlockHeaderList().iterator();
                 while (iterator.hasNext()) {
-                    lastExtendsData = iterator.next().getExtendsData();
+                    BlockHeader header = iterator.next();
+                    lastExtendsData = header.getExtendsData();
                     if (lastExtendsData.getRoundIndex() == lastRoundIndex) {
                         iterator.remove();
+                        chain.getConsensusIndex().removeBlockHeader(header);
                     } else if (lastExtendsData.getRoundIndex() > lastRoundIndex) {
                         break;
                     }
@@ -59,7 +61,7 @@ public class BlockManager {
                 punishManager.clear(chain);
             }
         }
-        chain.getBlockHeaderList().add(blockHeader);
+        chain.addBlockHeader(blockHeader);
         chain.setNewestHeader(blockHeader);
         chain.getLogger().info("区块保存，高度为：" + blockHeader.getHeight() + " , txCount: " + blockHeader.getTxCount() + ",本地最新区块高度为：" + chain.getNewestHeader().getHeight() + ", 轮次:" + receiveExtendsData.getRoundIndex());
         //清除已经缓存了的比本节点轮次大的轮次信息
@@ -108,6 +108,7 @@ public class PunishManager {
                 break;
             }
             iterator.remove();
+            chain.getConsensusIndex().removeYellowPunish(punishLogPo);
         }
     }
 
@@ -764,6 +765,9 @@ public class PunishManager {
             }
         }
         chain.getYellowPunishList().addAll(savedList);
+        for (PunishLogPo po : savedList) {
+            chain.getConsensusIndex().addYellowPunish(po);
+        }
         return true;
     }
 
@@ -795,7 +799,11 @@ public class PunishManager {
             }
             deleteIndex++;
         }
-        chain.getYellowPunishList().removeAll(deletedList);
+        for (PunishLogPo po : deletedList) {
+            while (chain.getYellowPunishList().remove(po)) {
+                chain.getConsensusIndex().removeYellowPunish(po);
+            }
+        }
         return true;
     }
 
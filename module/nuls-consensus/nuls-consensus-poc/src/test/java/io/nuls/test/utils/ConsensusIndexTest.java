@@ -0,0 +1,248 @@
+package io.nuls.test.utils;
+
+import io.nuls.base.RPCUtil;
+import io.nuls.base.data.BlockExtendsData;
+import io.nuls.base.data.BlockHeader;
+import io.nuls.base.data.NulsHash;
+import io.nuls.base.signture.BlockSignature;
+import io.nuls.base.signture.SignatureUtil;
+import io.nuls.core.basic.Result;
+import io.nuls.core.crypto.ECKey;
+import io.nuls.core.crypto.Sha256Hash;
+import io.nuls.core.model.DoubleUtils;
+import io.nuls.poc.constant.ConsensusConstant;
+import io.nuls.poc.model.bo.Chain;
+import io.nuls.poc.model.bo.ConsensusIndex;
+import io.nuls.poc.model.bo.config.ConfigBean;
+import io.nuls.poc.model.bo.round.MeetingMember;
+import io.nuls.poc.model.bo.tx.txdata.Agent;
+import io.nuls.poc.model.bo.tx.txdata.Deposit;
+import io.nuls.poc.model.po.PunishLogPo;
+import io.nuls.poc.service.impl.BlockServiceImpl;
+import io.nuls.poc.utils.manager.ChainManager;
+import io.nuls.poc.utils.manager.RoundManager;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.math.BigInteger;
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 索引查询结果与遍历列表的结果一致
+ */
+public class ConsensusIndexTest {
+
+    private final Random random = new Random(7);
+
+    private static NulsHash hash(int i) {
+        return new NulsHash(Sha256Hash.hash(String.valueOf(i).getBytes()));
+    }
+
+    @Test
+    public void deposits() {
+        ConsensusIndex index = new ConsensusIndex();
+        List<Deposit> depositList = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            Deposit deposit = new Deposit();
+            deposit.setTxHash(hash(i));
+            deposit.setAgentHash(hash(-1 - random.nextInt(20)));
+            deposit.setDeposit(BigInteger.valueOf(i));
+            deposit.setBlockHeight(random.nextInt(1000));
+            deposit.setDelHeight(random.nextInt(4) == 0 ? random.nextInt(1000) : -1L);
+            depositList.add(deposit);
+        }
+        index.resetDeposits(depositList);
+        for (int i = 0; i < 300; i++) {
+            Deposit deposit = depositList.remove(random.nextInt(depositList.size()));
+            index.removeDeposit(deposit);
+        }
+        for (int i = 0; i < 100; i++) {
+            Deposit old = depositList.get(random.nextInt(depositList.size()));
+            Deposit deposit = new Deposit();
+            deposit.setTxHash(old.getTxHash());
+            deposit.setAgentHash(old.getAgentHash());
+            deposit.setDeposit(old.getDeposit());
+            deposit.setBlockHeight(old.getBlockHeight());
+            deposit.setDelHeight(random.nextInt(1000));
+            depositList.set(depositList.indexOf(old), deposit);
+            index.updateDeposit(deposit);
+        }
+        for (int agent = 1; agent <= 20; agent++) {
+            for (long height = 0; height < 1000; height += 37) {
+                List<Deposit> expected = new ArrayList<>();
+                for (int i = depositList.size() - 1; i >= 0; i--) {
+                    Deposit deposit = depositList.get(i);
+                    if (deposit.getDelHeight() != -1L && deposit.getDelHeight() <= height) {
+                        continue;
+                    }
+                    if (deposit.getBlockHeight() > height || deposit.getBlockHeight() < 0L) {
+                        continue;
+                    }
+                    if (deposit.getAgentHash().equals(hash(-agent))) {
+                        expected.add(deposit);
+                    }
+                }
+                assertEquals(expected, index.getDepositList(hash(-agent), height));
+            }
+        }
+    }
+
+    @Test
+    public void punishAndBlockCounts() throws Exception {
+        ConsensusIndex index = new ConsensusIndex();
+        byte[][] addresses = new byte[10][];
+        for (int i = 0; i < addresses.length; i++) {
+            addresses[i] = Sha256Hash.hash(new byte[]{(byte) i});
+        }
+        List<PunishLogPo> punishList = new ArrayList<>();
+        List<BlockHeader> headerList = new ArrayList<>();
+        for (int round = 1; round <= 300; round++) {
+            for (int i = 0; i < addresses.length; i++) {
+                BlockExtendsData extendsData = new BlockExtendsData();
+                extendsData.setRoundIndex(round);
+                BlockHeader header = new BlockHeader();
+                header.setExtend(extendsData.serialize());
+                header.setPackingAddress(addresses[random.nextInt(addresses.length)]);
+                headerList.add(header);
+                index.addBlockHeader(2, header);
+                if (random.nextInt(3) == 0) {
+                    PunishLogPo po = new PunishLogPo();
+                    po.setAddress(addresses[i]);
+                    po.setRoundIndex(round);
+                    po.setHeight(round * 10 + i);
+                    punishList.add(po);
+                    index.addYellowPunish(po);
+                }
+            }
+        }
+        //移除最早的轮次
+        while (headerList.get(0).getExtendsData().getRoundIndex() <= 50) {
+            index.removeBlockHeader(headerList.remove(0));
+        }
+        while (punishList.get(0).getRoundIndex() <= 20) {
+            index.removeYellowPunish(punishList.remove(0));
+        }
+        for (byte[] address : addresses) {
+            for (long start = 0; start < 300; start += 13) {
+                long end = start + 99;
+                long blocks = 0;
+                for (BlockHeader header : headerList) {
+                    long round = header.getExtendsData().getRoundIndex();
+                    if (round >= start && round <= end && Arrays.equals(address, header.getPackingAddress(2))) {
+                        blocks++;
+                    }
+                }
+                long punishes = 0;
+                for (PunishLogPo po : punishList) {
+                    if (po.getRoundIndex() >= start && po.getRoundIndex() <= end && Arrays.equals(address, po.getAddress())) {
+                        punishes++;
+                    }
+                }
+                assertEquals(blocks, index.getBlockCount(address, start, end));
+                assertEquals(punishes, index.getYellowPunishCount(address, start, end));
+            }
+        }
+    }
+
+    /**
+     * cs_receiveHeaderList在区块头列表头部插入更早的区块头后, 信誉值与遍历列表计算的结果一致
+     */
+    @Test
+    public void prependedHeadersCredit() throws Exception {
+        int chainId = 2;
+        ECKey[] packers = new ECKey[5];
+        for (int i = 0; i < packers.length; i++) {
+            packers[i] = new ECKey();
+        }
+        List<BlockHeader> headers = new ArrayList<>();
+        NulsHash preHash = new NulsHash(new byte[NulsHash.HASH_LENGTH]);
+        for (int round = 1; round <= 300; round++) {
+            for (int i = 0; i < 3; i++) {
+                BlockExtendsData extendsData = new BlockExtendsData();
+                extendsData.setRoundIndex(round);
+                extendsData.setConsensusMemberCount(packers.length);
+                extendsData.setPackingIndexOfRound(i + 1);
+                extendsData.setRoundStartTime(round * 100L);
+                BlockHeader header = new BlockHeader();
+                header.setHeight(headers.size() + 1);
+                header.setTime(round * 100L + i * 10);
+                header.setPreHash(preHash);
+                header.setMerkleHash(preHash);
+                header.setExtend(extendsData.serialize());
+                BlockSignature signature = new BlockSignature();
+                ECKey packer = packers[random.nextInt(packers.length)];
+                signature.setSignData(SignatureUtil.signDigest(header.getHash().getBytes(), packer));
+                signature.setPublicKey(packer.getPubKey());
+                header.setBlockSignature(signature);
+                headers.add(header);
+                preHash = header.getHash();
+            }
+        }
+        ConfigBean config = new ConfigBean();
+        config.setChainId(chainId);
+        Chain chain = new Chain();
+        chain.setConfig(config);
+        chain.setBlockHeaderList(new ArrayList<>(headers.subList(450, headers.size())));
+
+        ChainManager chainManager = new ChainManager();
+        chainManager.getChainMap().put(chainId, chain);
+        BlockServiceImpl blockService = new BlockServiceImpl();
+        Field field = BlockServiceImpl.class.getDeclaredField("chainManager");
+        field.setAccessible(true);
+        field.set(blockService, chainManager);
+        List<String> headerList = new ArrayList<>();
+        for (BlockHeader header : headers.subList(0, 450)) {
+            headerList.add(RPCUtil.encode(header.serialize()));
+        }
+        Map<String, Object> params = new HashMap<>(4);
+        params.put(ConsensusConstant.PARAM_CHAIN_ID, chainId);
+        params.put(ConsensusConstant.HEADER_LIST, headerList);
+        Result result = blockService.receiveHeaderList(params);
+        assertTrue(result.isSuccess());
+        assertEquals(headers.size(), chain.getBlockHeaderList().size());
+
+        Method calcCreditVal = RoundManager.class.getDeclaredMethod("calcCreditVal", Chain.class, MeetingMember.class, BlockHeader.class);
+        calcCreditVal.setAccessible(true);
+        RoundManager roundManager = new RoundManager();
+        for (ECKey packer : packers) {
+            byte[] packingAddress = headers.get(0).getPackingAddress(chainId);
+            for (BlockHeader header : headers) {
+                if (Arrays.equals(header.getBlockSignature().getPublicKey(), packer.getPubKey())) {
+                    packingAddress = header.getPackingAddress(chainId);
+                    break;
+                }
+            }
+            Agent agent = new Agent();
+            agent.setPackingAddress(packingAddress);
+            agent.setAgentAddress(packingAddress);
+            MeetingMember member = new MeetingMember();
+            member.setAgent(agent);
+            for (int i = 0; i < headers.size(); i += 41) {
+                BlockHeader header = headers.get(i);
+                long roundEnd = header.getExtendsData().getRoundIndex() - 1;
+                long roundStart = Math.max(roundEnd + 1 - ConsensusConstant.RANGE_OF_CAPACITY_COEFFICIENT, 0);
+                //旧实现: 倒序遍历区块头列表
+                long blockCount = 0;
+                List<BlockHeader> blockHeaderList = chain.getBlockHeaderList();
+                for (int j = blockHeaderList.size() - 1; j >= 0; j--) {
+                    long round = blockHeaderList.get(j).getExtendsData().getRoundIndex();
+                    if (round > roundEnd) {
+                        continue;
+                    }
+                    if (round < roundStart) {
+                        break;
+                    }
+                    if (Arrays.equals(blockHeaderList.get(j).getPackingAddress(chainId), packingAddress)) {
+                        blockCount++;
+                    }
+                }
+                double expected = DoubleUtils.round(DoubleUtils.div(blockCount, ConsensusConstant.RANGE_OF_CAPACITY_COEFFICIENT), 4);
+                assertEquals(expected, (double) calcCreditVal.invoke(roundManager, chain, member, header), 0);
+            }
+        }
+    }
+}
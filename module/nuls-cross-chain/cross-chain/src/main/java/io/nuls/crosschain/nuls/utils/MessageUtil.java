@@ -7,6 +7,7 @@ import io.nuls.base.data.NulsHash;
 import io.nuls.base.data.Transaction;
 import io.nuls.base.signture.P2PHKSignature;
 import io.nuls.base.signture.SignatureUtil;
+import io.nuls.base.signture.SignatureVerifier;
 import io.nuls.base.signture.TransactionSignature;
 import io.nuls.core.constant.TxStatusEnum;
 import io.nuls.core.constant.TxType;
@@ -504,9 +505,16 @@ public class MessageUtil {
             return false;
         }
         byte[] hashByte = ctx.getHash().getBytes();
-        Set<String> passedAddress  = new HashSet<>();
+        //所有签名并行验证
+        List<SignatureVerifier.Item> verifyItems = new ArrayList<>();
         for (P2PHKSignature sign:signatureList) {
-            if(!SignatureUtil.validateSignture(hashByte, sign)){
+            verifyItems.add(new SignatureVerifier.Item(hashByte, sign));
+        }
+        boolean[] verifyResults = SignatureVerifier.verify(verifyItems);
+        Set<String> passedAddress  = new HashSet<>();
+        for (int i = 0; i < signatureList.size(); i++) {
+            P2PHKSignature sign = signatureList.get(i);
+            if(!verifyResults[i]){
                 continue;
             }
             for (String verifier:verifierList) {
@@ -18,6 +18,10 @@ public class LedgerConfig implements ModuleConfig {
     private String encoding;
     private int unconfirmedTxExpired;
     private String blackHolePublicKey;
+    /**
+     * 已确认账户状态缓存的内存预算(MB)
+     */
+    private int accountCacheSize;
 
     public String getBlackHolePublicKey() {
         return blackHolePublicKey;
@@ -71,4 +75,12 @@ public class LedgerConfig implements ModuleConfig {
     public void setLogLevel(String logLevel) {
         this.logLevel = logLevel;
     }
+
+    public int getAccountCacheSize() {
+        return accountCacheSize;
+    }
+
+    public void setAccountCacheSize(int accountCacheSize) {
+        this.accountCacheSize = accountCacheSize;
+    }
 }
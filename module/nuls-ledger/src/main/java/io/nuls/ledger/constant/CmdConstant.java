@@ -55,6 +55,10 @@ public interface CmdConstant {
      * 获取账户nonce值
      */
     String CMD_GET_NONCE = "getNonce";
+    /**
+     * 获取已确认账户缓存的统计数据
+     */
+    String CMD_GET_ACCOUNT_CACHE_METRICS = "getAccountCacheMetrics";
     /**
      * 获取冻结列表
      */
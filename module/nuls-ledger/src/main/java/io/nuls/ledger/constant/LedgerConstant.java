@@ -56,6 +56,10 @@ public class LedgerConstant {
      * 缓存的账户区块数量
      */
     public static final int CACHE_ACCOUNT_BLOCK = 1000;
+    /**
+     * 已确认账户状态缓存的默认内存预算(MB)
+     */
+    public static final int DEFAULT_ACCOUNT_CACHE_MB = 256;
     /**
      * 缓存同步统计数据的区块信息
      */
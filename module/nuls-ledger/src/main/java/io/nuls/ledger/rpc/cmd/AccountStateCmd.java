@@ -40,6 +40,7 @@ import io.nuls.ledger.model.po.sub.FreezeHeightState;
 import io.nuls.ledger.model.po.sub.FreezeLockTimeState;
 import io.nuls.ledger.service.AccountStateService;
 import io.nuls.ledger.service.UnconfirmedStateService;
+import io.nuls.ledger.storage.Repository;
 import io.nuls.ledger.utils.LedgerUtil;
 import io.nuls.ledger.utils.LoggerUtil;
 
@@ -63,6 +64,8 @@ public class AccountStateCmd extends BaseLedgerCmd {
     private AccountStateService accountStateService;
     @Autowired
     private UnconfirmedStateService unconfirmedStateService;
+    @Autowired
+    private Repository repository;
 
     /**
      * 获取账户资产余额
@@ -301,4 +304,29 @@ public class AccountStateCmd extends BaseLedgerCmd {
         return response;
     }
 
+    /**
+     * 获取已确认账户缓存的命中率、淘汰数等统计数据
+     * get hit rate and eviction statistics of the confirmed account cache
+     *
+     * @param params
+     * @return
+     */
+    @CmdAnnotation(cmd = CmdConstant.CMD_GET_ACCOUNT_CACHE_METRICS, version = 1.0,
+            description = "获取已确认账户缓存的统计数据")
+    @ResponseData(name = "返回值", description = "返回一个Map对象",
+            responseType = @TypeDescriptor(value = Map.class, mapKeys = {
+                    @Key(name = "size", valueType = Long.class, description = "缓存的账户数"),
+                    @Key(name = "usedBytes", valueType = Long.class, description = "估算占用的内存(字节)"),
+                    @Key(name = "maxBytes", valueType = Long.class, description = "内存预算(字节)"),
+                    @Key(name = "hitCount", valueType = Long.class, description = "命中次数"),
+                    @Key(name = "missCount", valueType = Long.class, description = "未命中次数"),
+                    @Key(name = "hitRate", valueType = Double.class, description = "命中率"),
+                    @Key(name = "loadCount", valueType = Long.class, description = "从数据库加载次数"),
+                    @Key(name = "putCount", valueType = Long.class, description = "区块提交写入次数"),
+                    @Key(name = "evictionCount", valueType = Long.class, description = "淘汰次数")
+            })
+    )
+    public Response getAccountCacheMetrics(Map params) {
+        return success(repository.getAccountCacheMetrics());
+    }
 }
@@ -40,6 +40,7 @@ public interface AccountStateService {
 
     /**
      * 不用同步锁获取账户信息
+     * 返回的是缓存中的只读快照, 调用方不能修改, 需要修改时使用getAccountStateReCal
      *
      * @param address        address
      * @param addressChainId addressChainId
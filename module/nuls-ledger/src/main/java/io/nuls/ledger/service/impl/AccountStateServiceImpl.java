@@ -112,13 +112,8 @@ public class AccountStateServiceImpl implements AccountStateService {
      */
     @Override
     public AccountState getAccountState(String address, int addressChainId, int assetChainId, int assetId) {
-        //尝试缓存获取
-        AccountState accountState = repository.getAccountStateByMemory(addressChainId, LedgerUtil.getKeyStr(address, assetChainId, assetId));
-        if (null != accountState) {
-            return accountState;
-        }
-        byte[] key = LedgerUtil.getKey(address, assetChainId, assetId);
-        accountState = repository.getAccountState(addressChainId, key);
+        //返回缓存中的只读快照, 不复制
+        AccountState accountState = repository.getAccountStateSnapshot(addressChainId, LedgerUtil.getKeyStr(address, assetChainId, assetId));
         if (null == accountState) {
             accountState = new AccountState(LedgerConstant.getInitNonceByte());
         }
@@ -134,17 +129,12 @@ public class AccountStateServiceImpl implements AccountStateService {
      */
     @Override
     public AccountState getAccountStateReCal(String address, int addressChainId, int assetChainId, int assetId) {
-        //尝试缓存获取
-        AccountState accountState = repository.getAccountStateByMemory(addressChainId, LedgerUtil.getKeyStr(address, assetChainId, assetId));
-        if (null == accountState) {
-            //账户处理锁
-            byte[] key = LedgerUtil.getKey(address, assetChainId, assetId);
-            accountState = repository.getAccountState(addressChainId, key);
-            if (null == accountState) {
-                accountState = new AccountState(LedgerConstant.getInitNonceByte());
-                return accountState;
-            }
+        //尝试缓存获取, 调用方会修改返回值, 因此复制快照
+        AccountState snapshot = repository.getAccountStateSnapshot(addressChainId, LedgerUtil.getKeyStr(address, assetChainId, assetId));
+        if (null == snapshot) {
+            return new AccountState(LedgerConstant.getInitNonceByte());
         }
+        AccountState accountState = snapshot.deepClone();
         //解冻时间高度锁
         if (accountState.timeAllow()) {
             freezeStateService.recalculateFreeze(addressChainId, accountState);
@@ -78,8 +78,6 @@ public class TransactionServiceImpl implements TransactionService {
     LgBlockSyncRepository lgBlockSyncRepository;
     @Autowired
     FreezeStateService freezeStateService;
-    @Autowired
-    ChainAssetsService chainAssetsService;
     /**
      * 缓存一个区块的nonce值
      */
@@ -104,23 +102,67 @@ public class TransactionServiceImpl implements TransactionService {
             //例如黄牌交易，直接返回
             return ValidateResult.getSuccess();
         }
-        /*未确认交易的校验*/
-        Map<String, TxUnconfirmed> accountsMap = new ConcurrentHashMap<>(8);
-        byte[] txNonce = LedgerUtil.getNonceByTx(transaction);
-        ValidateResult validateResult = coinDataValidator.analysisCoinData(addressChainId, transaction, accountsMap, txNonce);
-        if (!validateResult.isSuccess()) {
-            return validateResult;
+        //只锁定交易涉及的账户, 其他账户的未确认交易及区块提交可以并行
+        NavigableSet<Integer> lockIndexes = LockerUtil.ACCOUNT_LOCKER.newIndexSet();
+        addAccountLockIndexes(addressChainId, coinData, lockIndexes);
+        LockerUtil.ACCOUNT_LOCKER.lock(lockIndexes);
+        try {
+            /*未确认交易的校验*/
+            Map<String, TxUnconfirmed> accountsMap = new ConcurrentHashMap<>(8);
+            byte[] txNonce = LedgerUtil.getNonceByTx(transaction);
+            ValidateResult validateResult = coinDataValidator.analysisCoinData(addressChainId, transaction, accountsMap, txNonce);
+            if (!validateResult.isSuccess()) {
+                return validateResult;
+            }
+            Set keys = accountsMap.keySet();
+            Iterator<String> it = keys.iterator();
+            while (it.hasNext()) {
+                TxUnconfirmed txUnconfirmed = accountsMap.get(it.next());
+                ValidateResult updateResult = unconfirmedStateService.updateUnconfirmedTx(transaction.getHash().toHex(), addressChainId, txNonce, txUnconfirmed);
+                if (!updateResult.isSuccess()) {
+                    return updateResult;
+                }
+            }
+            return ValidateResult.getSuccess();
+        } finally {
+            LockerUtil.ACCOUNT_LOCKER.unlock(lockIndexes);
         }
-        Set keys = accountsMap.keySet();
-        Iterator<String> it = keys.iterator();
-        while (it.hasNext()) {
-            TxUnconfirmed txUnconfirmed = accountsMap.get(it.next());
-            ValidateResult updateResult = unconfirmedStateService.updateUnconfirmedTx(transaction.getHash().toHex(), addressChainId, txNonce, txUnconfirmed);
-            if (!updateResult.isSuccess()) {
-                return updateResult;
+    }
+
+    /**
+     * 收集coinData中本链账户(from及to)所在的锁分段
+     *
+     * @param addressChainId
+     * @param coinData
+     * @param lockIndexes
+     */
+    private void addAccountLockIndexes(int addressChainId, CoinData coinData, Set<Integer> lockIndexes) {
+        for (CoinFrom from : coinData.getFrom()) {
+            if (LedgerUtil.isNotLocalChainAccount(addressChainId, from.getAddress())) {
+                continue;
             }
+            String accountKey = LedgerUtil.getKeyStr(LedgerUtil.getRealAddressStr(from.getAddress()), from.getAssetsChainId(), from.getAssetsId());
+            LockerUtil.ACCOUNT_LOCKER.addIndex(lockIndexes, addressChainId, accountKey);
+        }
+        for (CoinTo to : coinData.getTo()) {
+            if (LedgerUtil.isNotLocalChainAccount(addressChainId, to.getAddress())) {
+                continue;
+            }
+            String accountKey = LedgerUtil.getKeyStr(LedgerUtil.getRealAddressStr(to.getAddress()), to.getAssetsChainId(), to.getAssetsId());
+            LockerUtil.ACCOUNT_LOCKER.addIndex(lockIndexes, addressChainId, accountKey);
         }
-        return ValidateResult.getSuccess();
+    }
+
+    /**
+     * 收集快照中账户所在的锁分段
+     */
+    private NavigableSet<Integer> snapshotLockIndexes(int addressChainId, List<AccountStateSnapshot> accountStates) {
+        NavigableSet<Integer> lockIndexes = LockerUtil.ACCOUNT_LOCKER.newIndexSet();
+        for (AccountStateSnapshot accountState : accountStates) {
+            String accountKey = LedgerUtil.getKeyStr(accountState.getAddress(), accountState.getAssetChainId(), accountState.getAssetId());
+            LockerUtil.ACCOUNT_LOCKER.addIndex(lockIndexes, addressChainId, accountKey);
+        }
+        return lockIndexes;
     }
 
     private void dealAssetAddressIndex(Map<String, List<String>> assetAddressIndex, int chainId, int assetId, String address) {
@@ -228,6 +270,7 @@ public class TransactionServiceImpl implements TransactionService {
      */
     @Override
     public boolean confirmBlockProcess(int addressChainId, List<Transaction> txList, long blockHeight) {
+        NavigableSet<Integer> lockedIndexes = null;
         try {
             cleanBlockCommitTempDatas();
             LockerUtil.LEDGER_LOCKER.lock();
@@ -237,6 +280,16 @@ public class TransactionServiceImpl implements TransactionService {
                 logger(addressChainId).error("addressChainId ={},blockHeight={},ledgerBlockHeight={}", addressChainId, blockHeight, currentDbHeight);
                 return false;
             }
+            //锁定区块涉及的账户，与这些账户的未确认交易处理互斥
+            NavigableSet<Integer> lockIndexes = LockerUtil.ACCOUNT_LOCKER.newIndexSet();
+            for (Transaction transaction : txList) {
+                CoinData coinData = CoinDataUtil.parseCoinData(transaction.getCoinData());
+                if (null != coinData) {
+                    addAccountLockIndexes(addressChainId, coinData, lockIndexes);
+                }
+            }
+            LockerUtil.ACCOUNT_LOCKER.lock(lockIndexes);
+            lockedIndexes = lockIndexes;
             int accountMapSize = txList.size() * 3;
             //批量交易按交易进行账户的金额处理，再按区块为原子性进行提交,updateAccounts用于账户计算缓存，最后统一处理
             Map<String, AccountBalance> updateAccounts = new HashMap<>(accountMapSize);
@@ -267,42 +320,33 @@ public class TransactionServiceImpl implements TransactionService {
                 cleanBlockCommitTempDatas();
                 return false;
             }
-            //提交整体数据
+            //提交整体数据：备份历史、更新账本、资产索引、删除过期快照、存储当前高度，在一个批量操作中提交
             try {
-                //备份历史
-                repository.saveBlockSnapshot(addressChainId, blockHeight, blockSnapshotAccounts);
-                //更新链下资产种类，及资产地址集合数据。
-                chainAssetsService.updateChainAssets(addressChainId, assetAddressIndex);
-                //更新账本
-                if (accountStatesMap.size() > 0) {
-                    repository.batchUpdateAccountState(addressChainId, accountStatesMap, updateMemAccounts);
-                }
-                for (Map.Entry<String, Integer> entry : clearUncfs.entrySet()) {
-                    //进行收到网络其他节点的交易，刷新本地未确认数据处理
-                    unconfirmedStateService.clearAccountUnconfirmed(addressChainId, entry.getKey());
-                }
-                //删除跃迁的未确认交易
-                unconfirmedStateService.batchDeleteUnconfirmedTx(addressChainId, delUncfd2CfdKeys);
-                //删除过期缓存数据
-                if (blockHeight > LedgerConstant.CACHE_ACCOUNT_BLOCK) {
-                    repository.delBlockSnapshot(addressChainId, (blockHeight - LedgerConstant.CACHE_ACCOUNT_BLOCK));
-                }
+                repository.confirmBlock(addressChainId, blockHeight, blockSnapshotAccounts, accountStatesMap, updateMemAccounts, assetAddressIndex);
             } catch (Exception e) {
-                //需要回滚数据
+                //非列族模式下可能已部分提交，需要回滚数据
                 cleanBlockCommitTempDatas();
                 logger(addressChainId).error(e);
                 LoggerUtil.logger(addressChainId).error("confirmBlockProcess  error! go rollBackBlock!addrChainId={},height={}", addressChainId, blockHeight);
                 rollBackBlock(addressChainId, blockSnapshotAccounts.getAccounts(), blockHeight);
                 return false;
             }
-            //完全提交,存储当前高度。
-            repository.saveOrUpdateBlockHeight(addressChainId, blockHeight);
+            //数据已提交，清理内存中的未确认数据
+            for (Map.Entry<String, Integer> entry : clearUncfs.entrySet()) {
+                //进行收到网络其他节点的交易，刷新本地未确认数据处理
+                unconfirmedStateService.clearAccountUnconfirmed(addressChainId, entry.getKey());
+            }
+            //删除跃迁的未确认交易
+            unconfirmedStateService.batchDeleteUnconfirmedTx(addressChainId, delUncfd2CfdKeys);
             return true;
         } catch (Exception e) {
             LoggerUtil.logger(addressChainId).error("confirmBlockProcess error", e);
             cleanBlockCommitTempDatas();
             return false;
         } finally {
+            if (null != lockedIndexes) {
+                LockerUtil.ACCOUNT_LOCKER.unlock(lockedIndexes);
+            }
             LockerUtil.LEDGER_LOCKER.unlock();
 
         }
@@ -330,7 +374,10 @@ public class TransactionServiceImpl implements TransactionService {
      * @return
      */
     @Override
-    public synchronized boolean rollBackBlock(int addressChainId, List<AccountStateSnapshot> preAccountStates, long blockHeight) {
+    public boolean rollBackBlock(int addressChainId, List<AccountStateSnapshot> preAccountStates, long blockHeight) {
+        NavigableSet<Integer> lockIndexes = snapshotLockIndexes(addressChainId, preAccountStates);
+        LockerUtil.LEDGER_LOCKER.lock();
+        LockerUtil.ACCOUNT_LOCKER.lock(lockIndexes);
         try {
             //回滚账号信息
             accountStateService.rollAccountState(addressChainId, preAccountStates);
@@ -339,6 +386,9 @@ public class TransactionServiceImpl implements TransactionService {
         } catch (Exception e) {
             logger(addressChainId).error("rollBackBlock error!!", e);
             return false;
+        } finally {
+            LockerUtil.ACCOUNT_LOCKER.unlock(lockIndexes);
+            LockerUtil.LEDGER_LOCKER.unlock();
         }
         return true;
     }
@@ -349,6 +399,7 @@ public class TransactionServiceImpl implements TransactionService {
      */
     @Override
     public boolean rollBackConfirmTxs(int addressChainId, long blockHeight, List<Transaction> txs) {
+        NavigableSet<Integer> lockedIndexes = null;
         try {
             LockerUtil.LEDGER_LOCKER.lock();
             cleanBlockCommitTempDatas();
@@ -367,6 +418,10 @@ public class TransactionServiceImpl implements TransactionService {
                 logger(addressChainId).error("addressChainId ={},blockHeight={},blockSnapshotAccounts is null.", addressChainId, blockHeight);
                 return false;
             }
+            //锁定快照中的账户
+            NavigableSet<Integer> lockIndexes = snapshotLockIndexes(addressChainId, blockSnapshotAccounts.getAccounts());
+            LockerUtil.ACCOUNT_LOCKER.lock(lockIndexes);
+            lockedIndexes = lockIndexes;
             //回滚高度
             repository.saveOrUpdateBlockHeight(addressChainId, (blockHeight - 1));
             List<AccountStateSnapshot> preAccountStates = blockSnapshotAccounts.getAccounts();
@@ -408,6 +463,9 @@ public class TransactionServiceImpl implements TransactionService {
             repository.saveOrUpdateBlockHeight(addressChainId, blockHeight);
             return false;
         } finally {
+            if (null != lockedIndexes) {
+                LockerUtil.ACCOUNT_LOCKER.unlock(lockedIndexes);
+            }
             LockerUtil.LEDGER_LOCKER.unlock();
         }
         return true;
@@ -438,7 +496,12 @@ public class TransactionServiceImpl implements TransactionService {
             int assetChainId = from.getAssetsChainId();
             int assetId = from.getAssetsId();
             String assetKey = LedgerUtil.getKeyStr(address, assetChainId, assetId);
-            return unconfirmedStateService.rollUnconfirmedTx(addressChainId, assetKey, txHash);
+            LockerUtil.ACCOUNT_LOCKER.lock(addressChainId, assetKey);
+            try {
+                return unconfirmedStateService.rollUnconfirmedTx(addressChainId, assetKey, txHash);
+            } finally {
+                LockerUtil.ACCOUNT_LOCKER.unlock(addressChainId, assetKey);
+            }
         }
         return true;
     }
@@ -210,12 +210,12 @@ public class UnconfirmedStateServiceImpl implements UnconfirmedStateService {
 
     @Override
     public void clearAllAccountUnconfirmed(int addressChainId) throws Exception {
-        //账户处理锁
-        LockerUtil.UNCONFIRMED_SYNC_LOCKER.lock();
+        //清空整条链, 锁定全部账户分段
+        LockerUtil.ACCOUNT_LOCKER.lockAll();
         try {
             unconfirmedRepository.clearAllMemUnconfirmedTxs(addressChainId);
         } finally {
-            LockerUtil.UNCONFIRMED_SYNC_LOCKER.unlock();
+            LockerUtil.ACCOUNT_LOCKER.unlockAll();
         }
 
     }
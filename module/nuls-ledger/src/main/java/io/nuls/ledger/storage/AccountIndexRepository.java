@@ -25,6 +25,8 @@
  */
 package io.nuls.ledger.storage;
 
+import io.nuls.core.rockdb.service.BatchOperation;
+
 import java.util.List;
 import java.util.Map;
 
@@ -41,6 +43,17 @@ public interface AccountIndexRepository {
 
     void updateAssetsAddressIndex(int addressChainId, int assetChainId, int assetId, Map<byte[], byte[]> kvs);
 
+    /**
+     * 将资产索引及资产下的地址索引加入批量操作，与区块确认的其他数据一起提交
+     * Add the asset index and the address index of each asset to the batch, committed together with the rest of the block
+     *
+     * @param batch             批量操作
+     * @param addressChainId    链Id
+     * @param assetAddressIndex key=assetChainId-assetId, value=地址列表
+     * @throws Exception
+     */
+    void addAssetsIndex(BatchOperation batch, int addressChainId, Map<String, List<String>> assetAddressIndex) throws Exception;
+
     List<String> assetsKeyList(int chainId);
 
     List<String> assetsAddressKeyList(int addressChainId, int assetChainId, int assetId);
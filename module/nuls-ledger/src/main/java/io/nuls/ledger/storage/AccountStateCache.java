@@ -0,0 +1,339 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2019 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.ledger.storage;
+
+import io.nuls.core.model.ByteArrayWrapper;
+import io.nuls.ledger.model.po.AccountState;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按内存预算淘汰的已确认账户状态缓存
+ * Confirmed account state cache bounded by a memory budget
+ * <p>
+ * 1.分段LRU(SLRU): 新数据进入试用区, 再次命中后晋升到保护区, 保护区满时把最久未用的降回试用区,
+ * 淘汰总是先从试用区开始, 只访问过一次的账户不会把热点账户挤出缓存
+ * 2.按估算的堆内存字节数而不是条数限制容量, 拆分为多个分段以减少锁竞争
+ * 3.缓存中的AccountState是只读快照: 写入时整体替换, 读取时不再复制, 需要修改的调用方自行deepClone
+ * <p>
+ * 1.segmented LRU: new entries go to the probation segment and are promoted to the protected segment on the
+ * next hit; the protected segment demotes its eldest entries back to probation, and eviction always starts
+ * from probation, so accounts seen only once never push hot accounts out
+ * 2.the capacity is an estimated heap size in bytes instead of an entry count, split into shards to reduce
+ * lock contention
+ * 3.cached AccountStates are read-only snapshots: writers replace them as a whole, readers no longer copy,
+ * callers that need to modify the state deepClone it themselves
+ * 4.从数据库加载前先取得该key的版本号, 期间发生过提交、淘汰或清空时放弃写入, 避免旧数据覆盖新状态
+ * 4.loaders take the key's version before reading the database and the load is dropped if a commit,
+ * eviction or clear touched the key in between, so stale data never replaces a newer state
+ */
+public class AccountStateCache {
+
+    /**
+     * 分段数
+     */
+    private static final int SHARDS = 16;
+
+    /**
+     * 保护区占每个分段容量的比例(%)
+     */
+    private static final int PROTECTED_PERCENT = 80;
+
+    /**
+     * 每条缓存除序列化数据外的估算开销: 对象头、链表节点、key包装、BigInteger及List等
+     */
+    private static final int ENTRY_OVERHEAD = 320;
+
+    /**
+     * 每个分段的版本号槽数, 不同key按hash共用槽位
+     */
+    private static final int VERSION_SLOTS = 256;
+
+    private final Shard[] shards;
+
+    private final long maxBytes;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder loadCount = new LongAdder();
+    private final LongAdder putCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+    private final LongAdder staleLoadCount = new LongAdder();
+
+    /**
+     * @param maxBytes 内存预算(字节)
+     */
+    public AccountStateCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+        this.shards = new Shard[SHARDS];
+        for (int i = 0; i < SHARDS; i++) {
+            shards[i] = new Shard(maxBytes / SHARDS);
+        }
+    }
+
+    /**
+     * 缓存key: 链id(2字节) + 数据库key(address-assetChainId-assetId)
+     * Cache key: chain id (2 bytes) + the database key
+     */
+    public static ByteArrayWrapper cacheKey(int chainId, byte[] dbKey) {
+        byte[] key = new byte[dbKey.length + 2];
+        key[0] = (byte) chainId;
+        key[1] = (byte) (chainId >>> 8);
+        System.arraycopy(dbKey, 0, key, 2, dbKey.length);
+        return new ByteArrayWrapper(key);
+    }
+
+    /**
+     * 获取只读快照, 不存在时返回null
+     * Get the read-only snapshot, null on a miss
+     */
+    public AccountState get(ByteArrayWrapper key) {
+        Node node = shard(key).get(key);
+        if (node == null) {
+            missCount.increment();
+            return null;
+        }
+        hitCount.increment();
+        return node.state;
+    }
+
+    /**
+     * 区块提交或回滚后写入最新状态, 覆盖旧值. 写入后调用方不能再修改state
+     * Store the state written by a block commit or rollback, replacing the old one. The caller must not
+     * modify the state afterwards
+     */
+    public void put(ByteArrayWrapper key, AccountState state) {
+        putCount.increment();
+        shard(key).put(key, new Node(state, weight(key, state)));
+    }
+
+    /**
+     * 当前版本号, 必须在读取数据库之前获取并传给putLoaded
+     * The key's current version, taken before reading the database and passed to putLoaded
+     */
+    public long version(ByteArrayWrapper key) {
+        return shard(key).version(key);
+    }
+
+    /**
+     * 从数据库加载后写入: 已存在, 或取得版本号之后该key被写入、淘汰或清空过时不写入,
+     * 避免用旧数据覆盖并发提交的新状态
+     * Store a state loaded from the database. Nothing is stored if the key is present, or if it was written,
+     * evicted or cleared after the version was taken, so a concurrently committed newer state is never
+     * replaced by the older one
+     *
+     * @param version 读取数据库之前通过{@link #version}取得的版本号
+     * @return 是否写入
+     */
+    public boolean putLoaded(ByteArrayWrapper key, AccountState state, long version) {
+        loadCount.increment();
+        boolean stored = shard(key).putLoaded(key, new Node(state, weight(key, state)), version);
+        if (!stored) {
+            staleLoadCount.increment();
+        }
+        return stored;
+    }
+
+    public void clear() {
+        for (Shard shard : shards) {
+            shard.clear();
+        }
+    }
+
+    /**
+     * 命中率、淘汰数等统计数据
+     * Hit rate, eviction and size statistics
+     */
+    public Map<String, Object> getMetrics() {
+        long hits = hitCount.sum();
+        long misses = missCount.sum();
+        long size = 0;
+        long usedBytes = 0;
+        for (Shard shard : shards) {
+            synchronized (shard) {
+                size += shard.probation.size() + shard.protectedArea.size();
+                usedBytes += shard.probationBytes + shard.protectedBytes;
+            }
+        }
+        Map<String, Object> metrics = new HashMap<>(16);
+        metrics.put("size", size);
+        metrics.put("usedBytes", usedBytes);
+        metrics.put("maxBytes", maxBytes);
+        metrics.put("hitCount", hits);
+        metrics.put("missCount", misses);
+        metrics.put("hitRate", hits + misses == 0 ? 0D : (double) hits / (hits + misses));
+        metrics.put("loadCount", loadCount.sum());
+        metrics.put("putCount", putCount.sum());
+        metrics.put("evictionCount", evictionCount.sum());
+        metrics.put("staleLoadCount", staleLoadCount.sum());
+        return metrics;
+    }
+
+    private Shard shard(ByteArrayWrapper key) {
+        return shards[spread(key) & (SHARDS - 1)];
+    }
+
+    private static int spread(ByteArrayWrapper key) {
+        int hash = key.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    private static int weight(ByteArrayWrapper key, AccountState state) {
+        //序列化长度乘2近似对象化后的大小
+        return ENTRY_OVERHEAD + key.getBytes().length + state.size() * 2;
+    }
+
+    private static class Node {
+        private final AccountState state;
+        private final int weight;
+
+        private Node(AccountState state, int weight) {
+            this.state = state;
+            this.weight = weight;
+        }
+    }
+
+    private class Shard {
+        private final long maxBytes;
+        private final long maxProtectedBytes;
+        /**
+         * 按访问顺序排列, 第一个为最久未使用
+         */
+        private final LinkedHashMap<ByteArrayWrapper, Node> probation = new LinkedHashMap<>(64, 0.75f, true);
+        private final LinkedHashMap<ByteArrayWrapper, Node> protectedArea = new LinkedHashMap<>(64, 0.75f, true);
+        private long probationBytes;
+        private long protectedBytes;
+        /**
+         * key被写入或移出缓存时递增
+         */
+        private final long[] versions = new long[VERSION_SLOTS];
+
+        private Shard(long maxBytes) {
+            this.maxBytes = maxBytes;
+            this.maxProtectedBytes = maxBytes * PROTECTED_PERCENT / 100;
+        }
+
+        private synchronized Node get(ByteArrayWrapper key) {
+            Node node = protectedArea.get(key);
+            if (node != null) {
+                return node;
+            }
+            node = probation.remove(key);
+            if (node == null) {
+                return null;
+            }
+            probationBytes -= node.weight;
+            protectedArea.put(key, node);
+            protectedBytes += node.weight;
+            demote();
+            return node;
+        }
+
+        private synchronized long version(ByteArrayWrapper key) {
+            return versions[slot(key)];
+        }
+
+        private synchronized boolean putLoaded(ByteArrayWrapper key, Node node, long version) {
+            if (versions[slot(key)] != version || protectedArea.containsKey(key) || probation.containsKey(key)) {
+                return false;
+            }
+            probation.put(key, node);
+            probationBytes += node.weight;
+            evict();
+            return true;
+        }
+
+        private synchronized void put(ByteArrayWrapper key, Node node) {
+            versions[slot(key)]++;
+            Node old = protectedArea.get(key);
+            if (old != null) {
+                protectedArea.put(key, node);
+                protectedBytes += node.weight - old.weight;
+                demote();
+            } else {
+                old = probation.get(key);
+                probation.put(key, node);
+                probationBytes += node.weight - (old == null ? 0 : old.weight);
+            }
+            evict();
+        }
+
+        private synchronized void clear() {
+            probation.clear();
+            protectedArea.clear();
+            probationBytes = 0;
+            protectedBytes = 0;
+            for (int i = 0; i < VERSION_SLOTS; i++) {
+                versions[i]++;
+            }
+        }
+
+        private int slot(ByteArrayWrapper key) {
+            return (spread(key) >>> 4) & (VERSION_SLOTS - 1);
+        }
+
+        /**
+         * 保护区超出容量时, 把最久未用的降级到试用区
+         */
+        private void demote() {
+            Iterator<Map.Entry<ByteArrayWrapper, Node>> it = protectedArea.entrySet().iterator();
+            while (protectedBytes > maxProtectedBytes && it.hasNext()) {
+                Map.Entry<ByteArrayWrapper, Node> eldest = it.next();
+                it.remove();
+                protectedBytes -= eldest.getValue().weight;
+                probation.put(eldest.getKey(), eldest.getValue());
+                probationBytes += eldest.getValue().weight;
+            }
+            evict();
+        }
+
+        /**
+         * 总量超出预算时, 先淘汰试用区, 试用区为空时淘汰保护区
+         */
+        private void evict() {
+            while (probationBytes + protectedBytes > maxBytes) {
+                Map<ByteArrayWrapper, Node> victims = probation.isEmpty() ? protectedArea : probation;
+                Iterator<Map.Entry<ByteArrayWrapper, Node>> it = victims.entrySet().iterator();
+                if (!it.hasNext()) {
+                    return;
+                }
+                Map.Entry<ByteArrayWrapper, Node> entry = it.next();
+                Node eldest = entry.getValue();
+                it.remove();
+                versions[slot(entry.getKey())]++;
+                if (victims == probation) {
+                    probationBytes -= eldest.weight;
+                } else {
+                    protectedBytes -= eldest.weight;
+                }
+                evictionCount.increment();
+            }
+        }
+    }
+}
@@ -52,13 +52,21 @@ public interface Repository {
     AccountState getAccountState(int chainId, byte[] key);
 
     /**
-     * 内存获取账户余额对象
+     * 获取已确认账户状态的只读快照, 优先从缓存获取, 未命中时读取数据库并加入缓存
+     * Get the read-only snapshot of a confirmed account state, from the cache or else from the database
      *
      * @param chainId
-     * @param key
+     * @param key     address-assetChainId-assetId
+     * @return 不存在时返回null, 返回的对象不能修改
+     */
+    AccountState getAccountStateSnapshot(int chainId, String key);
+
+    /**
+     * 账户缓存的统计数据
+     *
      * @return
      */
-    AccountState getAccountStateByMemory(int chainId, String key);
+    Map<String, Object> getAccountCacheMetrics();
 
     /**
      * 批量更新账号账本信息
@@ -70,6 +78,27 @@ public interface Repository {
      */
     void batchUpdateAccountState(int addressChainId, Map<byte[], byte[]> accountStateMap,Map<String, AccountState> accountStateMemMap) throws Exception;
 
+    /**
+     * 提交区块确认的全部数据：区块快照、账户状态、资产索引、删除过期快照、链高度，放在一个批量操作中提交
+     * 列族模式下这些表在同一个库中，整体原子提交；否则按库依次提交，区块快照最先，链高度最后
+     * 提交成功后再更新账户缓存
+     * Commit everything a confirmed block writes in one batch: block snapshot, account states, asset indexes, removal of
+     * the expired snapshot and the chain height.
+     * In column family mode the tables share one database and the batch is atomic, otherwise it is committed database by
+     * database, the snapshot first and the chain height last.
+     * The account cache is updated once the batch is committed
+     *
+     * @param chainId            链Id
+     * @param height             区块高度
+     * @param snapshot           区块快照
+     * @param accountStateMap    账户状态序列化数据
+     * @param accountStateMemMap 账户状态
+     * @param assetAddressIndex  资产地址索引
+     * @throws Exception 提交失败
+     */
+    void confirmBlock(int chainId, long height, BlockSnapshotAccounts snapshot, Map<byte[], byte[]> accountStateMap,
+                      Map<String, AccountState> accountStateMemMap, Map<String, List<String>> assetAddressIndex) throws Exception;
+
     /**
      * 删除区块快照
      *
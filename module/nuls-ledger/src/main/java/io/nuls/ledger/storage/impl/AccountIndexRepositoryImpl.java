@@ -29,7 +29,9 @@ import io.nuls.core.basic.InitializingBean;
 import io.nuls.core.core.annotation.Component;
 import io.nuls.core.exception.NulsException;
 import io.nuls.core.model.ByteUtils;
+import io.nuls.core.rockdb.service.BatchOperation;
 import io.nuls.core.rockdb.service.RocksDBService;
+import io.nuls.ledger.constant.LedgerConstant;
 import io.nuls.ledger.storage.AccountIndexRepository;
 import io.nuls.ledger.storage.DataBaseArea;
 
@@ -108,6 +110,22 @@ public class AccountIndexRepositoryImpl implements AccountIndexRepository, Initi
         }
     }
 
+    @Override
+    public void addAssetsIndex(BatchOperation batch, int addressChainId, Map<String, List<String>> assetAddressIndex) throws Exception {
+        byte[] value = ByteUtils.intToBytes(1);
+        String assetsTable = initAssetsIndexDb(addressChainId);
+        for (Map.Entry<String, List<String>> entry : assetAddressIndex.entrySet()) {
+            String assetIndex = entry.getKey();
+            byte[] indexBytes = assetIndex.getBytes(LedgerConstant.DEFAULT_ENCODING);
+            batch.put(assetsTable, indexBytes, indexBytes);
+            String[] assetChainAssetId = assetIndex.split("-");
+            String addressTable = initLedgerAddressIndexDb(addressChainId, Integer.valueOf(assetChainAssetId[0]), Integer.valueOf(assetChainAssetId[1]));
+            for (String address : entry.getValue()) {
+                batch.put(addressTable, address.getBytes(LedgerConstant.DEFAULT_ENCODING), value);
+            }
+        }
+    }
+
     @Override
     public List<String> assetsKeyList(int addressChainId) {
         String table = initAssetsIndexDb(addressChainId);
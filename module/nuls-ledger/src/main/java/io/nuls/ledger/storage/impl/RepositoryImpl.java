@@ -27,22 +27,31 @@ package io.nuls.ledger.storage.impl;
 
 import io.nuls.base.basic.NulsByteBuffer;
 import io.nuls.core.basic.InitializingBean;
+import io.nuls.core.core.annotation.Autowired;
 import io.nuls.core.core.annotation.Component;
 import io.nuls.core.exception.NulsException;
 import io.nuls.core.log.Log;
+import io.nuls.core.model.ByteArrayWrapper;
 import io.nuls.core.model.ByteUtils;
 import io.nuls.core.rockdb.model.Entry;
+import io.nuls.core.rockdb.constant.DBErrorCode;
+import io.nuls.core.rockdb.model.TableOptions;
+import io.nuls.core.rockdb.service.BatchOperation;
 import io.nuls.core.rockdb.service.RocksDBService;
+import io.nuls.ledger.config.LedgerConfig;
+import io.nuls.ledger.constant.LedgerConstant;
 import io.nuls.ledger.model.ChainHeight;
 import io.nuls.ledger.model.po.AccountState;
 import io.nuls.ledger.model.po.BlockSnapshotAccounts;
+import io.nuls.ledger.storage.AccountIndexRepository;
+import io.nuls.ledger.storage.AccountStateCache;
 import io.nuls.ledger.storage.DataBaseArea;
 import io.nuls.ledger.storage.Repository;
 
+import java.io.UnsupportedEncodingException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 import static io.nuls.ledger.utils.LoggerUtil.logger;
 
@@ -53,10 +62,15 @@ import static io.nuls.ledger.utils.LoggerUtil.logger;
  */
 @Component
 public class RepositoryImpl implements Repository, InitializingBean {
+    @Autowired
+    private LedgerConfig ledgerConfig;
+    @Autowired
+    private AccountIndexRepository accountIndexRepository;
+
     /**
-     * key1=chainId,  Map1=确认账户状态， key2= addr+assetkey  value=AccountState
+     * 确认账户状态缓存，key=chainId+addr+assetkey，按内存预算淘汰
      */
-    Map<String, Map<String, AccountState>> memChainsAccounts = new ConcurrentHashMap<>(16);
+    private AccountStateCache accountStateCache = new AccountStateCache(LedgerConstant.DEFAULT_ACCOUNT_CACHE_MB * 1024L * 1024L);
 
     public RepositoryImpl() {
 
@@ -64,16 +78,43 @@ public class RepositoryImpl implements Repository, InitializingBean {
 
     @Override
     public void batchUpdateAccountState(int addressChainId, Map<byte[], byte[]> accountStateMap, Map<String, AccountState> accountStateMemMap) throws Exception {
-        if (null == memChainsAccounts.get(String.valueOf(addressChainId))) {
-            memChainsAccounts.put(String.valueOf(addressChainId), new ConcurrentHashMap<>(1024));
-        }
-        memChainsAccounts.get(String.valueOf(addressChainId)).putAll(accountStateMemMap);
         //update account
         RocksDBService.batchPut(getLedgerAccountTableName(addressChainId), accountStateMap);
-
+        //先写库再更新缓存, 并发加载的旧数据不会覆盖新状态
+        for (Map.Entry<String, AccountState> entry : accountStateMemMap.entrySet()) {
+            byte[] key = entry.getKey().getBytes(LedgerConstant.DEFAULT_ENCODING);
+            accountStateCache.put(AccountStateCache.cacheKey(addressChainId, key), entry.getValue());
+        }
     }
 
 
+    @Override
+    public void confirmBlock(int chainId, long height, BlockSnapshotAccounts snapshot, Map<byte[], byte[]> accountStateMap,
+                             Map<String, AccountState> accountStateMemMap, Map<String, List<String>> assetAddressIndex) throws Exception {
+        //以快照表为主表，非列族模式下快照最先写入，回滚时可用
+        String snapshotTable = getBlockSnapshotTableName(chainId);
+        BatchOperation batch = RocksDBService.createWriteBatch(snapshotTable);
+        if (batch == null) {
+            throw new Exception(DBErrorCode.DB_TABLE_NOT_EXIST);
+        }
+        batch.put(ByteUtils.longToBytes(height), snapshot.serialize());
+        if (height > LedgerConstant.CACHE_ACCOUNT_BLOCK) {
+            batch.delete(ByteUtils.longToBytes(height - LedgerConstant.CACHE_ACCOUNT_BLOCK));
+        }
+        String accountTable = getLedgerAccountTableName(chainId);
+        for (Map.Entry<byte[], byte[]> entry : accountStateMap.entrySet()) {
+            batch.put(accountTable, entry.getKey(), entry.getValue());
+        }
+        accountIndexRepository.addAssetsIndex(batch, chainId, assetAddressIndex);
+        //链高度最后写入
+        batch.put(getChainsHeightTableName(), ByteUtils.intToBytes(chainId), ByteUtils.longToBytes(height));
+        batch.executeBatch();
+        for (Map.Entry<String, AccountState> entry : accountStateMemMap.entrySet()) {
+            byte[] key = entry.getKey().getBytes(LedgerConstant.DEFAULT_ENCODING);
+            accountStateCache.put(AccountStateCache.cacheKey(chainId, key), entry.getValue());
+        }
+    }
+
     @Override
     public void delBlockSnapshot(int chainId, long height) throws Exception {
         RocksDBService.delete(getBlockSnapshotTableName(chainId), ByteUtils.longToBytes(height));
@@ -123,22 +164,31 @@ public class RepositoryImpl implements Repository, InitializingBean {
     }
 
     @Override
-    public AccountState getAccountStateByMemory(int chainId, String key) {
-        //缓存有值,则直接获取
-        if (null != memChainsAccounts.get(String.valueOf(chainId))) {
-            AccountState accountStateMem = memChainsAccounts.get(String.valueOf(chainId)).get(key);
-            if (null != accountStateMem) {
-                AccountState accountState = new AccountState();
-                System.arraycopy(accountStateMem.getNonce(), 0, accountState.getNonce(), 0, accountStateMem.getNonce().length);
-                accountState.setTotalFromAmount(accountStateMem.getTotalFromAmount());
-                accountState.setTotalToAmount(accountStateMem.getTotalToAmount());
-                accountState.setLatestUnFreezeTime(accountStateMem.getLatestUnFreezeTime());
-                accountState.getFreezeHeightStates().addAll(accountStateMem.getFreezeHeightStates());
-                accountState.getFreezeLockTimeStates().addAll(accountStateMem.getFreezeLockTimeStates());
-                return accountState;
-            }
+    public AccountState getAccountStateSnapshot(int chainId, String key) {
+        byte[] dbKey;
+        try {
+            dbKey = key.getBytes(LedgerConstant.DEFAULT_ENCODING);
+        } catch (UnsupportedEncodingException e) {
+            logger(chainId).error(e);
+            return null;
         }
-        return null;
+        ByteArrayWrapper cacheKey = AccountStateCache.cacheKey(chainId, dbKey);
+        AccountState accountState = accountStateCache.get(cacheKey);
+        if (null != accountState) {
+            return accountState;
+        }
+        //先取版本号再读库, 读库期间发生的提交或淘汰会使本次加载作废
+        long version = accountStateCache.version(cacheKey);
+        accountState = getAccountState(chainId, dbKey);
+        if (null != accountState) {
+            accountStateCache.putLoaded(cacheKey, accountState, version);
+        }
+        return accountState;
+    }
+
+    @Override
+    public Map<String, Object> getAccountCacheMetrics() {
+        return accountStateCache.getMetrics();
     }
 
     @Override
@@ -204,7 +254,7 @@ public class RepositoryImpl implements Repository, InitializingBean {
     public void initChainDb(int addressChainId) {
         try {
             if (!RocksDBService.existTable(getLedgerAccountTableName(addressChainId))) {
-                RocksDBService.createTable(getLedgerAccountTableName(addressChainId));
+                RocksDBService.createTable(getLedgerAccountTableName(addressChainId), TableOptions.pointLookup());
             }
             if (!RocksDBService.existTable(getBlockSnapshotTableName(addressChainId))) {
                 RocksDBService.createTable(getBlockSnapshotTableName(addressChainId));
@@ -216,7 +266,9 @@ public class RepositoryImpl implements Repository, InitializingBean {
 
     @Override
     public void afterPropertiesSet() throws NulsException {
-
+        if (null != ledgerConfig && ledgerConfig.getAccountCacheSize() > 0) {
+            accountStateCache = new AccountStateCache(ledgerConfig.getAccountCacheSize() * 1024L * 1024L);
+        }
     }
 
     @Override
@@ -0,0 +1,142 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2019 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.ledger.utils;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 按账户分段的账本锁
+ * Striped ledger lock keyed by account
+ * <p>
+ * 账户(addressChainId, address, assetChainId, assetId)映射到固定数量的可重入锁之一.
+ * 一次操作涉及多个账户时, 先收集所有分段序号, 再按从小到大的顺序加锁, 保证不会死锁.
+ * 不同账户的未确认交易处理与区块提交只有落在同一分段时才互相等待.
+ * <p>
+ * Every account (addressChainId, address, assetChainId, assetId) maps to one of a fixed number of
+ * reentrant locks. Operations touching several accounts collect the stripe indexes first and lock them
+ * in ascending order, so they never deadlock. Unconfirmed processing and block commits only wait for each
+ * other when their accounts share a stripe.
+ */
+public class AccountLocker {
+
+    private final ReentrantLock[] locks;
+
+    private final int mask;
+
+    /**
+     * @param stripes 分段数, 向上取整为2的幂
+     */
+    public AccountLocker(int stripes) {
+        int size = Integer.highestOneBit(Math.max(stripes, 2) - 1) << 1;
+        this.locks = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * 账户所在的分段
+     * Stripe index of the account
+     *
+     * @param addressChainId 地址链id
+     * @param accountKey     address-assetChainId-assetId, 见LedgerUtil.getKeyStr
+     */
+    public int indexOf(int addressChainId, String accountKey) {
+        int hash = 31 * accountKey.hashCode() + addressChainId;
+        //打散低位, 避免相近的key落到相邻分段
+        hash ^= (hash >>> 16);
+        return hash & mask;
+    }
+
+    /**
+     * 创建一个空的分段集合, 按序号排序
+     */
+    public NavigableSet<Integer> newIndexSet() {
+        return new TreeSet<>();
+    }
+
+    public void lock(int addressChainId, String accountKey) {
+        locks[indexOf(addressChainId, accountKey)].lock();
+    }
+
+    public void unlock(int addressChainId, String accountKey) {
+        locks[indexOf(addressChainId, accountKey)].unlock();
+    }
+
+    /**
+     * 按序号从小到大锁定多个分段
+     * Lock the stripes in ascending order
+     *
+     * @param indexes newIndexSet创建的有序集合
+     */
+    public void lock(NavigableSet<Integer> indexes) {
+        for (Integer index : indexes) {
+            locks[index].lock();
+        }
+    }
+
+    /**
+     * 按加锁的相反顺序释放
+     * Unlock the stripes in reverse order
+     */
+    public void unlock(NavigableSet<Integer> indexes) {
+        Iterator<Integer> it = indexes.descendingIterator();
+        while (it.hasNext()) {
+            locks[it.next()].unlock();
+        }
+    }
+
+    /**
+     * 锁定全部分段, 用于清空整条链的未确认数据
+     * Lock every stripe, used when the whole chain is cleared
+     */
+    public void lockAll() {
+        for (ReentrantLock lock : locks) {
+            lock.lock();
+        }
+    }
+
+    public void unlockAll() {
+        for (int i = locks.length - 1; i >= 0; i--) {
+            locks[i].unlock();
+        }
+    }
+
+    /**
+     * 把账户的分段加入集合
+     */
+    public void addIndex(Collection<Integer> indexes, int addressChainId, String accountKey) {
+        indexes.add(indexOf(addressChainId, accountKey));
+    }
+
+    public int getStripes() {
+        return locks.length;
+    }
+}
@@ -34,6 +34,12 @@ import java.util.concurrent.locks.ReentrantLock;
  **/
 public class LockerUtil {
 //    public final static Lock BLOCK_SYNC_LOCKER = new ReentrantLock();
-    public final static Lock UNCONFIRMED_SYNC_LOCKER = new ReentrantLock();
+    /**
+     * 区块提交与回滚之间的互斥锁, 只保证区块按高度顺序处理, 不再阻塞未确认交易
+     */
     public final static Lock LEDGER_LOCKER = new ReentrantLock();
+    /**
+     * 账户分段锁, 未确认交易处理与区块提交/回滚按涉及的账户加锁
+     */
+    public final static AccountLocker ACCOUNT_LOCKER = new AccountLocker(1024);
 }
@@ -0,0 +1,195 @@
+package io.nuls.ledger.test.service;
+
+import io.nuls.base.basic.AddressTool;
+import io.nuls.base.data.CoinData;
+import io.nuls.base.data.CoinFrom;
+import io.nuls.base.data.CoinTo;
+import io.nuls.base.data.Transaction;
+import io.nuls.core.constant.TxType;
+import io.nuls.core.core.ioc.SpringLiteContext;
+import io.nuls.core.crypto.ECKey;
+import io.nuls.core.parse.I18nUtils;
+import io.nuls.core.rockdb.manager.RocksDBManager;
+import io.nuls.core.rockdb.service.RocksDBService;
+import io.nuls.ledger.constant.LedgerConstant;
+import io.nuls.ledger.model.ValidateResult;
+import io.nuls.ledger.model.po.AccountState;
+import io.nuls.ledger.service.AccountStateService;
+import io.nuls.ledger.service.TransactionService;
+import io.nuls.ledger.service.UnconfirmedStateService;
+import io.nuls.ledger.storage.impl.LgBlockSyncRepositoryImpl;
+import io.nuls.ledger.storage.impl.RepositoryImpl;
+import io.nuls.ledger.utils.LedgerUtil;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * 在临时RocksDB上并发执行真实的未确认交易处理与区块提交:
+ * 多个线程不断提交未确认交易(nonce依次衔接), 同时另一个线程把这些交易按顺序打包成区块确认,
+ * 最终每个账户的已确认余额、nonce与交易记录一致, 且不残留未确认数据
+ */
+public class TransactionServiceConcurrencyTest {
+
+    private static final int CHAIN_ID = 2;
+    private static final int ASSET_ID = 1;
+    private static final int WORKERS = 4;
+    private static final int ACCOUNTS_PER_WORKER = 25;
+    private static final int TX_PER_WORKER = 400;
+    private static final int BLOCK_TX_LIMIT = 50;
+    private static final BigInteger INIT_BALANCE = BigInteger.valueOf(100000000L);
+
+    private static File dataDir;
+    private static TransactionService transactionService;
+    private static AccountStateService accountStateService;
+    private static UnconfirmedStateService unconfirmedStateService;
+
+    private final int accountCount = WORKERS * ACCOUNTS_PER_WORKER;
+    private final byte[][] addresses = new byte[accountCount][];
+    private final byte[][] nonces = new byte[accountCount][];
+    private final BigInteger[] expected = new BigInteger[accountCount];
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        I18nUtils.loadCommonLanguage("en");
+        dataDir = Files.createTempDirectory("ledger-concurrency-test").toFile();
+        SpringLiteContext.init("io.nuls.ledger.config", "io.nuls.ledger.manager", "io.nuls.ledger.rpc.call",
+                "io.nuls.ledger.service", "io.nuls.ledger.storage", "io.nuls.ledger.validator");
+        RocksDBService.init(dataDir.getPath());
+        RepositoryImpl repository = SpringLiteContext.getBean(RepositoryImpl.class);
+        repository.initTableName();
+        repository.initChainDb(CHAIN_ID);
+        SpringLiteContext.getBean(LgBlockSyncRepositoryImpl.class).initChainDb(CHAIN_ID);
+        transactionService = SpringLiteContext.getBean(TransactionService.class);
+        accountStateService = SpringLiteContext.getBean(AccountStateService.class);
+        unconfirmedStateService = SpringLiteContext.getBean(UnconfirmedStateService.class);
+    }
+
+    @AfterClass
+    public static void afterClass() {
+        RocksDBManager.close();
+        deleteDir(dataDir);
+    }
+
+    @Test
+    public void concurrentUnconfirmedAndBlockCommit() throws Exception {
+        Transaction coinBase = new Transaction(TxType.COIN_BASE);
+        CoinData coinBaseData = new CoinData();
+        for (int i = 0; i < accountCount; i++) {
+            addresses[i] = AddressTool.getAddress(new ECKey().getPubKey(), CHAIN_ID);
+            nonces[i] = LedgerConstant.getInitNonceByte();
+            expected[i] = INIT_BALANCE;
+            coinBaseData.addTo(new CoinTo(addresses[i], CHAIN_ID, ASSET_ID, INIT_BALANCE));
+        }
+        coinBase.setTime(System.currentTimeMillis() / 1000);
+        coinBase.setCoinData(coinBaseData.serialize());
+        assertTrue(transactionService.confirmBlockProcess(CHAIN_ID, Arrays.asList(coinBase), 0));
+
+        ConcurrentLinkedQueue<Transaction> pending = new ConcurrentLinkedQueue<>();
+        AtomicReference<String> failure = new AtomicReference<>();
+        AtomicInteger running = new AtomicInteger(WORKERS);
+        CountDownLatch done = new CountDownLatch(WORKERS + 1);
+        for (int w = 0; w < WORKERS; w++) {
+            final int worker = w;
+            new Thread(() -> {
+                Random random = new Random(worker);
+                try {
+                    for (int i = 0; i < TX_PER_WORKER && failure.get() == null; i++) {
+                        //每个线程只从自己的账户转出, 转入可以是任意账户
+                        int from = worker * ACCOUNTS_PER_WORKER + random.nextInt(ACCOUNTS_PER_WORKER);
+                        int to = random.nextInt(accountCount);
+                        BigInteger amount = BigInteger.valueOf(1 + random.nextInt(1000));
+                        Transaction tx = transfer(from, to, amount, worker * TX_PER_WORKER + i);
+                        ValidateResult result = transactionService.unConfirmTxProcess(CHAIN_ID, tx);
+                        if (!result.isSuccess()) {
+                            failure.compareAndSet(null, "unconfirmed tx " + i + " of worker " + worker + ": " + result.getValidateDesc());
+                            return;
+                        }
+                        nonces[from] = LedgerUtil.getNonceByTx(tx);
+                        synchronized (expected) {
+                            expected[from] = expected[from].subtract(amount);
+                            expected[to] = expected[to].add(amount);
+                        }
+                        pending.add(tx);
+                    }
+                } catch (Exception e) {
+                    failure.compareAndSet(null, e.toString());
+                } finally {
+                    running.decrementAndGet();
+                    done.countDown();
+                }
+            }).start();
+        }
+        new Thread(() -> {
+            //按提交顺序把未确认交易打包成区块, 与未确认处理并发执行
+            long height = 1;
+            try {
+                while (failure.get() == null && (running.get() > 0 || !pending.isEmpty())) {
+                    List<Transaction> txs = new ArrayList<>();
+                    Transaction tx;
+                    while (txs.size() < BLOCK_TX_LIMIT && (tx = pending.poll()) != null) {
+                        txs.add(tx);
+                    }
+                    if (txs.isEmpty()) {
+                        Thread.yield();
+                        continue;
+                    }
+                    if (!transactionService.confirmBlockProcess(CHAIN_ID, txs, height)) {
+                        failure.compareAndSet(null, "confirm block " + height);
+                        return;
+                    }
+                    height++;
+                }
+            } finally {
+                done.countDown();
+            }
+        }).start();
+        assertTrue(done.await(5, TimeUnit.MINUTES));
+        assertNull(failure.get(), failure.get());
+
+        for (int i = 0; i < accountCount; i++) {
+            //账本以不带前缀的地址作为账户key
+            String address = LedgerUtil.getRealAddressStr(addresses[i]);
+            AccountState state = accountStateService.getAccountStateReCal(address, CHAIN_ID, CHAIN_ID, ASSET_ID);
+            assertEquals(address, expected[i], state.getAvailableAmount());
+            assertArrayEquals(address, nonces[i], state.getNonce());
+            assertNull(address, unconfirmedStateService.getUnconfirmedInfo(address, CHAIN_ID, CHAIN_ID, ASSET_ID, state));
+        }
+    }
+
+    private Transaction transfer(int from, int to, BigInteger amount, int seq) throws Exception {
+        Transaction tx = new Transaction(TxType.TRANSFER);
+        tx.setTime(System.currentTimeMillis() / 1000);
+        tx.setRemark(("tx" + seq).getBytes());
+        CoinData coinData = new CoinData();
+        coinData.addFrom(new CoinFrom(addresses[from], CHAIN_ID, ASSET_ID, amount, nonces[from], (byte) 0));
+        coinData.addTo(new CoinTo(addresses[to], CHAIN_ID, ASSET_ID, amount));
+        tx.setCoinData(coinData.serialize());
+        return tx;
+    }
+
+    private static void deleteDir(File file) {
+        File[] files = file.listFiles();
+        if (files != null) {
+            for (File f : files) {
+                deleteDir(f);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,92 @@
+package io.nuls.ledger.test.storage;
+
+import io.nuls.core.model.ByteArrayWrapper;
+import io.nuls.ledger.model.po.AccountState;
+import io.nuls.ledger.storage.AccountStateCache;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class AccountStateCacheTest {
+
+    private static ByteArrayWrapper key(int chainId, int i) {
+        return AccountStateCache.cacheKey(chainId, ("tNULSeBaMaddress" + i + "-2-1").getBytes());
+    }
+
+    private static AccountState state(long amount) {
+        AccountState accountState = new AccountState();
+        accountState.setTotalToAmount(BigInteger.valueOf(amount));
+        return accountState;
+    }
+
+    @Test
+    public void boundedByBytes() {
+        AccountStateCache cache = new AccountStateCache(16 * 64 * 1024);
+        for (int i = 0; i < 100000; i++) {
+            cache.putLoaded(key(2, i), state(i), cache.version(key(2, i)));
+        }
+        Map<String, Object> metrics = cache.getMetrics();
+        assertTrue((long) metrics.get("usedBytes") <= 16 * 64 * 1024);
+        assertTrue((long) metrics.get("evictionCount") > 0);
+        assertTrue((long) metrics.get("size") < 100000);
+        //最近写入的仍在缓存中
+        assertEquals(BigInteger.valueOf(99999), cache.get(key(2, 99999)).getTotalToAmount());
+    }
+
+    @Test
+    public void hotEntriesSurviveScan() {
+        AccountStateCache cache = new AccountStateCache(16 * 64 * 1024);
+        for (int i = 0; i < 100; i++) {
+            cache.put(key(2, i), state(i));
+            //再次访问, 晋升到保护区
+            assertNotNull(cache.get(key(2, i)));
+        }
+        //大量只访问一次的账户
+        for (int i = 1000; i < 200000; i++) {
+            cache.putLoaded(key(2, i), state(i), cache.version(key(2, i)));
+        }
+        for (int i = 0; i < 100; i++) {
+            assertNotNull(cache.get(key(2, i)));
+        }
+    }
+
+    @Test
+    public void loadedNeverOverwritesCommitted() {
+        AccountStateCache cache = new AccountStateCache(1024 * 1024);
+        cache.put(key(2, 1), state(2));
+        assertFalse(cache.putLoaded(key(2, 1), state(1), cache.version(key(2, 1))));
+        assertEquals(BigInteger.valueOf(2), cache.get(key(2, 1)).getTotalToAmount());
+        cache.put(key(2, 1), state(3));
+        assertEquals(BigInteger.valueOf(3), cache.get(key(2, 1)).getTotalToAmount());
+        //不同链的相同账户互不影响
+        assertNull(cache.get(key(3, 1)));
+        Map<String, Object> metrics = cache.getMetrics();
+        assertEquals(2L, metrics.get("hitCount"));
+        assertEquals(1L, metrics.get("missCount"));
+    }
+
+    @Test
+    public void staleLoadAfterCommitOrEvictionDropped() {
+        AccountStateCache cache = new AccountStateCache(16 * 64 * 1024);
+        //加载线程读库之前取得版本号, 读库期间提交写入新状态后又被淘汰
+        long version = cache.version(key(2, 1));
+        cache.put(key(2, 1), state(2));
+        for (int i = 1000; i < 100000; i++) {
+            cache.putLoaded(key(2, i), state(i), cache.version(key(2, i)));
+        }
+        assertNull(cache.get(key(2, 1)));
+        assertFalse(cache.putLoaded(key(2, 1), state(1), version));
+        assertNull(cache.get(key(2, 1)));
+
+        //清空缓存同样使之前取得的版本号失效
+        version = cache.version(key(2, 2));
+        cache.clear();
+        assertFalse(cache.putLoaded(key(2, 2), state(1), version));
+        assertTrue(cache.putLoaded(key(2, 2), state(2), cache.version(key(2, 2))));
+        assertEquals(BigInteger.valueOf(2), cache.get(key(2, 2)).getTotalToAmount());
+        assertTrue((long) cache.getMetrics().get("staleLoadCount") >= 2);
+    }
+}
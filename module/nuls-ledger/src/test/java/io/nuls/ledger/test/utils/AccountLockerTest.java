@@ -0,0 +1,56 @@
+package io.nuls.ledger.test.utils;
+
+import io.nuls.ledger.utils.AccountLocker;
+import io.nuls.ledger.utils.LedgerUtil;
+import org.junit.Test;
+
+import java.util.NavigableSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * 分段锁: 不同分段的账户互不阻塞, 同一分段的账户互斥.
+ * 真实的未确认交易处理与区块提交的并发测试见TransactionServiceConcurrencyTest
+ */
+public class AccountLockerTest {
+
+    private static final int CHAIN_ID = 2;
+
+    private final AccountLocker locker = new AccountLocker(64);
+
+    @Test
+    public void unrelatedAccountNotBlocked() throws Exception {
+        String blockAccount = LedgerUtil.getKeyStr("tNULSeBaMblock", CHAIN_ID, 1);
+        String otherAccount = null;
+        for (int i = 0; otherAccount == null; i++) {
+            String key = LedgerUtil.getKeyStr("tNULSeBaMother" + i, CHAIN_ID, 1);
+            if (locker.indexOf(CHAIN_ID, key) != locker.indexOf(CHAIN_ID, blockAccount)) {
+                otherAccount = key;
+            }
+        }
+        NavigableSet<Integer> blockIndexes = locker.newIndexSet();
+        locker.addIndex(blockIndexes, CHAIN_ID, blockAccount);
+        //模拟区块提交持有锁
+        locker.lock(blockIndexes);
+        assertTrue(runLocked(otherAccount).await(5, TimeUnit.SECONDS));
+        CountDownLatch sameAccount = runLocked(blockAccount);
+        assertFalse(sameAccount.await(200, TimeUnit.MILLISECONDS));
+        locker.unlock(blockIndexes);
+        assertTrue(sameAccount.await(5, TimeUnit.SECONDS));
+    }
+
+    private CountDownLatch runLocked(String accountKey) {
+        CountDownLatch latch = new CountDownLatch(1);
+        new Thread(() -> {
+            locker.lock(CHAIN_ID, accountKey);
+            try {
+                latch.countDown();
+            } finally {
+                locker.unlock(CHAIN_ID, accountKey);
+            }
+        }).start();
+        return latch;
+    }
+}
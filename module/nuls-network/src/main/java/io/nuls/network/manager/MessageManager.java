@@ -55,6 +55,7 @@ import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -124,8 +125,8 @@ public class MessageManager extends BaseManager {
      * @param data entity
      * @return boolean
      */
-    private boolean validate(byte[] data, long pChecksum) {
-        byte[] bodyHash = Sha256Hash.hashTwice(data);
+    private boolean validate(byte[] data, int offset, int length, long pChecksum) {
+        byte[] bodyHash = Sha256Hash.hashTwice(data, offset, length);
         byte[] get4Byte = ByteUtils.subBytes(bodyHash, 0, 4);
         long checksum = ByteUtils.bytesToBigInteger(get4Byte).longValue();
         return checksum == pChecksum;
@@ -140,11 +141,11 @@ public class MessageManager extends BaseManager {
             MessageHeader header = new MessageHeader();
             int headerSize = header.size();
             byte[] payLoad = byteBuffer.getPayload();
-            byte[] payLoadBody = ByteUtils.subBytes(payLoad, headerSize, payLoad.length - headerSize);
+            int bodyLength = payLoad.length - headerSize;
             byte[] headerByte = ByteUtils.copyOf(payLoad, headerSize);
             int chainId = NodeGroupManager.getInstance().getChainIdByMagicNum(header.getMagicNumber());
             header.parse(headerByte, 0);
-            if (!validate(payLoadBody, header.getChecksum())) {
+            if (!validate(payLoad, headerSize, bodyLength, header.getChecksum())) {
                 LoggerUtil.logger(chainId).error("validate  false ======================cmd:{}", header.getCommandStr());
                 return;
             }
@@ -157,8 +158,10 @@ public class MessageManager extends BaseManager {
                     BaseMeesageHandlerInf handler = MessageHandlerFactory.getInstance().getHandler(header.getCommandStr());
                     result = handler.recieve(message, node);
                 } else {
-                    //外部消息，转外部接口
+                    //外部消息，转外部接口，消息体以只读视图传递，不再复制
+                    //External message, the body is handed over as a read-only view without copying
                     OtherModuleMessageHandler handler = MessageHandlerFactory.getInstance().getOtherModuleHandler();
+                    ByteBuffer payLoadBody = ByteBuffer.wrap(payLoad, headerSize, bodyLength).slice().asReadOnlyBuffer();
                     result = handler.recieve(header, payLoadBody, node);
                     byteBuffer.setCursor(payLoad.length);
                 }
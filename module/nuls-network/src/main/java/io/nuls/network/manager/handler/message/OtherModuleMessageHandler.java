@@ -43,6 +43,7 @@ import io.nuls.network.model.message.base.BaseMessage;
 import io.nuls.network.model.message.base.MessageHeader;
 import io.nuls.network.utils.LoggerUtil;
 
+import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -76,12 +77,16 @@ public class OtherModuleMessageHandler extends BaseMessageHandler {
     }
 
     /**
+     * 将消息体转发给订阅的模块，消息体为接收缓冲区的只读视图，支持二进制帧的连接直接发送原始字节
+     * Forward the body to subscribed modules. The body is a read-only view of the receive buffer,
+     * connections that negotiated binary frames send the raw bytes without hex encoding
+     *
      * @param header
      * @param payLoadBody
      * @param node
      * @return
      */
-    public NetworkEventResult recieve(MessageHeader header, byte[] payLoadBody, Node node) {
+    public NetworkEventResult recieve(MessageHeader header, ByteBuffer payLoadBody, Node node) {
         long magicNum = header.getMagicNumber();
         int chainId = NodeGroupManager.getInstance().getChainIdByMagicNum(magicNum);
         NodeGroup nodeGroup = NodeGroupManager.getInstance().getNodeGroupByChainId(chainId);
@@ -90,8 +95,7 @@ public class OtherModuleMessageHandler extends BaseMessageHandler {
         paramMap.put("nodeId", node.getId());
         String cmd = header.getCommandStr();
         paramMap.put("cmd", cmd);
-        String messageBody = RPCUtil.encode(payLoadBody);
-        paramMap.put("messageBody", messageBody);
+        paramMap.put("messageBody", payLoadBody);
         Map<String, CmdPriority> protocolRoles = MessageHandlerFactory.getInstance().getProtocolRoleHandlerMap(cmd);
         if (protocolRoles == null || protocolRoles.isEmpty()) {
             LoggerUtil.logger(chainId).error("unknown mssages. cmd={},handler may be unRegistered to network.", cmd);
@@ -105,7 +109,7 @@ public class OtherModuleMessageHandler extends BaseMessageHandler {
                         LoggerUtil.COMMON_LOG.error("chainId = {},cmd={},CacheMsgQueue size={}.RPC fail,drop msg", chainId, cmd, nodeGroup.getCacheMsgQueue().size());
                     } else {
                         LoggerUtil.COMMON_LOG.error("chainId = {},cmd={},RPC fail,add to cache", chainId, cmd);
-                        RpcCacheMessage peerMessage = new RpcCacheMessage(node.getId(), cmd, messageBody);
+                        RpcCacheMessage peerMessage = new RpcCacheMessage(node.getId(), cmd, encode(payLoadBody));
                         nodeGroup.getCacheMsgQueue().addLast(peerMessage);
                     }
                 }
@@ -117,4 +121,10 @@ public class OtherModuleMessageHandler extends BaseMessageHandler {
         return NetworkEventResult.getResultSuccess();
     }
 
+    private String encode(ByteBuffer payLoadBody) {
+        byte[] bytes = new byte[payLoadBody.remaining()];
+        payLoadBody.duplicate().get(bytes);
+        return RPCUtil.encode(bytes);
+    }
+
 }
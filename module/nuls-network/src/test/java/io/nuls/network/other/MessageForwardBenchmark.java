@@ -0,0 +1,153 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2019 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.network.other;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.nuls.base.RPCUtil;
+import io.nuls.core.constant.BaseConstant;
+import io.nuls.core.model.ByteUtils;
+import io.nuls.core.parse.JSONUtils;
+import io.nuls.core.rpc.info.Constants;
+import io.nuls.core.rpc.model.message.*;
+import io.nuls.core.rpc.netty.codec.BinaryMessageCodec;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 外部模块消息转发吞吐对比：旧流程（复制消息体+hex+JSON）与新流程（只读视图+二进制帧）
+ * 除吞吐外统计每条消息在转发路径上复制的字节数：堆上新分配的字节（每次复制都需要新的目标数组或字符串）
+ * 加上写入池化帧缓冲区的字节（池化缓冲区复用，不计入堆分配），并折算为消息体被复制的次数
+ * Forwarding throughput of external module messages: old path (body copy + hex + JSON)
+ * compared with the new path (read-only slice + binary frame).
+ * Also reports the bytes copied per forwarded message: the heap bytes allocated on the path (every copy needs a new
+ * destination array or string) plus the bytes written into the pooled frame buffer (reused, so not a heap
+ * allocation), and that total expressed as copies of the message body
+ **/
+public class MessageForwardBenchmark {
+    private static final int HEADER_SIZE = 24;
+
+    public static void main(String[] args) throws Exception {
+        run("small(256B)", 256, 200000);
+        run("block(2MB)", 2 * 1024 * 1024, 100);
+    }
+
+    private static void run(String name, int bodySize, int rounds) throws Exception {
+        byte[] payLoad = new byte[HEADER_SIZE + bodySize];
+        new Random(1).nextBytes(payLoad);
+        //预热 warm up
+        for (int i = 0; i < Math.min(rounds, 1000); i++) {
+            oldPath(payLoad);
+            newPath(payLoad);
+        }
+        long oldPooled = 0;
+        long allocated = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            oldPooled += oldPath(payLoad);
+        }
+        long oldCost = System.nanoTime() - start;
+        long oldCopied = (allocatedBytes() - allocated + oldPooled) / rounds;
+        long newPooled = 0;
+        allocated = allocatedBytes();
+        start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            newPooled += newPath(payLoad);
+        }
+        long newCost = System.nanoTime() - start;
+        long newCopied = (allocatedBytes() - allocated + newPooled) / rounds;
+        System.out.println(String.format("%s old: %.0f msgs/s, %d bytes copied/msg (%.1f body copies); new: %.0f msgs/s, %d bytes copied/msg (%.1f body copies)",
+                name, rounds * 1e9 / oldCost, oldCopied, (double) oldCopied / bodySize,
+                rounds * 1e9 / newCost, newCopied, (double) newCopied / bodySize));
+    }
+
+    /**
+     * 当前线程累计在堆上分配的字节数
+     * Heap bytes allocated by the current thread so far
+     */
+    private static long allocatedBytes() {
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * 旧流程：subBytes复制 -> hex -> JSON序列化/反序列化 -> hex解码，全部在堆上分配
+     *
+     * @return 写入池化缓冲区的字节数，旧流程没有
+     */
+    private static int oldPath(byte[] payLoad) throws Exception {
+        byte[] payLoadBody = ByteUtils.subBytes(payLoad, HEADER_SIZE, payLoad.length - HEADER_SIZE);
+        Message message = buildMessage(RPCUtil.encode(payLoadBody));
+        byte[] wire = JSONUtils.obj2ByteArray(message);
+        Message received = JSONUtils.byteArray2pojo(wire, Message.class);
+        Map params = (Map) MessageUtil.getMessageData(received, Request.class).getRequestMethods().get(BaseConstant.MSG_PROCESS);
+        byte[] body = RPCUtil.decode((String) params.get("messageBody"));
+        check(body, payLoad);
+        return 0;
+    }
+
+    /**
+     * 新流程：只读视图 -> 二进制帧编解码
+     *
+     * @return 写入池化帧缓冲区的字节数
+     */
+    private static int newPath(byte[] payLoad) throws Exception {
+        ByteBuffer payLoadBody = ByteBuffer.wrap(payLoad, HEADER_SIZE, payLoad.length - HEADER_SIZE).slice().asReadOnlyBuffer();
+        Message message = buildMessage(payLoadBody);
+        ByteBuf wire = BinaryMessageCodec.encode(message);
+        //池化或堆外缓冲区不计入堆分配，单独计入复制字节
+        int size = wire.isDirect() || wire.alloc() instanceof PooledByteBufAllocator ? wire.readableBytes() : 0;
+        try {
+            Message received = BinaryMessageCodec.decode(wire);
+            Map params = (Map) MessageUtil.getMessageData(received, Request.class).getRequestMethods().get(BaseConstant.MSG_PROCESS);
+            check((byte[]) params.get("messageBody"), payLoad);
+        } finally {
+            wire.release();
+        }
+        return size;
+    }
+
+    private static Message buildMessage(Object messageBody) {
+        Map<String, Object> paramMap = new HashMap<>();
+        paramMap.put("chainId", 1);
+        paramMap.put("nodeId", "192.168.1.1:8001");
+        paramMap.put("cmd", "block");
+        paramMap.put("messageBody", messageBody);
+        Request request = MessageUtil.newRequest(BaseConstant.MSG_PROCESS, paramMap, Constants.BOOLEAN_FALSE, Constants.ZERO, Constants.ZERO);
+        Message message = MessageUtil.basicMessage(MessageType.RequestOnly);
+        message.setMessageData(request);
+        return message;
+    }
+
+    private static void check(byte[] body, byte[] payLoad) {
+        if (body.length != payLoad.length - HEADER_SIZE || body[0] != payLoad[HEADER_SIZE]) {
+            throw new IllegalStateException("message body mismatch");
+        }
+    }
+}
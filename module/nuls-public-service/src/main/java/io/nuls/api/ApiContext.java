@@ -79,6 +79,8 @@ public class ApiContext {
     public static long localHeight;
 
     public static long networkHeight;
+    //落后网络高度超过该值时批量同步区块, 每次预取的区块数
+    public static int syncBatchSize = 100;
 
     public static int magicNumber;
     //开发者节点地址
@@ -137,6 +137,9 @@ public class PublicServiceBootstrap extends RpcModule {
         ApiContext.maxAliveConnect = apiConfig.getMaxAliveConnect();
         ApiContext.connectTimeOut = apiConfig.getConnectTimeOut();
         ApiContext.socketTimeout = apiConfig.getSocketTimeout();
+        if (apiConfig.getSyncBatchSize() != 0) {
+            ApiContext.syncBatchSize = apiConfig.getSyncBatchSize();
+        }
 
         ApiContext.blackHolePublicKey = Hex.decode(apiConfig.getBlackHolePublicKey());
         if (apiConfig.getDeveloperNodeAddress() != null) {
@@ -72,6 +72,11 @@ public class ApiConfig implements ModuleConfig {
 
     private String blackHolePublicKey;
 
+    /**
+     * 落后网络高度超过该值时批量同步区块, 小于等于1时关闭
+     */
+    private int syncBatchSize;
+
     public String getEncoding() {
         return encoding;
     }
@@ -279,4 +284,12 @@ public class ApiConfig implements ModuleConfig {
     public void setSocketTimeout(int socketTimeout) {
         this.socketTimeout = socketTimeout;
     }
+
+    public int getSyncBatchSize() {
+        return syncBatchSize;
+    }
+
+    public void setSyncBatchSize(int syncBatchSize) {
+        this.syncBatchSize = syncBatchSize;
+    }
 }
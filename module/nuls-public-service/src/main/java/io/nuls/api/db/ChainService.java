@@ -26,5 +26,7 @@ public interface ChainService {
 
     SyncInfo saveNewSyncInfo(int chainId, long newHeight);
 
+    SyncInfo saveNewSyncInfo(int chainId, long newHeight, int batchSize);
+
     void updateStep(SyncInfo syncInfo);
 }
@@ -2,6 +2,7 @@ package io.nuls.api.db.mongo;
 
 import com.mongodb.BasicDBObject;
 import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.InsertManyOptions;
 import com.mongodb.client.model.InsertOneModel;
 import com.mongodb.client.model.Sorts;
 import com.mongodb.client.model.WriteModel;
@@ -71,11 +72,35 @@ public class MongoBlockServiceImpl implements BlockService {
         mongoDBService.insertOne(BLOCK_HEADER_TABLE + chainId, document);
     }
 
+    public void saveBlockHeaderList(int chainId, List<BlockHeaderInfo> headerList) {
+        if (headerList.size() == 1) {
+            saveBLockHeaderInfo(chainId, headerList.get(0));
+            return;
+        }
+        List<Document> documentList = new ArrayList<>();
+        for (BlockHeaderInfo headerInfo : headerList) {
+            documentList.add(DocumentTransferTool.toDocument(headerInfo, "height"));
+        }
+        mongoDBService.insertMany(BLOCK_HEADER_TABLE + chainId, documentList, new InsertManyOptions().ordered(false));
+    }
+
     public void saveBlockHexInfo(int chainId, BlockHexInfo hexInfo) {
         Document document = DocumentTransferTool.toDocument(hexInfo, "height");
         mongoDBService.insertOne(BLOCK_HEX_TABLE + chainId, document);
     }
 
+    public void saveBlockHexList(int chainId, List<BlockHexInfo> hexList) {
+        if (hexList.size() == 1) {
+            saveBlockHexInfo(chainId, hexList.get(0));
+            return;
+        }
+        List<Document> documentList = new ArrayList<>();
+        for (BlockHexInfo hexInfo : hexList) {
+            documentList.add(DocumentTransferTool.toDocument(hexInfo, "height"));
+        }
+        mongoDBService.insertMany(BLOCK_HEX_TABLE + chainId, documentList, new InsertManyOptions().ordered(false));
+    }
+
     public BlockHexInfo getBlockHexInfo(int chainId, long height) {
         Document document = mongoDBService.findOne(BLOCK_HEX_TABLE + chainId, Filters.eq("_id", height));
         if (document == null) {
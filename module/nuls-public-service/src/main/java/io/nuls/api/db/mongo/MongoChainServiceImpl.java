@@ -135,7 +135,12 @@ public class MongoChainServiceImpl implements ChainService {
     }
 
     public SyncInfo saveNewSyncInfo(int chainId, long newHeight) {
+        return saveNewSyncInfo(chainId, newHeight, 0);
+    }
+
+    public SyncInfo saveNewSyncInfo(int chainId, long newHeight, int batchSize) {
         SyncInfo syncInfo = new SyncInfo(chainId, newHeight, 0);
+        syncInfo.setBatchSize(batchSize);
         Document document = DocumentTransferTool.toDocument(syncInfo, "chainId");
         if (newHeight == 0) {
             Bson query = Filters.eq("_id", chainId);
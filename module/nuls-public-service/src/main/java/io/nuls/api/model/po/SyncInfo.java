@@ -8,6 +8,18 @@ public class SyncInfo {
 
     private int step;
 
+    /**
+     * 批量同步时本批次的区块数, 0表示单个区块
+     * Number of blocks saved by the unfinished batch, 0 for a single block
+     */
+    private int batchSize;
+
+    /**
+     * 批量同步中断时的步骤, 回滚批次内较低的区块时从该步骤开始
+     * Step at which the batch was interrupted, the lower blocks of the batch are rolled back from it
+     */
+    private int batchStep;
+
     public SyncInfo() {
     }
 
@@ -21,6 +33,23 @@ public class SyncInfo {
         return this.step == 100;
     }
 
+    /**
+     * 回滚最新区块后更新同步信息, 批次未回滚完时下一个区块仍从批次中断的步骤开始回滚
+     * Update after the best block is rolled back, while the batch is not fully rolled back
+     * the next block still starts from the step at which the batch was interrupted
+     */
+    public void rollbackBest() {
+        this.bestHeight = this.bestHeight - 1;
+        if (this.batchSize > 1) {
+            this.batchSize = this.batchSize - 1;
+            this.step = this.batchStep;
+        } else {
+            this.batchSize = 0;
+            this.batchStep = 0;
+            this.step = 100;
+        }
+    }
+
     public int getChainId() {
         return chainId;
     }
@@ -44,4 +73,20 @@ public class SyncInfo {
     public void setStep(int step) {
         this.step = step;
     }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getBatchStep() {
+        return batchStep;
+    }
+
+    public void setBatchStep(int batchStep) {
+        this.batchStep = batchStep;
+    }
 }
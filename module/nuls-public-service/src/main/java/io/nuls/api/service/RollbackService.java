@@ -81,8 +81,7 @@ public class RollbackService {
             SyncInfo syncInfo = chainService.getSyncInfo(chainId);
             if (syncInfo != null) {
                 if (syncInfo.getBestHeight() > 0) {
-                    syncInfo.setBestHeight(syncInfo.getBestHeight() - 1);
-                    syncInfo.setStep(100);
+                    syncInfo.rollbackBest();
                     chainService.updateStep(syncInfo);
                 }
             }
@@ -746,8 +745,8 @@ public class RollbackService {
         transactionService.rollbackTx(chainId, blockInfo.getHeader().getTxHashList());
         blockService.deleteBlockHeader(chainId, blockInfo.getHeader().getHeight());
 
-        syncInfo.setStep(100);
-        syncInfo.setBestHeight(blockInfo.getHeader().getHeight() - 1);
+        //批量同步的区块未回滚完时, 下一个区块从批次中断的步骤开始回滚
+        syncInfo.rollbackBest();
         chainService.updateStep(syncInfo);
     }
 
@@ -108,6 +108,92 @@ public class SyncService {
         return true;
     }
 
+    /**
+     * 批量同步连续的区块, 区块需先经过splitBatch分组
+     * 各区块依次处理并在内存中合并账户、资产、节点等统计数据, 最后一次性保存
+     * Sync consecutive blocks grouped by splitBatch.
+     * The blocks are processed in order, account/ledger/agent statistics are merged in memory and saved once
+     */
+    public boolean syncNewBlocks(int chainId, List<BlockInfo> blockList) {
+        clear();
+        long time1, time2;
+        time1 = System.currentTimeMillis();
+        int txCount = 0;
+        for (BlockInfo blockInfo : blockList) {
+            findAddProcessAgentOfBlock(chainId, blockInfo);
+            processTxs(chainId, blockInfo.getTxList());
+            roundManager.process(chainId, blockInfo);
+            txCount += blockInfo.getHeader().getTxCount();
+        }
+        save(chainId, blockList);
+
+        BlockHeaderInfo bestHeader = blockList.get(blockList.size() - 1).getHeader();
+        ApiCache apiCache = CacheManager.getCache(chainId);
+        apiCache.setBestHeader(bestHeader);
+
+        time2 = System.currentTimeMillis();
+        LoggerUtil.commonLog.info("-----height finish:" + blockList.get(0).getHeader().getHeight() + "-" + bestHeader.getHeight() + "-----txCount:" + txCount + "-----use:" + (time2 - time1) + "-----");
+        return true;
+    }
+
+    /**
+     * 将连续的区块分成可以批量同步的批次
+     * 1.轮次切换时需要从数据库读取节点和委托信息, 新的轮次从新的批次开始
+     * 2.处理时直接从数据库读取数据的交易(注册节点、注销节点、退出委托、红牌、链资产)所在的区块单独同步,
+     * 前面的区块已经保存, 后面的区块也不会修改该区块中新增的节点
+     * Split consecutive blocks into batches that can be synced together
+     * 1.round switching reads agents and deposits from the database, so a new round starts a new batch
+     * 2.blocks with transactions that read the database directly while processing (register/stop agent,
+     * cancel deposit, red punish, chain assets) are synced alone, after the previous blocks are saved and before
+     * the following blocks can modify the agents created in them
+     *
+     * @param blockList 连续的区块/consecutive blocks
+     * @return 批次列表/batches
+     */
+    public static List<List<BlockInfo>> splitBatch(List<BlockInfo> blockList) {
+        List<List<BlockInfo>> batchList = new ArrayList<>();
+        List<BlockInfo> batch = new ArrayList<>();
+        for (BlockInfo blockInfo : blockList) {
+            boolean alone = !isBatchable(blockInfo);
+            if (!batch.isEmpty() && (alone || batch.get(batch.size() - 1).getHeader().getRoundIndex() != blockInfo.getHeader().getRoundIndex())) {
+                batchList.add(batch);
+                batch = new ArrayList<>();
+            }
+            batch.add(blockInfo);
+            if (alone) {
+                batchList.add(batch);
+                batch = new ArrayList<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            batchList.add(batch);
+        }
+        return batchList;
+    }
+
+    private static boolean isBatchable(BlockInfo blockInfo) {
+        if (blockInfo.getTxList() == null) {
+            return true;
+        }
+        for (TransactionInfo tx : blockInfo.getTxList()) {
+            switch (tx.getType()) {
+                case TxType.REGISTER_AGENT:
+                case TxType.CONTRACT_CREATE_AGENT:
+                case TxType.STOP_AGENT:
+                case TxType.CONTRACT_STOP_AGENT:
+                case TxType.CANCEL_DEPOSIT:
+                case TxType.CONTRACT_CANCEL_DEPOSIT:
+                case TxType.RED_PUNISH:
+                case TxType.DESTROY_CHAIN_AND_ASSET:
+                case TxType.ADD_ASSET_TO_CHAIN:
+                case TxType.REMOVE_ASSET_FROM_CHAIN:
+                    return false;
+                default:
+            }
+        }
+        return true;
+    }
+
 
     /**
      * 查找当前出块节点并处理相关信息
@@ -801,22 +887,40 @@ public class SyncService {
      * Store entity in the database after parsing the block and all transactions
      */
     public void save(int chainId, BlockInfo blockInfo) {
-        long height = blockInfo.getHeader().getHeight();
+        save(chainId, Collections.singletonList(blockInfo));
+    }
+
+    /**
+     * 保存连续的多个区块, 每张表只写入一次, 统计类的表保存合并后的结果
+     * 同步信息记录批次大小和中断时的步骤, 回滚时逐个区块从该步骤开始回滚
+     * Save consecutive blocks with a single write per collection, the statistics tables store the merged result.
+     * The sync info records the batch size and the interrupted step, so the blocks are rolled back one by one from it
+     */
+    public void save(int chainId, List<BlockInfo> blockList) {
+        long height = blockList.get(blockList.size() - 1).getHeader().getHeight();
 
         long time1, time2;
 
-        SyncInfo syncInfo = chainService.saveNewSyncInfo(chainId, height);
+        SyncInfo syncInfo = chainService.saveNewSyncInfo(chainId, height, blockList.size() > 1 ? blockList.size() : 0);
 
+        List<BlockHeaderInfo> headerList = new ArrayList<>();
+        List<BlockHexInfo> hexList = new ArrayList<>();
+        List<TransactionInfo> txList = new ArrayList<>();
+        for (BlockInfo blockInfo : blockList) {
+            headerList.add(blockInfo.getHeader());
+            hexList.add(blockInfo.getBlockHexInfo());
+            txList.addAll(blockInfo.getTxList());
+        }
         //存储区块头信息
         time1 = System.currentTimeMillis();
-        blockService.saveBLockHeaderInfo(chainId, blockInfo.getHeader());
+        blockService.saveBlockHeaderList(chainId, headerList);
         //存区块序列化完整信息
-        blockService.saveBlockHexInfo(chainId, blockInfo.getBlockHexInfo());
+        blockService.saveBlockHexList(chainId, hexList);
 //        time2 = System.currentTimeMillis();
 //        System.out.println("-----------saveBlockHexInfo, use: " + (time2 - time1) );
 //        time1 = System.currentTimeMillis();
         //存储交易记录
-        txService.saveTxList(chainId, blockInfo.getTxList());
+        txService.saveTxList(chainId, txList);
 //        time2 = System.currentTimeMillis();
 //        System.out.println("-----------saveTxList, use: " + (time2 - time1) );
 //        time1 = System.currentTimeMillis();
@@ -874,45 +978,49 @@ public class SyncService {
             涉及到统计类的表放在最后来存储，便于回滚
          */
         //存储共识节点列表
-        syncInfo.setStep(10);
-        chainService.updateStep(syncInfo);
+        updateStep(syncInfo, 10);
         agentService.saveAgentList(chainId, agentInfoList);
 //        time2 = System.currentTimeMillis();
 //        System.out.println("-----------saveAgentList, use: " + (time2 - time1) );
 //        time1 = System.currentTimeMillis();
         //存储账户资产信息
-        syncInfo.setStep(20);
-        chainService.updateStep(syncInfo);
+        updateStep(syncInfo, 20);
         ledgerService.saveLedgerList(chainId, accountLedgerInfoMap);
 //        time2 = System.currentTimeMillis();
 //        System.out.println("-----------saveLedgerList, use: " + (time2 - time1));
 //        time1 = System.currentTimeMillis();
         //存储智能合约信息表
-        syncInfo.setStep(30);
-        chainService.updateStep(syncInfo);
+        updateStep(syncInfo, 30);
         contractService.saveContractInfos(chainId, contractInfoMap);
 //        time2 = System.currentTimeMillis();
 //        System.out.println("-----------saveContractInfos, use: " + (time2 - time1) );
 //        time1 = System.currentTimeMillis();
 
         //存储账户token信息
-        syncInfo.setStep(40);
-        chainService.updateStep(syncInfo);
+        updateStep(syncInfo, 40);
         tokenService.saveAccountTokens(chainId, accountTokenMap);
 //        time2 = System.currentTimeMillis();
 //        System.out.println("-----------saveAccountTokens, use: " + (time2 - time1) );
 //        time1 = System.currentTimeMillis();
 
         //存储账户信息表
-        syncInfo.setStep(50);
-        chainService.updateStep(syncInfo);
+        updateStep(syncInfo, 50);
         accountService.saveAccounts(chainId, accountInfoMap);
 //        time2 = System.currentTimeMillis();
 //        System.out.println("-----------saveAccounts, use: " + (time2 - time1) );
 //        time1 = System.currentTimeMillis();
 
         //完成解析
-        syncInfo.setStep(100);
+        syncInfo.setBatchSize(0);
+        syncInfo.setBatchStep(0);
+        updateStep(syncInfo, 100);
+    }
+
+    private void updateStep(SyncInfo syncInfo, int step) {
+        syncInfo.setStep(step);
+        if (syncInfo.getBatchSize() > 0) {
+            syncInfo.setBatchStep(step);
+        }
         chainService.updateStep(syncInfo);
     }
 
@@ -11,6 +11,14 @@ import io.nuls.api.utils.LoggerUtil;
 import io.nuls.core.basic.Result;
 import io.nuls.core.core.ioc.SpringLiteContext;
 import io.nuls.core.log.Log;
+import io.nuls.core.thread.ThreadUtils;
+import io.nuls.core.thread.commom.NulsThreadFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
 
 public class SyncBlockTask implements Runnable {
 
@@ -20,6 +28,13 @@ public class SyncBlockTask implements Runnable {
 
     private RollbackService rollbackService;
 
+    /**
+     * 批量追块时并发获取区块的线程数
+     */
+    private static final int FETCH_THREAD_COUNT = 4;
+
+    private ThreadPoolExecutor fetchExecutor;
+
     public SyncBlockTask(int chainId) {
         this.chainId = chainId;
         syncService = SpringLiteContext.getBean(SyncService.class);
@@ -36,9 +51,14 @@ public class SyncBlockTask implements Runnable {
         //Check the latest synchronization information before each entity synchronization.
         //If the latest block entity is not completely processed in one transaction, you need to roll back the block entity.
         try {
+            //批量同步中断时需要逐个回滚该批次的区块
+            //An interrupted batch is rolled back block by block
             SyncInfo syncInfo = syncService.getSyncInfo(chainId);
-            if (syncInfo != null && !syncInfo.isFinish()) {
-                rollbackService.rollbackBlock(chainId, syncInfo.getBestHeight());
+            while (syncInfo != null && !syncInfo.isFinish()) {
+                if (!rollbackService.rollbackBlock(chainId, syncInfo.getBestHeight())) {
+                    return;
+                }
+                syncInfo = syncService.getSyncInfo(chainId);
             }
         } catch (Exception e) {
             Log.error(e);
@@ -46,12 +66,21 @@ public class SyncBlockTask implements Runnable {
         }
 
         boolean running = true;
-        while (running) {
-            try {
-                running = syncBlock();
-            } catch (Exception e) {
-                Log.error(e);
-                running = false;
+        try {
+            while (running) {
+                try {
+                    running = syncBlock();
+                } catch (Exception e) {
+                    Log.error(e);
+                    running = false;
+                }
+            }
+        } finally {
+            //预取线程只在本次同步期间使用, 同步结束后关闭
+            //The fetch threads only live for this round of syncing
+            if (fetchExecutor != null) {
+                fetchExecutor.shutdownNow();
+                fetchExecutor = null;
             }
         }
     }
@@ -84,6 +113,14 @@ public class SyncBlockTask implements Runnable {
         long nextHeight = 0;
         if (localBestBlockHeader != null) {
             nextHeight = localBestBlockHeader.getHeight() + 1;
+            //落后网络高度较多时批量追块
+            //Catch up in batches when far behind the network
+            if (ApiContext.syncBatchSize > 1 && ApiContext.networkHeight - nextHeight >= ApiContext.syncBatchSize) {
+                List<BlockInfo> blockList = fetchBlocks(nextHeight, ApiContext.syncBatchSize);
+                if (checkBlockContinuity(localBestBlockHeader, blockList)) {
+                    return syncBlocks(blockList);
+                }
+            }
         }
         Result<BlockInfo> result = WalletRpcHandler.getBlockInfo(chainId, nextHeight);
         if (result.isFailed()) {
@@ -102,6 +139,76 @@ public class SyncBlockTask implements Runnable {
         return false;
     }
 
+    /**
+     * 并发预取从指定高度开始的连续区块, 遇到获取失败的区块时只返回它之前的区块
+     * 线程池在首次批量追块时创建, 在run结束时关闭
+     * Fetch consecutive blocks from the height concurrently, stop before the first block that could not be fetched.
+     * The pool is created by the first batch of a run and shut down when the run ends
+     */
+    private List<BlockInfo> fetchBlocks(long startHeight, int count) throws InterruptedException {
+        if (fetchExecutor == null) {
+            fetchExecutor = ThreadUtils.createThreadPool(FETCH_THREAD_COUNT, 0, new NulsThreadFactory("api-block-fetch-" + chainId));
+        }
+        List<Future<Result<BlockInfo>>> futureList = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            long height = startHeight + i;
+            futureList.add(fetchExecutor.submit(() -> WalletRpcHandler.getBlockInfo(chainId, height)));
+        }
+        List<BlockInfo> blockList = new ArrayList<>();
+        boolean completed = true;
+        for (Future<Result<BlockInfo>> future : futureList) {
+            if (!completed) {
+                future.cancel(true);
+                continue;
+            }
+            try {
+                Result<BlockInfo> result = future.get();
+                if (result.isFailed() || result.getData() == null) {
+                    completed = false;
+                } else {
+                    blockList.add(result.getData());
+                }
+            } catch (ExecutionException e) {
+                LoggerUtil.commonLog.error(e);
+                completed = false;
+            }
+        }
+        return blockList;
+    }
+
+    /**
+     * 按批次保存区块, 单个区块的批次与正常同步相同
+     * Save the blocks batch by batch, a batch of one block is synced as usual
+     */
+    private boolean syncBlocks(List<BlockInfo> blockList) {
+        for (List<BlockInfo> batch : SyncService.splitBatch(blockList)) {
+            if (batch.size() == 1) {
+                syncService.syncNewBlock(chainId, batch.get(0));
+            } else {
+                syncService.syncNewBlocks(chainId, batch);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 批量区块的连续性验证
+     * Continuity verification of the fetched blocks
+     */
+    private boolean checkBlockContinuity(BlockHeaderInfo localBest, List<BlockInfo> blockList) {
+        if (blockList.size() < 2) {
+            return false;
+        }
+        BlockHeaderInfo preHeader = localBest;
+        for (BlockInfo blockInfo : blockList) {
+            if (!checkBlockContinuity(preHeader, blockInfo.getHeader())) {
+                return false;
+            }
+            preHeader = blockInfo.getHeader();
+        }
+        return true;
+    }
+
     /**
      * 区块连续性验证
      * Block continuity verification
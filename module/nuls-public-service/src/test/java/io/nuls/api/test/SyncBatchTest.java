@@ -0,0 +1,224 @@
+package io.nuls.api.test;
+
+import io.nuls.api.db.*;
+import io.nuls.api.model.po.*;
+import io.nuls.api.service.RollbackService;
+import io.nuls.api.service.SyncService;
+import io.nuls.core.constant.TxType;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * 批量同步的分批规则与中断后的回滚步骤, 数据库服务使用内存中的替身记录写入
+ * Batch split rules and the rollback steps after an interrupted batch, the database services are in-memory stand-ins
+ * recording the writes
+ */
+public class SyncBatchTest {
+
+    private SyncService syncService;
+
+    private RollbackService rollbackService;
+
+    private SyncInfo syncInfo;
+
+    private List<String> writeList;
+
+    private String failMethod;
+
+    @Before
+    public void before() throws Exception {
+        syncService = new SyncService();
+        rollbackService = new RollbackService();
+        writeList = new ArrayList<>();
+        failMethod = null;
+        injectStandIns(syncService);
+        injectStandIns(rollbackService);
+    }
+
+    private void injectStandIns(Object service) throws IllegalAccessException {
+        for (Field field : service.getClass().getDeclaredFields()) {
+            if (field.getType().isInterface() && field.getType().getPackage().getName().equals("io.nuls.api.db")) {
+                field.setAccessible(true);
+                field.set(service, standIn(field.getType()));
+            }
+        }
+    }
+
+    private static SyncInfo copy(SyncInfo info) {
+        SyncInfo syncInfo = new SyncInfo(info.getChainId(), info.getBestHeight(), info.getStep());
+        syncInfo.setBatchSize(info.getBatchSize());
+        syncInfo.setBatchStep(info.getBatchStep());
+        return syncInfo;
+    }
+
+    private Object standIn(Class<?> clazz) {
+        return Proxy.newProxyInstance(clazz.getClassLoader(), new Class[]{clazz}, (proxy, method, args) -> {
+            String name = method.getName();
+            if (name.equals(failMethod)) {
+                throw new RuntimeException("database down");
+            }
+            if (name.equals("saveNewSyncInfo")) {
+                syncInfo = new SyncInfo((int) args[0], (long) args[1], 0);
+                syncInfo.setBatchSize((int) args[2]);
+                return syncInfo;
+            }
+            if (name.equals("updateStep")) {
+                syncInfo = copy((SyncInfo) args[0]);
+                return null;
+            }
+            if (name.equals("getSyncInfo")) {
+                return syncInfo == null ? null : copy(syncInfo);
+            }
+            if (name.equals("deleteBlockHeader")) {
+                writeList.add(name + ":" + args[1]);
+            } else if (name.startsWith("save") || name.startsWith("rollback")) {
+                writeList.add(name);
+            }
+            return null;
+        });
+    }
+
+    private static BlockInfo block(long height, long roundIndex, int... txTypes) {
+        BlockHeaderInfo header = new BlockHeaderInfo();
+        header.setHeight(height);
+        header.setRoundIndex(roundIndex);
+        BlockHexInfo hexInfo = new BlockHexInfo();
+        hexInfo.setHeight(height);
+        List<TransactionInfo> txList = new ArrayList<>();
+        TransactionInfo coinBase = new TransactionInfo();
+        coinBase.setType(TxType.COIN_BASE);
+        txList.add(coinBase);
+        for (int type : txTypes) {
+            TransactionInfo tx = new TransactionInfo();
+            tx.setType(type);
+            txList.add(tx);
+        }
+        BlockInfo blockInfo = new BlockInfo();
+        blockInfo.setHeader(header);
+        blockInfo.setBlockHexInfo(hexInfo);
+        blockInfo.setTxList(txList);
+        return blockInfo;
+    }
+
+    private static List<Long> heights(List<BlockInfo> batch) {
+        List<Long> list = new ArrayList<>();
+        for (BlockInfo blockInfo : batch) {
+            list.add(blockInfo.getHeader().getHeight());
+        }
+        return list;
+    }
+
+    @Test
+    public void splitBatch() {
+        List<BlockInfo> blockList = new ArrayList<>();
+        blockList.add(block(10, 1));
+        blockList.add(block(11, 1, TxType.TRANSFER, TxType.DEPOSIT));
+        blockList.add(block(12, 2));
+        blockList.add(block(13, 2, TxType.REGISTER_AGENT));
+        blockList.add(block(14, 2, TxType.CALL_CONTRACT));
+        blockList.add(block(15, 2, TxType.CANCEL_DEPOSIT));
+        blockList.add(block(16, 2, TxType.RED_PUNISH));
+        blockList.add(block(17, 2));
+        blockList.add(block(18, 3, TxType.YELLOW_PUNISH));
+
+        List<List<BlockInfo>> batchList = SyncService.splitBatch(blockList);
+        List<List<Long>> result = new ArrayList<>();
+        for (List<BlockInfo> batch : batchList) {
+            result.add(heights(batch));
+        }
+        assertEquals(List.of(List.of(10L, 11L), List.of(12L), List.of(13L), List.of(14L), List.of(15L), List.of(16L),
+                List.of(17L), List.of(18L)), result);
+    }
+
+    @Test
+    public void saveBatchOnce() {
+        List<BlockInfo> blockList = List.of(block(10, 1), block(11, 1), block(12, 1));
+        syncService.save(2, blockList);
+        //每张表只写入一次
+        for (String name : writeList) {
+            assertEquals(name, 1, writeList.stream().filter(name::equals).count());
+        }
+        assertTrue(writeList.contains("saveBlockHeaderList"));
+        assertTrue(writeList.contains("saveLedgerList"));
+        assertEquals(12L, syncInfo.getBestHeight());
+        assertTrue(syncInfo.isFinish());
+        assertEquals(0, syncInfo.getBatchSize());
+        assertEquals(0, syncInfo.getBatchStep());
+    }
+
+    @Test
+    public void rollbackBatchInterruptedAtStep0() throws Exception {
+        rollbackInterruptedBatch("saveBlockHeaderList", 0);
+    }
+
+    @Test
+    public void rollbackBatchInterruptedAtStep20() throws Exception {
+        rollbackInterruptedBatch("saveLedgerList", 20, "rollbackAgentList");
+    }
+
+    @Test
+    public void rollbackBatchInterruptedAtStep50() throws Exception {
+        rollbackInterruptedBatch("saveAccounts", 50,
+                "saveAccountTokens", "rollbackContractInfos", "saveLedgerList", "rollbackAgentList");
+    }
+
+    /**
+     * 批次在指定步骤中断后逐个回滚区块, 每个区块都从中断的步骤开始回滚统计表
+     * Roll back an interrupted batch block by block, every block reverses the statistics tables from the interrupted step
+     */
+    private void rollbackInterruptedBatch(String failAt, int step, String... statList) throws Exception {
+        failMethod = failAt;
+        try {
+            syncService.save(2, List.of(block(10, 1), block(11, 1), block(12, 1)));
+            fail();
+        } catch (RuntimeException e) {
+            assertEquals("database down", e.getMessage());
+        }
+        assertEquals(12L, syncInfo.getBestHeight());
+        assertEquals(step, syncInfo.getStep());
+        assertEquals(3, syncInfo.getBatchSize());
+        assertEquals(step, syncInfo.getBatchStep());
+
+        failMethod = null;
+        Method save = RollbackService.class.getDeclaredMethod("save", int.class, BlockInfo.class);
+        save.setAccessible(true);
+        for (long height = 12; height >= 10; height--) {
+            assertFalse(syncInfo.isFinish());
+            assertEquals(step, syncInfo.getStep());
+            writeList.clear();
+            try {
+                save.invoke(rollbackService, 2, block(height, 1));
+            } catch (InvocationTargetException e) {
+                throw (Exception) e.getCause();
+            }
+            List<String> stats = new ArrayList<>(writeList);
+            stats.retainAll(List.of("saveAccounts", "saveAccountTokens", "rollbackContractInfos", "saveLedgerList", "rollbackAgentList"));
+            assertEquals(List.of(statList), stats);
+            assertTrue(writeList.contains("deleteBlockHeader:" + height));
+            assertEquals(height - 1, syncInfo.getBestHeight());
+        }
+        assertTrue(syncInfo.isFinish());
+        assertEquals(0, syncInfo.getBatchSize());
+        assertEquals(0, syncInfo.getBatchStep());
+    }
+
+    @Test
+    public void singleBlockUnchanged() {
+        syncService.save(2, block(10, 1));
+        assertEquals(10L, syncInfo.getBestHeight());
+        assertTrue(syncInfo.isFinish());
+        assertEquals(0, syncInfo.getBatchSize());
+        syncInfo.rollbackBest();
+        assertEquals(9L, syncInfo.getBestHeight());
+        assertTrue(syncInfo.isFinish());
+    }
+}
@@ -164,6 +164,7 @@ public class ContractTxCallable implements Callable<ContractResult> {
             }
             if (checkResult.isSuccess()) {
                 container.getCommitSet().add(contract);
+                checker.addCommitted(chainId, contractResult, container.getCommitSet());
                 commitContract(contractResult);
             }
             callableResult.getResultList().add(contractResult);
@@ -255,6 +256,7 @@ public class ContractTxCallable implements Callable<ContractResult> {
         boolean result = false;
         if (contractResult.isSuccess()) {
             result = true;
+            checker.addCommitted(chainId, contractResult, container.getCommitSet());
             commitContract(contractResult);
             callableResult.getResultList().add(contractResult);
         } else {
@@ -35,6 +35,16 @@ public interface ContractConstant {
     String INITIAL_STATE_ROOT = "56e81f171bcc55a6ff8345e692c0f86e5b48e01b996cadc001622fb5e363b421";
 
     short MODULE_ID_CONTRACT = 10;
+    /**
+     * 从此协议版本开始, 合约状态以二进制格式写入
+     * Contract state is written in the binary format from this protocol version
+     */
+    short BINARY_STATE_PROTOCOL_VERSION = 2;
+    /**
+     * 从此协议版本开始, 并行执行的合约交易按状态库读写集合检测冲突
+     * Parallel contract transactions are checked for conflicts by repository access sets from this protocol version
+     */
+    short ACCESS_SET_CONFLICT_PROTOCOL_VERSION = 2;
     /**
      * CONTRACT STATUS
      */
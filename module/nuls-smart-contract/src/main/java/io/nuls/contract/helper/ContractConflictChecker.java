@@ -23,10 +23,17 @@
  */
 package io.nuls.contract.helper;
 
+import io.nuls.base.basic.AddressTool;
 import io.nuls.base.data.Transaction;
 import io.nuls.contract.model.bo.ContractResult;
+import io.nuls.contract.util.ContractUtil;
+import io.nuls.contract.vm.program.ProgramAccessSet;
+import io.nuls.contract.vm.program.ProgramExecutor;
+import io.nuls.contract.vm.program.ProgramTransfer;
 
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -34,6 +41,19 @@ import static io.nuls.contract.util.ContractUtil.collectAddress;
 
 
 /**
+ * 并行执行的合约交易冲突检测
+ * <p>
+ * 默认按合约地址检测: 交易涉及的合约地址(调用、内部调用、合约转账)出现在其他合约容器已提交的地址中即为冲突.
+ * 启用读写集合后按状态库的键检测: 与其他容器已提交交易存在读写或写写重叠才算冲突, 多个容器只读同一合约不再冲突.
+ * 冲突的交易仍在批量结束时按交易顺序重新执行.
+ * <p>
+ * Conflict detection for contract transactions executed in parallel.
+ * By default conflicts are detected by contract address: a transaction conflicts when a contract address it touched
+ * (called, inner called, transferred with) was committed by another contract container.
+ * With access sets enabled conflicts are detected by repository key: only read-write or write-write overlaps with
+ * transactions committed by other containers conflict, containers that only read the same contract run in parallel.
+ * Conflicting transactions are still re-executed in transaction order at the end of the batch.
+ *
  * @author: PierreLuo
  * @date: 2019/1/11
  */
@@ -47,6 +67,16 @@ public class ContractConflictChecker {
 
     private List<Set<String>> contractSetList;
 
+    /**
+     * 按读写集合检测冲突
+     */
+    private boolean accessSetEnabled;
+
+    /**
+     * 合约容器(以其提交地址集合标识) -> 已提交交易的读写集合
+     */
+    private final Map<Set<String>, ProgramAccessSet> committedAccessMap = new IdentityHashMap<>();
+
     public void add(Set<String> element) {
         contractSetList.add(element);
     }
@@ -54,6 +84,10 @@ public class ContractConflictChecker {
     public boolean checkConflict(int chainId, Transaction tx, ContractResult contractResult, Set<String> commitSet) {
         lock.lock();
         try {
+            ProgramAccessSet accessSet = accessSet(chainId, contractResult);
+            if (accessSet != null) {
+                return checkAccessConflict(chainId, contractResult, accessSet, commitSet);
+            }
             boolean isConflict = false;
             Set<String> collectAddress = collectAddress(chainId, contractResult);
             for (String address : collectAddress) {
@@ -75,6 +109,81 @@ public class ContractConflictChecker {
 
     }
 
+    /**
+     * 记录不经过冲突检测直接提交的交易(创建、删除合约)
+     * Record a transaction committed without conflict detection (contract creation or deletion)
+     */
+    public void addCommitted(int chainId, ContractResult contractResult, Set<String> commitSet) {
+        lock.lock();
+        try {
+            ProgramAccessSet accessSet = accessSet(chainId, contractResult);
+            if (accessSet != null) {
+                committedAccessMap.computeIfAbsent(commitSet, k -> new ProgramAccessSet()).addAll(accessSet);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean checkAccessConflict(int chainId, ContractResult contractResult, ProgramAccessSet accessSet, Set<String> commitSet) {
+        for (Map.Entry<Set<String>, ProgramAccessSet> entry : committedAccessMap.entrySet()) {
+            // 自己线程执行的合约是排队顺序执行，不会冲突
+            if (entry.getKey() == commitSet) {
+                continue;
+            }
+            if (accessSet.conflictsWith(entry.getValue())) {
+                return true;
+            }
+        }
+        if (contractResult.isSuccess()) {
+            committedAccessMap.computeIfAbsent(commitSet, k -> new ProgramAccessSet()).addAll(accessSet);
+            commitSet.addAll(collectAddress(chainId, contractResult));
+        }
+        return false;
+    }
+
+    /**
+     * 交易跟踪状态库记录的读写集合, 补充不在状态库中的合约余额: 执行过的合约视为读取余额, 合约转账和转入合约的金额视为修改余额
+     * The access set recorded by the tracking repository of the transaction, plus contract balances which are not in
+     * the repository: executed contracts read their balance, contract transfers and value sent to the contract write it
+     */
+    private ProgramAccessSet accessSet(int chainId, ContractResult contractResult) {
+        if (!accessSetEnabled) {
+            return null;
+        }
+        Object txTrack = contractResult.getTxTrack();
+        if (!(txTrack instanceof ProgramExecutor)) {
+            return null;
+        }
+        ProgramAccessSet accessSet = ((ProgramExecutor) txTrack).getAccessSet();
+        if (accessSet == null) {
+            return null;
+        }
+        byte[] contractAddress = contractResult.getContractAddress();
+        accessSet.readBalance(contractAddress);
+        if (contractResult.getValue() > 0) {
+            accessSet.writeBalance(contractAddress);
+        }
+        Set<String> innerCallSet = contractResult.getContractAddressInnerCallSet();
+        if (innerCallSet != null) {
+            for (String address : innerCallSet) {
+                accessSet.readBalance(AddressTool.getAddress(address));
+            }
+        }
+        List<ProgramTransfer> transfers = contractResult.getTransfers();
+        if (transfers != null) {
+            for (ProgramTransfer transfer : transfers) {
+                if (ContractUtil.isLegalContractAddress(chainId, transfer.getFrom())) {
+                    accessSet.writeBalance(transfer.getFrom());
+                }
+                if (ContractUtil.isLegalContractAddress(chainId, transfer.getTo())) {
+                    accessSet.writeBalance(transfer.getTo());
+                }
+            }
+        }
+        return accessSet;
+    }
+
     private boolean containAddress(String address, Set<String> commitSet) {
         for (Set<String> set : contractSetList) {
             // 排除掉自己线程执行的智能合约，因为自己线程执行的合约是排队顺序执行，不会冲突
@@ -95,4 +204,12 @@ public class ContractConflictChecker {
     public void setContractSetList(List<Set<String>> contractSetList) {
         this.contractSetList = contractSetList;
     }
+
+    public boolean isAccessSetEnabled() {
+        return accessSetEnabled;
+    }
+
+    public void setAccessSetEnabled(boolean accessSetEnabled) {
+        this.accessSetEnabled = accessSetEnabled;
+    }
 }
@@ -28,6 +28,8 @@ import io.nuls.base.basic.AddressTool;
 import io.nuls.base.data.BlockHeader;
 import io.nuls.base.data.NulsHash;
 import io.nuls.base.data.Transaction;
+import io.nuls.base.protocol.ProtocolGroupManager;
+import io.nuls.contract.constant.ContractConstant;
 import io.nuls.contract.constant.ContractErrorCode;
 import io.nuls.contract.helper.ContractConflictChecker;
 import io.nuls.contract.helper.ContractHelper;
@@ -109,13 +111,19 @@ public class ContractServiceImpl implements ContractService {
         chain.setBatchInfo(batchInfo);
         // 准备临时余额和当前区块头
         contractHelper.createTempBalanceManagerAndCurrentBlockHeader(chainId, blockHeight, blockTime, AddressTool.getAddress(packingAddress));
+        Short protocolVersion = ProtocolGroupManager.getCurrentVersion(chainId);
+        boolean accessSetEnabled = protocolVersion != null && protocolVersion >= ContractConstant.ACCESS_SET_CONFLICT_PROTOCOL_VERSION;
         // 准备批量执行器
         ProgramExecutor batchExecutor = contractExecutor.createBatchExecute(chainId, RPCUtil.decode(preStateRoot));
+        if (batchExecutor != null) {
+            batchExecutor.setAccessSetEnabled(accessSetEnabled);
+        }
         batchInfo.setBatchExecutor(batchExecutor);
         batchInfo.setPreStateRoot(preStateRoot);
         // 准备冲突检测器
         ContractConflictChecker checker = ContractConflictChecker.newInstance();
         checker.setContractSetList(new CopyOnWriteArrayList<>());
+        checker.setAccessSetEnabled(accessSetEnabled);
         batchInfo.setChecker(checker);
         return getSuccess();
     }
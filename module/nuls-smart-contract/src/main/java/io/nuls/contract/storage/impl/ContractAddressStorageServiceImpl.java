@@ -36,7 +36,9 @@ import io.nuls.core.rockdb.service.RocksDBService;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static io.nuls.contract.constant.ContractDBConstant.DB_NAME_CONTRACT_ADDRESS;
 
@@ -102,19 +104,25 @@ public class ContractAddressStorageServiceImpl implements ContractAddressStorage
 
     @Override
     public Result<List<ContractAddressInfoPo>> getContractInfoList(int chainId, byte[] creater) {
-        List<Entry<byte[], byte[]>> list = RocksDBService.entryList(baseArea + chainId);
-        if (list == null || list.size() == 0) {
-            return Result.getFailed(ContractErrorCode.DATA_NOT_FOUND);
-        }
         List<ContractAddressInfoPo> resultList = new ArrayList<>();
-        ContractAddressInfoPo po;
-        for (Entry<byte[], byte[]> entry : list) {
-            po = ContractDBUtil.getModel(entry.getValue(), ContractAddressInfoPo.class);
-            if (Arrays.equals(creater, po.getSender())) {
-                po.setContractAddress(entry.getKey());
-                resultList.add(po);
+        boolean empty = true;
+        //流式遍历，不把整张表读入内存，也不挤占读缓存
+        try (Stream<Entry<byte[], byte[]>> stream = RocksDBService.stream(baseArea + chainId)) {
+            Iterator<Entry<byte[], byte[]>> iterator = stream.iterator();
+            ContractAddressInfoPo po;
+            while (iterator.hasNext()) {
+                empty = false;
+                Entry<byte[], byte[]> entry = iterator.next();
+                po = ContractDBUtil.getModel(entry.getValue(), ContractAddressInfoPo.class);
+                if (Arrays.equals(creater, po.getSender())) {
+                    po.setContractAddress(entry.getKey());
+                    resultList.add(po);
+                }
             }
         }
+        if (empty) {
+            return Result.getFailed(ContractErrorCode.DATA_NOT_FOUND);
+        }
         Result<List<ContractAddressInfoPo>> result = ContractUtil.getSuccess();
         result.setData(resultList);
         return result;
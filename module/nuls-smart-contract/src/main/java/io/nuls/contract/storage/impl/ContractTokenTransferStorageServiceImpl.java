@@ -34,6 +34,7 @@ import io.nuls.core.rockdb.model.Entry;
 import io.nuls.core.rockdb.service.RocksDBService;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import static io.nuls.contract.constant.ContractDBConstant.DB_NAME_CONTRACT_NRC20_TOKEN_TRANSFER;
@@ -63,66 +64,30 @@ public class ContractTokenTransferStorageServiceImpl implements ContractTokenTra
 
     @Override
     public List<ContractTokenTransferInfoPo> getTokenTransferInfoListByAddress(int chainId, byte[] address) {
-        List<ContractTokenTransferInfoPo> infoPoList = new ArrayList<>();
-        List<Entry<byte[], byte[]>> entryList = RocksDBService.entryList(baseArea + chainId);
-        if (entryList == null || entryList.isEmpty()) {
-            return infoPoList;
-        }
-
-        ContractTokenTransferInfoPo tokenTransferInfoPo;
-        for (Entry<byte[], byte[]> entry : entryList) {
-            if (isAddressEquals(entry.getKey(), address)) {
-                tokenTransferInfoPo = getModel(entry.getValue(), ContractTokenTransferInfoPo.class);
-                infoPoList.add(tokenTransferInfoPo);
-            }
-        }
-        return infoPoList;
-    }
-
-    private boolean isAddressEquals(byte[] key, byte[] address) {
-        int length = Address.ADDRESS_LENGTH;
-        for (int i = 0; i < length; i++) {
-            if (key[i] != address[i]) {
-                return false;
-            }
-        }
-        return true;
+        //key以地址开头，按前缀定位，不再遍历整张表
+        byte[] prefix = Arrays.copyOf(address, Address.ADDRESS_LENGTH);
+        return toInfoPoList(RocksDBService.prefixScan(baseArea + chainId, prefix));
     }
 
     @Override
     public List<ContractTokenTransferInfoPo> getTokenTransferInfoListByAddress(int chainId, byte[] address, byte[] txHash) {
+        byte[] prefix = new byte[Address.ADDRESS_LENGTH + txHash.length];
+        System.arraycopy(address, 0, prefix, 0, Address.ADDRESS_LENGTH);
+        System.arraycopy(txHash, 0, prefix, Address.ADDRESS_LENGTH, txHash.length);
+        return toInfoPoList(RocksDBService.prefixScan(baseArea + chainId, prefix));
+    }
+
+    private List<ContractTokenTransferInfoPo> toInfoPoList(List<Entry<byte[], byte[]>> entryList) {
         List<ContractTokenTransferInfoPo> infoPoList = new ArrayList<>();
-        List<Entry<byte[], byte[]>> entryList = RocksDBService.entryList(baseArea + chainId);
         if (entryList == null || entryList.isEmpty()) {
             return infoPoList;
         }
-
-        ContractTokenTransferInfoPo tokenTransferInfoPo;
         for (Entry<byte[], byte[]> entry : entryList) {
-            if (isAddressAndHashEquals(entry.getKey(), address, txHash)) {
-                tokenTransferInfoPo = getModel(entry.getValue(), ContractTokenTransferInfoPo.class);
-                infoPoList.add(tokenTransferInfoPo);
-            }
+            infoPoList.add(getModel(entry.getValue(), ContractTokenTransferInfoPo.class));
         }
         return infoPoList;
     }
 
-    private boolean isAddressAndHashEquals(byte[] key, byte[] address, byte[] txHash) {
-        int length = Address.ADDRESS_LENGTH + txHash.length;
-        for (int i = 0, k = 0; i < length; i++) {
-            if (i < Address.ADDRESS_LENGTH) {
-                if (key[i] != address[i]) {
-                    return false;
-                }
-            } else {
-                if (key[i] != txHash[k++]) {
-                    return false;
-                }
-            }
-        }
-        return true;
-    }
-
     @Override
     public Result deleteTokenTransferInfo(int chainId, byte[] infoKey) throws Exception {
         boolean result = RocksDBService.delete(baseArea + chainId, infoKey);
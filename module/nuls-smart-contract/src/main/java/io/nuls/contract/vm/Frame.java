@@ -29,6 +29,8 @@ import io.nuls.contract.vm.code.VariableType;
 import io.nuls.contract.vm.instructions.references.Athrow;
 import org.objectweb.asm.tree.*;
 
+import java.util.List;
+
 public class Frame {
 
     public final VM vm;
@@ -49,7 +51,12 @@ public class Frame {
 
     public final Result result;
 
-    private AbstractInsnNode currentInsnNode;
+    private final InstructionStream instructions;
+
+    /**
+     * 当前指令在预解码指令中的下标
+     */
+    private int index;
 
     private OpCode currentOpCode;
 
@@ -65,32 +72,55 @@ public class Frame {
         this.operandStack = new OperandStack(this.maxStack);
         this.localVariables = new LocalVariables(this.maxLocals, args);
         this.result = new Result(this.methodCode.returnVariableType);
-        this.currentInsnNode = this.methodCode.instructions.getFirst();
+        this.instructions = this.methodCode.getInstructionStream();
+        this.index = 0;
     }
 
     public void step() {
-        if (this.currentInsnNode != null) {
-            this.currentInsnNode = this.currentInsnNode.getNext();
+        if (this.index < this.instructions.nodes.length) {
+            this.index = this.instructions.next[this.index];
         }
     }
 
     public void jump() {
-        this.currentInsnNode = jumpInsnNode().label;
+        this.index = this.instructions.jumps[this.index];
     }
 
     public void jump(LabelNode label) {
-        this.currentInsnNode = label;
+        this.index = this.instructions.indexOf(label);
     }
 
     public OpCode currentOpCode() {
-        if (this.currentInsnNode != null) {
-            this.currentOpCode = OpCode.valueOf(this.currentInsnNode.getOpcode());
+        if (this.index < this.instructions.nodes.length) {
+            this.currentOpCode = this.instructions.opCodes[this.index];
         } else {
             this.currentOpCode = null;
         }
         return this.currentOpCode;
     }
 
+    /**
+     * 预先计算的当前指令gas, 数组创建指令返回{@link InstructionStream#DYNAMIC_GAS}
+     */
+    int gasCost() {
+        return this.instructions.gasCosts[this.index];
+    }
+
+    /**
+     * invokevirtual/invokeinterface的参数类型
+     */
+    @SuppressWarnings("unchecked")
+    public List<VariableType> argsVariableType() {
+        return (List<VariableType>) this.instructions.operands[this.index];
+    }
+
+    /**
+     * invokestatic/invokespecial调用的方法全名
+     */
+    public String methodFullName() {
+        return (String) this.instructions.operands[this.index];
+    }
+
     public int getLine(LabelNode labelNode) {
         AbstractInsnNode abstractInsnNode = labelNode;
         while (!(abstractInsnNode instanceof LineNumberNode)) {
@@ -100,7 +130,7 @@ public class Frame {
     }
 
     public int getLine() {
-        AbstractInsnNode abstractInsnNode = this.currentInsnNode;
+        AbstractInsnNode abstractInsnNode = getCurrentInsnNode();
         while (!(abstractInsnNode instanceof LineNumberNode)) {
             abstractInsnNode = abstractInsnNode.getPrevious();
         }
@@ -179,71 +209,74 @@ public class Frame {
     }
 
     public InsnNode insnNode() {
-        return (InsnNode) this.currentInsnNode;
+        return (InsnNode) this.instructions.nodes[this.index];
     }
 
     public IntInsnNode intInsnNode() {
-        return (IntInsnNode) this.currentInsnNode;
+        return (IntInsnNode) this.instructions.nodes[this.index];
     }
 
     public VarInsnNode varInsnNode() {
-        return (VarInsnNode) this.currentInsnNode;
+        return (VarInsnNode) this.instructions.nodes[this.index];
     }
 
     public TypeInsnNode typeInsnNode() {
-        return (TypeInsnNode) this.currentInsnNode;
+        return (TypeInsnNode) this.instructions.nodes[this.index];
     }
 
     public FieldInsnNode fieldInsnNode() {
-        return (FieldInsnNode) this.currentInsnNode;
+        return (FieldInsnNode) this.instructions.nodes[this.index];
     }
 
     public MethodInsnNode methodInsnNode() {
-        return (MethodInsnNode) this.currentInsnNode;
+        return (MethodInsnNode) this.instructions.nodes[this.index];
     }
 
     public InvokeDynamicInsnNode invokeDynamicInsnNode() {
-        return (InvokeDynamicInsnNode) this.currentInsnNode;
+        return (InvokeDynamicInsnNode) this.instructions.nodes[this.index];
     }
 
     public JumpInsnNode jumpInsnNode() {
-        return (JumpInsnNode) this.currentInsnNode;
+        return (JumpInsnNode) this.instructions.nodes[this.index];
     }
 
     public LabelNode labelNode() {
-        return (LabelNode) this.currentInsnNode;
+        return (LabelNode) this.instructions.nodes[this.index];
     }
 
     public LdcInsnNode ldcInsnNode() {
-        return (LdcInsnNode) this.currentInsnNode;
+        return (LdcInsnNode) this.instructions.nodes[this.index];
     }
 
     public IincInsnNode iincInsnNode() {
-        return (IincInsnNode) this.currentInsnNode;
+        return (IincInsnNode) this.instructions.nodes[this.index];
     }
 
     public TableSwitchInsnNode tableSwitchInsnNode() {
-        return (TableSwitchInsnNode) this.currentInsnNode;
+        return (TableSwitchInsnNode) this.instructions.nodes[this.index];
     }
 
     public LookupSwitchInsnNode lookupSwitchInsnNode() {
-        return (LookupSwitchInsnNode) this.currentInsnNode;
+        return (LookupSwitchInsnNode) this.instructions.nodes[this.index];
     }
 
     public MultiANewArrayInsnNode multiANewArrayInsnNode() {
-        return (MultiANewArrayInsnNode) this.currentInsnNode;
+        return (MultiANewArrayInsnNode) this.instructions.nodes[this.index];
     }
 
     public FrameNode frameNode() {
-        return (FrameNode) this.currentInsnNode;
+        return (FrameNode) this.instructions.nodes[this.index];
     }
 
     public LineNumberNode lineNumberNode() {
-        return (LineNumberNode) this.currentInsnNode;
+        return (LineNumberNode) this.instructions.nodes[this.index];
     }
 
     public AbstractInsnNode getCurrentInsnNode() {
-        return currentInsnNode;
+        if (this.index < this.instructions.nodes.length) {
+            return this.instructions.nodes[this.index];
+        }
+        return null;
     }
 
     public void setAddGas(boolean addGas) {
@@ -34,6 +34,7 @@ import io.nuls.contract.vm.natives.io.nuls.contract.sdk.NativeAddress;
 import io.nuls.contract.vm.util.CloneUtils;
 import io.nuls.contract.vm.util.Constants;
 import io.nuls.contract.vm.util.JsonUtils;
+import io.nuls.contract.vm.util.StateCodec;
 import org.apache.commons.lang3.StringUtils;
 import org.ethereum.core.Repository;
 import org.ethereum.vm.DataWord;
@@ -66,6 +67,12 @@ public class Heap {
 
     private BigInteger objectRefCount;
 
+    /**
+     * 以二进制格式写入合约状态, 读取时两种格式都支持
+     * Write contract state in the binary format, both formats are always readable
+     */
+    private boolean binaryState;
+
     private static final DataWord OBJECT_REF_COUNT = new DataWord("objectRefCount");
 
     public Heap(BigInteger objectRefCount) {
@@ -76,6 +83,10 @@ public class Heap {
         this.vm = vm;
     }
 
+    public void setBinaryState(boolean binaryState) {
+        this.binaryState = binaryState;
+    }
+
     public void loadClassCodes(Map<String, ClassCode> classCodes) {
         if (classCodes != null) {
             int i = 0;
@@ -172,6 +183,9 @@ public class Heap {
             return null;
         }
         byte[] value = dataWord.getNoLeadZeroesData();
+        if (StateCodec.isEncoded(value)) {
+            return (Map<String, Object>) StateCodec.decode(value, classNames);
+        }
         Map<String, Object> map = (Map<String, Object>) JsonUtils.decode(new String(value), classNames);
         return map;
     }
@@ -283,6 +297,9 @@ public class Heap {
             return null;
         }
         byte[] value = dataWord.getNoLeadZeroesData();
+        if (StateCodec.isEncoded(value)) {
+            return StateCodec.decode(value, classNames);
+        }
         Class clazz = arrayRef.getVariableType().getPrimitiveTypeClass();
         if (!arrayRef.getVariableType().getComponentType().isPrimitive()) {
             clazz = ObjectRef.class;
@@ -616,8 +633,13 @@ public class Heap {
                 continue;
             }
             String key = JsonUtils.encode(objectRef, classNames);
-            String value = JsonUtils.encode(fields, classNames);
-            contractState.put(new DataWord(key), new DataWord(value));
+            DataWord value;
+            if (binaryState) {
+                value = DataWord.of(StateCodec.encode(fields, classNames));
+            } else {
+                value = new DataWord(JsonUtils.encode(fields, classNames));
+            }
+            contractState.put(new DataWord(key), value);
             if (objectRef.isArray()) {
                 for (String k : fields.keySet()) {
                     Integer i = Integer.valueOf(k);
@@ -626,7 +648,9 @@ public class Heap {
                     }
                     String arrayKey = objectRef.getRef() + "_" + k;
                     Object object = getArrayInit(objectRef, i);
-                    if (object != null) {
+                    if (object != null && binaryState) {
+                        contractState.put(new DataWord(arrayKey), DataWord.of(StateCodec.encode(object, classNames)));
+                    } else if (object != null) {
                         Class clazz = objectRef.getVariableType().getPrimitiveTypeClass();
                         if (!objectRef.getVariableType().getComponentType().isPrimitive()) {
                             clazz = ObjectRef.class;
@@ -0,0 +1,127 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2019 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.contract.vm;
+
+import io.nuls.contract.vm.code.VariableType;
+import org.objectweb.asm.tree.*;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * 预解码的方法指令
+ * <p>
+ * 每个方法只翻译一次, 随MethodCode缓存在ClassCodeLoader中. 指令节点按顺序展开为数组,
+ * 预先解析操作码、跳转目标(标签的下标)、与操作数栈无关的gas以及调用指令的参数类型/方法全名,
+ * 执行时按下标取值, 不再逐条遍历链表、查找操作码和重新计算gas.
+ * 标签、行号、栈帧等伪指令保留在数组中(异常处理和行号查找仍需要), 但顺序执行时直接跳过.
+ * <p>
+ * Instructions of a method decoded once and cached with the MethodCode in ClassCodeLoader. The linked
+ * instruction nodes are flattened into an array with the opcode, jump target (index of the label), the gas
+ * that does not depend on the operand stack and the argument types / full method name of invocations resolved
+ * up front, so the interpreter indexes arrays instead of walking the list, looking up opcodes and recomputing
+ * gas. Labels, line numbers and frames stay in the array for exception handling and line lookups, but
+ * sequential execution skips them.
+ */
+public class InstructionStream {
+
+    /**
+     * gas取决于操作数栈(数组长度), 执行时计算
+     */
+    static final int DYNAMIC_GAS = -1;
+
+    final AbstractInsnNode[] nodes;
+
+    final OpCode[] opCodes;
+
+    /**
+     * 下一条需要执行的指令, 没有时为数组长度
+     */
+    final int[] next;
+
+    /**
+     * 跳转指令目标标签的下标
+     */
+    final int[] jumps;
+
+    final int[] gasCosts;
+
+    /**
+     * invokevirtual/invokeinterface: 参数类型; invokestatic/invokespecial: 方法全名
+     */
+    final Object[] operands;
+
+    private final Map<LabelNode, Integer> labels;
+
+    public InstructionStream(InsnList instructions) {
+        int size = instructions.size();
+        this.nodes = instructions.toArray();
+        this.opCodes = new OpCode[size];
+        this.next = new int[size];
+        this.jumps = new int[size];
+        this.gasCosts = new int[size];
+        this.operands = new Object[size];
+        this.labels = new IdentityHashMap<>();
+        for (int i = 0; i < size; i++) {
+            AbstractInsnNode node = this.nodes[i];
+            if (node instanceof LabelNode) {
+                this.labels.put((LabelNode) node, i);
+            }
+        }
+        int nextIndex = size;
+        for (int i = size - 1; i >= 0; i--) {
+            AbstractInsnNode node = this.nodes[i];
+            this.next[i] = nextIndex;
+            if (node.getOpcode() >= 0) {
+                nextIndex = i;
+            }
+            OpCode opCode = OpCode.valueOf(node.getOpcode());
+            this.opCodes[i] = opCode;
+            this.jumps[i] = node instanceof JumpInsnNode ? indexOf(((JumpInsnNode) node).label) : -1;
+            this.gasCosts[i] = opCode != null ? VM.gasCost(opCode, node) : 0;
+            if (node instanceof MethodInsnNode) {
+                MethodInsnNode methodInsnNode = (MethodInsnNode) node;
+                if (opCode == OpCode.INVOKEVIRTUAL || opCode == OpCode.INVOKEINTERFACE) {
+                    this.operands[i] = VariableType.parseArgs(methodInsnNode.desc);
+                } else {
+                    this.operands[i] = methodInsnNode.owner + "." + methodInsnNode.name + methodInsnNode.desc;
+                }
+            }
+        }
+    }
+
+    public int indexOf(LabelNode label) {
+        Integer index = this.labels.get(label);
+        if (index == null) {
+            throw new IllegalArgumentException("label not in method");
+        }
+        return index;
+    }
+
+    public int size() {
+        return this.nodes.length;
+    }
+
+}
@@ -24,14 +24,28 @@
  */
 package io.nuls.contract.vm;
 
+/**
+ * 局部变量表
+ * <p>
+ * 与操作数栈相同的槽位布局: 基本类型存放在long数组中, 参数和引用存放在Object数组中, 读写基本类型不再装箱.
+ * <p>
+ * Same slot layout as the operand stack: primitives live in a long[], arguments and references in an
+ * Object[], so primitive loads and stores are not boxed.
+ */
 public class LocalVariables {
 
     private int maxLocals;
 
-    private Object[] localVariables;
+    private final byte[] types;
+
+    private final long[] primitives;
+
+    private final Object[] localVariables;
 
     public LocalVariables(int maxLocals, Object[] args) {
         this.maxLocals = maxLocals;
+        this.types = new byte[maxLocals];
+        this.primitives = new long[maxLocals];
         this.localVariables = new Object[maxLocals];
         if (args != null) {
             System.arraycopy(args, 0, this.localVariables, 0, args.length);
@@ -39,6 +53,9 @@ public class LocalVariables {
     }
 
     public int getInt(int index) {
+        if (this.types[index] == OperandStack.INT) {
+            return (int) this.primitives[index];
+        }
         Object object = this.localVariables[index];
         if (object instanceof Boolean) {
             return (boolean) object ? 1 : 0;
@@ -49,44 +66,78 @@ public class LocalVariables {
         } else if (object instanceof Short) {
             return (short) object;
         } else {
-            return (int) object;
+            return (int) box(index);
         }
     }
 
     public void setInt(int index, int value) {
-        this.localVariables[index] = value;
+        setPrimitive(index, OperandStack.INT, value);
     }
 
     public long getLong(int index) {
-        return (long) this.localVariables[index];
+        if (this.types[index] == OperandStack.LONG) {
+            return this.primitives[index];
+        }
+        return (long) box(index);
     }
 
     public void setLong(int index, long value) {
-        this.localVariables[index] = value;
+        setPrimitive(index, OperandStack.LONG, value);
     }
 
     public float getFloat(int index) {
-        return (float) this.localVariables[index];
+        if (this.types[index] == OperandStack.FLOAT) {
+            return Float.intBitsToFloat((int) this.primitives[index]);
+        }
+        return (float) box(index);
     }
 
     public void setFloat(int index, float value) {
-        this.localVariables[index] = value;
+        setPrimitive(index, OperandStack.FLOAT, Float.floatToRawIntBits(value));
     }
 
     public double getDouble(int index) {
-        return (double) this.localVariables[index];
+        if (this.types[index] == OperandStack.DOUBLE) {
+            return Double.longBitsToDouble(this.primitives[index]);
+        }
+        return (double) box(index);
     }
 
     public void setDouble(int index, double value) {
-        this.localVariables[index] = value;
+        setPrimitive(index, OperandStack.DOUBLE, Double.doubleToRawLongBits(value));
     }
 
     public ObjectRef getRef(int index) {
-        return (ObjectRef) this.localVariables[index];
+        return (ObjectRef) box(index);
     }
 
     public void setRef(int index, ObjectRef value) {
+        this.types[index] = OperandStack.OBJECT;
         this.localVariables[index] = value;
     }
 
+    private void setPrimitive(int index, byte type, long value) {
+        this.types[index] = type;
+        this.primitives[index] = value;
+        this.localVariables[index] = null;
+    }
+
+    /**
+     * 槽位的值, 基本类型按原类型装箱
+     */
+    private Object box(int index) {
+        switch (this.types[index]) {
+            case OperandStack.INT:
+                return (int) this.primitives[index];
+            case OperandStack.LONG:
+                return this.primitives[index];
+            case OperandStack.FLOAT:
+                return Float.intBitsToFloat((int) this.primitives[index]);
+            case OperandStack.DOUBLE:
+                return Double.longBitsToDouble(this.primitives[index]);
+            default:
+                return this.localVariables[index];
+        }
+    }
+
 }
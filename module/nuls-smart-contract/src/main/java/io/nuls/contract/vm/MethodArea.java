@@ -65,6 +65,13 @@ public class MethodArea {
         } else {
             fullName = className + "." + methodName;
         }
+        return loadMethod(fullName, className, methodName, methodDesc);
+    }
+
+    /**
+     * @param fullName 预先拼接的方法全名 className.methodName+methodDesc
+     */
+    public MethodCode loadMethod(String fullName, String className, String methodName, String methodDesc) {
         MethodCode methodCode = INIT_METHOD_CODES.get(fullName);
         if (methodCode != null) {
             return methodCode;
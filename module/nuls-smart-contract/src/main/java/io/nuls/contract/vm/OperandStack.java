@@ -27,20 +27,75 @@ package io.nuls.contract.vm;
 import io.nuls.contract.vm.code.Descriptors;
 import io.nuls.contract.vm.code.VariableType;
 
-import java.util.Stack;
+import java.util.Arrays;
+import java.util.EmptyStackException;
 
-public class OperandStack extends Stack {
+/**
+ * 操作数栈
+ * <p>
+ * 每个槽位记录类型, 基本类型存放在long数组中, 引用及其他对象存放在Object数组中, 避免装箱.
+ * 只在执行该栈帧的线程中使用, 不加锁. 按类型弹出时与原先的装箱实现语义一致(包括类型不匹配时的ClassCastException),
+ * 不带类型的pop返回与原先相同的装箱对象.
+ * <p>
+ * Every slot records its kind: primitives live in a long[] and references/other objects in an Object[], so
+ * nothing is boxed. Only the thread running the frame touches it, so there is no locking. Typed pops behave
+ * like the former boxed implementation (including ClassCastException on a type mismatch) and the untyped pop
+ * returns the same boxed values as before.
+ */
+public class OperandStack {
+
+    static final byte OBJECT = 0;
+    static final byte INT = 1;
+    static final byte LONG = 2;
+    static final byte FLOAT = 3;
+    static final byte DOUBLE = 4;
 
     private final int maxStack;
 
+    private byte[] types;
+
+    private long[] primitives;
+
+    private Object[] objects;
+
+    private int size;
+
     public OperandStack(int maxStack) {
-        super();
         this.maxStack = maxStack;
+        int capacity = Math.max(maxStack, 2);
+        this.types = new byte[capacity];
+        this.primitives = new long[capacity];
+        this.objects = new Object[capacity];
+    }
+
+    private int next() {
+        if (size == types.length) {
+            int capacity = types.length * 2;
+            types = Arrays.copyOf(types, capacity);
+            primitives = Arrays.copyOf(primitives, capacity);
+            objects = Arrays.copyOf(objects, capacity);
+        }
+        return size++;
+    }
+
+    private int last() {
+        if (size == 0) {
+            throw new EmptyStackException();
+        }
+        return --size;
+    }
+
+    private void pushPrimitive(byte type, long value) {
+        int i = next();
+        types[i] = type;
+        primitives[i] = value;
     }
 
-    @Override
     public Object push(Object value) {
-        return super.push(value);
+        int i = next();
+        types[i] = OBJECT;
+        objects[i] = value;
+        return value;
     }
 
     public Object push(Object value, VariableType variableType) {
@@ -80,49 +135,94 @@ public class OperandStack extends Stack {
         return value;
     }
 
-    @Override
-    public synchronized Object pop() {
-        return super.pop();
+    /**
+     * 弹出栈顶并装箱, 用于不关心类型的指令(dup、swap、pop等)
+     */
+    public Object pop() {
+        int i = last();
+        switch (types[i]) {
+            case INT:
+                return (int) primitives[i];
+            case LONG:
+                return primitives[i];
+            case FLOAT:
+                return Float.intBitsToFloat((int) primitives[i]);
+            case DOUBLE:
+                return Double.longBitsToDouble(primitives[i]);
+            default:
+                Object value = objects[i];
+                objects[i] = null;
+                return value;
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(objects, 0, size, null);
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
     }
 
     public int pushInt(int value) {
-        push(value);
+        pushPrimitive(INT, value);
         return value;
     }
 
     public int popInt() {
-        return (int) pop();
+        int i = last();
+        if (types[i] == INT) {
+            return (int) primitives[i];
+        }
+        return (int) popObject(i);
     }
 
     public long pushLong(long value) {
-        push(value);
+        pushPrimitive(LONG, value);
         push(null);
         return value;
     }
 
     public long popLong() {
         pop();
-        return (long) pop();
+        int i = last();
+        if (types[i] == LONG) {
+            return primitives[i];
+        }
+        return (long) popObject(i);
     }
 
     public float pushFloat(float value) {
-        push(value);
+        pushPrimitive(FLOAT, Float.floatToRawIntBits(value));
         return value;
     }
 
     public float popFloat() {
-        return (float) pop();
+        int i = last();
+        if (types[i] == FLOAT) {
+            return Float.intBitsToFloat((int) primitives[i]);
+        }
+        return (float) popObject(i);
     }
 
     public double pushDouble(double value) {
-        push(value);
+        pushPrimitive(DOUBLE, Double.doubleToRawLongBits(value));
         push(null);
         return value;
     }
 
     public double popDouble() {
         pop();
-        return (double) pop();
+        int i = last();
+        if (types[i] == DOUBLE) {
+            return Double.longBitsToDouble(primitives[i]);
+        }
+        return (double) popObject(i);
     }
 
     public int pushBoolean(boolean value) {
@@ -130,8 +230,12 @@ public class OperandStack extends Stack {
     }
 
     public boolean popBoolean() {
-        Object pop = pop();
-        if(pop instanceof Integer) {
+        int i = last();
+        if (types[i] == INT) {
+            return primitives[i] == 1;
+        }
+        Object pop = popObject(i);
+        if (pop instanceof Integer) {
             return (int) pop == 1 ? true : false;
         } else {
             return (boolean) pop;
@@ -169,7 +273,20 @@ public class OperandStack extends Stack {
     }
 
     public ObjectRef popRef() {
-        return (ObjectRef) pop();
+        return (ObjectRef) popObject(last());
+    }
+
+    /**
+     * 取出已弹出槽位中的值, 基本类型槽位按原类型装箱
+     */
+    private Object popObject(int i) {
+        if (types[i] == OBJECT) {
+            Object value = objects[i];
+            objects[i] = null;
+            return value;
+        }
+        size++;
+        return pop();
     }
 
 }
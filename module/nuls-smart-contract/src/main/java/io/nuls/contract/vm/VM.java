@@ -57,6 +57,8 @@ import io.nuls.contract.vm.program.impl.ProgramInvoke;
 import io.nuls.core.crypto.HexUtil;
 import org.apache.commons.lang3.StringUtils;
 import org.ethereum.core.Repository;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.LdcInsnNode;
 import org.objectweb.asm.tree.LookupSwitchInsnNode;
 import org.objectweb.asm.tree.MultiANewArrayInsnNode;
 import org.objectweb.asm.tree.TableSwitchInsnNode;
@@ -871,6 +873,45 @@ public class VM {
     }
 
     public int gasCost(Frame frame, OpCode opCode) {
+        int gasCost = frame.gasCost();
+        if (gasCost != InstructionStream.DYNAMIC_GAS) {
+            return gasCost;
+        }
+        gasCost = 1;
+        switch (opCode) {
+            case NEWARRAY:
+            case ANEWARRAY:
+                int count = frame.operandStack.popInt();
+                gasCost = Math.max(count, 1) * GasCost.NEWARRAY;
+                frame.operandStack.pushInt(count);
+                break;
+            case MULTIANEWARRAY:
+                MultiANewArrayInsnNode multiANewArrayInsnNode = frame.multiANewArrayInsnNode();
+                int size = 1;
+                int[] dimensions = new int[multiANewArrayInsnNode.dims];
+                for (int i = multiANewArrayInsnNode.dims - 1; i >= 0; i--) {
+                    int length = frame.operandStack.popInt();
+                    if (length > 0) {
+                        size *= length;
+                    }
+                    dimensions[i] = length;
+                }
+                for (int dimension : dimensions) {
+                    frame.operandStack.pushInt(dimension);
+                }
+                gasCost = size * GasCost.MULTIANEWARRAY;
+                break;
+            default:
+                break;
+        }
+        return gasCost;
+    }
+
+    /**
+     * 与操作数栈无关的指令gas, 在预解码指令时计算一次
+     * 数组创建指令的gas取决于栈上的长度, 返回{@link InstructionStream#DYNAMIC_GAS}
+     */
+    static int gasCost(OpCode opCode, AbstractInsnNode insnNode) {
         int gasCost = 1;
         switch (opCode) {
             case NOP:
@@ -895,7 +936,7 @@ public class VM {
                 gasCost = GasCost.CONSTANT;
                 break;
             case LDC:
-                Object value = frame.ldcInsnNode().cst;
+                Object value = ((LdcInsnNode) insnNode).cst;
                 if (value instanceof Number) {
                     gasCost = GasCost.LDC;
                 } else {
@@ -1030,11 +1071,11 @@ public class VM {
                 gasCost = GasCost.CONTROL;
                 break;
             case TABLESWITCH:
-                TableSwitchInsnNode table = frame.tableSwitchInsnNode();
+                TableSwitchInsnNode table = (TableSwitchInsnNode) insnNode;
                 gasCost = Math.max(table.max - table.min, 1) * GasCost.TABLESWITCH;
                 break;
             case LOOKUPSWITCH:
-                LookupSwitchInsnNode lookup = frame.lookupSwitchInsnNode();
+                LookupSwitchInsnNode lookup = (LookupSwitchInsnNode) insnNode;
                 gasCost = Math.max(lookup.keys.size(), 1) * GasCost.LOOKUPSWITCH;
                 break;
             case IRETURN:
@@ -1059,9 +1100,7 @@ public class VM {
                 break;
             case NEWARRAY:
             case ANEWARRAY:
-                int count = frame.operandStack.popInt();
-                gasCost = Math.max(count, 1) * GasCost.NEWARRAY;
-                frame.operandStack.pushInt(count);
+                gasCost = InstructionStream.DYNAMIC_GAS;
                 break;
             case ARRAYLENGTH:
             case ATHROW:
@@ -1072,20 +1111,7 @@ public class VM {
                 gasCost = GasCost.REFERENCE;
                 break;
             case MULTIANEWARRAY:
-                MultiANewArrayInsnNode multiANewArrayInsnNode = frame.multiANewArrayInsnNode();
-                int size = 1;
-                int[] dimensions = new int[multiANewArrayInsnNode.dims];
-                for (int i = multiANewArrayInsnNode.dims - 1; i >= 0; i--) {
-                    int length = frame.operandStack.popInt();
-                    if (length > 0) {
-                        size *= length;
-                    }
-                    dimensions[i] = length;
-                }
-                for (int dimension : dimensions) {
-                    frame.operandStack.pushInt(dimension);
-                }
-                gasCost = size * GasCost.MULTIANEWARRAY;
+                gasCost = InstructionStream.DYNAMIC_GAS;
                 break;
             case IFNULL:
             case IFNONNULL:
@@ -24,12 +24,18 @@
  */
 package io.nuls.contract.vm;
 
+import java.util.NoSuchElementException;
 import java.util.Stack;
 
 public class VMStack extends Stack<Frame> {
 
     private final int maxSize;
 
+    /**
+     * 栈顶栈帧, 解释器每条指令后都要比较, 避免Vector的同步方法
+     */
+    private Frame last;
+
     public VMStack(int maxSize) {
         this.maxSize = maxSize;
     }
@@ -39,12 +45,25 @@ public class VMStack extends Stack<Frame> {
         if (size() > maxSize) {
             frame.throwStackOverflowError();
         }
-        return super.push(frame);
+        super.push(frame);
+        this.last = frame;
+        return frame;
     }
 
     @Override
     public synchronized Frame pop() {
-        return super.pop();
+        Frame frame = super.pop();
+        this.last = elementCount == 0 ? null : (Frame) elementData[elementCount - 1];
+        return frame;
+    }
+
+    @Override
+    public Frame lastElement() {
+        Frame frame = this.last;
+        if (frame == null) {
+            throw new NoSuchElementException();
+        }
+        return frame;
     }
 
 }
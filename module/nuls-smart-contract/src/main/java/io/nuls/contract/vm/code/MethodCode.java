@@ -25,6 +25,7 @@
 package io.nuls.contract.vm.code;
 
 import com.google.common.base.Joiner;
+import io.nuls.contract.vm.InstructionStream;
 import io.nuls.contract.vm.program.ProgramMethodArg;
 import io.nuls.contract.vm.program.impl.ProgramDescriptors;
 import io.nuls.contract.vm.util.Constants;
@@ -216,6 +217,11 @@ public class MethodCode {
 
     public final String normalDesc;
 
+    /**
+     * 首次执行时翻译, 之后随ClassCode一起缓存; 并发首次执行时可能重复翻译, 结果相同
+     */
+    private volatile InstructionStream instructionStream;
+
     public MethodCode(ClassCode classCode, MethodNode methodNode) {
         access = methodNode.access;
         name = methodNode.name;
@@ -313,6 +319,15 @@ public class MethodCode {
 //        }
     }
 
+    public InstructionStream getInstructionStream() {
+        InstructionStream stream = this.instructionStream;
+        if (stream == null) {
+            stream = new InstructionStream(instructions);
+            this.instructionStream = stream;
+        }
+        return stream;
+    }
+
     public boolean hasViewAnnotation() {
         return hasAnnotation(VIEW_ANNOTATION_DESC);
     }
@@ -41,7 +41,7 @@ public class Invokespecial {
         String methodName = methodInsnNode.name;
         String methodDesc = methodInsnNode.desc;
 
-        MethodCode methodCode = frame.methodArea.loadMethod(className, methodName, methodDesc);
+        MethodCode methodCode = frame.methodArea.loadMethod(frame.methodFullName(), className, methodName, methodDesc);
 
         MethodArgs methodArgs = new MethodArgs(methodCode.argsVariableType, frame.operandStack, false);
         ObjectRef objectRef = methodArgs.objectRef;
@@ -45,7 +45,7 @@ public class Invokevirtual {
         String methodName = methodInsnNode.name;
         String methodDesc = methodInsnNode.desc;
 
-        List<VariableType> variableTypes = VariableType.parseArgs(methodDesc);
+        List<VariableType> variableTypes = frame.argsVariableType();
         MethodArgs methodArgs = new MethodArgs(variableTypes, frame.operandStack, false);
         ObjectRef objectRef = methodArgs.objectRef;
         if (objectRef == null) {
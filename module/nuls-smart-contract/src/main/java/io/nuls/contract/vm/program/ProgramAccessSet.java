@@ -0,0 +1,130 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2019 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.contract.vm.program;
+
+import org.ethereum.db.ByteArrayWrapper;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 一笔合约交易在状态库上的读写集合
+ * <p>
+ * 由交易级的跟踪状态库(及其内部调用)记录读写过的账户和存储键, 用于判断并行执行的交易之间是否冲突.
+ * 合约余额不在状态库中, 由调用方以余额键补充.
+ * <p>
+ * Keys read and written by one contract transaction, recorded by its tracking repository (including inner calls),
+ * used to decide whether transactions executed in parallel conflict. Contract balances are not kept in the
+ * repository, callers add them as balance keys.
+ * <p>
+ * 非线程安全: 交易在单个线程中执行, 合并与比较在交易执行结束后由冲突检测器加锁进行.
+ * Not thread safe: a transaction executes on one thread, merging and comparing happen under the lock of the
+ * conflict checker after execution has finished.
+ */
+public class ProgramAccessSet {
+
+    private static final byte ACCOUNT = 0;
+    private static final byte STORAGE = 1;
+    private static final byte BALANCE = 2;
+
+    private final Set<ByteArrayWrapper> reads = new HashSet<>();
+
+    private final Set<ByteArrayWrapper> writes = new HashSet<>();
+
+    public void readAccount(byte[] address) {
+        reads.add(key(ACCOUNT, address, null));
+    }
+
+    public void writeAccount(byte[] address) {
+        writes.add(key(ACCOUNT, address, null));
+    }
+
+    public void readStorage(byte[] address, byte[] storageKey) {
+        reads.add(key(STORAGE, address, storageKey));
+    }
+
+    public void writeStorage(byte[] address, byte[] storageKey) {
+        writes.add(key(STORAGE, address, storageKey));
+    }
+
+    public void readBalance(byte[] address) {
+        reads.add(key(BALANCE, address, null));
+    }
+
+    public void writeBalance(byte[] address) {
+        writes.add(key(BALANCE, address, null));
+    }
+
+    /**
+     * 合并另一笔已提交交易的读写集合
+     * Merge the keys of another committed transaction
+     */
+    public void addAll(ProgramAccessSet other) {
+        reads.addAll(other.reads);
+        writes.addAll(other.writes);
+    }
+
+    /**
+     * 读写冲突或写写冲突, 两边都只读的键不算冲突
+     * Read-write or write-write overlap, keys only read by both sides do not conflict
+     */
+    public boolean conflictsWith(ProgramAccessSet other) {
+        return intersects(writes, other.writes) || intersects(reads, other.writes) || intersects(writes, other.reads);
+    }
+
+    public int readCount() {
+        return reads.size();
+    }
+
+    public int writeCount() {
+        return writes.size();
+    }
+
+    private static boolean intersects(Set<ByteArrayWrapper> a, Set<ByteArrayWrapper> b) {
+        if (a.size() > b.size()) {
+            Set<ByteArrayWrapper> t = a;
+            a = b;
+            b = t;
+        }
+        for (ByteArrayWrapper key : a) {
+            if (b.contains(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static ByteArrayWrapper key(byte type, byte[] address, byte[] storageKey) {
+        int length = 1 + address.length + (storageKey == null ? 0 : storageKey.length);
+        byte[] bytes = new byte[length];
+        bytes[0] = type;
+        System.arraycopy(address, 0, bytes, 1, address.length);
+        if (storageKey != null) {
+            System.arraycopy(storageKey, 0, bytes, 1 + address.length, storageKey.length);
+        }
+        return new ByteArrayWrapper(bytes);
+    }
+
+}
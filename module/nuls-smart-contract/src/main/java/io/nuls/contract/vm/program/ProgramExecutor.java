@@ -32,6 +32,20 @@ public interface ProgramExecutor {
 
     ProgramExecutor startTracking();
 
+    /**
+     * 批量执行器开始的跟踪执行器是否记录读写集合, 只在冲突检测按读写集合进行时开启
+     * Whether tracking executors started from this batch executor record access sets, only enabled when the
+     * conflict checker uses them
+     */
+    void setAccessSetEnabled(boolean accessSetEnabled);
+
+    /**
+     * 由批量执行器开始的跟踪执行器记录的读写集合, 未开启或其他执行器返回null
+     * Keys accessed through a tracking executor started from the batch executor, null when disabled or for other
+     * executors
+     */
+    ProgramAccessSet getAccessSet();
+
     void commit();
 
     byte[] getRoot();
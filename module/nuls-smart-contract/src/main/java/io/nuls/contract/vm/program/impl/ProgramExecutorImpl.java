@@ -24,6 +24,8 @@
  */
 package io.nuls.contract.vm.program.impl;
 
+import io.nuls.base.protocol.ProtocolGroupManager;
+import io.nuls.contract.constant.ContractConstant;
 import io.nuls.contract.model.bo.Chain;
 import io.nuls.contract.model.bo.ContractBalance;
 import io.nuls.contract.model.dto.BlockHeaderDto;
@@ -49,6 +51,7 @@ import org.ethereum.core.Block;
 import org.ethereum.core.Repository;
 import org.ethereum.datasource.Source;
 import org.ethereum.db.ByteArrayWrapper;
+import org.ethereum.db.RepositoryImpl;
 import org.ethereum.db.RepositoryRoot;
 import org.ethereum.db.StateSource;
 import org.ethereum.util.FastByteComparisons;
@@ -87,6 +90,8 @@ public class ProgramExecutorImpl implements ProgramExecutor {
 
     private boolean revert;
 
+    private boolean accessSetEnabled;
+
     private Chain chain;
 
     private final Thread thread;
@@ -121,6 +126,11 @@ public class ProgramExecutorImpl implements ProgramExecutor {
         return 0;
     }
 
+    private boolean isBinaryState() {
+        Short version = ProtocolGroupManager.getCurrentVersion(getCurrentChainId());
+        return version != null && version >= ContractConstant.BINARY_STATE_PROTOCOL_VERSION;
+    }
+
     private Chain getCurrentChain() {
         ProgramExecutorImpl programExecutor = this;
         while (programExecutor.chain == null) {
@@ -151,9 +161,25 @@ public class ProgramExecutorImpl implements ProgramExecutor {
             log.debug("startTracking");
         }
         Repository track = repository.startTracking();
+        if (accessSetEnabled && prevStateRoot != null && track instanceof RepositoryImpl) {
+            ((RepositoryImpl) track).setAccessSet(new ProgramAccessSet());
+        }
         return new ProgramExecutorImpl(this, vmContext, source, track, null, new HashMap<>(), thread);
     }
 
+    @Override
+    public void setAccessSetEnabled(boolean accessSetEnabled) {
+        this.accessSetEnabled = accessSetEnabled;
+    }
+
+    @Override
+    public ProgramAccessSet getAccessSet() {
+        if (repository instanceof RepositoryImpl) {
+            return ((RepositoryImpl) repository).getAccessSet();
+        }
+        return null;
+    }
+
     @Override
     public void commit() {
         checkThread();
@@ -317,6 +343,7 @@ public class ProgramExecutorImpl implements ProgramExecutor {
             logTime("load vm");
 
             vm.setProgramExecutor(this);
+            vm.heap.setBinaryState(isBinaryState());
             vm.heap.loadClassCodes(classCodes);
             vm.methodArea.loadClassCodes(classCodes);
 
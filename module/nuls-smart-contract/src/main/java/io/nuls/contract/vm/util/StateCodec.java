@@ -0,0 +1,498 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2019 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.contract.vm.util;
+
+import com.google.common.collect.BiMap;
+import io.nuls.contract.vm.ObjectRef;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static io.nuls.contract.vm.util.Utils.hashMapInitialCapacity;
+
+/**
+ * 合约状态(对象字段、数组分块)的二进制编码
+ * <p>
+ * 格式: MAGIC, VERSION, 值. 值以一个字节的类型标记开头, 整数使用zigzag变长编码, 长度使用变长编码,
+ * 引用的类型描述使用Heap中共享的类名字典缩写(与JSON编码相同). MAGIC不是JSON编码可能出现的首字节,
+ * 读取时据此区分, 已有的JSON状态仍按原方式解码.
+ * <p>
+ * Binary encoding of contract state (object fields and array chunks).
+ * Layout: MAGIC, VERSION, value. A value starts with a one byte type tag, integers are zigzag varints,
+ * lengths are varints and the descriptors of references are shortened with the class name dictionary
+ * shared by the heap (as in the JSON encoding). MAGIC can never be the first byte of a JSON value, which
+ * is how readers tell the two apart, so existing JSON state keeps decoding as before.
+ */
+public class StateCodec {
+
+    public static final byte MAGIC = (byte) 0xB1;
+
+    public static final byte VERSION = 1;
+
+    private static final byte NULL = 0;
+    private static final byte INT = 1;
+    private static final byte LONG = 2;
+    private static final byte FLOAT = 3;
+    private static final byte DOUBLE = 4;
+    private static final byte BOOLEAN = 5;
+    private static final byte BYTE = 6;
+    private static final byte CHAR = 7;
+    private static final byte SHORT = 8;
+    private static final byte STRING = 9;
+    private static final byte REF = 10;
+    private static final byte MAP = 11;
+    /**
+     * 数组: ARRAY, 元素类型标记, 长度, 元素
+     */
+    private static final byte ARRAY = 12;
+
+    /**
+     * 引用编号: 十进制数字按变长整数保存, 其他(合约地址、类名)按字符串保存
+     */
+    private static final byte REF_NUMBER = 0;
+    private static final byte REF_STRING = 1;
+
+    public static boolean isEncoded(byte[] value) {
+        return value != null && value.length >= 2 && value[0] == MAGIC;
+    }
+
+    public static byte[] encode(Object value, BiMap<String, String> classNames) {
+        Writer writer = new Writer();
+        writer.write(MAGIC);
+        writer.write(VERSION);
+        writer.writeValue(value, classNames);
+        return writer.toByteArray();
+    }
+
+    public static Object decode(byte[] value, BiMap<String, String> classNames) {
+        if (!isEncoded(value)) {
+            throw new IllegalArgumentException("not binary state");
+        }
+        if (value[1] != VERSION) {
+            throw new IllegalArgumentException("unknown state version " + value[1]);
+        }
+        Reader reader = new Reader(value, 2);
+        Object result = reader.readValue(classNames);
+        if (reader.position != value.length) {
+            throw new IllegalArgumentException("trailing bytes in state");
+        }
+        return result;
+    }
+
+    private static class Writer {
+
+        private byte[] buffer = new byte[64];
+
+        private int size;
+
+        private void write(int b) {
+            if (size == buffer.length) {
+                buffer = Arrays.copyOf(buffer, size * 2);
+            }
+            buffer[size++] = (byte) b;
+        }
+
+        private void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+
+        private void writeZigZag(long value) {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        private void writeFixed(long value, int bytes) {
+            for (int i = 0; i < bytes; i++) {
+                write((int) (value >>> (i * 8)));
+            }
+        }
+
+        /**
+         * 按字符保存, 保留不成对的代理字符
+         */
+        private void writeString(String value) {
+            int length = value.length();
+            writeVarLong(length);
+            for (int i = 0; i < length; i++) {
+                writeVarLong(value.charAt(i));
+            }
+        }
+
+        private void writeRef(ObjectRef objectRef, BiMap<String, String> classNames) {
+            String ref = objectRef.getRef();
+            if (isNumber(ref)) {
+                write(REF_NUMBER);
+                writeVarLong(Long.parseLong(ref));
+            } else {
+                write(REF_STRING);
+                writeString(ref);
+            }
+            String desc = objectRef.getDesc();
+            String alias = classNames.inverse().get(desc);
+            writeString(alias != null ? alias : desc);
+            int[] dimensions = objectRef.getDimensions();
+            int length = dimensions == null ? 0 : dimensions.length;
+            writeVarLong(length);
+            for (int i = 0; i < length; i++) {
+                writeZigZag(dimensions[i]);
+            }
+        }
+
+        private void writeValue(Object value, BiMap<String, String> classNames) {
+            if (value == null) {
+                write(NULL);
+            } else if (value.getClass().isArray()) {
+                write(ARRAY);
+                writeArray(value, classNames);
+            } else if (value instanceof Map) {
+                Map<?, ?> map = (Map<?, ?>) value;
+                write(MAP);
+                writeVarLong(map.size());
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    writeString((String) entry.getKey());
+                    writeValue(entry.getValue(), classNames);
+                }
+            } else if (value instanceof Integer) {
+                write(INT);
+                writeZigZag((int) value);
+            } else if (value instanceof Long) {
+                write(LONG);
+                writeZigZag((long) value);
+            } else if (value instanceof Float) {
+                write(FLOAT);
+                writeFixed(Float.floatToRawIntBits((float) value), 4);
+            } else if (value instanceof Double) {
+                write(DOUBLE);
+                writeFixed(Double.doubleToRawLongBits((double) value), 8);
+            } else if (value instanceof Boolean) {
+                write(BOOLEAN);
+                write((boolean) value ? 1 : 0);
+            } else if (value instanceof Byte) {
+                write(BYTE);
+                write((byte) value);
+            } else if (value instanceof Character) {
+                write(CHAR);
+                writeVarLong((char) value);
+            } else if (value instanceof Short) {
+                write(SHORT);
+                writeZigZag((short) value);
+            } else if (value instanceof String) {
+                write(STRING);
+                writeString((String) value);
+            } else if (value instanceof ObjectRef) {
+                write(REF);
+                writeRef((ObjectRef) value, classNames);
+            } else {
+                throw new IllegalArgumentException("unknown value");
+            }
+        }
+
+        private void writeArray(Object value, BiMap<String, String> classNames) {
+            if (value instanceof int[]) {
+                int[] array = (int[]) value;
+                write(INT);
+                writeVarLong(array.length);
+                for (int v : array) {
+                    writeZigZag(v);
+                }
+            } else if (value instanceof long[]) {
+                long[] array = (long[]) value;
+                write(LONG);
+                writeVarLong(array.length);
+                for (long v : array) {
+                    writeZigZag(v);
+                }
+            } else if (value instanceof float[]) {
+                float[] array = (float[]) value;
+                write(FLOAT);
+                writeVarLong(array.length);
+                for (float v : array) {
+                    writeFixed(Float.floatToRawIntBits(v), 4);
+                }
+            } else if (value instanceof double[]) {
+                double[] array = (double[]) value;
+                write(DOUBLE);
+                writeVarLong(array.length);
+                for (double v : array) {
+                    writeFixed(Double.doubleToRawLongBits(v), 8);
+                }
+            } else if (value instanceof boolean[]) {
+                boolean[] array = (boolean[]) value;
+                write(BOOLEAN);
+                writeVarLong(array.length);
+                for (boolean v : array) {
+                    write(v ? 1 : 0);
+                }
+            } else if (value instanceof byte[]) {
+                byte[] array = (byte[]) value;
+                write(BYTE);
+                writeVarLong(array.length);
+                for (byte v : array) {
+                    write(v);
+                }
+            } else if (value instanceof char[]) {
+                char[] array = (char[]) value;
+                write(CHAR);
+                writeVarLong(array.length);
+                for (char v : array) {
+                    writeVarLong(v);
+                }
+            } else if (value instanceof short[]) {
+                short[] array = (short[]) value;
+                write(SHORT);
+                writeVarLong(array.length);
+                for (short v : array) {
+                    writeZigZag(v);
+                }
+            } else {
+                Object[] array = (Object[]) value;
+                write(REF);
+                writeVarLong(array.length);
+                for (Object v : array) {
+                    if (v == null) {
+                        write(NULL);
+                    } else {
+                        write(REF);
+                        writeRef((ObjectRef) v, classNames);
+                    }
+                }
+            }
+        }
+
+        private byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+    }
+
+    private static class Reader {
+
+        private final byte[] data;
+
+        private int position;
+
+        private Reader(byte[] data, int position) {
+            this.data = data;
+            this.position = position;
+        }
+
+        private byte read() {
+            if (position >= data.length) {
+                throw new IllegalArgumentException("truncated state");
+            }
+            return data[position++];
+        }
+
+        private long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = read();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("malformed varint");
+        }
+
+        private int readLength() {
+            long length = readVarLong();
+            if (length < 0 || length > data.length - position) {
+                throw new IllegalArgumentException("malformed length");
+            }
+            return (int) length;
+        }
+
+        private long readZigZag() {
+            long value = readVarLong();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        private long readFixed(int bytes) {
+            long value = 0;
+            for (int i = 0; i < bytes; i++) {
+                value |= (long) (read() & 0xFF) << (i * 8);
+            }
+            return value;
+        }
+
+        private String readString() {
+            int length = readLength();
+            char[] chars = new char[length];
+            for (int i = 0; i < length; i++) {
+                chars[i] = (char) readVarLong();
+            }
+            return new String(chars);
+        }
+
+        private ObjectRef readRef(BiMap<String, String> classNames) {
+            byte kind = read();
+            String ref;
+            if (kind == REF_NUMBER) {
+                ref = Long.toString(readVarLong());
+            } else if (kind == REF_STRING) {
+                ref = readString();
+            } else {
+                throw new IllegalArgumentException("unknown ref kind " + kind);
+            }
+            String desc = readString();
+            String s = classNames.get(desc);
+            if (s != null) {
+                desc = s;
+            }
+            int[] dimensions = new int[readLength()];
+            for (int i = 0; i < dimensions.length; i++) {
+                dimensions[i] = (int) readZigZag();
+            }
+            return new ObjectRef(ref, desc, dimensions);
+        }
+
+        private Object readValue(BiMap<String, String> classNames) {
+            byte tag = read();
+            switch (tag) {
+                case NULL:
+                    return null;
+                case INT:
+                    return (int) readZigZag();
+                case LONG:
+                    return readZigZag();
+                case FLOAT:
+                    return Float.intBitsToFloat((int) readFixed(4));
+                case DOUBLE:
+                    return Double.longBitsToDouble(readFixed(8));
+                case BOOLEAN:
+                    return read() != 0;
+                case BYTE:
+                    return read();
+                case CHAR:
+                    return (char) readVarLong();
+                case SHORT:
+                    return (short) readZigZag();
+                case STRING:
+                    return readString();
+                case REF:
+                    return readRef(classNames);
+                case MAP:
+                    int size = readLength();
+                    Map<String, Object> map = new LinkedHashMap<>(hashMapInitialCapacity(size));
+                    for (int i = 0; i < size; i++) {
+                        String key = readString();
+                        map.put(key, readValue(classNames));
+                    }
+                    return map;
+                case ARRAY:
+                    return readArray(classNames);
+                default:
+                    throw new IllegalArgumentException("unknown tag " + tag);
+            }
+        }
+
+        private Object readArray(BiMap<String, String> classNames) {
+            byte tag = read();
+            int length = readLength();
+            switch (tag) {
+                case INT:
+                    int[] ints = new int[length];
+                    for (int i = 0; i < length; i++) {
+                        ints[i] = (int) readZigZag();
+                    }
+                    return ints;
+                case LONG:
+                    long[] longs = new long[length];
+                    for (int i = 0; i < length; i++) {
+                        longs[i] = readZigZag();
+                    }
+                    return longs;
+                case FLOAT:
+                    float[] floats = new float[length];
+                    for (int i = 0; i < length; i++) {
+                        floats[i] = Float.intBitsToFloat((int) readFixed(4));
+                    }
+                    return floats;
+                case DOUBLE:
+                    double[] doubles = new double[length];
+                    for (int i = 0; i < length; i++) {
+                        doubles[i] = Double.longBitsToDouble(readFixed(8));
+                    }
+                    return doubles;
+                case BOOLEAN:
+                    boolean[] booleans = new boolean[length];
+                    for (int i = 0; i < length; i++) {
+                        booleans[i] = read() != 0;
+                    }
+                    return booleans;
+                case BYTE:
+                    byte[] bytes = new byte[length];
+                    for (int i = 0; i < length; i++) {
+                        bytes[i] = read();
+                    }
+                    return bytes;
+                case CHAR:
+                    char[] chars = new char[length];
+                    for (int i = 0; i < length; i++) {
+                        chars[i] = (char) readVarLong();
+                    }
+                    return chars;
+                case SHORT:
+                    short[] shorts = new short[length];
+                    for (int i = 0; i < length; i++) {
+                        shorts[i] = (short) readZigZag();
+                    }
+                    return shorts;
+                case REF:
+                    ObjectRef[] objectRefs = new ObjectRef[length];
+                    for (int i = 0; i < length; i++) {
+                        byte elementTag = read();
+                        if (elementTag == REF) {
+                            objectRefs[i] = readRef(classNames);
+                        } else if (elementTag != NULL) {
+                            throw new IllegalArgumentException("unknown tag " + elementTag);
+                        }
+                    }
+                    return objectRefs;
+                default:
+                    throw new IllegalArgumentException("unknown array tag " + tag);
+            }
+        }
+    }
+
+    private static boolean isNumber(String ref) {
+        int length = ref.length();
+        if (length == 0 || length > 18 || (length > 1 && ref.charAt(0) == '0')) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = ref.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
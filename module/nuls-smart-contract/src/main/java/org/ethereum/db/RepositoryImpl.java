@@ -17,6 +17,7 @@
  */
 package org.ethereum.db;
 
+import io.nuls.contract.vm.program.ProgramAccessSet;
 import org.ethereum.config.SystemProperties;
 import org.ethereum.core.AccountState;
 import org.ethereum.core.Block;
@@ -44,6 +45,11 @@ public class RepositoryImpl implements Repository, org.ethereum.facade.Repositor
 
     protected SystemProperties config = SystemProperties.getDefault();
 
+    /**
+     * 交易的读写集合, 跟踪状态库继承父状态库的集合
+     */
+    protected ProgramAccessSet accessSet;
+
     protected RepositoryImpl() {
     }
 
@@ -63,6 +69,7 @@ public class RepositoryImpl implements Repository, org.ethereum.facade.Repositor
     public synchronized AccountState createAccount(byte[] addr, byte[] creater) {
         AccountState state = new AccountState(config.getBlockchainConfig().getCommonConstants().getInitialNonce(),
                 BigInteger.ZERO, creater);
+        writeAccount(addr);
         accountStateCache.put(addr, state);
         return state;
     }
@@ -74,6 +81,9 @@ public class RepositoryImpl implements Repository, org.ethereum.facade.Repositor
 
     @Override
     public synchronized AccountState getAccountState(byte[] addr) {
+        if (accessSet != null) {
+            accessSet.readAccount(addr);
+        }
         return accountStateCache.get(addr);
     }
 
@@ -87,6 +97,7 @@ public class RepositoryImpl implements Repository, org.ethereum.facade.Repositor
 
     @Override
     public synchronized void delete(byte[] addr) {
+        writeAccount(addr);
         accountStateCache.delete(addr);
         storageCache.delete(addr);
     }
@@ -94,6 +105,7 @@ public class RepositoryImpl implements Repository, org.ethereum.facade.Repositor
     @Override
     public synchronized BigInteger increaseNonce(byte[] addr) {
         AccountState accountState = getOrCreateAccountState(addr);
+        writeAccount(addr);
         accountStateCache.put(addr, accountState.withIncrementedNonce());
         return accountState.getNonce();
     }
@@ -101,6 +113,7 @@ public class RepositoryImpl implements Repository, org.ethereum.facade.Repositor
     @Override
     public synchronized BigInteger setNonce(byte[] addr, BigInteger nonce) {
         AccountState accountState = getOrCreateAccountState(addr);
+        writeAccount(addr);
         accountStateCache.put(addr, accountState.withNonce(nonce));
         return accountState.getNonce();
     }
@@ -127,6 +140,7 @@ public class RepositoryImpl implements Repository, org.ethereum.facade.Repositor
         byte[] codeHash = HashUtil.sha3(code);
         codeCache.put(codeKey(codeHash, addr), code);
         AccountState accountState = getOrCreateAccountState(addr);
+        writeAccount(addr);
         accountStateCache.put(addr, accountState.withCodeHash(codeHash));
     }
 
@@ -151,6 +165,9 @@ public class RepositoryImpl implements Repository, org.ethereum.facade.Repositor
     @Override
     public synchronized void addStorageRow(byte[] addr, DataWord key, DataWord value) {
         getOrCreateAccountState(addr);
+        if (accessSet != null) {
+            accessSet.writeStorage(addr, key.getData());
+        }
 
         Source<DataWord, DataWord> contractStorage = storageCache.get(addr);
         contractStorage.put(key, value.isZero() ? null : value);
@@ -159,6 +176,9 @@ public class RepositoryImpl implements Repository, org.ethereum.facade.Repositor
     @Override
     public synchronized DataWord getStorageValue(byte[] addr, DataWord key) {
         AccountState accountState = getAccountState(addr);
+        if (accessSet != null) {
+            accessSet.readStorage(addr, key.getData());
+        }
         return accountState == null ? null : storageCache.get(addr).get(key);
     }
 
@@ -171,6 +191,7 @@ public class RepositoryImpl implements Repository, org.ethereum.facade.Repositor
     @Override
     public synchronized BigInteger addBalance(byte[] addr, BigInteger value) {
         AccountState accountState = getOrCreateAccountState(addr);
+        writeAccount(addr);
         accountStateCache.put(addr, accountState.withBalanceIncrement(value));
         return accountState.getBalance();
     }
@@ -189,9 +210,28 @@ public class RepositoryImpl implements Repository, org.ethereum.facade.Repositor
 
         RepositoryImpl ret = new RepositoryImpl(trackAccountStateCache, trackCodeCache, trackStorageCache);
         ret.parent = this;
+        ret.accessSet = this.accessSet;
         return ret;
     }
 
+    public ProgramAccessSet getAccessSet() {
+        return accessSet;
+    }
+
+    /**
+     * 开始记录读写集合, 之后由此状态库开始的跟踪状态库共用同一集合
+     * Start recording accessed keys, tracking repositories started from this one share the set
+     */
+    public synchronized void setAccessSet(ProgramAccessSet accessSet) {
+        this.accessSet = accessSet;
+    }
+
+    private void writeAccount(byte[] addr) {
+        if (accessSet != null) {
+            accessSet.writeAccount(addr);
+        }
+    }
+
     @Override
     public synchronized Repository getSnapshotTo(byte[] root) {
         return parent.getSnapshotTo(root);
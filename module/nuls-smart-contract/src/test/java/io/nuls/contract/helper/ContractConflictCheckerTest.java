@@ -0,0 +1,155 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2019 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.helper;
+
+import io.nuls.base.basic.AddressTool;
+import io.nuls.contract.model.bo.Chain;
+import io.nuls.contract.model.bo.ContractResult;
+import io.nuls.contract.model.bo.config.ConfigBean;
+import io.nuls.contract.util.VMContextMock;
+import io.nuls.contract.vm.program.ProgramAccessSet;
+import io.nuls.contract.vm.program.ProgramExecutor;
+import io.nuls.contract.vm.program.impl.ProgramExecutorImpl;
+import io.nuls.core.rockdb.manager.RocksDBManager;
+import io.nuls.core.rockdb.service.RocksDBService;
+import org.ethereum.crypto.HashUtil;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.Assert.*;
+
+/**
+ * 两个合约容器中的调用经批量执行器的跟踪执行器记录读写集合后交给冲突检测器
+ * <p>
+ * 离线环境缺少虚拟机运行合约所需的基础类(used_classes_base), 调用对状态库的读写直接记录到跟踪执行器的读写集合中,
+ * 与RepositoryImpl在执行合约时的记录方式相同
+ */
+public class ContractConflictCheckerTest {
+
+    private static final int CHAIN_ID = 2;
+    private static final String TOKEN = "tNULSeBaN7vAqBANTtVxsiFsam4NcRUbqrCpzK";
+    private static final String ORACLE = "tNULSeBaMvEtDfvZuukDf2mVyfGo3DdiN8KLRG";
+
+    private static File dataDir;
+    private static ProgramExecutor programExecutor;
+
+    @BeforeClass
+    public static void beforeClass() throws Exception {
+        dataDir = Files.createTempDirectory("contract-conflict-test").toFile();
+        RocksDBService.init(dataDir.getPath());
+        Chain chain = new Chain();
+        ConfigBean configBean = new ConfigBean();
+        configBean.setChainId(CHAIN_ID);
+        configBean.setAssetId(1);
+        chain.setConfig(configBean);
+        programExecutor = new ProgramExecutorImpl(new VMContextMock(), chain);
+        chain.setProgramExecutor(programExecutor);
+    }
+
+    @AfterClass
+    public static void afterClass() {
+        RocksDBManager.close();
+        deleteDir(dataDir);
+    }
+
+    private static ContractResult call(ProgramExecutor batchExecutor, String contract, byte[] key, boolean write) {
+        ProgramExecutor track = batchExecutor.startTracking();
+        ProgramAccessSet accessSet = track.getAccessSet();
+        if (accessSet != null) {
+            if (write) {
+                accessSet.writeStorage(AddressTool.getAddress(contract), key);
+            } else {
+                accessSet.readStorage(AddressTool.getAddress(contract), key);
+            }
+        }
+        ContractResult contractResult = new ContractResult();
+        contractResult.setContractAddress(AddressTool.getAddress(contract));
+        contractResult.setTxTrack(track);
+        return contractResult;
+    }
+
+    private static ContractConflictChecker checker(boolean accessSetEnabled, Set<String>... containers) {
+        ContractConflictChecker checker = ContractConflictChecker.newInstance();
+        checker.setContractSetList(new CopyOnWriteArrayList<>());
+        checker.setAccessSetEnabled(accessSetEnabled);
+        for (Set<String> container : containers) {
+            checker.add(container);
+        }
+        return checker;
+    }
+
+    /**
+     * 两个容器写同一合约的同一个键冲突, 只读同一个键不冲突
+     */
+    @Test
+    public void conflictingCallsByAccessSet() {
+        ProgramExecutor batchExecutor = programExecutor.begin(HashUtil.EMPTY_TRIE_HASH);
+        batchExecutor.setAccessSetEnabled(true);
+        Set<String> containerA = new HashSet<>();
+        Set<String> containerB = new HashSet<>();
+        ContractConflictChecker checker = checker(true, containerA, containerB);
+
+        assertFalse(checker.checkConflict(CHAIN_ID, null, call(batchExecutor, ORACLE, "price".getBytes(), false), containerA));
+        assertFalse(checker.checkConflict(CHAIN_ID, null, call(batchExecutor, ORACLE, "price".getBytes(), false), containerB));
+        assertFalse(checker.checkConflict(CHAIN_ID, null, call(batchExecutor, TOKEN, "balance_a".getBytes(), true), containerA));
+        //其他容器已写入同一个键
+        assertTrue(checker.checkConflict(CHAIN_ID, null, call(batchExecutor, TOKEN, "balance_a".getBytes(), true), containerB));
+        //修改其他容器读取过的键
+        assertTrue(checker.checkConflict(CHAIN_ID, null, call(batchExecutor, ORACLE, "price".getBytes(), true), containerB));
+        //同一容器内按顺序执行, 不冲突
+        assertFalse(checker.checkConflict(CHAIN_ID, null, call(batchExecutor, TOKEN, "balance_a".getBytes(), true), containerA));
+    }
+
+    /**
+     * 未开启时跟踪执行器不记录读写集合, 按合约地址检测冲突
+     */
+    @Test
+    public void disabledFallsBackToAddresses() {
+        ProgramExecutor batchExecutor = programExecutor.begin(HashUtil.EMPTY_TRIE_HASH);
+        assertNull(batchExecutor.startTracking().getAccessSet());
+        Set<String> containerA = new HashSet<>();
+        Set<String> containerB = new HashSet<>();
+        ContractConflictChecker checker = checker(false, containerA, containerB);
+
+        assertFalse(checker.checkConflict(CHAIN_ID, null, call(batchExecutor, ORACLE, "price".getBytes(), false), containerA));
+        assertTrue(checker.checkConflict(CHAIN_ID, null, call(batchExecutor, ORACLE, "price".getBytes(), false), containerB));
+    }
+
+    private static void deleteDir(File file) {
+        File[] files = file.listFiles();
+        if (files != null) {
+            for (File f : files) {
+                deleteDir(f);
+            }
+        }
+        file.delete();
+    }
+}
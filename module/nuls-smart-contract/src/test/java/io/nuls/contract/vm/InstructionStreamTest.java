@@ -0,0 +1,81 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2019 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.vm;
+
+import io.nuls.contract.vm.code.ClassCode;
+import io.nuls.contract.vm.code.ClassCodeLoader;
+import io.nuls.contract.vm.code.MethodCode;
+import org.junit.Test;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.JumpInsnNode;
+
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class InstructionStreamTest {
+
+    private static final String CLASS_NAME = "io/nuls/contract/vm/InterpreterBenchmark$Loops";
+
+    private final ClassCode classCode = ClassCodeLoader.load(CLASS_NAME.replace('/', '.'));
+
+    private Object run(String name, String desc, int n) {
+        VM vm = new VM();
+        vm.methodArea.loadClassCodes(Map.of(CLASS_NAME, classCode));
+        vm.run(classCode.getMethodCode(name, desc), new Object[]{n}, true);
+        assertFalse(vm.getResult().isError());
+        assertTrue(vm.getGasUsed() > n);
+        return vm.getResult().getValue();
+    }
+
+    @Test
+    public void sameResultAsJvm() {
+        assertEquals(InterpreterBenchmark.Loops.sum(1000), run("sum", "(I)I", 1000));
+        assertEquals(InterpreterBenchmark.Loops.fib(12), run("fib", "(I)I", 12));
+        assertEquals(InterpreterBenchmark.Loops.sieve(1000), run("sieve", "(I)I", 1000));
+        assertEquals(InterpreterBenchmark.Loops.select(1000), run("select", "(I)J", 1000));
+    }
+
+    @Test
+    public void decoded() {
+        MethodCode methodCode = classCode.getMethodCode("sum", "(I)I");
+        InstructionStream stream = methodCode.getInstructionStream();
+        assertSame(stream, methodCode.getInstructionStream());
+        assertEquals(methodCode.instructions.size(), stream.size());
+        for (int i = 0; i < stream.size(); i++) {
+            AbstractInsnNode node = stream.nodes[i];
+            assertEquals(OpCode.valueOf(node.getOpcode()), stream.opCodes[i]);
+            //顺序执行时跳过标签、行号等伪指令
+            int next = stream.next[i];
+            assertTrue(next > i);
+            for (int j = i + 1; j < next; j++) {
+                assertTrue(stream.nodes[j].getOpcode() < 0);
+            }
+            assertTrue(next == stream.size() || stream.nodes[next].getOpcode() >= 0);
+            if (stream.jumps[i] >= 0) {
+                assertSame(((JumpInsnNode) node).label, stream.nodes[stream.jumps[i]]);
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2019 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.vm;
+
+import io.nuls.contract.vm.code.ClassCode;
+import io.nuls.contract.vm.code.ClassCodeLoader;
+import io.nuls.contract.vm.code.MethodCode;
+
+import java.util.Map;
+
+/**
+ * 解释器吞吐: 直接在VM中执行只依赖基本类型的静态方法, 以消耗的gas(大部分指令为1)近似指令数
+ * Interpreter throughput: runs primitive-only static methods straight in the VM, using the gas used as an
+ * approximation of the instruction count (most instructions cost 1)
+ */
+public class InterpreterBenchmark {
+
+    private static final String CLASS_NAME = "io/nuls/contract/vm/InterpreterBenchmark$Loops";
+
+    public static void main(String[] args) {
+        ClassCode classCode = ClassCodeLoader.load(CLASS_NAME.replace('/', '.'));
+        Map<String, ClassCode> classCodes = Map.of(CLASS_NAME, classCode);
+        run(classCodes, classCode.getMethodCode("sum", "(I)I"), 200000, 10);
+        run(classCodes, classCode.getMethodCode("fib", "(I)I"), 18, 10);
+        run(classCodes, classCode.getMethodCode("sieve", "(I)I"), 20000, 10);
+        run(classCodes, classCode.getMethodCode("select", "(I)J"), 100000, 10);
+    }
+
+    private static void run(Map<String, ClassCode> classCodes, MethodCode methodCode, int n, int rounds) {
+        Object value = null;
+        long gas = 0;
+        long cost = 0;
+        for (int i = 0; i < rounds * 2; i++) {
+            VM vm = new VM();
+            vm.methodArea.loadClassCodes(classCodes);
+            long start = System.nanoTime();
+            vm.run(methodCode, new Object[]{n}, true);
+            if (i >= rounds) {
+                //前一半为预热 the first half is warm up
+                cost += System.nanoTime() - start;
+                gas += vm.getGasUsed();
+            }
+            value = vm.getResult().getValue();
+        }
+        System.out.println(String.format("%s(%d) = %s: %.1fM gas/s, %d gas per call", methodCode.name, n, value,
+                gas * 1e3 / cost, gas / rounds));
+    }
+
+    public static class Loops {
+
+        public static int sum(int n) {
+            int sum = 0;
+            for (int i = 0; i < n; i++) {
+                sum += i * i;
+            }
+            return sum;
+        }
+
+        public static int fib(int n) {
+            return n < 2 ? n : fib(n - 1) + fib(n - 2);
+        }
+
+        public static int sieve(int n) {
+            boolean[] composite = new boolean[n + 1];
+            int count = 0;
+            for (int i = 2; i <= n; i++) {
+                if (!composite[i]) {
+                    count++;
+                    for (int j = i * 2; j <= n; j += i) {
+                        composite[j] = true;
+                    }
+                }
+            }
+            return count;
+        }
+
+        public static long select(int n) {
+            long total = 0;
+            for (int i = 0; i < n; i++) {
+                switch (i & 3) {
+                    case 0:
+                        total += i;
+                        break;
+                    case 1:
+                        total -= 3;
+                        break;
+                    case 2:
+                        total ^= i;
+                        break;
+                    default:
+                        total <<= 1;
+                        break;
+                }
+            }
+            return total;
+        }
+    }
+}
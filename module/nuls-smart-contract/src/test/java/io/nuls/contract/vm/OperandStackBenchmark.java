@@ -0,0 +1,241 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2019 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.vm;
+
+import java.util.Stack;
+
+/**
+ * 操作数栈/局部变量表吞吐对比: 原先基于Stack与Object[]的装箱实现与按槽位类型存放的数组实现
+ * 以解释器执行循环时的指令序列为负载, 输出每秒指令数
+ * <p>
+ * Throughput of the former boxed Stack/Object[] frame against the typed slot arrays, replaying the
+ * instruction sequences the interpreter runs for loops, reported as instructions per second
+ */
+public class OperandStackBenchmark {
+
+    private static final int LOOPS = 2_000_000;
+
+    public static void main(String[] args) {
+        for (int i = 0; i < 3; i++) {
+            //预热 warm up
+            intLoop(new BoxedFrame());
+            intLoop(new TypedFrame());
+            longLoop(new BoxedFrame());
+            longLoop(new TypedFrame());
+        }
+        report("int loop (sum += i * i)", 12, intLoop(new BoxedFrame()), intLoop(new TypedFrame()));
+        report("long loop (balance -= amount)", 10, longLoop(new BoxedFrame()), longLoop(new TypedFrame()));
+    }
+
+    private static void report(String name, int instructions, long oldCost, long newCost) {
+        double total = (double) LOOPS * instructions;
+        System.out.println(String.format("%s: before %.1fM insn/s, after %.1fM insn/s",
+                name, total * 1e3 / oldCost, total * 1e3 / newCost));
+    }
+
+    /**
+     * iconst_0 istore_1 / loop: iload_1 iload_2 iload_2 imul iadd istore_1 iinc iload_2 ldc if_icmplt
+     */
+    private static long intLoop(Frame frame) {
+        long start = System.nanoTime();
+        frame.pushInt(0);
+        frame.setInt(1, frame.popInt());
+        frame.setInt(2, 0);
+        for (; ; ) {
+            frame.pushInt(frame.getInt(1));
+            frame.pushInt(frame.getInt(2));
+            frame.pushInt(frame.getInt(2));
+            int b = frame.popInt();
+            frame.pushInt(frame.popInt() * b);
+            b = frame.popInt();
+            frame.pushInt(frame.popInt() + b);
+            frame.setInt(1, frame.popInt());
+            frame.setInt(2, frame.getInt(2) + 1);
+            frame.pushInt(frame.getInt(2));
+            frame.pushInt(LOOPS);
+            b = frame.popInt();
+            if (frame.popInt() >= b) {
+                break;
+            }
+        }
+        check(frame.getInt(1));
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * loop: lload_1 lload_3 lsub lstore_1 iinc iload 5 ldc if_icmplt
+     */
+    private static long longLoop(Frame frame) {
+        long start = System.nanoTime();
+        frame.setLong(1, Long.MAX_VALUE);
+        frame.setLong(3, 3L);
+        frame.setInt(5, 0);
+        for (; ; ) {
+            frame.pushLong(frame.getLong(1));
+            frame.pushLong(frame.getLong(3));
+            long b = frame.popLong();
+            frame.pushLong(frame.popLong() - b);
+            frame.setLong(1, frame.popLong());
+            frame.setInt(5, frame.getInt(5) + 1);
+            frame.pushInt(frame.getInt(5));
+            frame.pushInt(LOOPS);
+            int c = frame.popInt();
+            if (frame.popInt() >= c) {
+                break;
+            }
+        }
+        check(frame.getLong(1));
+        return System.nanoTime() - start;
+    }
+
+    private static void check(long result) {
+        if (result == 0) {
+            throw new IllegalStateException();
+        }
+    }
+
+    private interface Frame {
+        void pushInt(int value);
+
+        int popInt();
+
+        void pushLong(long value);
+
+        long popLong();
+
+        int getInt(int index);
+
+        void setInt(int index, int value);
+
+        long getLong(int index);
+
+        void setLong(int index, long value);
+    }
+
+    private static class TypedFrame implements Frame {
+        private final OperandStack stack = new OperandStack(4);
+        private final LocalVariables locals = new LocalVariables(6, null);
+
+        @Override
+        public void pushInt(int value) {
+            stack.pushInt(value);
+        }
+
+        @Override
+        public int popInt() {
+            return stack.popInt();
+        }
+
+        @Override
+        public void pushLong(long value) {
+            stack.pushLong(value);
+        }
+
+        @Override
+        public long popLong() {
+            return stack.popLong();
+        }
+
+        @Override
+        public int getInt(int index) {
+            return locals.getInt(index);
+        }
+
+        @Override
+        public void setInt(int index, int value) {
+            locals.setInt(index, value);
+        }
+
+        @Override
+        public long getLong(int index) {
+            return locals.getLong(index);
+        }
+
+        @Override
+        public void setLong(int index, long value) {
+            locals.setLong(index, value);
+        }
+    }
+
+    /**
+     * 原先的实现 the former implementation
+     */
+    private static class BoxedFrame implements Frame {
+        private final Stack<Object> stack = new Stack<>();
+        private final Object[] locals = new Object[6];
+
+        @Override
+        public void pushInt(int value) {
+            stack.push(value);
+        }
+
+        @Override
+        public int popInt() {
+            return (int) stack.pop();
+        }
+
+        @Override
+        public void pushLong(long value) {
+            stack.push(value);
+            stack.push(null);
+        }
+
+        @Override
+        public long popLong() {
+            stack.pop();
+            return (long) stack.pop();
+        }
+
+        @Override
+        public int getInt(int index) {
+            Object object = locals[index];
+            if (object instanceof Boolean) {
+                return (boolean) object ? 1 : 0;
+            } else if (object instanceof Byte) {
+                return (byte) object;
+            } else if (object instanceof Character) {
+                return (char) object;
+            } else if (object instanceof Short) {
+                return (short) object;
+            } else {
+                return (int) object;
+            }
+        }
+
+        @Override
+        public void setInt(int index, int value) {
+            locals[index] = value;
+        }
+
+        @Override
+        public long getLong(int index) {
+            return (long) locals[index];
+        }
+
+        @Override
+        public void setLong(int index, long value) {
+            locals[index] = value;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2019 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.vm;
+
+import org.junit.Test;
+
+import java.util.EmptyStackException;
+
+import static org.junit.Assert.*;
+
+public class OperandStackTest {
+
+    @Test
+    public void typedPushPop() {
+        OperandStack stack = new OperandStack(1);
+        stack.pushInt(-7);
+        stack.pushLong(Long.MIN_VALUE);
+        stack.pushFloat(1.5f);
+        stack.pushDouble(-0.25d);
+        stack.pushBoolean(true);
+        stack.pushChar('n');
+        stack.push("nuls");
+        //long/double占两个槽位
+        assertEquals(9, stack.size());
+        assertEquals("nuls", stack.pop());
+        assertEquals('n', stack.popChar());
+        assertTrue(stack.popBoolean());
+        assertEquals(-0.25d, stack.popDouble(), 0);
+        assertEquals(1.5f, stack.popFloat(), 0);
+        assertEquals(Long.MIN_VALUE, stack.popLong());
+        assertEquals(-7, stack.popInt());
+        assertTrue(stack.isEmpty());
+    }
+
+    /**
+     * dup、swap等指令使用不带类型的pop/push, 值按原类型装箱后原样放回
+     */
+    @Test
+    public void untypedPopKeepsType() {
+        OperandStack stack = new OperandStack(4);
+        stack.pushLong(123L);
+        Object padding = stack.pop();
+        Object value = stack.pop();
+        assertNull(padding);
+        assertEquals(Long.valueOf(123L), value);
+        stack.push(value);
+        stack.push(padding);
+        assertEquals(123L, stack.popLong());
+
+        stack.pushInt(5);
+        value = stack.pop();
+        assertEquals(Integer.valueOf(5), value);
+        stack.push(value);
+        stack.push(value);
+        assertEquals(10, stack.popInt() + stack.popInt());
+
+        stack.push(Boolean.FALSE);
+        assertFalse(stack.popBoolean());
+    }
+
+    @Test(expected = ClassCastException.class)
+    public void typeMismatch() {
+        OperandStack stack = new OperandStack(1);
+        stack.push("nuls");
+        stack.popInt();
+    }
+
+    @Test(expected = EmptyStackException.class)
+    public void popEmpty() {
+        OperandStack stack = new OperandStack(2);
+        stack.pushInt(1);
+        stack.clear();
+        stack.pop();
+    }
+
+    @Test
+    public void localVariables() {
+        LocalVariables locals = new LocalVariables(4, new Object[]{(short) 3, true});
+        assertEquals(3, locals.getInt(0));
+        assertEquals(1, locals.getInt(1));
+        locals.setLong(0, 1L << 40);
+        locals.setDouble(2, 2.5d);
+        locals.setInt(1, locals.getInt(1) + 1);
+        assertEquals(1L << 40, locals.getLong(0));
+        assertEquals(2.5d, locals.getDouble(2), 0);
+        assertEquals(2, locals.getInt(1));
+        locals.setRef(1, null);
+        assertNull(locals.getRef(1));
+    }
+}
@@ -0,0 +1,92 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2019 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.vm.program;
+
+import org.ethereum.datasource.inmem.HashMapDB;
+import org.ethereum.db.RepositoryImpl;
+import org.ethereum.db.RepositoryRoot;
+import org.ethereum.vm.DataWord;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ProgramAccessSetTest {
+
+    private static final byte[] TOKEN = new byte[]{1, 2, 3};
+    private static final byte[] ORACLE = new byte[]{4, 5, 6};
+
+    private static RepositoryImpl track(RepositoryRoot root) {
+        RepositoryImpl track = root.startTracking();
+        track.setAccessSet(new ProgramAccessSet());
+        return track;
+    }
+
+    /**
+     * 只读同一个键不冲突, 读写、写写同一个键冲突, 内部跟踪状态库共用交易的集合
+     */
+    @Test
+    public void recordedByRepository() {
+        RepositoryRoot root = new RepositoryRoot(new HashMapDB<>());
+        root.addStorageRow(TOKEN, new DataWord("balance_a"), new DataWord("100"));
+        root.addStorageRow(ORACLE, new DataWord("price"), new DataWord("7"));
+        root.commit();
+
+        RepositoryImpl reader1 = track(root);
+        reader1.getStorageValue(ORACLE, new DataWord("price"));
+        reader1.addStorageRow(TOKEN, new DataWord("balance_b"), new DataWord("1"));
+        RepositoryImpl reader2 = track(root);
+        reader2.startTracking().getStorageValue(ORACLE, new DataWord("price"));
+        reader2.addStorageRow(TOKEN, new DataWord("balance_c"), new DataWord("1"));
+        assertFalse(reader1.getAccessSet().conflictsWith(reader2.getAccessSet()));
+        assertTrue(reader2.getAccessSet().readCount() > 0);
+
+        RepositoryImpl writer = track(root);
+        writer.addStorageRow(ORACLE, new DataWord("price"), new DataWord("8"));
+        assertTrue(writer.getAccessSet().conflictsWith(reader1.getAccessSet()));
+        assertTrue(reader2.getAccessSet().conflictsWith(writer.getAccessSet()));
+
+        RepositoryImpl writer2 = track(root);
+        writer2.addStorageRow(TOKEN, new DataWord("balance_b"), new DataWord("2"));
+        assertTrue(writer2.getAccessSet().conflictsWith(reader1.getAccessSet()));
+
+        //批量执行器本身不记录
+        assertNull(root.getAccessSet());
+    }
+
+    @Test
+    public void balanceKeys() {
+        ProgramAccessSet a = new ProgramAccessSet();
+        ProgramAccessSet b = new ProgramAccessSet();
+        a.readBalance(TOKEN);
+        b.readBalance(TOKEN);
+        assertFalse(a.conflictsWith(b));
+        b.writeBalance(TOKEN);
+        assertTrue(a.conflictsWith(b));
+        ProgramAccessSet merged = new ProgramAccessSet();
+        merged.addAll(b);
+        assertTrue(merged.conflictsWith(a));
+        assertEquals(1, merged.writeCount());
+    }
+
+}
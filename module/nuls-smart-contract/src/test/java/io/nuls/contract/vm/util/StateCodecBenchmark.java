@@ -0,0 +1,208 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2019 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.vm.util;
+
+import com.google.common.collect.BiMap;
+import com.google.common.collect.HashBiMap;
+import io.nuls.contract.vm.ObjectRef;
+import io.nuls.contract.vm.code.ClassCode;
+import io.nuls.contract.vm.code.ClassCodeLoader;
+import io.nuls.contract.vm.code.VariableType;
+import org.apache.commons.io.IOUtils;
+
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 合约状态编码: JSON与二进制格式的状态大小、编码与解码耗时
+ * <p>
+ * 类名字典取自测试资源中的NRC20合约, 状态按NRC20持有balances后的堆对象构造:
+ * 每个持有者一个HashMap$Node、Address、String、char[]、BigInteger、int[], 以及HashMap的table分块
+ * <p>
+ * Contract state encoding: state size and encode/decode time of the JSON and binary formats.
+ * The class name dictionary comes from the NRC20 contract in the test resources, the state is shaped like the heap
+ * of an NRC20 holding balances: per holder a HashMap$Node, Address, String, char[], BigInteger and int[], plus the
+ * chunks of the HashMap table
+ */
+public class StateCodecBenchmark {
+
+    private static final String NODE = "Ljava/util/HashMap$Node;";
+    private static final String ADDRESS = "Lio/nuls/contract/sdk/Address;";
+    private static final String STRING = "Ljava/lang/String;";
+    private static final String BIG_INTEGER = "Ljava/math/BigInteger;";
+
+    public static void main(String[] args) throws Exception {
+        int holders = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        BiMap<String, String> classNames = classNames();
+        List<Object> values = new ArrayList<>();
+        List<Object> chunks = new ArrayList<>();
+        state(holders, values, chunks);
+
+        long jsonBytes = 0;
+        long binaryBytes = 0;
+        for (Object value : values) {
+            jsonBytes += JsonUtils.encode(value, classNames).getBytes().length;
+            binaryBytes += StateCodec.encode(value, classNames).length;
+        }
+        for (Object chunk : chunks) {
+            jsonBytes += JsonUtils.encodeArray(chunk, ObjectRef.class, classNames).getBytes().length;
+            binaryBytes += StateCodec.encode(chunk, classNames).length;
+        }
+        System.out.println(String.format("holders: %d, values: %d, json: %d bytes, binary: %d bytes (%.1f%%)",
+                holders, values.size() + chunks.size(), jsonBytes, binaryBytes, binaryBytes * 100.0 / jsonBytes));
+
+        List<String> json = new ArrayList<>();
+        List<byte[]> binary = new ArrayList<>();
+        long jsonEncode = 0, binaryEncode = 0, jsonDecode = 0, binaryDecode = 0;
+        for (int i = 0; i < rounds * 2; i++) {
+            boolean measure = i >= rounds;
+            json.clear();
+            binary.clear();
+            long start = System.nanoTime();
+            for (Object value : values) {
+                json.add(JsonUtils.encode(value, classNames));
+            }
+            for (Object chunk : chunks) {
+                json.add(JsonUtils.encodeArray(chunk, ObjectRef.class, classNames));
+            }
+            long t1 = System.nanoTime();
+            for (Object value : values) {
+                binary.add(StateCodec.encode(value, classNames));
+            }
+            for (Object chunk : chunks) {
+                binary.add(StateCodec.encode(chunk, classNames));
+            }
+            long t2 = System.nanoTime();
+            for (int j = 0; j < values.size(); j++) {
+                JsonUtils.decode(json.get(j), classNames);
+            }
+            for (int j = values.size(); j < json.size(); j++) {
+                JsonUtils.decodeArray(json.get(j), ObjectRef.class, classNames);
+            }
+            long t3 = System.nanoTime();
+            for (byte[] bytes : binary) {
+                StateCodec.decode(bytes, classNames);
+            }
+            long t4 = System.nanoTime();
+            if (measure) {
+                jsonEncode += t1 - start;
+                binaryEncode += t2 - t1;
+                jsonDecode += t3 - t2;
+                binaryDecode += t4 - t3;
+            }
+        }
+        int count = (values.size() + chunks.size()) * rounds;
+        System.out.println(String.format("encode json: %.0f ns/value, binary: %.0f ns/value",
+                jsonEncode / (double) count, binaryEncode / (double) count));
+        System.out.println(String.format("decode json: %.0f ns/value, binary: %.0f ns/value",
+                jsonDecode / (double) count, binaryDecode / (double) count));
+    }
+
+    /**
+     * 与Heap.loadClassCodes相同的字典
+     */
+    private static BiMap<String, String> classNames() throws Exception {
+        byte[] bytes;
+        try (InputStream in = StateCodecBenchmark.class.getResourceAsStream("/nrc20")) {
+            bytes = IOUtils.toByteArray(in);
+        }
+        Map<String, ClassCode> classCodes = ClassCodeLoader.loadJarCache(bytes);
+        BiMap<String, String> classNames = HashBiMap.create(1024);
+        int i = 0;
+        for (ClassCode classCode : classCodes.values()) {
+            classNames.put(String.valueOf(i++), classCode.variableType.getDesc());
+        }
+        classNames.putAll(VariableType.DESCRIPTORS);
+        return classNames;
+    }
+
+    private static void state(int holders, List<Object> values, List<Object> chunks) {
+        Random random = new Random(20);
+        long ref = 100;
+        int tableLength = Integer.highestOneBit(holders * 2);
+        ObjectRef[] table = new ObjectRef[tableLength];
+        for (int i = 0; i < holders; i++) {
+            ObjectRef node = new ObjectRef(String.valueOf(ref++), NODE);
+            ObjectRef address = new ObjectRef(String.valueOf(ref++), ADDRESS);
+            ObjectRef string = new ObjectRef(String.valueOf(ref++), STRING);
+            ObjectRef chars = new ObjectRef(String.valueOf(ref++), "[C", 38);
+            ObjectRef bigInteger = new ObjectRef(String.valueOf(ref++), BIG_INTEGER);
+            ObjectRef mag = new ObjectRef(String.valueOf(ref++), "[I", 2);
+            String addressString = "tNULSeBaM" + Long.toString(Math.abs(random.nextLong()), 36);
+            BigInteger balance = BigInteger.valueOf(Math.abs(random.nextLong()) >> 8);
+
+            Map<String, Object> fields = new LinkedHashMap<>();
+            fields.put("hash", addressString.hashCode());
+            fields.put("key", address);
+            fields.put("value", bigInteger);
+            fields.put("next", table[i % tableLength]);
+            values.add(fields);
+            table[i % tableLength] = node;
+
+            fields = new LinkedHashMap<>();
+            fields.put("address", string);
+            values.add(fields);
+
+            fields = new LinkedHashMap<>();
+            fields.put("value", chars);
+            fields.put("hash", addressString.hashCode());
+            values.add(fields);
+
+            fields = new LinkedHashMap<>();
+            fields.put("0", addressString.toCharArray());
+            values.add(fields);
+
+            fields = new LinkedHashMap<>();
+            fields.put("signum", balance.signum());
+            fields.put("mag", mag);
+            fields.put("bitCount", 0);
+            fields.put("bitLength", 0);
+            fields.put("lowestSetBit", 0);
+            fields.put("firstNonzeroIntNum", 0);
+            values.add(fields);
+
+            fields = new LinkedHashMap<>();
+            fields.put("0", new int[]{(int) (balance.longValue() >>> 32), (int) balance.longValue()});
+            values.add(fields);
+        }
+        //table的第一个分块在数组对象的字段中, 其余分块单独保存
+        Map<String, Object> tableFields = new LinkedHashMap<>();
+        for (int i = 0; i < tableLength; i += 1024) {
+            ObjectRef[] chunk = new ObjectRef[Math.min(1024, tableLength - i)];
+            System.arraycopy(table, i, chunk, 0, chunk.length);
+            tableFields.put(String.valueOf(i / 1024), i == 0 ? chunk : null);
+            if (i > 0) {
+                chunks.add(chunk);
+            }
+        }
+        values.add(tableFields);
+    }
+
+}
@@ -0,0 +1,153 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2017-2019 nuls.io
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package io.nuls.contract.vm.util;
+
+import com.google.common.collect.BiMap;
+import com.google.common.collect.HashBiMap;
+import io.nuls.contract.vm.ObjectRef;
+import io.nuls.contract.vm.code.VariableType;
+import org.ethereum.vm.DataWord;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class StateCodecTest {
+
+    static BiMap<String, String> classNames() {
+        BiMap<String, String> classNames = HashBiMap.create();
+        classNames.put("0", "Lio/nuls/contract/token/SimpleToken;");
+        classNames.put("1", "Lio/nuls/contract/token/SimpleToken$Node;");
+        classNames.putAll(VariableType.DESCRIPTORS);
+        return classNames;
+    }
+
+    static Map<String, Object> fields() {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("i", -123456);
+        fields.put("j", Long.MIN_VALUE);
+        fields.put("f", 1.5f);
+        fields.put("d", -0.25d);
+        fields.put("z", true);
+        fields.put("b", (byte) -7);
+        fields.put("c", '中');
+        fields.put("s", (short) 300);
+        fields.put("str", "NULS 中文");
+        fields.put("null", null);
+        fields.put("node", new ObjectRef("42", "Lio/nuls/contract/token/SimpleToken$Node;"));
+        fields.put("table", new ObjectRef("1001", "Lio/nuls/contract/token/SimpleToken$Node;", 16));
+        fields.put("address", new ObjectRef("tNULSeBaN7vAqBANTtVxsiFsam4NcRUbqrCpzK", "Lio/nuls/contract/token/SimpleToken;"));
+        return fields;
+    }
+
+    @Test
+    public void roundTrip() {
+        BiMap<String, String> classNames = classNames();
+        Map<String, Object> fields = fields();
+        byte[] bytes = StateCodec.encode(fields, classNames);
+        assertTrue(StateCodec.isEncoded(bytes));
+        assertEquals(fields, StateCodec.decode(bytes, classNames));
+        //与JSON编码的解码结果一致
+        Object json = JsonUtils.decode(JsonUtils.encode(fields, classNames), classNames);
+        assertEquals(json, StateCodec.decode(bytes, classNames));
+        assertTrue(bytes.length < JsonUtils.encode(fields, classNames).getBytes().length);
+    }
+
+    @Test
+    public void arrays() {
+        BiMap<String, String> classNames = classNames();
+        Object[] arrays = {
+                new int[]{0, -1, Integer.MAX_VALUE, Integer.MIN_VALUE},
+                new long[]{Long.MAX_VALUE, 0, -2},
+                new float[]{Float.NaN, -0f},
+                new double[]{Double.MIN_VALUE, 3.14},
+                new boolean[]{true, false},
+                new byte[]{0, -128, 127},
+                "tNULSeBaN7vAqBANTtVxsiFsam4NcRUbqrCpzK".toCharArray(),
+                new short[]{Short.MIN_VALUE, 1},
+                new ObjectRef[]{null, new ObjectRef("7", "Ljava/lang/String;"), new ObjectRef("8", "[I", 4)}
+        };
+        for (Object array : arrays) {
+            Object decoded = StateCodec.decode(StateCodec.encode(array, classNames), classNames);
+            assertSame(array.getClass(), decoded.getClass());
+            assertTrue(Arrays.deepEquals(new Object[]{array}, new Object[]{decoded}));
+        }
+        Map<String, Object> chunks = new LinkedHashMap<>();
+        chunks.put("0", new int[1024]);
+        assertArrayEquals(new int[1024], (int[]) ((Map) StateCodec.decode(StateCodec.encode(chunks, classNames), classNames)).get("0"));
+    }
+
+    /**
+     * JSON编码的状态不会被误认为二进制格式
+     */
+    @Test
+    public void legacyJsonNotEncoded() {
+        BiMap<String, String> classNames = classNames();
+        assertFalse(StateCodec.isEncoded(JsonUtils.encode(fields(), classNames).getBytes()));
+        assertFalse(StateCodec.isEncoded(JsonUtils.encodeArray(new int[]{1, 2}, Integer.TYPE, classNames).getBytes()));
+        assertFalse(StateCodec.isEncoded(new byte[0]));
+        try {
+            StateCodec.decode(Arrays.copyOf(StateCodec.encode(fields(), classNames), 10), classNames);
+            fail();
+        } catch (IllegalArgumentException e) {
+            //截断的数据
+        }
+    }
+
+    /**
+     * 短于32字节的编码经DataWord.of左侧补零, 读取时去掉前导零后仍能还原
+     */
+    @Test
+    public void shortValuesThroughDataWord() {
+        BiMap<String, String> classNames = classNames();
+        Map<String, Object> one = new LinkedHashMap<>();
+        one.put("x", 0);
+        Object[] values = {
+                Collections.emptyMap(),
+                one,
+                new int[]{0},
+                new boolean[]{true},
+                new byte[]{0, 0},
+                new ObjectRef[]{null},
+                fields()
+        };
+        for (Object value : values) {
+            byte[] bytes = StateCodec.encode(value, classNames);
+            DataWord dataWord = DataWord.of(bytes);
+            if (bytes.length < 32) {
+                assertEquals(32, dataWord.getData().length);
+            }
+            //状态库保存的是去掉前导零的数据, 读取时再由DataWord.of还原
+            byte[] stored = DataWord.of(dataWord.getNoLeadZeroesData()).getNoLeadZeroesData();
+            assertArrayEquals(bytes, stored);
+            assertTrue(StateCodec.isEncoded(stored));
+            Object decoded = StateCodec.decode(stored, classNames);
+            assertTrue(Arrays.deepEquals(new Object[]{value}, new Object[]{decoded}));
+        }
+    }
+}
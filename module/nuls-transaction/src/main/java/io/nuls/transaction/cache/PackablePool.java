@@ -4,6 +4,7 @@ import io.nuls.base.data.Transaction;
 import io.nuls.core.core.annotation.Autowired;
 import io.nuls.core.core.annotation.Component;
 import io.nuls.core.model.ByteArrayWrapper;
+import io.nuls.transaction.constant.TxConfig;
 import io.nuls.transaction.model.bo.Chain;
 import io.nuls.transaction.storage.UnconfirmedTxStorageService;
 
@@ -22,6 +23,16 @@ public class PackablePool {
 
     @Autowired
     private UnconfirmedTxStorageService unconfirmedTxStorageService;
+    @Autowired
+    private TxConfig txConfig;
+
+    /**
+     * 是否按手续费率排序
+     * Whether the packable transactions are ordered by fee rate
+     */
+    public boolean isFeeRatePriority() {
+        return txConfig.isPackableFeeRatePriority();
+    }
 
     /**
      * 将交易加入到待打包队列最前端，打包时最先取出
@@ -33,6 +44,11 @@ public class PackablePool {
      */
     public boolean offerFirst(Chain chain, Transaction tx) {
         ByteArrayWrapper hash = new ByteArrayWrapper(tx.getHash().getBytes());
+        if (isFeeRatePriority()) {
+            chain.getPackableTxQueue().offer(tx, true);
+            chain.getPackableTxMap().put(hash, tx);
+            return true;
+        }
         synchronized (hash) {
             if (chain.getPackableHashQueue().offerFirst(hash)) {
                 chain.getPackableTxMap().put(hash, tx);
@@ -50,6 +66,10 @@ public class PackablePool {
      * @return
      */
     public boolean offerFirstOnlyHash(Chain chain, Transaction tx) {
+        if (isFeeRatePriority()) {
+            chain.getPackableTxQueue().offer(tx, true);
+            return true;
+        }
         ByteArrayWrapper hash = new ByteArrayWrapper(tx.getHash().getBytes());
         synchronized (hash) {
             if (chain.getPackableHashQueue().offerFirst(hash)) {
@@ -70,6 +90,9 @@ public class PackablePool {
      */
     public boolean add(Chain chain, Transaction tx) {
         ByteArrayWrapper hash = new ByteArrayWrapper(tx.getHash().getBytes());
+        if (isFeeRatePriority()) {
+            return addByFeeRate(chain, hash, tx);
+        }
         synchronized (hash) {
             if (chain.getPackableHashQueue().offer(hash)) {
                 chain.getPackableTxMap().put(hash, tx);
@@ -80,6 +103,32 @@ public class PackablePool {
         return false;
     }
 
+    /**
+     * 按手续费率加入待打包队列, 超过容量上限时淘汰费率最低的交易.
+     * 被淘汰的交易不在待打包池中, 由未确认交易清理机制回滚
+     * Add the transaction by fee rate, the lowest fee rate transactions are evicted when the pool is over its size limit.
+     * Evicted transactions are rolled back by the unconfirmed transaction cleaning task
+     */
+    private boolean addByFeeRate(Chain chain, ByteArrayWrapper hash, Transaction tx) {
+        PackableTxQueue queue = chain.getPackableTxQueue();
+        queue.offer(tx, false);
+        chain.getPackableTxMap().put(hash, tx);
+        long maxDataSize = txConfig.getPackablePoolMaxDataSize();
+        boolean accepted = true;
+        while (queue.getDataSize() > maxDataSize) {
+            Transaction evicted = queue.pollLast();
+            if (null == evicted) {
+                break;
+            }
+            chain.getPackableTxMap().remove(new ByteArrayWrapper(evicted.getHash().getBytes()));
+            if (evicted == tx) {
+                accepted = false;
+            }
+            chain.getLogger().debug("Packable pool is full, evict the lowest fee rate transaction, hash:{}", evicted.getHash().toHex());
+        }
+        return accepted;
+    }
+
     /**
      * 从待打包队列获取一笔交易
      * Gets a transaction from the queue to be packaged
@@ -95,6 +144,9 @@ public class PackablePool {
      * @return
      */
     public Transaction poll(Chain chain) {
+        if (isFeeRatePriority()) {
+            return pollByFeeRate(chain, false);
+        }
         while (true) {
             ByteArrayWrapper hash = chain.getPackableHashQueue().poll();
             if (null == hash) {
@@ -123,6 +175,9 @@ public class PackablePool {
      * @return
      */
     public Transaction pollLast(Chain chain) {
+        if (isFeeRatePriority()) {
+            return pollByFeeRate(chain, true);
+        }
         while (true) {
             ByteArrayWrapper hash = chain.getPackableHashQueue().pollLast();
             if (null == hash) {
@@ -139,11 +194,29 @@ public class PackablePool {
         }
     }
 
+    private Transaction pollByFeeRate(Chain chain, boolean last) {
+        PackableTxQueue queue = chain.getPackableTxQueue();
+        while (true) {
+            Transaction tx = last ? queue.pollLast() : queue.poll();
+            if (null == tx) {
+                return null;
+            }
+            if (chain.getPackableTxMap().containsKey(new ByteArrayWrapper(tx.getHash().getBytes()))) {
+                return tx;
+            }
+            unconfirmedTxStorageService.removeTx(chain.getChainId(), tx.getHash().getBytes());
+        }
+    }
+
     public void clearConfirmedTxs(Chain chain, List<byte[]> txHashs) {
         Map<ByteArrayWrapper, Transaction> map = chain.getPackableTxMap();
+        boolean feeRatePriority = isFeeRatePriority();
         for (byte[] hash : txHashs) {
             ByteArrayWrapper wrapper = new ByteArrayWrapper(hash);
             map.remove(wrapper);
+            if (feeRatePriority) {
+                chain.getPackableTxQueue().remove(wrapper);
+            }
         }
     }
 
@@ -151,6 +224,9 @@ public class PackablePool {
         Map<ByteArrayWrapper, Transaction> map = chain.getPackableTxMap();
         ByteArrayWrapper wrapper = new ByteArrayWrapper(tx.getHash().getBytes());
         map.remove(wrapper);
+        if (isFeeRatePriority()) {
+            chain.getPackableTxQueue().remove(wrapper);
+        }
     }
 
     /**
@@ -169,6 +245,9 @@ public class PackablePool {
     }
 
     public int packableHashQueueSize(Chain chain) {
+        if (isFeeRatePriority()) {
+            return chain.getPackableTxQueue().size();
+        }
         return chain.getPackableHashQueue().size();
     }
 
@@ -178,6 +257,7 @@ public class PackablePool {
 
     public void clear(Chain chain) {
         chain.getPackableHashQueue().clear();
+        chain.getPackableTxQueue().clear();
     }
 
 }
@@ -0,0 +1,302 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2019 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+package io.nuls.transaction.cache;
+
+import io.nuls.base.data.CoinFrom;
+import io.nuls.base.data.Transaction;
+import io.nuls.core.exception.NulsException;
+import io.nuls.core.model.ByteArrayWrapper;
+
+import java.math.BigInteger;
+import java.util.*;
+
+/**
+ * 按手续费率排序的待打包交易队列
+ * Packable transactions ordered by fee per KB
+ * <p>
+ * 1.费率 = 手续费 * 1024 / 交易大小, 入队时计算一次
+ * 2.同一账户的连续交易(后一笔的nonce为前一笔hash的后8位), 后一笔的有效费率不高于前一笔, 保证先取出前一笔
+ * 3.费率相同时按入队顺序, offerFirst的交易排在同费率交易的最前面
+ * 4.插入、取出、删除均为O(log n)
+ * <p>
+ * 1.fee rate = fee * 1024 / tx size, computed once on insert
+ * 2.for chained transactions of the same account (nonce is the last 8 bytes of the previous hash),
+ * the effective rate of the later one never exceeds the previous one, so the previous one is taken first
+ * 3.equal rates keep insertion order, offerFirst puts the transaction ahead of the same rate ones
+ * 4.insert, poll and remove are all O(log n)
+ */
+public class PackableTxQueue {
+
+    private static final int NONCE_LENGTH = 8;
+
+    private static final BigInteger KB = BigInteger.valueOf(1024);
+
+    private static final BigInteger MAX_RATE = BigInteger.valueOf(Long.MAX_VALUE);
+
+    private static final Comparator<Item> COMPARATOR = (o1, o2) -> {
+        int rst = Long.compare(o2.feeRate, o1.feeRate);
+        if (rst != 0) {
+            return rst;
+        }
+        rst = Long.compare(o1.sequence, o2.sequence);
+        if (rst != 0) {
+            return rst;
+        }
+        return Long.compare(o1.id, o2.id);
+    };
+
+    private final TreeSet<Item> queue = new TreeSet<>(COMPARATOR);
+
+    /**
+     * 交易hash -> 队列中的交易
+     */
+    private final Map<ByteArrayWrapper, Item> items = new HashMap<>();
+
+    /**
+     * 账户+资产+该交易产生的nonce -> 队列中的交易, 用于查找后续交易的前一笔交易
+     */
+    private final Map<ByteArrayWrapper, Item> nonceIndex = new HashMap<>();
+
+    /**
+     * 账户+资产+交易使用的nonce -> 队列中的交易, 用于查找前一笔交易的后续交易
+     */
+    private final Map<ByteArrayWrapper, Item> spentIndex = new HashMap<>();
+
+    private long headSequence;
+
+    private long tailSequence;
+
+    private long idSequence;
+
+    /**
+     * 队列中交易的总大小(B)
+     */
+    private long dataSize;
+
+    /**
+     * 加入队列, 交易已存在时忽略
+     * Add the transaction, ignored if it is already in the queue
+     *
+     * @param tx    交易
+     * @param first 是否放到同费率交易的最前面
+     * @return 是否为新加入的交易
+     */
+    public synchronized boolean offer(Transaction tx, boolean first) {
+        ByteArrayWrapper hash = new ByteArrayWrapper(tx.getHash().getBytes());
+        if (items.containsKey(hash)) {
+            return false;
+        }
+        long sequence = first ? --headSequence : ++tailSequence;
+        Item item = new Item(tx, hash, feeRate(tx), sequence, ++idSequence);
+        try {
+            if (null != tx.getCoinData() && tx.getType() > 1) {
+                byte[] hashBytes = tx.getHash().getBytes();
+                byte[] nonce = Arrays.copyOfRange(hashBytes, hashBytes.length - NONCE_LENGTH, hashBytes.length);
+                for (CoinFrom from : tx.getCoinDataInstance().getFrom()) {
+                    if (from.getLocked() != 0) {
+                        continue;
+                    }
+                    item.spentKeys.add(nonceKey(from, from.getNonce()));
+                    item.nonceKeys.add(nonceKey(from, nonce));
+                }
+            }
+        } catch (NulsException e) {
+            //coinData解析失败的交易只按费率排序
+        }
+        //前一笔交易在队列中, 则不能排在它前面
+        for (ByteArrayWrapper key : item.spentKeys) {
+            Item previous = nonceIndex.get(key);
+            if (previous != null) {
+                follow(item, previous);
+            }
+        }
+        queue.add(item);
+        items.put(hash, item);
+        for (ByteArrayWrapper key : item.nonceKeys) {
+            nonceIndex.put(key, item);
+        }
+        for (ByteArrayWrapper key : item.spentKeys) {
+            spentIndex.put(key, item);
+        }
+        //后续交易先于本交易入队(例如打包时倒序还回队列), 需要把后续交易调整到本交易之后
+        Deque<Item> parents = new ArrayDeque<>();
+        parents.push(item);
+        while (!parents.isEmpty()) {
+            Item parent = parents.pop();
+            for (ByteArrayWrapper key : parent.nonceKeys) {
+                Item next = spentIndex.get(key);
+                if (next != null && COMPARATOR.compare(next, parent) < 0) {
+                    queue.remove(next);
+                    follow(next, parent);
+                    queue.add(next);
+                    parents.push(next);
+                }
+            }
+        }
+        dataSize += tx.getSize();
+        return true;
+    }
+
+    private static long feeRate(Transaction tx) {
+        int size = tx.getSize();
+        if (size == 0) {
+            return 0L;
+        }
+        try {
+            return tx.getFee().multiply(KB).divide(BigInteger.valueOf(size)).min(MAX_RATE).longValue();
+        } catch (NulsException e) {
+            return 0L;
+        }
+    }
+
+    /**
+     * 调整排序字段, 使item排在previous之后
+     */
+    private void follow(Item item, Item previous) {
+        if (previous.feeRate < item.feeRate) {
+            item.feeRate = previous.feeRate;
+        }
+        if (previous.feeRate == item.feeRate && previous.sequence >= item.sequence) {
+            item.sequence = previous.sequence;
+            if (previous.id > item.id) {
+                item.id = ++idSequence;
+            }
+        }
+    }
+
+    /**
+     * 取出费率最高的交易
+     * Take the transaction with the highest fee rate
+     */
+    public synchronized Transaction poll() {
+        return detach(queue.pollFirst());
+    }
+
+    /**
+     * 取出费率最低的交易
+     * Take the transaction with the lowest fee rate
+     */
+    public synchronized Transaction pollLast() {
+        return detach(queue.pollLast());
+    }
+
+    /**
+     * 移除指定交易
+     * Remove the transaction
+     *
+     * @return 被移除的交易, 不存在时返回null
+     */
+    public synchronized Transaction remove(ByteArrayWrapper hash) {
+        Item item = items.get(hash);
+        if (item == null) {
+            return null;
+        }
+        queue.remove(item);
+        return detach(item);
+    }
+
+    /**
+     * 队列中最低的费率, 队列为空时返回-1
+     */
+    public synchronized long lowestFeeRate() {
+        return queue.isEmpty() ? -1L : queue.last().feeRate;
+    }
+
+    /**
+     * 交易入队时计算出的有效费率, 不在队列中时返回-1
+     */
+    public synchronized long feeRate(ByteArrayWrapper hash) {
+        Item item = items.get(hash);
+        return item == null ? -1L : item.feeRate;
+    }
+
+    public synchronized boolean contains(ByteArrayWrapper hash) {
+        return items.containsKey(hash);
+    }
+
+    public synchronized int size() {
+        return queue.size();
+    }
+
+    public synchronized long getDataSize() {
+        return dataSize;
+    }
+
+    public synchronized void clear() {
+        queue.clear();
+        items.clear();
+        nonceIndex.clear();
+        spentIndex.clear();
+        dataSize = 0;
+    }
+
+    private Transaction detach(Item item) {
+        if (item == null) {
+            return null;
+        }
+        items.remove(item.hash);
+        for (ByteArrayWrapper key : item.nonceKeys) {
+            nonceIndex.remove(key, item);
+        }
+        for (ByteArrayWrapper key : item.spentKeys) {
+            spentIndex.remove(key, item);
+        }
+        dataSize -= item.tx.getSize();
+        return item.tx;
+    }
+
+    private static ByteArrayWrapper nonceKey(CoinFrom from, byte[] nonce) {
+        byte[] address = from.getAddress();
+        byte[] key = new byte[address.length + 8 + nonce.length];
+        System.arraycopy(address, 0, key, 0, address.length);
+        int offset = address.length;
+        int assetsChainId = from.getAssetsChainId();
+        int assetsId = from.getAssetsId();
+        for (int i = 0; i < 4; i++) {
+            key[offset + i] = (byte) (assetsChainId >>> (8 * i));
+            key[offset + 4 + i] = (byte) (assetsId >>> (8 * i));
+        }
+        System.arraycopy(nonce, 0, key, offset + 8, nonce.length);
+        return new ByteArrayWrapper(key);
+    }
+
+    private static class Item {
+        private final Transaction tx;
+        private final ByteArrayWrapper hash;
+        private final List<ByteArrayWrapper> nonceKeys = new ArrayList<>();
+        private final List<ByteArrayWrapper> spentKeys = new ArrayList<>();
+        private long feeRate;
+        private long sequence;
+        private long id;
+
+        private Item(Transaction tx, ByteArrayWrapper hash, long feeRate, long sequence, long id) {
+            this.tx = tx;
+            this.hash = hash;
+            this.feeRate = feeRate;
+            this.sequence = sequence;
+            this.id = id;
+        }
+    }
+}
@@ -51,6 +51,12 @@ public final class TxCmd {
     public static final String TX_BLOCK_HEIGHT = "tx_blockHeight";
     public static final String TX_VERIFYTX = "tx_verifyTx";
 
+    /**
+     * 获取签名验证的统计数据
+     * Get the signature verification statistics
+     */
+    public static final String TX_SIGN_VERIFY_METRICS = "tx_signVerifyMetrics";
+
     /**
      * 修改节点共识状态
      * Modify the node consensus state
@@ -32,6 +32,10 @@ public class TxConfig extends ConfigBean implements ModuleConfig {
     private String encoding;
     /** 未确认交易过期时间秒 */
     private long unconfirmedTxExpire;
+    /** 待打包交易是否按手续费率排序, false为按接收顺序 */
+    private boolean packableFeeRatePriority;
+    /** 按手续费率排序时待打包交易总大小上限(B), 超过时淘汰费率最低的交易, 0表示使用默认值 */
+    private long packablePoolMaxDataSize;
 
 
     public String getDataPath() {
@@ -86,6 +90,22 @@ public class TxConfig extends ConfigBean implements ModuleConfig {
         this.unconfirmedTxExpire = unconfirmedTxExpire;
     }
 
+    public boolean isPackableFeeRatePriority() {
+        return packableFeeRatePriority;
+    }
+
+    public void setPackableFeeRatePriority(boolean packableFeeRatePriority) {
+        this.packableFeeRatePriority = packableFeeRatePriority;
+    }
+
+    public long getPackablePoolMaxDataSize() {
+        return packablePoolMaxDataSize > 0 ? packablePoolMaxDataSize : TxConstant.PACKABLE_TX_MAP_MAX_DATA_SIZE;
+    }
+
+    public void setPackablePoolMaxDataSize(long packablePoolMaxDataSize) {
+        this.packablePoolMaxDataSize = packablePoolMaxDataSize;
+    }
+
     @Override
     public VersionChangeInvoker getVersionChangeInvoker() throws ClassNotFoundException, NoSuchMethodException, IllegalAccessException, InvocationTargetException, InstantiationException {
         Class<?> aClass = Class.forName("io.nuls.transaction.rpc.upgrade.TxVersionChangeInvoker");
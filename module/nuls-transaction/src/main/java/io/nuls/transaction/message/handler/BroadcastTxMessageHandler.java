@@ -33,6 +33,11 @@ public class BroadcastTxMessageHandler implements MessageProcessor {
 
     @Override
     public void process(int chainId, String nodeId, String msgStr) {
+        process(chainId, nodeId, RPCUtil.decode(msgStr));
+    }
+
+    @Override
+    public void process(int chainId, String nodeId, byte[] msgBytes) {
         Chain chain = null;
         try {
             chain = chainManager.getChain(chainId);
@@ -41,14 +46,14 @@ public class BroadcastTxMessageHandler implements MessageProcessor {
                 return;
             }
             //解析新的交易消息
-            BroadcastTxMessage message = RPCUtil.getInstanceRpcStr(msgStr, BroadcastTxMessage.class);
+            BroadcastTxMessage message = RPCUtil.getInstance(msgBytes, BroadcastTxMessage.class);
             if (message == null) {
                 return;
             }
             Transaction transaction = message.getTx();
-            String hash = transaction.getHash().toHex();
             //交易缓存中是否已存在该交易hash
-            boolean rs = TxDuplicateRemoval.insertAndCheck(hash);
+            boolean rs = TxDuplicateRemoval.insertAndCheck(transaction.getHash().getBytes());
+            String hash = transaction.getHash().toHex();
             //记录向本节点发送完整交易的其他网络节点，转发hash时排除掉
             TxDuplicateRemoval.putExcludeNode(hash, nodeId);
             if (!rs) {
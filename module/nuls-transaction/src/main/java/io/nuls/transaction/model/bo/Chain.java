@@ -5,6 +5,7 @@ import io.nuls.base.data.NulsHash;
 import io.nuls.base.data.Transaction;
 import io.nuls.core.log.logback.NulsLogger;
 import io.nuls.core.model.ByteArrayWrapper;
+import io.nuls.transaction.cache.PackableTxQueue;
 import io.nuls.transaction.constant.TxConstant;
 import io.nuls.transaction.model.bo.config.ConfigBean;
 import io.nuls.transaction.model.po.TransactionNetPO;
@@ -66,6 +67,11 @@ public class Chain {
      */
     private Map<ByteArrayWrapper, Transaction> packableTxMap;
 
+    /**
+     * 按手续费率排序的可打包交易队列, 开启packableFeeRatePriority时代替packableHashQueue
+     */
+    private PackableTxQueue packableTxQueue;
+
 
     /**
      * 未进行验证的交易队列
@@ -123,6 +129,7 @@ public class Chain {
         this.txRegisterMap = new ConcurrentHashMap<>(TxConstant.INIT_CAPACITY_32);
         this.packableHashQueue = new LinkedBlockingDeque<>();
         this.packableTxMap = new ConcurrentHashMap<>();
+        this.packableTxQueue = new PackableTxQueue();
         this.contractTxFail = false;
         this.txPackageOrphanMap = new HashMap<>();
         this.orphanList = new LinkedList<>();
@@ -175,6 +182,10 @@ public class Chain {
         this.packableHashQueue = packableHashQueue;
     }
 
+    public PackableTxQueue getPackableTxQueue() {
+        return packableTxQueue;
+    }
+
     public Map<ByteArrayWrapper, Transaction> getPackableTxMap() {
         return packableTxMap;
     }
@@ -27,6 +27,7 @@ package io.nuls.transaction.rpc.cmd;
 import io.nuls.base.RPCUtil;
 import io.nuls.base.data.NulsHash;
 import io.nuls.base.data.Transaction;
+import io.nuls.base.signture.SignatureVerifier;
 import io.nuls.core.core.annotation.Autowired;
 import io.nuls.core.core.annotation.Component;
 import io.nuls.core.exception.NulsException;
@@ -205,6 +206,28 @@ public class ClientCmd extends BaseCmd {
         }
     }
 
+    /**
+     * 获取签名验证的吞吐、缓存命中等统计数据
+     * get throughput and cache hit statistics of the signature verification
+     *
+     * @param params
+     * @return
+     */
+    @CmdAnnotation(cmd = TxCmd.TX_SIGN_VERIFY_METRICS, version = 1.0, description = "获取签名验证的统计数据/Get signature verification statistics")
+    @ResponseData(name = "返回值", description = "返回一个Map对象", responseType = @TypeDescriptor(value = Map.class, mapKeys = {
+            @Key(name = "threads", valueType = Integer.class, description = "验签线程数"),
+            @Key(name = "batchCount", valueType = Long.class, description = "批量验证次数"),
+            @Key(name = "verifyCount", valueType = Long.class, description = "实际验签次数"),
+            @Key(name = "failCount", valueType = Long.class, description = "验签失败次数"),
+            @Key(name = "cacheHitCount", valueType = Long.class, description = "缓存命中次数"),
+            @Key(name = "cacheSize", valueType = Integer.class, description = "缓存的签名数"),
+            @Key(name = "avgVerifyMicros", valueType = Long.class, description = "单次验签平均耗时(微秒)"),
+            @Key(name = "verifyPerSecondPerThread", valueType = Long.class, description = "单线程每秒验签数")
+    }))
+    public Response getSignVerifyMetrics(Map params) {
+        return success(SignatureVerifier.getMetrics());
+    }
+
     private void errorLogProcess(Chain chain, Exception e) {
         if (chain == null) {
             LoggerUtil.LOG.error(e);
@@ -1,6 +1,7 @@
 package io.nuls.transaction.service.impl;
 
 import io.nuls.base.RPCUtil;
+import io.nuls.base.basic.TransactionManager;
 import io.nuls.base.data.BlockHeader;
 import io.nuls.base.data.NulsHash;
 import io.nuls.base.data.Transaction;
@@ -116,8 +117,11 @@ public class ConfirmedTxServiceImpl implements ConfirmedTxService {
         try {
             blockHeader = TxUtil.getInstanceRpcStr(blockHeaderStr, BlockHeader.class);
             logger.debug("[保存区块] 开始 -----高度:{} -----数量:{}", blockHeader.getHeight(), txStrList.size());
-            for (String txStr : txStrList) {
-                Transaction tx =TxUtil.getInstanceRpcStr(txStr, Transaction.class);
+            //并行反序列化并计算交易hash
+            List<Transaction> parsedList = TransactionManager.getInstancesRpcStr(txStrList);
+            for (int i = 0; i < txStrList.size(); i++) {
+                String txStr = txStrList.get(i);
+                Transaction tx = parsedList.get(i);
                 txList.add(tx);
                 tx.setBlockHeight(blockHeader.getHeight());
                 txHashs.add(tx.getHash().getBytes());
@@ -28,6 +28,7 @@ import io.nuls.base.RPCUtil;
 import io.nuls.base.basic.AddressTool;
 import io.nuls.base.basic.NulsByteBuffer;
 import io.nuls.base.basic.TransactionFeeCalculator;
+import io.nuls.base.basic.TransactionManager;
 import io.nuls.base.data.*;
 import io.nuls.base.protocol.TxRegisterDetail;
 import io.nuls.base.signture.MultiSignTxSignature;
@@ -201,7 +202,7 @@ public class TxServiceImpl implements TxService {
                 throw new NulsException(TxErrorCode.TX_BROADCAST_FAIL);
             }
             //加入去重过滤集合,防止其他节点转发回来再次处理该交易
-            TxDuplicateRemoval.insertAndCheck(hash.toHex());
+            TxDuplicateRemoval.insertAndCheck(hash.getBytes());
 
         } catch (IOException e) {
             throw new NulsException(TxErrorCode.DESERIALIZE_ERROR);
@@ -1375,8 +1376,11 @@ public class TxServiceImpl implements TxService {
         List<byte[]> keys = new ArrayList<>();
 
         long f1 = System.currentTimeMillis();
-        for (String txStr : txStrList) {
-            Transaction tx = TxUtil.getInstanceRpcStr(txStr, Transaction.class);
+        //并行反序列化并计算交易hash
+        List<Transaction> parsedList = TransactionManager.getInstancesRpcStr(txStrList);
+        for (int i = 0; i < txStrList.size(); i++) {
+            String txStr = txStrList.get(i);
+            Transaction tx = parsedList.get(i);
             txList.add(new TxVerifyWrapper(tx, txStr));
             int type = tx.getType();
 
@@ -1414,17 +1418,13 @@ public class TxServiceImpl implements TxService {
         long f2 = System.currentTimeMillis();
         timeF1 = f2 - f1;
         //验证交易是否已确认过
-        List<byte[]> confirmedList = confirmedTxStorageService.getExistTxs(chainId, keys);
+        List<byte[]> confirmedList = confirmedTxStorageService.getExistKeys(chainId, keys);
         if (!confirmedList.isEmpty()) {
             logger.error("There are confirmed transactions");
-            try {
-                for (byte[] cfmtx : confirmedList) {
-                    logger.error("confirmed hash:{}", TxUtil.getTransaction(cfmtx).getHash().toHex());
-                }
-            } finally {
-                logger.error("Show confirmed transaction deserialize fail");
-                throw new NulsException(TxErrorCode.TX_CONFIRMED);
+            for (byte[] hash : confirmedList) {
+                logger.error("confirmed hash:{}", HexUtil.encode(hash));
             }
+            throw new NulsException(TxErrorCode.TX_CONFIRMED);
         }
         long f3 = System.currentTimeMillis();
         timeF2 = f3 - f2;
@@ -104,4 +104,13 @@ public interface ConfirmedTxStorageService {
      */
     List<byte[]> getExistTxs(int chainId, List<byte[]> hashList);
 
+    /**
+     * 根据hash 获取已确认的交易hash, 不读取交易数据
+     * Get the hashes that are already confirmed, without reading the transactions
+     * @param chainId
+     * @param hashList
+     * @return List<byte[]> 存在的hash
+     */
+    List<byte[]> getExistKeys(int chainId, List<byte[]> hashList);
+
 }
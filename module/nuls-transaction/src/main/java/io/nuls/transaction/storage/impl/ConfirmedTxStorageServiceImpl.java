@@ -184,11 +184,7 @@ public class ConfirmedTxStorageServiceImpl implements ConfirmedTxStorageService
 
     @Override
     public boolean isExists(int chainId, NulsHash hash) {
-        byte[] txBytes = RocksDBService.get(TxDBConstant.DB_TRANSACTION_CONFIRMED_PREFIX + chainId, hash.getBytes());
-        if (null != txBytes && txBytes.length > 0) {
-            return true;
-        }
-        return false;
+        return RocksDBService.exists(TxDBConstant.DB_TRANSACTION_CONFIRMED_PREFIX + chainId, hash.getBytes());
     }
 
     @Override
@@ -221,4 +217,12 @@ public class ConfirmedTxStorageServiceImpl implements ConfirmedTxStorageService
         //根据交易hash批量查询交易数据
         return RocksDBService.multiGetAsList(TxDBConstant.DB_TRANSACTION_CONFIRMED_PREFIX + chainId, hashList);
     }
+
+    @Override
+    public List<byte[]> getExistKeys(int chainId, List<byte[]> hashList) {
+        if (hashList == null || hashList.size() == 0) {
+            return new ArrayList<>();
+        }
+        return RocksDBService.multiExists(TxDBConstant.DB_TRANSACTION_CONFIRMED_PREFIX + chainId, hashList);
+    }
 }
@@ -152,11 +152,15 @@ public class OrphanTxProcessTask implements Runnable {
                 return true;
             }
             //待打包队列map超过预定值,则不再接受处理交易,直接转发交易完整交易
+            //按手续费率排序时由待打包队列淘汰低费率交易, 不再随机丢弃
+            boolean feeRatePriority = packablePool.isFeeRatePriority();
             int packableTxMapDataSize = 0;
-            for(Transaction transaction : chain.getPackableTxMap().values()){
-                packableTxMapDataSize += transaction.size();
+            if (!feeRatePriority) {
+                for (Transaction transaction : chain.getPackableTxMap().values()) {
+                    packableTxMapDataSize += transaction.size();
+                }
             }
-            if(TxUtil.discardTx(chain, packableTxMapDataSize, tx)){
+            if(!feeRatePriority && TxUtil.discardTx(chain, packableTxMapDataSize, tx)){
                 //待打包队列map超过预定值, 不处理转发失败的情况
                 String hash = tx.getHash().toHex();
                 NetworkCall.broadcastTx(chain, tx, TxDuplicateRemoval.getExcludeNode(hash));
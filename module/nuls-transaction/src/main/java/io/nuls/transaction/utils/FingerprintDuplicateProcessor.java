@@ -0,0 +1,194 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2017-2019 nuls.io
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *
+ */
+
+package io.nuls.transaction.utils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 无锁、固定内存的交易hash去重器
+ * Lock-free, fixed memory duplicate filter of transaction hashes
+ * <p>
+ * 交易hash本身是均匀分布的摘要, 直接取前8字节作为指纹, 存入开放寻址的long数组(线性探测, CAS写入).
+ * 分为当前和上一代两张表, 当前表写满maxSize个后轮换, 上一代被丢弃, 因此始终保留最近maxSize~2*maxSize个hash,
+ * 与HashSetDuplicateProcessor保留最近插入数据的语义一致.
+ * 不同hash指纹相同的概率约为 n/2^64, 可以忽略.
+ * <p>
+ * Hashes are uniformly distributed digests, so the first 8 bytes are used as the fingerprint and stored in an
+ * open-addressed long array (linear probing, CAS writes). There is a current and a previous generation,
+ * the current one is rotated after maxSize inserts and the previous one is dropped, so the latest
+ * maxSize ~ 2*maxSize hashes are always kept, the same recency semantics as HashSetDuplicateProcessor.
+ * Fingerprint collisions happen with probability about n/2^64 and are ignored.
+ */
+public class FingerprintDuplicateProcessor {
+
+    private static final long EMPTY = 0L;
+
+    private final int maxSize;
+
+    private final int capacity;
+
+    private final AtomicReference<Generation> generation;
+
+    public FingerprintDuplicateProcessor(int maxSize) {
+        this.maxSize = maxSize;
+        //负载因子不超过0.5, 保证探测长度很短
+        int cap = Integer.highestOneBit(Math.max(maxSize, 8) - 1) << 2;
+        this.capacity = cap;
+        this.generation = new AtomicReference<>(new Generation(new Table(cap), new Table(cap)));
+    }
+
+    /**
+     * 加入，返回false则表示已存在
+     * Insert the hash, false means it already exists
+     *
+     * @param hash 交易hash
+     * @return 是否为新的hash
+     */
+    public boolean insertAndCheck(byte[] hash) {
+        long fingerprint = fingerprint(hash);
+        //本线程已写入的表, 轮换后该表成为上一代, 其中的指纹是本线程写入的, 不能当作重复
+        Table inserted = null;
+        while (true) {
+            Generation gen = generation.get();
+            if (gen.previous != inserted && gen.previous.contains(fingerprint)) {
+                return false;
+            }
+            int result = gen.current.insert(fingerprint);
+            if (result == Table.EXISTS) {
+                return false;
+            }
+            if (result == Table.INSERTED) {
+                //写入期间发生了轮换, 其他线程可能已在新一代中检查过上一代而未看到本次写入, 需要在新一代中重新确认
+                boolean unchanged = generation.get() == gen;
+                if (gen.current.count.incrementAndGet() >= maxSize) {
+                    rotate(gen);
+                }
+                if (unchanged) {
+                    return true;
+                }
+                inserted = gen.current;
+                continue;
+            }
+            //表已满(并发插入导致超出maxSize), 轮换后重试
+            rotate(gen);
+        }
+    }
+
+    public boolean contains(byte[] hash) {
+        long fingerprint = fingerprint(hash);
+        Generation gen = generation.get();
+        return gen.current.contains(fingerprint) || gen.previous.contains(fingerprint);
+    }
+
+    /**
+     * 占用的内存(字节), 只包含两张表的数组
+     * Memory held by the two tables in bytes
+     */
+    public long memorySize() {
+        return 2L * capacity * Long.BYTES;
+    }
+
+    private void rotate(Generation gen) {
+        //只有一个线程能轮换成功, 其他线程直接使用新的表
+        generation.compareAndSet(gen, new Generation(new Table(capacity), gen.current));
+    }
+
+    private static long fingerprint(byte[] hash) {
+        long value = 0;
+        int length = Math.min(hash.length, Long.BYTES);
+        for (int i = 0; i < length; i++) {
+            value = (value << 8) | (hash[i] & 0xFF);
+        }
+        return value == EMPTY ? 1L : value;
+    }
+
+    private static class Generation {
+        private final Table current;
+        private final Table previous;
+
+        private Generation(Table current, Table previous) {
+            this.current = current;
+            this.previous = previous;
+        }
+    }
+
+    private static class Table {
+        private static final int INSERTED = 0;
+        private static final int EXISTS = 1;
+        private static final int FULL = 2;
+
+        private final AtomicLongArray slots;
+        private final int mask;
+        private final AtomicInteger count = new AtomicInteger();
+
+        private Table(int capacity) {
+            this.slots = new AtomicLongArray(capacity);
+            this.mask = capacity - 1;
+        }
+
+        private int insert(long fingerprint) {
+            int index = index(fingerprint);
+            for (int i = 0; i <= mask; i++) {
+                long value = slots.get(index);
+                if (value == fingerprint) {
+                    return EXISTS;
+                }
+                if (value == EMPTY) {
+                    if (slots.compareAndSet(index, EMPTY, fingerprint)) {
+                        return INSERTED;
+                    }
+                    //其他线程抢先写入了该位置, 重新检查该位置
+                    if (slots.get(index) == fingerprint) {
+                        return EXISTS;
+                    }
+                }
+                index = (index + 1) & mask;
+            }
+            return FULL;
+        }
+
+        private boolean contains(long fingerprint) {
+            int index = index(fingerprint);
+            for (int i = 0; i <= mask; i++) {
+                long value = slots.get(index);
+                if (value == fingerprint) {
+                    return true;
+                }
+                if (value == EMPTY) {
+                    return false;
+                }
+                index = (index + 1) & mask;
+            }
+            return false;
+        }
+
+        private int index(long fingerprint) {
+            return (int) (fingerprint ^ (fingerprint >>> 32)) & mask;
+        }
+    }
+}
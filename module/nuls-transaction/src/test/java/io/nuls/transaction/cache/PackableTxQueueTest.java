@@ -0,0 +1,98 @@
+package io.nuls.transaction.cache;
+
+import io.nuls.base.data.CoinData;
+import io.nuls.base.data.CoinFrom;
+import io.nuls.base.data.CoinTo;
+import io.nuls.base.data.Transaction;
+import io.nuls.core.model.ByteArrayWrapper;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class PackableTxQueueTest {
+
+    private static final byte[] ADDRESS_A = address(1);
+    private static final byte[] ADDRESS_B = address(2);
+
+    private long time = 1;
+
+    @Test
+    public void feeRateOrder() throws Exception {
+        PackableTxQueue queue = new PackableTxQueue();
+        Transaction low = createTx(ADDRESS_A, new byte[8], 100000);
+        Transaction high = createTx(ADDRESS_B, new byte[8], 1000000);
+        Transaction low2 = createTx(ADDRESS_B, new byte[]{1, 1, 1, 1, 1, 1, 1, 1}, 100000);
+        assertTrue(queue.offer(low, false));
+        assertTrue(queue.offer(high, false));
+        assertTrue(queue.offer(low2, false));
+        assertFalse(queue.offer(high, false));
+        assertEquals(3, queue.size());
+        assertEquals(low.size() + high.size() + low2.size(), queue.getDataSize());
+
+        assertSame(high, queue.poll());
+        //同费率按入队顺序, offerFirst排在前面
+        queue.offer(high, true);
+        assertSame(low2, queue.pollLast());
+        assertSame(high, queue.poll());
+        assertSame(low, queue.poll());
+        assertNull(queue.poll());
+        assertEquals(0, queue.getDataSize());
+    }
+
+    @Test
+    public void nonceChain() throws Exception {
+        PackableTxQueue queue = new PackableTxQueue();
+        Transaction parent = createTx(ADDRESS_A, new byte[8], 100000);
+        Transaction child = createTx(ADDRESS_A, nonce(parent), 1000000);
+        Transaction other = createTx(ADDRESS_B, new byte[8], 500000);
+        queue.offer(parent, false);
+        queue.offer(child, false);
+        queue.offer(other, false);
+        //子交易费率更高也不能排在父交易前面
+        assertEquals(queue.feeRate(wrapper(parent)), queue.feeRate(wrapper(child)));
+        assertSame(other, queue.poll());
+        assertSame(parent, queue.poll());
+        assertSame(child, queue.poll());
+
+        //打包时倒序还回: 子交易先入队, 父交易后入队
+        queue.offer(child, true);
+        queue.offer(parent, true);
+        assertSame(parent, queue.poll());
+        assertSame(child, queue.poll());
+
+        queue.offer(parent, false);
+        queue.offer(child, false);
+        assertSame(parent, queue.remove(wrapper(parent)));
+        assertFalse(queue.contains(wrapper(parent)));
+        assertSame(child, queue.poll());
+    }
+
+    private Transaction createTx(byte[] from, byte[] nonce, long fee) throws Exception {
+        Transaction tx = new Transaction(2);
+        tx.setTime(time++);
+        CoinData coinData = new CoinData();
+        BigInteger amount = BigInteger.valueOf(100000000L);
+        coinData.addFrom(new CoinFrom(from, 1, 1, amount.add(BigInteger.valueOf(fee)), nonce, (byte) 0));
+        coinData.addTo(new CoinTo(address(9), 1, 1, amount));
+        tx.setCoinData(coinData.serialize());
+        return tx;
+    }
+
+    private static byte[] nonce(Transaction tx) {
+        byte[] hash = tx.getHash().getBytes();
+        return Arrays.copyOfRange(hash, hash.length - 8, hash.length);
+    }
+
+    private static ByteArrayWrapper wrapper(Transaction tx) {
+        return new ByteArrayWrapper(tx.getHash().getBytes());
+    }
+
+    private static byte[] address(int b) {
+        byte[] address = new byte[23];
+        Arrays.fill(address, (byte) b);
+        return address;
+    }
+}
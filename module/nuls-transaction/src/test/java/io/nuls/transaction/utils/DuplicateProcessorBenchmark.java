@@ -0,0 +1,89 @@
+package io.nuls.transaction.utils;
+
+import io.nuls.core.crypto.HexUtil;
+
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Predicate;
+
+/**
+ * 交易去重器对比: HashSetDuplicateProcessor(hex字符串+全局锁) 与 FingerprintDuplicateProcessor(指纹+无锁)
+ * Duplicate filter comparison: HashSetDuplicateProcessor (hex strings + global lock)
+ * against FingerprintDuplicateProcessor (fingerprints, lock-free)
+ */
+public class DuplicateProcessorBenchmark {
+
+    private static final int MAX_SIZE = 1000000;
+    private static final int OPS_PER_THREAD = 500000;
+
+    public static void main(String[] args) throws Exception {
+        memory();
+        for (int threads : new int[]{8, 16, 32}) {
+            HashSetDuplicateProcessor hashSet = new HashSetDuplicateProcessor(MAX_SIZE);
+            FingerprintDuplicateProcessor fingerprint = new FingerprintDuplicateProcessor(MAX_SIZE);
+            //与BroadcastTxMessageHandler一致, 旧实现需要先转hex
+            double oldOps = run(threads, hash -> hashSet.insertAndCheck(HexUtil.encode(hash)));
+            double newOps = run(threads, fingerprint::insertAndCheck);
+            System.out.println(String.format("threads %d: HashSet %.0f ops/s, Fingerprint %.0f ops/s", threads, oldOps, newOps));
+        }
+    }
+
+    private static void memory() {
+        Random random = new Random(1);
+        long before = usedMemory();
+        HashSetDuplicateProcessor hashSet = new HashSetDuplicateProcessor(MAX_SIZE);
+        for (int i = 0; i < MAX_SIZE - 1; i++) {
+            hashSet.insertAndCheck(HexUtil.encode(FingerprintDuplicateProcessorTest.randomHash(random)));
+        }
+        long hashSetMemory = usedMemory() - before;
+        before = usedMemory();
+        FingerprintDuplicateProcessor fingerprint = new FingerprintDuplicateProcessor(MAX_SIZE);
+        for (int i = 0; i < MAX_SIZE - 1; i++) {
+            fingerprint.insertAndCheck(FingerprintDuplicateProcessorTest.randomHash(random));
+        }
+        long fingerprintMemory = usedMemory() - before;
+        System.out.println(String.format("memory with %d hashes: HashSet %dMB, Fingerprint %dMB (tables %dMB)",
+                MAX_SIZE - 1, hashSetMemory >> 20, fingerprintMemory >> 20, fingerprint.memorySize() >> 20));
+        //保持引用直到测量结束
+        System.out.println(hashSet.contains("") + " " + fingerprint.contains(new byte[32]));
+    }
+
+    private static long usedMemory() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static double run(int threads, Predicate<byte[]> processor) throws Exception {
+        byte[][][] hashes = new byte[threads][OPS_PER_THREAD][];
+        for (int t = 0; t < threads; t++) {
+            Random random = new Random(t);
+            for (int i = 0; i < OPS_PER_THREAD; i++) {
+                //约20%重复, 模拟多个节点转发同一笔交易
+                hashes[t][i] = i > 0 && random.nextInt(5) == 0 ? hashes[t][random.nextInt(i)] : FingerprintDuplicateProcessorTest.randomHash(random);
+            }
+        }
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch end = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            byte[][] list = hashes[t];
+            new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (byte[] hash : list) {
+                    processor.test(hash);
+                }
+                end.countDown();
+            }).start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        end.await();
+        return (double) threads * OPS_PER_THREAD * 1e9 / (System.nanoTime() - begin);
+    }
+}
@@ -0,0 +1,119 @@
+package io.nuls.transaction.utils;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.Assert.*;
+
+public class FingerprintDuplicateProcessorTest {
+
+    @Test
+    public void insertAndCheck() {
+        FingerprintDuplicateProcessor processor = new FingerprintDuplicateProcessor(1000);
+        byte[] hash = randomHash(new Random(1));
+        assertFalse(processor.contains(hash));
+        assertTrue(processor.insertAndCheck(hash));
+        assertFalse(processor.insertAndCheck(hash));
+        assertTrue(processor.contains(hash));
+
+        //超过一代容量后仍能识别, 超过两代后被淘汰
+        Random random = new Random(2);
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(processor.insertAndCheck(randomHash(random)));
+        }
+        assertTrue(processor.contains(hash));
+        for (int i = 0; i < 1000; i++) {
+            processor.insertAndCheck(randomHash(random));
+        }
+        assertFalse(processor.contains(hash));
+    }
+
+    @Test
+    public void concurrentInsert() throws Exception {
+        FingerprintDuplicateProcessor processor = new FingerprintDuplicateProcessor(100000);
+        int threads = 16;
+        int count = 20000;
+        AtomicInteger inserted = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            new Thread(() -> {
+                //所有线程插入相同的hash, 每个hash只能有一个线程插入成功
+                Random random = new Random(3);
+                for (int i = 0; i < count; i++) {
+                    if (processor.insertAndCheck(randomHash(random))) {
+                        inserted.incrementAndGet();
+                    }
+                }
+                latch.countDown();
+            }).start();
+        }
+        latch.await();
+        assertEquals(count, inserted.get());
+    }
+
+    @Test
+    public void concurrentInsertWhileRotating() throws Exception {
+        //每轮插入count个新hash, 每两轮轮换一次, 轮换与相同hash的并发插入交错进行
+        int count = 64;
+        int rounds = 2000;
+        int threads = 8;
+        FingerprintDuplicateProcessor processor = new FingerprintDuplicateProcessor(count * 2);
+        Random random = new Random(4);
+        List<List<byte[]>> hashes = new ArrayList<>();
+        for (int r = 0; r < rounds; r++) {
+            List<byte[]> round = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                round.add(randomHash(random));
+            }
+            hashes.add(round);
+        }
+        AtomicIntegerArray inserted = new AtomicIntegerArray(rounds * count);
+        CyclicBarrier barrier = new CyclicBarrier(threads);
+        CountDownLatch latch = new CountDownLatch(threads);
+        AtomicInteger errors = new AtomicInteger();
+        for (int t = 0; t < threads; t++) {
+            int seed = t;
+            new Thread(() -> {
+                try {
+                    Random shuffle = new Random(seed);
+                    List<Integer> order = new ArrayList<>();
+                    for (int i = 0; i < count; i++) {
+                        order.add(i);
+                    }
+                    for (int r = 0; r < rounds; r++) {
+                        Collections.shuffle(order, shuffle);
+                        barrier.await();
+                        for (int i : order) {
+                            if (processor.insertAndCheck(hashes.get(r).get(i))) {
+                                inserted.incrementAndGet(r * count + i);
+                            }
+                        }
+                    }
+                } catch (Exception e) {
+                    errors.incrementAndGet();
+                } finally {
+                    latch.countDown();
+                }
+            }).start();
+        }
+        latch.await();
+        assertEquals(0, errors.get());
+        for (int i = 0; i < inserted.length(); i++) {
+            assertEquals("hash " + i, 1, inserted.get(i));
+        }
+    }
+
+    static byte[] randomHash(Random random) {
+        byte[] hash = new byte[32];
+        random.nextBytes(hash);
+        return hash;
+    }
+}